@@ -19,6 +19,7 @@ import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
+import org.apache.arrow.vector.VectorSchemaRoot;
 
 /**
  * Dremio-specific {@link ResultSet}.
@@ -34,6 +35,20 @@ public interface DremioResultSet extends ResultSet  {
    */
   String getQueryId() throws SQLException;
 
+  /**
+   * Advances to the next batch of records and exposes it as Arrow vectors, without going through the per-row
+   * accessors. Intended for clients (data frame and Spark extractors...) that consume results column by column.
+   * <p>
+   *   The returned vectors are owned by this result set and are only valid until the next call to this method,
+   *   to {@link #next()} or to {@link #close()}. Records of the current batch not yet read with {@link #next()}
+   *   are skipped. The schema of the batches may change from one batch to the next.
+   * </p>
+   *
+   * @return  the next batch, or {@code null} after the last batch
+   * @throws  SQLException  if this method is called on a closed result set or if the query failed
+   */
+  VectorSchemaRoot nextBatch() throws SQLException;
+
   /**
    * {@inheritDoc}
    * <p>
@@ -27,6 +27,9 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.calcite.avatica.AvaticaStatement;
 import org.apache.calcite.avatica.ColumnMetaData;
 import org.apache.calcite.avatica.Meta;
@@ -46,6 +49,7 @@ import com.dremio.exec.proto.UserProtos.PreparedStatement;
 import com.dremio.common.utils.protos.QueryIdHelper;
 import com.dremio.exec.record.BatchSchema;
 import com.dremio.exec.record.RecordBatchLoader;
+import com.dremio.exec.record.VectorWrapper;
 import com.dremio.exec.rpc.ConnectionThrottle;
 import com.dremio.exec.store.ischema.InfoSchemaConstants;
 import com.dremio.jdbc.SchemaChangeListener;
@@ -629,6 +633,49 @@ class DremioCursor implements Cursor {
     }
   }
 
+  /**
+   * Advances this cursor to the next batch of records, skipping any record of
+   * the current batch not yet returned by {@link #next()}.
+   *
+   * @return  the vectors of the next batch (owned by this cursor and valid
+   *   until it advances again), or null when after end of results
+   */
+  VectorSchemaRoot nextBatch() throws SQLException {
+    if ( ! initialSchemaLoaded ) {
+      throw new IllegalStateException(
+          "nextBatch() called but loadInitialSchema() was not called" );
+    }
+
+    if ( afterLastRow ) {
+      return null;
+    }
+    else if ( returnTrueForNextCallToNext ) {
+      // First batch was loaded by loadInitialSchema() and not consumed yet.
+      returnTrueForNextCallToNext = false;
+    }
+    else {
+      // Mark current batch as fully read so that the next one gets loaded.
+      currentRecordNumber =
+          Math.max( currentRecordNumber, currentBatchHolder.getRecordCount() - 1 );
+      accessors.clearLastColumnIndexedInRow();
+      if ( ! nextRowInternally() ) {
+        return null;
+      }
+    }
+
+    final int recordCount = currentBatchHolder.getRecordCount();
+    currentRecordNumber = recordCount - 1;
+    currentRowNumber = Math.max( currentRowNumber, -1 ) + recordCount;
+
+    final List<Field> fields = new ArrayList<>();
+    final List<FieldVector> vectors = new ArrayList<>();
+    for ( VectorWrapper<?> wrapper : currentBatchHolder ) {
+      fields.add( wrapper.getField() );
+      vectors.add( (FieldVector) wrapper.getValueVector() );
+    }
+    return new VectorSchemaRoot( fields, vectors, recordCount );
+  }
+
   public void cancel() {
     close();
   }
@@ -42,6 +42,7 @@ import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.apache.arrow.vector.VectorSchemaRoot;
 import org.apache.calcite.avatica.AvaticaResultSet;
 import org.apache.calcite.avatica.AvaticaSite;
 import org.apache.calcite.avatica.AvaticaStatement;
@@ -1889,6 +1890,15 @@ class DremioResultSetImpl extends AvaticaResultSet implements DremioResultSet {
     return null;
   }
 
+  @Override
+  public VectorSchemaRoot nextBatch() throws SQLException {
+    throwIfClosed();
+    if (cursor instanceof DremioCursor) {
+      return ((DremioCursor) cursor).nextBatch();
+    }
+    return null;
+  }
+
 
   ////////////////////////////////////////
 
@@ -18,6 +18,7 @@ package com.dremio.jdbc;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.core.StringContains.containsString;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
@@ -26,6 +27,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 
+import org.apache.arrow.vector.VectorSchemaRoot;
 import org.junit.Test;
 
 
@@ -131,6 +133,44 @@ public class DremioResultSetTest extends JdbcWithServerTestBase {
     assertThat( "getRow() after last row", resultSet.getRow(), equalTo( 0 ) );
   }
 
+  @Test
+  public void test_nextBatch_returnsAllRecords()
+    throws Exception
+  {
+    Statement statement = getConnection().createStatement();
+    DremioResultSet resultSet =
+        statement.executeQuery( "SELECT id \n" +
+                                "FROM cp.\"donuts.json\"" ).unwrap( DremioResultSet.class );
+
+    int recordCount = 0;
+    VectorSchemaRoot batch;
+    while ( ( batch = resultSet.nextBatch() ) != null ) {
+      assertThat( batch.getFieldVectors().size(), is( 1 ) );
+      assertThat( batch.getSchema().getFields().get( 0 ).getName(), is( "id" ) );
+      recordCount += batch.getRowCount();
+    }
+
+    assertThat( recordCount, is( 5 ) );
+    assertThat( resultSet.nextBatch(), nullValue() );
+    assertThat( resultSet.next(), is( false ) );
+  }
+
+  @Test
+  public void test_nextBatch_skipsRestOfCurrentBatch()
+    throws Exception
+  {
+    Statement statement = getConnection().createStatement();
+    DremioResultSet resultSet =
+        statement.executeQuery( "VALUES (1), (2)" ).unwrap( DremioResultSet.class );
+
+    assertThat( resultSet.next(), is( true ) );
+    assertThat( resultSet.getInt( 1 ), is( 1 ) );
+
+    // Single batch query:  the remaining row is skipped.
+    assertThat( resultSet.nextBatch(), nullValue() );
+    assertThat( resultSet.next(), is( false ) );
+  }
+
   // TODO:  Ideally, test other methods.
 
 }
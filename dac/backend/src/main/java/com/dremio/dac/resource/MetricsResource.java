@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.dac.resource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import javax.annotation.security.RolesAllowed;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+import com.dremio.dac.annotations.RestResource;
+import com.dremio.dac.annotations.Secured;
+import com.dremio.metrics.Metrics;
+import com.dremio.metrics.PrometheusTextFormat;
+import com.google.common.base.Charsets;
+
+/**
+ * Exports the current values of the metrics of this node in the Prometheus text format.
+ */
+@RestResource
+@Secured
+@RolesAllowed({"admin"})
+@Path("/metrics")
+public class MetricsResource {
+
+  @GET
+  @Produces(PrometheusTextFormat.CONTENT_TYPE)
+  public Response getMetrics() {
+    final StreamingOutput output = new StreamingOutput() {
+      @Override
+      public void write(OutputStream outputStream) throws IOException {
+        final Writer writer = new OutputStreamWriter(outputStream, Charsets.UTF_8);
+        PrometheusTextFormat.write(Metrics.getInstance(), writer);
+        writer.flush();
+      }
+    };
+    return Response.ok(output).build();
+  }
+}
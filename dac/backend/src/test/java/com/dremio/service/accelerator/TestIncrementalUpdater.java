@@ -16,6 +16,7 @@
 package com.dremio.service.accelerator;
 
 import static com.dremio.service.users.SystemUser.SYSTEM_USERNAME;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 import java.util.concurrent.CountDownLatch;
@@ -47,13 +48,35 @@ import com.google.common.collect.ImmutableList;
 public class TestIncrementalUpdater extends BaseTestServer {
   @Test
   public void testSubstitutionShuttle() throws Exception {
+    final RelNode logicalPlan = getLogicalPlan("select n_regionkey, max(n_nationkey) as max_nation from cp.\"tpch/nation.parquet\" group by n_regionkey");
+    long currentTime = System.currentTimeMillis();
+    RelNode newLogicalPlan = logicalPlan.accept(new FileMaterializationShuttle(currentTime));
+    assertNotNull(newLogicalPlan.getRowType().getField(IncrementalUpdateUtils.UPDATE_COLUMN, false, false));
+  }
+
+  @Test
+  public void testJoinShuttle() throws Exception {
+    final RelNode logicalPlan = getLogicalPlan("select n_name, r_name from cp.\"tpch/nation.parquet\" " +
+      "join cp.\"tpch/region.parquet\" on n_regionkey = r_regionkey");
+    long currentTime = System.currentTimeMillis();
+    // only the nation table is incrementally updated, region is a dimension table
+    RelNode newLogicalPlan = logicalPlan.accept(
+      new FileMaterializationShuttle(ImmutableList.of("cp", "tpch/nation.parquet"), currentTime));
+    assertNotNull(newLogicalPlan.getRowType().getField(IncrementalUpdateUtils.UPDATE_COLUMN, false, false));
+    assertEquals(logicalPlan.getRowType().getFieldCount() + 1, newLogicalPlan.getRowType().getFieldCount());
+  }
+
+  /**
+   * @return the plan of a query, as given to the logical planning phase
+   */
+  public static RelNode getLogicalPlan(String sql) throws Exception {
     JobsService jobsService = l(JobsService.class);
     DatasetPath datsetPath = new DatasetPath(ImmutableList.of("cp", "tpch/nation.parquet"));
     final AtomicReference<RelNode> logicalPlan = new AtomicReference<>();
     final CountDownLatch latch = new CountDownLatch(1);
     final DeferredException ex = new DeferredException();
     Job job = jobsService.submitJob(JobRequest.newBuilder()
-        .setSqlQuery(new SqlQuery("select n_regionkey, max(n_nationkey) as max_nation from cp.\"tpch/nation.parquet\" group by n_regionkey", SYSTEM_USERNAME))
+        .setSqlQuery(new SqlQuery(sql, SYSTEM_USERNAME))
         .setQueryType(QueryType.JDBC)
         .setDatasetPath(datsetPath.toNamespaceKey())
         .setDatasetVersion(DatasetVersion.newVersion())
@@ -88,9 +111,7 @@ public class TestIncrementalUpdater extends BaseTestServer {
       Assert.fail("Acceleration job was not completed within allowed timeout.");
     }
     ex.close();
-    long currentTime = System.currentTimeMillis();
-    RelNode newLogicalPlan = logicalPlan.get().accept(new FileMaterializationShuttle(currentTime));
-    assertNotNull(newLogicalPlan.getRowType().getField(IncrementalUpdateUtils.UPDATE_COLUMN, false, false));
     job.getData().close();
+    return logicalPlan.get();
   }
 }
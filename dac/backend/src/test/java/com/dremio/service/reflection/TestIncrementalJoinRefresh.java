@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.reflection;
+
+import static com.dremio.service.accelerator.TestIncrementalUpdater.getLogicalPlan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.apache.calcite.rel.RelNode;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.dac.server.BaseTestServer;
+import com.dremio.service.namespace.NamespaceKey;
+import com.dremio.service.namespace.NamespaceService;
+import com.dremio.service.namespace.dataset.proto.AccelerationSettings;
+import com.dremio.service.namespace.dataset.proto.DatasetConfig;
+import com.dremio.service.namespace.dataset.proto.DatasetType;
+import com.dremio.service.namespace.dataset.proto.ReadDefinition;
+import com.dremio.service.namespace.dataset.proto.RefreshMethod;
+import com.dremio.service.reflection.proto.Materialization;
+import com.dremio.service.reflection.proto.ReflectionEntry;
+import com.dremio.service.reflection.proto.ReflectionId;
+import com.dremio.service.reflection.proto.Refresh;
+import com.dremio.service.reflection.proto.RefreshDecision;
+import com.dremio.service.reflection.store.MaterializationStore;
+import com.google.common.collect.ImmutableList;
+
+import io.protostuff.ByteString;
+
+/**
+ * Tests incremental refreshes of reflections joining an incrementally refreshed table with dimension tables
+ */
+public class TestIncrementalJoinRefresh extends BaseTestServer {
+  private static final NamespaceKey NATION = new NamespaceKey(ImmutableList.of("cp", "tpch/nation.parquet"));
+  private static final NamespaceKey REGION = new NamespaceKey(ImmutableList.of("cp", "tpch/region.parquet"));
+  private static final String JOIN_QUERY = "select n_name, r_name from cp.\"tpch/nation.parquet\" %s join %s " +
+    "on n_regionkey = r_regionkey";
+  private static final String REGION_TABLE = "cp.\"tpch/region.parquet\"";
+
+  private ReflectionSettings reflectionSettings;
+
+  @Before
+  public void setupReflectionSettings() {
+    // nation is incrementally refreshed, other tables are dimension tables
+    reflectionSettings = mock(ReflectionSettings.class);
+    when(reflectionSettings.getReflectionSettings(any(NamespaceKey.class)))
+      .thenReturn(new AccelerationSettings().setMethod(RefreshMethod.FULL));
+    when(reflectionSettings.getReflectionSettings(NATION))
+      .thenReturn(new AccelerationSettings().setMethod(RefreshMethod.INCREMENTAL));
+  }
+
+  private RefreshMethod getRefreshMethod(String joinType, String dimension) throws Exception {
+    final RelNode plan = getLogicalPlan(String.format(JOIN_QUERY, joinType, dimension));
+    return IncrementalUpdateUtils.extractRefreshSettings(plan, reflectionSettings).getMethod();
+  }
+
+  @Test
+  public void testInnerJoinWithFilteredDimension() throws Exception {
+    final RelNode plan = getLogicalPlan(String.format(JOIN_QUERY, "",
+      "(select r_regionkey, upper(r_name) as r_name from " + REGION_TABLE + " where r_regionkey > 0)"));
+    assertEquals(RefreshMethod.INCREMENTAL, IncrementalUpdateUtils.extractRefreshSettings(plan, reflectionSettings).getMethod());
+    assertEquals(NATION.getPathComponents(), IncrementalUpdateUtils.findRefreshTable(plan, reflectionSettings));
+    assertEquals(ImmutableList.of(REGION), IncrementalUpdateUtils.findDimensionTables(plan, reflectionSettings));
+  }
+
+  @Test
+  public void testOuterJoinOnDimensionSide() throws Exception {
+    // all rows of nation are kept, the new rows of nation are joined with the whole region table
+    assertEquals(RefreshMethod.INCREMENTAL, getRefreshMethod("left", REGION_TABLE));
+  }
+
+  @Test
+  public void testOuterJoinOnFactSide() throws Exception {
+    // rows of region without nation would need to be removed once a matching nation is added
+    assertEquals(RefreshMethod.FULL, getRefreshMethod("right", REGION_TABLE));
+    assertEquals(RefreshMethod.FULL, getRefreshMethod("full", REGION_TABLE));
+  }
+
+  @Test
+  public void testAggregatedDimension() throws Exception {
+    assertEquals(RefreshMethod.FULL, getRefreshMethod("",
+      "(select r_regionkey, max(r_name) as r_name from " + REGION_TABLE + " group by r_regionkey)"));
+  }
+
+  @Test
+  public void testJoinOfIncrementalTables() throws Exception {
+    when(reflectionSettings.getReflectionSettings(REGION))
+      .thenReturn(new AccelerationSettings().setMethod(RefreshMethod.INCREMENTAL));
+    assertEquals(RefreshMethod.FULL, getRefreshMethod("", REGION_TABLE));
+  }
+
+  private static DatasetConfig newDimension(String readSignature) {
+    final ReadDefinition readDefinition = new ReadDefinition();
+    if (readSignature != null) {
+      readDefinition.setReadSignature(ByteString.copyFromUtf8(readSignature));
+    }
+    return new DatasetConfig()
+      .setType(DatasetType.PHYSICAL_DATASET_SOURCE_FILE)
+      .setReadDefinition(readDefinition);
+  }
+
+  @Test
+  public void testDimensionChange() throws Exception {
+    final RelNode plan = getLogicalPlan(String.format(JOIN_QUERY, "", REGION_TABLE));
+
+    final ReflectionEntry entry = new ReflectionEntry()
+      .setId(new ReflectionId("reflection"))
+      .setDatasetId("dataset")
+      .setRefreshMethod(RefreshMethod.INCREMENTAL)
+      .setRefreshTableList(NATION.getPathComponents());
+    final Materialization materialization = new Materialization().setReflectionId(entry.getId());
+
+    final NamespaceService namespace = mock(NamespaceService.class);
+    when(namespace.findDatasetByUUID("dataset"))
+      .thenReturn(new DatasetConfig().setType(DatasetType.PHYSICAL_DATASET_SOURCE_FILE));
+    when(namespace.getDataset(REGION)).thenReturn(newDimension("v1"));
+
+    final MaterializationStore materializationStore = mock(MaterializationStore.class);
+    when(materializationStore.getMostRecentRefresh(any(ReflectionId.class)))
+      .thenReturn(new Refresh().setUpdateId(10L).setSeriesId(1L).setSeriesOrdinal(0));
+
+    final RefreshDecision first = RefreshHandler.getRefreshDecision(entry, materialization, reflectionSettings,
+      namespace, materializationStore, plan, null);
+    assertEquals(RefreshMethod.INCREMENTAL, first.getAccelerationSettings().getMethod());
+    assertEquals(NATION.getPathComponents(), first.getRefreshTableList());
+    entry.setDatasetHash(first.getDatasetHash());
+
+    // same dimension, new rows of nation are appended
+    final RefreshDecision unchanged = RefreshHandler.getRefreshDecision(entry, materialization, reflectionSettings,
+      namespace, materializationStore, plan, null);
+    assertFalse(unchanged.getInitialRefresh());
+    assertEquals(first.getDatasetHash(), unchanged.getDatasetHash());
+    assertEquals(10L, (long) unchanged.getUpdateId());
+
+    // region changed, the materialization is rebuilt
+    when(namespace.getDataset(REGION)).thenReturn(newDimension("v2"));
+    final RefreshDecision changed = RefreshHandler.getRefreshDecision(entry, materialization, reflectionSettings,
+      namespace, materializationStore, plan, null);
+    assertNotEquals(first.getDatasetHash(), changed.getDatasetHash());
+    assertTrue(changed.getInitialRefresh());
+
+    // changes of region can't be detected, always fully refreshed
+    when(namespace.getDataset(REGION)).thenReturn(newDimension(null));
+    final RefreshDecision undetectable = RefreshHandler.getRefreshDecision(entry, materialization, reflectionSettings,
+      namespace, materializationStore, plan, null);
+    assertEquals(RefreshMethod.FULL, undetectable.getAccelerationSettings().getMethod());
+    assertNull(undetectable.getRefreshTableList());
+    assertTrue(undetectable.getInitialRefresh());
+  }
+}
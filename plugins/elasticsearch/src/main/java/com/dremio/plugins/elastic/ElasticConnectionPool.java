@@ -109,6 +109,9 @@ public class ElasticConnectionPool implements AutoCloseable {
   //Version 5.3.x or higher
   private static final Version ELASTICSEARCH_VERSION_5_3_X = new Version(5, 3, 0);
 
+  // Version 6.4.x or higher, composite aggregations with missing buckets
+  private static final Version ELASTICSEARCH_VERSION_6_4_X = new Version(6, 4, 0);
+
   enum TLSValidationMode {
     STRICT,
     VERIFY_CA,
@@ -151,6 +154,12 @@ public class ElasticConnectionPool implements AutoCloseable {
    */
   private boolean enableContains;
 
+  /**
+   * Flag to indicate if composite aggregations can be used to push down aggregations.
+   * Null group keys are only supported (through missing buckets) starting with v6.4.0
+   */
+  private boolean enableCompositeAggregations;
+
   /**
    * The lowest version found in the cluster.
    */
@@ -344,7 +353,8 @@ public class ElasticConnectionPool implements AutoCloseable {
     return new SourceCapabilities(
         new BooleanCapabilityValue(ElasticsearchStoragePlugin.ENABLE_V5_FEATURES, enable5vFeatures),
         new BooleanCapabilityValue(ElasticsearchStoragePlugin.SUPPORTS_NEW_FEATURES, enableNewFeatures),
-        new BooleanCapabilityValue(SourceCapabilities.SUPPORTS_CONTAINS, enableContains)
+        new BooleanCapabilityValue(SourceCapabilities.SUPPORTS_CONTAINS, enableContains),
+        new BooleanCapabilityValue(ElasticsearchStoragePlugin.SUPPORTS_COMPOSITE_AGGREGATIONS, enableCompositeAggregations)
         );
   }
 
@@ -444,6 +454,8 @@ public class ElasticConnectionPool implements AutoCloseable {
 
     enableContains = minVersionInCluster.compareTo(ELASTICSEARCH_VERSION_5_3_X) >= 0;
 
+    enableCompositeAggregations = minVersionInCluster.compareTo(ELASTICSEARCH_VERSION_6_4_X) >= 0;
+
     return hosts;
   }
 
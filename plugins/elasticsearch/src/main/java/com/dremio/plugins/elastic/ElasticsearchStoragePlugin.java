@@ -83,6 +83,7 @@ public class ElasticsearchStoragePlugin implements StoragePlugin {
 
   public static final BooleanCapability ENABLE_V5_FEATURES = new BooleanCapability("enable_elastic_v5_feature", false);
   public static final BooleanCapability SUPPORTS_NEW_FEATURES = new BooleanCapability("supports_new_features", false);
+  public static final BooleanCapability SUPPORTS_COMPOSITE_AGGREGATIONS = new BooleanCapability("supports_composite_aggregations", false);
 
   private final String name;
   private final SabotContext context;
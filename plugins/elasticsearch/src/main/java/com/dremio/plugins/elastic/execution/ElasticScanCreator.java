@@ -67,6 +67,17 @@ public class ElasticScanCreator implements ProducerOperator.Creator<Elasticsearc
             return input.getHost();
           }}));
 
+        if (spec.getAggregation() != null) {
+          readers.add(new ElasticsearchAggregateRecordReader(
+              context,
+              spec,
+              split,
+              connection,
+              subScan.getColumns(),
+              subScan.getSchema()));
+          continue;
+        }
+
         readers.add(new ElasticsearchRecordReader(
             plugin,
             Iterables.getOnlyElement(subScan.getReferencedTables()),
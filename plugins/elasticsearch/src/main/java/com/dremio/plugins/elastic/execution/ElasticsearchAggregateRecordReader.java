@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.plugins.elastic.execution;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.types.pojo.Field;
+
+import com.dremio.common.exceptions.ExecutionSetupException;
+import com.dremio.common.exceptions.UserException;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.elastic.proto.ElasticReaderProto.ElasticSplitXattr;
+import com.dremio.exec.record.BatchSchema;
+import com.dremio.exec.store.AbstractRecordReader;
+import com.dremio.plugins.elastic.ElasticActions.Search;
+import com.dremio.plugins.elastic.ElasticActions.SearchBytes;
+import com.dremio.plugins.elastic.ElasticConnectionPool.ElasticConnection;
+import com.dremio.plugins.elastic.planning.ElasticsearchAggregateSpec;
+import com.dremio.plugins.elastic.planning.ElasticsearchAggregateSpec.Column;
+import com.dremio.plugins.elastic.planning.ElasticsearchScanSpec;
+import com.dremio.sabot.exec.context.OperatorContext;
+import com.dremio.sabot.exec.context.OperatorStats;
+import com.dremio.sabot.op.scan.OutputMutator;
+import com.dremio.service.namespace.dataset.proto.DatasetSplit;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Charsets;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+/**
+ * Record reader for an aggregation pushed down into Elastic. Returns the buckets of the aggregation over the shard of
+ * the split, paginating through a composite aggregation with its after key.
+ */
+public class ElasticsearchAggregateRecordReader extends AbstractRecordReader {
+
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ElasticsearchAggregateRecordReader.class);
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final ElasticConnection connection;
+  private final OperatorStats stats;
+  private final String resource;
+  private final ElasticsearchScanSpec spec;
+  private final ElasticsearchAggregateSpec aggregation;
+  private final ElasticSplitXattr splitAttributes;
+  private final BatchSchema schema;
+
+  private ValueVector[] vectors;
+  private ObjectNode query;
+  private Iterator<JsonNode> buckets = Collections.emptyIterator();
+  private boolean lastPage;
+
+  public ElasticsearchAggregateRecordReader(
+      OperatorContext context,
+      ElasticsearchScanSpec spec,
+      DatasetSplit split,
+      ElasticConnection connection,
+      List<SchemaPath> columns,
+      BatchSchema schema) throws InvalidProtocolBufferException {
+    super(context, columns);
+    this.spec = spec;
+    this.aggregation = spec.getAggregation();
+    this.stats = context == null ? null : context.getStats();
+    this.connection = connection;
+    this.splitAttributes = split == null ? null : ElasticSplitXattr.parseFrom(split.getExtendedProperty().toByteArray());
+    this.resource = split == null ? spec.getResource() : splitAttributes.getResource();
+    this.schema = schema;
+  }
+
+  @Override
+  public void setup(OutputMutator output) throws ExecutionSetupException {
+    final List<Field> fields = schema.getFields();
+    vectors = new ValueVector[fields.size()];
+    for (int i = 0; i < fields.size(); i++) {
+      vectors[i] = output.addField(fields.get(i), ValueVector.class);
+    }
+
+    try {
+      query = (ObjectNode) MAPPER.readTree(spec.getQuery());
+    } catch (IOException e) {
+      throw new ExecutionSetupException("Invalid Elastic aggregation query.", e);
+    }
+  }
+
+  @Override
+  public int next() {
+    int count = 0;
+    while (count < numRowsPerBatch) {
+      if (!buckets.hasNext()) {
+        if (lastPage) {
+          break;
+        }
+        buckets = getNextPage();
+        continue;
+      }
+
+      writeBucket(buckets.next(), count);
+      count++;
+    }
+
+    for (ValueVector vector : vectors) {
+      vector.setValueCount(count);
+    }
+    return count;
+  }
+
+  private Iterator<JsonNode> getNextPage() {
+    final Search<byte[]> search = new SearchBytes()
+        .setQuery(query.toString())
+        .setResource(resource);
+
+    if (splitAttributes != null) {
+      search.setParameter("preference", "_shards:" + splitAttributes.getShard());
+    }
+
+    final byte[] bytes;
+    try {
+      if (stats != null) {
+        stats.startWait();
+      }
+      bytes = connection.execute(search);
+    } finally {
+      if (stats != null) {
+        stats.stopWait();
+      }
+    }
+
+    final JsonNode groups;
+    try {
+      groups = MAPPER.readTree(bytes).path("aggregations").path(ElasticsearchAggregateSpec.GROUPS);
+    } catch (IOException e) {
+      throw UserException.dataReadError(e)
+          .message("Failure while reading Elastic aggregation.")
+          .addContext("Resource", resource)
+          .addContext("Shard", splitAttributes == null ? "all" : splitAttributes.getShard())
+          .addContext("Query", query.toString())
+          .build(logger);
+    }
+
+    if (groups.isMissingNode()) {
+      throw UserException.dataReadError()
+          .message("Elastic response doesn't include the aggregation.")
+          .addContext("Resource", resource)
+          .addContext("Response", new String(bytes, Charsets.UTF_8))
+          .build(logger);
+    }
+
+    if (!aggregation.isGrouped()) {
+      // a single bucket
+      lastPage = true;
+      return Collections.singletonList(groups).iterator();
+    }
+
+    final JsonNode page = groups.path("buckets");
+    final JsonNode afterKey = groups.get("after_key");
+    if (page.size() < aggregation.getPageSize() || afterKey == null) {
+      lastPage = true;
+    } else {
+      ((ObjectNode) query.path("aggregations").path(ElasticsearchAggregateSpec.GROUPS).path("composite"))
+          .set("after", afterKey);
+    }
+    return page.iterator();
+  }
+
+  private void writeBucket(JsonNode bucket, int index) {
+    final List<Column> columns = aggregation.getColumns();
+    for (int i = 0; i < columns.size(); i++) {
+      final Column column = columns.get(i);
+      final JsonNode value;
+      switch (column.getSource()) {
+      case GROUP_KEY:
+        value = bucket.path("key").path(column.getName());
+        break;
+      case DOC_COUNT:
+        value = bucket.path("doc_count");
+        break;
+      case METRIC:
+        if (column.getCountName() != null && bucket.path(column.getCountName()).path("value").asLong() == 0) {
+          continue;
+        }
+        value = bucket.path(column.getName()).path("value");
+        break;
+      default:
+        throw new IllegalStateException("Unknown aggregation source " + column.getSource());
+      }
+
+      if (value.isMissingNode() || value.isNull()) {
+        continue;
+      }
+
+      final ValueVector vector = vectors[i];
+      // BIGINT outputs are counts or group keys, which Elastic returns as integers. Metrics are doubles, the rule only
+      // pushes down those which are exact as doubles.
+      if (vector instanceof BigIntVector) {
+        ((BigIntVector) vector).setSafe(index, value.asLong());
+      } else if (vector instanceof IntVector) {
+        ((IntVector) vector).setSafe(index, value.asInt());
+      } else if (vector instanceof Float8Vector) {
+        ((Float8Vector) vector).setSafe(index, value.asDouble());
+      } else if (vector instanceof VarCharVector) {
+        ((VarCharVector) vector).setSafe(index, value.asText().getBytes(Charsets.UTF_8));
+      } else {
+        throw new IllegalStateException("Unsupported aggregation output " + vector.getField());
+      }
+    }
+  }
+
+  @Override
+  public void close() throws Exception {
+    vectors = null;
+  }
+}
@@ -51,7 +51,6 @@ import com.dremio.exec.vector.complex.fn.JsonWriter;
 import com.dremio.plugins.elastic.ElasticActions.DeleteScroll;
 import com.dremio.plugins.elastic.ElasticActions.Search;
 import com.dremio.plugins.elastic.ElasticActions.SearchBytes;
-import com.dremio.plugins.elastic.ElasticActions.SearchScroll;
 import com.dremio.plugins.elastic.ElasticConnectionPool.ElasticConnection;
 import com.dremio.plugins.elastic.ElasticsearchConf;
 import com.dremio.plugins.elastic.ElasticsearchConstants;
@@ -113,6 +112,7 @@ public class ElasticsearchRecordReader extends AbstractRecordReader {
   private long totalSize;
   private long totalCount;
   private String scrollId;
+  private ScrollPages pages;
   private VectorContainerWriter complexWriter;
   private ElasticsearchJsonReader jsonReader;
   private State state = State.INIT;
@@ -258,6 +258,8 @@ public class ElasticsearchRecordReader extends AbstractRecordReader {
     if (fetch >= 0 &&  fetch < searchSize) {
       searchSize = fetch;
     }
+    // a limit or sample below the scroll size is usually satisfied by the first page, don't request pages ahead of time
+    final boolean prefetchPages = searchSize == config.getScrollSize() && context.getOptions().getOption(ExecConstants.ELASTIC_SCROLL_PREFETCH);
 
     final Search<byte[]> search = new SearchBytes()
         .setQuery(query)
@@ -302,6 +304,7 @@ public class ElasticsearchRecordReader extends AbstractRecordReader {
         .build(logger);
     }
 
+    pages = new ScrollPages(connection, config.getScrollTimeoutFormatted(), scrollId, totalSize, searchSize, prefetchPages);
     state = State.READ;
   }
 
@@ -310,10 +313,7 @@ public class ElasticsearchRecordReader extends AbstractRecordReader {
       if (stats != null) {
         stats.startWait();
       }
-      SearchScroll searchScroll = new SearchScroll()
-          .setScrollId(scrollId)
-          .setScrollTimeout(config.getScrollTimeoutFormatted());
-      return connection.execute(searchScroll);
+      return pages.next();
     } finally {
       if (stats != null) {
         stats.stopWait();
@@ -369,6 +369,7 @@ public class ElasticsearchRecordReader extends AbstractRecordReader {
         if(!badStreamBreak){
           jsonReader.setSource(bytes);
           scrollId = jsonReader.getScrollAndTotalSizeThenSeekToHits().getKey();
+          pages.received(scrollId);
           continue;
         }
 
@@ -439,6 +440,10 @@ public class ElasticsearchRecordReader extends AbstractRecordReader {
       return; // scroll id is not yet set
     }
 
+    if (pages != null) {
+      pages.close();
+    }
+
     // TODO(DX-10051): fix rare race condition: above block assumes scrollId is not set, but the fragment thread
     // could be in #getFirstPage, right before setting scrollId. In this case, the scroll will never be deleted.
 
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.plugins.elastic.execution;
+
+import com.dremio.common.exceptions.UserException;
+import com.dremio.plugins.elastic.ElasticActions.SearchScroll;
+import com.dremio.plugins.elastic.ElasticConnectionPool.ElasticConnection;
+import com.google.common.util.concurrent.CheckedFuture;
+
+/**
+ * Fetches the pages of an Elasticsearch scroll after the first one.
+ *
+ * When prefetching, the next page is requested as soon as a page is received (and its scroll id known), so that
+ * the Elasticsearch round trip overlaps with the parsing of the received page. Pages are only requested ahead while
+ * the pages requested so far might not contain all the hits, as requesting a page past the last hit would be wasted.
+ */
+class ScrollPages implements AutoCloseable {
+  private final ElasticConnection connection;
+  private final String scrollTimeout;
+  private final int pageSize;
+  private final boolean prefetch;
+  private final long totalSize;
+
+  private String scrollId;
+  // upper bound of the number of hits returned by the pages requested so far
+  private long requestedCount;
+  // next page, requested while the current page is being parsed
+  private CheckedFuture<byte[], UserException> nextPage;
+
+  /**
+   * @param scrollId scroll id returned with the first page
+   * @param totalSize total number of hits
+   * @param pageSize number of hits requested per page
+   * @param prefetch whether to request pages ahead of time
+   */
+  ScrollPages(ElasticConnection connection, String scrollTimeout, String scrollId, long totalSize, int pageSize,
+      boolean prefetch) {
+    this.connection = connection;
+    this.scrollTimeout = scrollTimeout;
+    this.pageSize = pageSize;
+    this.prefetch = prefetch;
+    this.totalSize = totalSize;
+    this.requestedCount = pageSize;
+    received(scrollId);
+  }
+
+  /**
+   * Record the scroll id of the page just received, and request the next page if prefetching.
+   */
+  void received(String scrollId) {
+    this.scrollId = scrollId;
+    if (!prefetch || nextPage != null || requestedCount >= totalSize) {
+      return;
+    }
+
+    nextPage = connection.executeAsync(newSearchScroll());
+    requestedCount += pageSize;
+  }
+
+  /**
+   * @return the next page, waiting for it if it was requested ahead of time
+   * @throws UserException if the page request failed
+   */
+  byte[] next() {
+    if (nextPage != null) {
+      final CheckedFuture<byte[], UserException> page = nextPage;
+      nextPage = null;
+      return page.checkedGet();
+    }
+    requestedCount += pageSize;
+    return connection.execute(newSearchScroll());
+  }
+
+  private SearchScroll newSearchScroll() {
+    return new SearchScroll()
+        .setScrollId(scrollId)
+        .setScrollTimeout(scrollTimeout);
+  }
+
+  /**
+   * Cancel the page requested ahead of time, if any.
+   */
+  @Override
+  public void close() {
+    if (nextPage != null) {
+      nextPage.cancel(true);
+      nextPage = null;
+    }
+  }
+}
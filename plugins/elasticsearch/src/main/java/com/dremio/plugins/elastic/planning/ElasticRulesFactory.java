@@ -25,6 +25,7 @@ import com.dremio.exec.ops.OptimizerRulesContext;
 import com.dremio.exec.planner.PlannerPhase;
 import com.dremio.options.OptionManager;
 import com.dremio.exec.store.StoragePluginRulesFactory.StoragePluginTypeRulesFactory;
+import com.dremio.plugins.elastic.planning.rules.ElasticAggregateRule;
 import com.dremio.plugins.elastic.planning.rules.ElasticFilterRule;
 import com.dremio.plugins.elastic.planning.rules.ElasticLimitRule;
 import com.dremio.plugins.elastic.planning.rules.ElasticProjectRule;
@@ -64,6 +65,11 @@ public class ElasticRulesFactory extends StoragePluginTypeRulesFactory {
         builder.add(ElasticSampleRule.INSTANCE);
       }
 
+      if (options.getOption(ExecConstants.ELASTIC_RULES_AGGREGATE)
+          && options.getOption(ExecConstants.ELASTIC_AGGREGATE_PUSHDOWN)) {
+        builder.add(ElasticAggregateRule.INSTANCE);
+      }
+
       return builder.build();
 
     default:
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.plugins.elastic.planning;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Describes how the output columns of an aggregation pushed down into Elastic are read from the aggregation
+ * response. Grouped aggregations are run as a composite aggregation named {@link #GROUPS}, paginated with its
+ * after key. Global aggregations are run under a match all filter aggregation with the same name, which returns a
+ * single bucket.
+ */
+public class ElasticsearchAggregateSpec {
+
+  public static final String GROUPS = "dremio_groups";
+
+  /**
+   * Where the value of an output column comes from.
+   */
+  public enum Source {
+    /** value of a composite aggregation source, in the bucket key */
+    GROUP_KEY,
+    /** number of documents in the bucket */
+    DOC_COUNT,
+    /** value of a single value metric aggregation */
+    METRIC
+  }
+
+  private final boolean grouped;
+  private final int pageSize;
+  private final List<Column> columns;
+
+  @JsonCreator
+  public ElasticsearchAggregateSpec(
+      @JsonProperty("grouped") boolean grouped,
+      @JsonProperty("pageSize") int pageSize,
+      @JsonProperty("columns") List<Column> columns) {
+    this.grouped = grouped;
+    this.pageSize = pageSize;
+    this.columns = ImmutableList.copyOf(columns);
+  }
+
+  public boolean isGrouped() {
+    return grouped;
+  }
+
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  public List<Column> getColumns() {
+    return columns;
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (!(other instanceof ElasticsearchAggregateSpec)) {
+      return false;
+    }
+    ElasticsearchAggregateSpec castOther = (ElasticsearchAggregateSpec) other;
+    return grouped == castOther.grouped && pageSize == castOther.pageSize && Objects.equal(columns, castOther.columns);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(grouped, pageSize, columns);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this).add("grouped", grouped).add("pageSize", pageSize).add("columns", columns)
+        .toString();
+  }
+
+  /**
+   * An output column of the aggregation.
+   */
+  public static class Column {
+    private final Source source;
+    private final String name;
+    private final String countName;
+
+    /**
+     * @param source where the value comes from
+     * @param name name of the composite source or metric aggregation, null for {@link Source#DOC_COUNT}
+     * @param countName name of a value count aggregation over the same field, the column is null if it is 0. Elastic
+     *                  returns 0 for the sum of a group without values, where SQL expects null.
+     */
+    @JsonCreator
+    public Column(
+        @JsonProperty("source") Source source,
+        @JsonProperty("name") String name,
+        @JsonProperty("countName") String countName) {
+      this.source = source;
+      this.name = name;
+      this.countName = countName;
+    }
+
+    public Source getSource() {
+      return source;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public String getCountName() {
+      return countName;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if (!(other instanceof Column)) {
+        return false;
+      }
+      Column castOther = (Column) other;
+      return source == castOther.source && Objects.equal(name, castOther.name)
+          && Objects.equal(countName, castOther.countName);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(source, name, countName);
+    }
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(this).add("source", source).add("name", name).add("countName", countName)
+          .toString();
+    }
+  }
+}
@@ -23,6 +23,7 @@ import com.dremio.exec.physical.base.AbstractGroupScan;
 import com.dremio.exec.physical.base.SubScan;
 import com.dremio.exec.planner.fragment.DistributionAffinity;
 import com.dremio.exec.proto.UserBitShared.CoreOperatorType;
+import com.dremio.exec.record.BatchSchema;
 import com.dremio.exec.store.SplitWork;
 import com.dremio.exec.store.TableMetadata;
 import com.dremio.service.namespace.dataset.proto.DatasetSplit;
@@ -40,6 +41,8 @@ public class ElasticsearchGroupScan extends AbstractGroupScan {
 
   private final ElasticsearchScanSpec spec;
   private final long rowCountEstimate;
+  // output schema of the aggregation pushed down, null if the scan returns documents
+  private final BatchSchema aggregateSchema;
 
   public ElasticsearchGroupScan(
       ElasticsearchScanSpec spec,
@@ -47,9 +50,20 @@ public class ElasticsearchGroupScan extends AbstractGroupScan {
       List<SchemaPath> columns,
       long rowCountEstimate
       ) {
+    this(spec, table, columns, rowCountEstimate, null);
+  }
+
+  public ElasticsearchGroupScan(
+      ElasticsearchScanSpec spec,
+      TableMetadata table,
+      List<SchemaPath> columns,
+      long rowCountEstimate,
+      BatchSchema aggregateSchema
+      ) {
     super(table, columns);
     this.spec = spec;
     this.rowCountEstimate = rowCountEstimate;
+    this.aggregateSchema = aggregateSchema;
   }
 
   @JsonProperty("spec")
@@ -76,6 +90,17 @@ public class ElasticsearchGroupScan extends AbstractGroupScan {
         );
   }
 
+  @Override
+  public BatchSchema getSchema() {
+    return aggregateSchema != null ? aggregateSchema : super.getSchema();
+  }
+
+  @Override
+  public boolean mayLearnSchema() {
+    // aggregation output is not the table schema
+    return aggregateSchema == null;
+  }
+
   @Override
   public DistributionAffinity getDistributionAffinity() {
     return DistributionAffinity.SOFT;
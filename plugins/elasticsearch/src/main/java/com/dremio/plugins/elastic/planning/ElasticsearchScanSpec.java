@@ -29,17 +29,24 @@ public class ElasticsearchScanSpec {
   private final int fetch;
   private final String resource;
   private final boolean pushdown;
+  private final ElasticsearchAggregateSpec aggregation;
+
+  public ElasticsearchScanSpec(String resource, String query, int fetch, boolean pushdown) {
+    this(resource, query, fetch, pushdown, null);
+  }
 
   @JsonCreator
   public ElasticsearchScanSpec(
       @JsonProperty("resource") String resource,
       @JsonProperty("query") String query,
       @JsonProperty("fetch") int fetch,
-      @JsonProperty("pushdown") boolean pushdown) {
+      @JsonProperty("pushdown") boolean pushdown,
+      @JsonProperty("aggregation") ElasticsearchAggregateSpec aggregation) {
     this.resource = resource;
     this.query = query;
     this.fetch = fetch;
     this.pushdown = pushdown;
+    this.aggregation = aggregation;
   }
 
   // This is only for testing purposes. Execution doesn't need this information.
@@ -59,6 +66,13 @@ public class ElasticsearchScanSpec {
     return fetch;
   }
 
+  /**
+   * @return how to read the aggregation pushed down in the query, or null if the query returns documents
+   */
+  public ElasticsearchAggregateSpec getAggregation() {
+    return aggregation;
+  }
+
   @Override
   public boolean equals(final Object other) {
     if (!(other instanceof ElasticsearchScanSpec)) {
@@ -66,18 +80,18 @@ public class ElasticsearchScanSpec {
     }
     ElasticsearchScanSpec castOther = (ElasticsearchScanSpec) other;
     return Objects.equal(query, castOther.query) && Objects.equal(fetch, castOther.fetch)
-        && Objects.equal(resource, castOther.resource);
+        && Objects.equal(resource, castOther.resource) && Objects.equal(aggregation, castOther.aggregation);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(query, fetch, resource);
+    return Objects.hashCode(query, fetch, resource, aggregation);
   }
 
   @Override
   public String toString() {
     return MoreObjects.toStringHelper(this).add("query", query).add("fetch", fetch).add("resource", resource)
-        .toString();
+        .add("aggregation", aggregation).toString();
   }
 
 }
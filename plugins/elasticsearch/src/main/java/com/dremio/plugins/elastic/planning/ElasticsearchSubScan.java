@@ -83,6 +83,12 @@ public class ElasticsearchSubScan extends SubScanWithProjection {
       Iterables.getOnlyElement(getReferencedTables()), getSchema(), extendedProperty);
   }
 
+  @Override
+  public boolean mayLearnSchema() {
+    // aggregation output is not the table schema
+    return spec.getAggregation() == null && super.mayLearnSchema();
+  }
+
   public ElasticsearchScanSpec getSpec() {
     return spec;
   }
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.plugins.elastic.planning.rels;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.AggregateCall;
+import org.elasticsearch.action.search.SearchRequestBuilder;
+
+import com.dremio.common.exceptions.UserException;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.elastic.proto.ElasticReaderProto.ElasticTableXattr;
+import com.dremio.exec.expr.fn.FunctionLookupContext;
+import com.dremio.exec.physical.base.GroupScan;
+import com.dremio.exec.record.BatchSchema;
+import com.dremio.exec.store.SplitWork;
+import com.dremio.plugins.elastic.ElasticsearchConf;
+import com.dremio.plugins.elastic.planning.ElasticsearchAggregateSpec;
+import com.dremio.plugins.elastic.planning.ElasticsearchAggregateSpec.Column;
+import com.dremio.plugins.elastic.planning.ElasticsearchAggregateSpec.Source;
+import com.dremio.plugins.elastic.planning.ElasticsearchGroupScan;
+import com.dremio.plugins.elastic.planning.ElasticsearchScanSpec;
+import com.dremio.plugins.elastic.planning.rules.ExpressionNotAnalyzableException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Joiner;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.FluentIterable;
+
+/**
+ * Builds the Elastic query of a stack topped by an {@link ElasticsearchAggregate}. The stack must be:
+ *
+ *   ElasticsearchAggregate
+ *       \
+ *     ElasticsearchProject (optional, only direct field references)
+ *         \
+ *       ElasticsearchFilter (optional)
+ *           \
+ *         ElasticsearchScanPrel
+ *
+ * The filter is applied as the query, no hit is returned and the aggregation is added to the request.
+ */
+public class AggregateScanBuilder extends ScanBuilder {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(AggregateScanBuilder.class);
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final Joiner PATH_JOINER = Joiner.on('.');
+
+  private ElasticsearchAggregate aggregate;
+
+  @Override
+  public GroupScan<SplitWork> toGroupScan(long estimatedRowCount) {
+    return new ElasticsearchGroupScan(getSpec(), getScan().getTableMetadata(), getColumns(), estimatedRowCount,
+        BatchSchema.fromCalciteRowType(aggregate.getRowType()));
+  }
+
+  @Override
+  public List<SchemaPath> getColumns() {
+    final List<SchemaPath> columns = new ArrayList<>();
+    for (String name : aggregate.getRowType().getFieldNames()) {
+      columns.add(SchemaPath.getSimplePath(name));
+    }
+    return columns;
+  }
+
+  @Override
+  public void setup(List<ElasticsearchPrel> stack, FunctionLookupContext functionLookupContext) {
+    Preconditions.checkArgument(stack.get(0) instanceof ElasticsearchAggregate);
+    Preconditions.checkArgument(stack.get(stack.size() - 1) instanceof ElasticIntermediateScanPrel);
+    final ElasticsearchAggregate aggregate = (ElasticsearchAggregate) stack.get(0);
+    final ElasticIntermediateScanPrel scan = (ElasticIntermediateScanPrel) stack.get(stack.size() - 1);
+    final ElasticsearchFilter filter = FluentIterable.from(stack).filter(ElasticsearchFilter.class).first().orNull();
+    final ElasticTableXattr tableAttributes = scan.getExtendedAttributes();
+    final ElasticsearchConf config = ElasticsearchConf.createElasticsearchConf(scan.getPluginId().getConnectionConf());
+
+    try {
+      final SearchRequestBuilder searchRequest = buildRequestBuilder();
+      applyFilter(searchRequest, scan, filter, tableAttributes);
+      searchRequest.setFrom(0).setSize(0);
+
+      final ObjectNode query = (ObjectNode) MAPPER.readTree(searchRequest.toString());
+      final ElasticsearchAggregateSpec aggregateSpec = addAggregation(query, aggregate, config.getScrollSize());
+
+      setSpec(new ElasticsearchScanSpec(
+          tableAttributes.getResource(),
+          MAPPER.writeValueAsString(query),
+          config.getScrollSize(),
+          true,
+          aggregateSpec));
+      setScan(scan);
+      this.aggregate = aggregate;
+    } catch (ExpressionNotAnalyzableException e) {
+      throw UserException.dataReadError(e).message("Elastic pushdown failed to late to recover query.").build(logger);
+    } catch (IOException e) {
+      throw UserException.dataReadError(e).message("Failure while attempting to create Elastic query.").build(logger);
+    }
+  }
+
+  private static ElasticsearchAggregateSpec addAggregation(ObjectNode query, ElasticsearchAggregate aggregate, int pageSize) {
+    final RelNode input = aggregate.getInput();
+    final boolean grouped = !aggregate.getGroupSet().isEmpty();
+    final List<Column> columns = new ArrayList<>();
+
+    final ObjectNode groups = query.putObject("aggregations").putObject(ElasticsearchAggregateSpec.GROUPS);
+    if (grouped) {
+      final ObjectNode composite = groups.putObject("composite");
+      composite.put("size", pageSize);
+      final ArrayNode sources = composite.putArray("sources");
+      for (int key : aggregate.getGroupSet()) {
+        final String name = "k" + columns.size();
+        sources.addObject().putObject(name).putObject("terms")
+            .put("field", getFieldName(input, key))
+            .put("missing_bucket", true);
+        columns.add(new Column(Source.GROUP_KEY, name, null));
+      }
+    } else {
+      groups.putObject("filter").putObject("match_all");
+    }
+
+    final ObjectNode metrics = groups.putObject("aggregations");
+    for (AggregateCall aggCall : aggregate.getAggCallList()) {
+      final String name = "m" + columns.size();
+      final String countName = "c" + columns.size();
+      switch (aggCall.getAggregation().getKind()) {
+      case COUNT:
+        if (aggCall.getArgList().isEmpty()) {
+          columns.add(new Column(Source.DOC_COUNT, null, null));
+        } else {
+          addMetric(metrics, name, "value_count", input, aggCall);
+          columns.add(new Column(Source.METRIC, name, null));
+        }
+        break;
+      case SUM:
+        // Elastic sums no value to 0, SQL to null
+        addMetric(metrics, name, "sum", input, aggCall);
+        addMetric(metrics, countName, "value_count", input, aggCall);
+        columns.add(new Column(Source.METRIC, name, countName));
+        break;
+      case SUM0:
+        addMetric(metrics, name, "sum", input, aggCall);
+        columns.add(new Column(Source.METRIC, name, null));
+        break;
+      case MIN:
+        addMetric(metrics, name, "min", input, aggCall);
+        columns.add(new Column(Source.METRIC, name, null));
+        break;
+      case MAX:
+        addMetric(metrics, name, "max", input, aggCall);
+        columns.add(new Column(Source.METRIC, name, null));
+        break;
+      default:
+        throw new IllegalStateException(String.format("Aggregate function %s can't be pushed into Elastic.", aggCall.getAggregation()));
+      }
+    }
+
+    return new ElasticsearchAggregateSpec(grouped, pageSize, columns);
+  }
+
+  private static void addMetric(ObjectNode metrics, String name, String type, RelNode input, AggregateCall aggCall) {
+    metrics.putObject(name).putObject(type).put("field", getFieldName(input, aggCall.getArgList().get(0)));
+  }
+
+  private static String getFieldName(RelNode input, int index) {
+    final SchemaPath path = ElasticsearchAggregate.getField(input, index);
+    Preconditions.checkState(path != null, "Aggregate input %s is not a field.", index);
+    return PATH_JOINER.join(path.getNameSegments());
+  }
+}
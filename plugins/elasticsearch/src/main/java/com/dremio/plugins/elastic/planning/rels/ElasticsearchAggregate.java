@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.plugins.elastic.planning.rels;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.calcite.plan.RelOptCluster;
+import org.apache.calcite.plan.RelOptCost;
+import org.apache.calcite.plan.RelOptPlanner;
+import org.apache.calcite.plan.RelTraitSet;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.Aggregate;
+import org.apache.calcite.rel.core.AggregateCall;
+import org.apache.calcite.rel.metadata.RelMetadataQuery;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.util.ImmutableBitSet;
+
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.exec.catalog.StoragePluginId;
+import com.dremio.exec.expr.fn.FunctionLookupContext;
+import com.dremio.exec.physical.base.PhysicalOperator;
+import com.dremio.exec.planner.common.AggregateRelBase;
+import com.dremio.exec.planner.physical.PhysicalPlanCreator;
+import com.dremio.exec.planner.physical.Prel;
+import com.dremio.exec.planner.physical.PrelUtil;
+import com.dremio.exec.planner.physical.visitor.PrelVisitor;
+import com.dremio.exec.record.BatchSchema;
+import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
+import com.dremio.plugins.elastic.planning.rels.ElasticIntermediateScanPrel.IndexMode;
+import com.dremio.plugins.elastic.planning.rules.StackFinder;
+
+/**
+ * Aggregation pushed down into Elastic. Only replaces the first phase of a two phase aggregation: each split (shard)
+ * returns its own groups, which are merged by the second phase.
+ */
+public class ElasticsearchAggregate extends AggregateRelBase implements ElasticsearchPrel, ElasticTerminalPrel {
+
+  private final StoragePluginId pluginId;
+
+  public ElasticsearchAggregate(
+      RelOptCluster cluster,
+      RelTraitSet traits,
+      RelNode child,
+      ImmutableBitSet groupSet,
+      List<AggregateCall> aggCalls,
+      StoragePluginId pluginId) {
+    super(cluster, traits, child, false, groupSet, null, aggCalls);
+    this.pluginId = pluginId;
+  }
+
+  @Override
+  public StoragePluginId getPluginId() {
+    return pluginId;
+  }
+
+  @Override
+  public Aggregate copy(RelTraitSet traitSet, RelNode input, boolean indicator, ImmutableBitSet groupSet,
+      List<ImmutableBitSet> groupSets, List<AggregateCall> aggCalls) {
+    return new ElasticsearchAggregate(getCluster(), traitSet, input, groupSet, aggCalls, pluginId);
+  }
+
+  @Override
+  public RelOptCost computeSelfCost(RelOptPlanner planner, RelMetadataQuery mq) {
+    return super.computeSelfCost(planner, mq).multiplyBy(0.1D);
+  }
+
+  @Override
+  public PhysicalOperator getPhysicalOperator(PhysicalPlanCreator creator) throws IOException {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public <T, X, E extends Throwable> T accept(PrelVisitor<T, X, E> prelVisitor, X value) throws E {
+    return prelVisitor.visitPrel(this, value);
+  }
+
+  @Override
+  public SelectionVectorMode[] getSupportedEncodings() {
+    return SelectionVectorMode.DEFAULT;
+  }
+
+  @Override
+  public SelectionVectorMode getEncoding() {
+    return SelectionVectorMode.NONE;
+  }
+
+  @Override
+  public boolean needsFinalColumnReordering() {
+    return false;
+  }
+
+  @Override
+  public Iterator<Prel> iterator() {
+    return PrelUtil.iter(getInput());
+  }
+
+  @Override
+  public BatchSchema getSchema(FunctionLookupContext context) {
+    return BatchSchema.fromCalciteRowType(getRowType());
+  }
+
+  @Override
+  public ScanBuilder newScanBuilder() {
+    return new AggregateScanBuilder();
+  }
+
+  /**
+   * Get the Elastic field an input column of an aggregation refers to. The input must be a stack of an optional
+   * ElasticsearchProject, an optional ElasticsearchFilter and the scan.
+   *
+   * @return the path of the field, or null if the column is not a direct reference to a field
+   */
+  public static SchemaPath getField(RelNode input, int index) {
+    ElasticsearchProject project = null;
+    ElasticIntermediateScanPrel scan = null;
+    for (ElasticsearchPrel prel : StackFinder.getStack(input)) {
+      if (prel instanceof ElasticsearchProject) {
+        project = (ElasticsearchProject) prel;
+      } else if (prel instanceof ElasticIntermediateScanPrel) {
+        scan = (ElasticIntermediateScanPrel) prel;
+      }
+    }
+
+    final RexNode expr = project != null ? project.getProjects().get(index) : RexInputRef.of(index, scan.getRowType());
+    return scan.getDirectReferenceIfPossible(expr, IndexMode.DISALLOW);
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.plugins.elastic.planning.rules;
+
+import org.apache.calcite.plan.RelOptRule;
+import org.apache.calcite.plan.RelOptRuleCall;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.Aggregate.Group;
+import org.apache.calcite.rel.core.AggregateCall;
+import org.apache.calcite.sql.type.SqlTypeName;
+
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.exec.planner.logical.RelOptHelper;
+import com.dremio.exec.planner.physical.AggPrelBase;
+import com.dremio.plugins.elastic.ElasticsearchStoragePlugin;
+import com.dremio.plugins.elastic.mapping.FieldAnnotation;
+import com.dremio.plugins.elastic.planning.rels.ElasticIntermediateScanPrel;
+import com.dremio.plugins.elastic.planning.rels.ElasticsearchAggregate;
+import com.dremio.plugins.elastic.planning.rels.ElasticsearchIntermediatePrel;
+import com.dremio.plugins.elastic.planning.rels.ElasticsearchLimit;
+import com.dremio.plugins.elastic.planning.rels.ElasticsearchSample;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Pushes the first phase of a two phase aggregation into Elastic, as a composite aggregation per shard (or a single
+ * bucket for aggregations without group by). The second phase merges the groups returned by each shard.
+ *
+ * Only simple aggregations are pushed down: group keys and arguments must be direct references to fields with doc
+ * values, and only COUNT, SUM, MIN and MAX without DISTINCT or FILTER are supported. Elastic computes metrics as
+ * doubles, so SUM is only pushed down on DOUBLE fields and MIN/MAX on INTEGER and DOUBLE fields, whose values are
+ * exact as doubles.
+ *
+ * Disabled unless {@link com.dremio.exec.ExecConstants#ELASTIC_AGGREGATE_PUSHDOWN} is set.
+ */
+public class ElasticAggregateRule extends RelOptRule {
+
+  public static final ElasticAggregateRule INSTANCE = new ElasticAggregateRule();
+
+  private static final ImmutableSet<SqlTypeName> GROUP_TYPES = ImmutableSet.of(
+      SqlTypeName.VARCHAR, SqlTypeName.INTEGER, SqlTypeName.BIGINT, SqlTypeName.DOUBLE);
+  private static final ImmutableSet<SqlTypeName> NUMERIC_TYPES = ImmutableSet.of(
+      SqlTypeName.INTEGER, SqlTypeName.BIGINT, SqlTypeName.DOUBLE);
+  private static final ImmutableSet<SqlTypeName> MIN_MAX_TYPES = ImmutableSet.of(
+      SqlTypeName.INTEGER, SqlTypeName.DOUBLE);
+  private static final ImmutableSet<SqlTypeName> SUM_TYPES = ImmutableSet.of(SqlTypeName.DOUBLE);
+
+  private ElasticAggregateRule() {
+    super(RelOptHelper.some(AggPrelBase.class, RelOptHelper.any(ElasticsearchIntermediatePrel.class)), "ElasticAggregateRule");
+  }
+
+  @Override
+  public boolean matches(RelOptRuleCall call) {
+    final AggPrelBase agg = call.rel(0);
+    final ElasticsearchIntermediatePrel intermediatePrel = call.rel(1);
+
+    if (intermediatePrel.hasTerminalPrel()
+        || intermediatePrel.contains(ElasticsearchSample.class)
+        || intermediatePrel.contains(ElasticsearchLimit.class)) {
+      return false;
+    }
+
+    if (!intermediatePrel.getPluginId().getCapabilities().getCapability(ElasticsearchStoragePlugin.SUPPORTS_COMPOSITE_AGGREGATIONS)) {
+      return false;
+    }
+
+    if (!agg.isFirstPhaseOf2() || agg.indicator || agg.getGroupType() != Group.SIMPLE) {
+      return false;
+    }
+
+    final ElasticIntermediateScanPrel scan = intermediatePrel.get(ElasticIntermediateScanPrel.class);
+    final RelNode input = intermediatePrel.getInput();
+
+    for (int key : agg.getGroupSet()) {
+      if (!canAggregateOn(scan, input, key, GROUP_TYPES)) {
+        return false;
+      }
+    }
+
+    for (AggregateCall aggCall : agg.getAggCallList()) {
+      if (aggCall.isDistinct() || aggCall.hasFilter() || !NUMERIC_TYPES.contains(aggCall.getType().getSqlTypeName())) {
+        return false;
+      }
+
+      switch (aggCall.getAggregation().getKind()) {
+      case COUNT:
+        if (aggCall.getArgList().size() > 1
+            || (aggCall.getArgList().size() == 1 && !canAggregateOn(scan, input, aggCall.getArgList().get(0), GROUP_TYPES))) {
+          return false;
+        }
+        break;
+      case SUM:
+      case SUM0:
+        // sums of integers may go past 2^53
+        if (!canAggregateOn(scan, input, aggCall.getArgList().get(0), SUM_TYPES)) {
+          return false;
+        }
+        break;
+      case MIN:
+      case MAX:
+        // BIGINT values past 2^53 would be rounded
+        if (!canAggregateOn(scan, input, aggCall.getArgList().get(0), MIN_MAX_TYPES)) {
+          return false;
+        }
+        break;
+      default:
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Whether the given input column can be aggregated by Elastic: it must be a field of one of the given types,
+   * read from doc values which hold the same values as the source.
+   */
+  private static boolean canAggregateOn(ElasticIntermediateScanPrel scan, RelNode input, int index,
+      ImmutableSet<SqlTypeName> types) {
+    if (!types.contains(input.getRowType().getFieldList().get(index).getType().getSqlTypeName())) {
+      return false;
+    }
+
+    final SchemaPath path = ElasticsearchAggregate.getField(input, index);
+    if (path == null || scan.getSpecialTypeRecursive(path) != null) {
+      return false;
+    }
+
+    final FieldAnnotation annotation = scan.getAnnotation(path);
+    return annotation == null
+        || !(annotation.isAnalyzed() || annotation.isNormalized() || annotation.isDocValueMissing()
+            || annotation.isNotIndexed() || annotation.isUnknown());
+  }
+
+  @Override
+  public void onMatch(RelOptRuleCall call) {
+    final AggPrelBase agg = call.rel(0);
+    final ElasticsearchIntermediatePrel intermediatePrel = call.rel(1);
+
+    final ElasticsearchAggregate newAgg = new ElasticsearchAggregate(
+        agg.getCluster(),
+        agg.getTraitSet(),
+        intermediatePrel.getInput(),
+        agg.getGroupSet(),
+        agg.getAggCallList(),
+        intermediatePrel.getPluginId());
+
+    call.transformTo(intermediatePrel.withNewInput(newAgg));
+  }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.plugins.elastic;
+
+import static com.dremio.plugins.elastic.ElasticsearchType.DOUBLE;
+import static com.dremio.plugins.elastic.ElasticsearchType.INTEGER;
+import static com.dremio.plugins.elastic.ElasticsearchType.KEYWORD;
+import static com.dremio.plugins.elastic.ElasticsearchType.TEXT;
+import static org.junit.Assume.assumeTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.exec.ExecConstants;
+import com.dremio.plugins.Version;
+import com.dremio.plugins.elastic.ElasticsearchCluster.ColumnData;
+import com.dremio.plugins.elastic.planning.ElasticsearchAggregateSpec;
+
+/**
+ * Tests for pushing the first phase of aggregations down into Elastic as composite aggregations.
+ *
+ * Results are checked on all versions, aggregations are only pushed down from 6.4 onwards.
+ */
+public class ITTestAggregatePushdown extends ElasticBaseTestQuery {
+
+  private static final Version ELASTIC_V6_4 = new Version(6, 4, 0);
+
+  private static final String GROUPED_QUERY = "select category, region, count(*) as cnt, count(quantity) as cnt_quantity, "
+      + "sum(price) as sum_price, min(quantity) as min_quantity, max(price) as max_price "
+      + "from elasticsearch.%s.%s group by category, region";
+
+  private static final String GLOBAL_QUERY = "select count(*) as cnt, count(price) as cnt_price, sum(price) as sum_price, "
+      + "min(quantity) as min_quantity, max(quantity) as max_quantity from elasticsearch.%s.%s";
+
+  @Before
+  public void loadTable() throws Exception {
+    // several shards, so that the groups of each split are merged by the second phase
+    elastic.schema(2, 0, schema);
+
+    final ColumnData[] data = new ColumnData[] {
+        new ColumnData("category", KEYWORD, new Object[][] {
+            {"a"}, {"b"}, {"a"}, {"a"}, {"b"}, {null}, {"c"}
+        }),
+        new ColumnData("region", KEYWORD, new Object[][] {
+            {"east"}, {"east"}, {"west"}, {"west"}, {null}, {"east"}, {"north"}
+        }),
+        new ColumnData("quantity", INTEGER, new Object[][] {
+            {1}, {null}, {3}, {4}, {5}, {6}, {null}
+        }),
+        new ColumnData("price", DOUBLE, new Object[][] {
+            {1.5}, {2.5}, {null}, {4.0}, {5.0}, {0.5}, {null}
+        }),
+        new ColumnData("description", TEXT, new Object[][] {
+            {"red"}, {"green"}, {"blue"}, {"red"}, {"green"}, {"blue"}, {"red"}
+        })
+    };
+    elastic.load(schema, table, data);
+
+    // two phase aggregations even for a handful of records
+    setSessionOption(ExecConstants.SLICE_TARGET_OPTION, "1");
+    setSessionOption(ExecConstants.ELASTIC_AGGREGATE_PUSHDOWN, "true");
+  }
+
+  @After
+  public void cleanUp() {
+    resetSessionOption(ExecConstants.SLICE_TARGET_OPTION);
+    resetSessionOption(ExecConstants.ELASTIC_AGGREGATE_PUSHDOWN);
+  }
+
+  private void assumeCompositeAggregations() {
+    assumeTrue(elastic.getMinVersionInCluster().compareTo(ELASTIC_V6_4) >= 0);
+  }
+
+  @Test
+  public void testGroupedPlan() throws Exception {
+    assumeCompositeAggregations();
+    final String sql = String.format(GROUPED_QUERY, schema, table);
+    verifyJsonInPlanHelper(sql, new String[] {
+        "[{\n" +
+        "  \"from\" : 0,\n" +
+        "  \"size\" : 0,\n" +
+        "  \"query\" : {\n" +
+        "    \"match_all\" : {\n" +
+        "      \"boost\" : 1.0\n" +
+        "    }\n" +
+        "  },\n" +
+        "  \"aggregations\" : {\n" +
+        "    \"dremio_groups\" : {\n" +
+        "      \"composite\" : {\n" +
+        "        \"size\" : 4000,\n" +
+        "        \"sources\" : [\n" +
+        "          { \"k0\" : { \"terms\" : { \"field\" : \"category\", \"missing_bucket\" : true } } },\n" +
+        "          { \"k1\" : { \"terms\" : { \"field\" : \"region\", \"missing_bucket\" : true } } }\n" +
+        "        ]\n" +
+        "      },\n" +
+        "      \"aggregations\" : {\n" +
+        "        \"m3\" : { \"value_count\" : { \"field\" : \"quantity\" } },\n" +
+        "        \"m4\" : { \"sum\" : { \"field\" : \"price\" } },\n" +
+        "        \"c4\" : { \"value_count\" : { \"field\" : \"price\" } },\n" +
+        "        \"m5\" : { \"min\" : { \"field\" : \"quantity\" } },\n" +
+        "        \"m6\" : { \"max\" : { \"field\" : \"price\" } }\n" +
+        "      }\n" +
+        "    }\n" +
+        "  }\n" +
+        "}]"}, true);
+    // second phase merges the groups of each split
+    testPlanMatchingPatterns(sql, new String[] {"HashAgg"}, null);
+  }
+
+  @Test
+  public void testGlobalPlan() throws Exception {
+    assumeCompositeAggregations();
+    final String sql = String.format(GLOBAL_QUERY, schema, table);
+    verifyJsonInPlanHelper(sql, new String[] {
+        "[{\n" +
+        "  \"from\" : 0,\n" +
+        "  \"size\" : 0,\n" +
+        "  \"query\" : {\n" +
+        "    \"match_all\" : {\n" +
+        "      \"boost\" : 1.0\n" +
+        "    }\n" +
+        "  },\n" +
+        "  \"aggregations\" : {\n" +
+        "    \"dremio_groups\" : {\n" +
+        "      \"filter\" : { \"match_all\" : { } },\n" +
+        "      \"aggregations\" : {\n" +
+        "        \"m1\" : { \"value_count\" : { \"field\" : \"price\" } },\n" +
+        "        \"m2\" : { \"sum\" : { \"field\" : \"price\" } },\n" +
+        "        \"c2\" : { \"value_count\" : { \"field\" : \"price\" } },\n" +
+        "        \"m3\" : { \"min\" : { \"field\" : \"quantity\" } },\n" +
+        "        \"m4\" : { \"max\" : { \"field\" : \"quantity\" } }\n" +
+        "      }\n" +
+        "    }\n" +
+        "  }\n" +
+        "}]"}, true);
+  }
+
+  @Test
+  public void testGroupedResults() throws Exception {
+    testBuilder()
+        .sqlQuery(String.format(GROUPED_QUERY, schema, table))
+        .unOrdered()
+        .baselineColumns("category", "region", "cnt", "cnt_quantity", "sum_price", "min_quantity", "max_price")
+        .baselineValues("a", "east", 1L, 1L, 1.5, 1, 1.5)
+        .baselineValues("b", "east", 1L, 0L, 2.5, null, 2.5)
+        .baselineValues("a", "west", 2L, 2L, 4.0, 3, 4.0)
+        .baselineValues("b", null, 1L, 1L, 5.0, 5, 5.0)
+        .baselineValues(null, "east", 1L, 1L, 0.5, 6, 0.5)
+        // no price in the group, the sum is null and not 0
+        .baselineValues("c", "north", 1L, 0L, null, null, null)
+        .go();
+  }
+
+  @Test
+  public void testGlobalResults() throws Exception {
+    testBuilder()
+        .sqlQuery(String.format(GLOBAL_QUERY, schema, table))
+        .unOrdered()
+        .baselineColumns("cnt", "cnt_price", "sum_price", "min_quantity", "max_quantity")
+        .baselineValues(7L, 5L, 13.5, 1, 6)
+        .go();
+  }
+
+  @Test
+  public void testGlobalResultsWithFilter() throws Exception {
+    // no document matches, a global aggregation still returns a row
+    testBuilder()
+        .sqlQuery(String.format(GLOBAL_QUERY + " where region = 'south'", schema, table))
+        .unOrdered()
+        .baselineColumns("cnt", "cnt_price", "sum_price", "min_quantity", "max_quantity")
+        .baselineValues(0L, 0L, null, null, null)
+        .go();
+  }
+
+  private void verifyNotPushedDown(String sql) throws Exception {
+    testPlanMatchingPatterns(sql, new String[] {"HashAgg"}, new String[] {ElasticsearchAggregateSpec.GROUPS});
+  }
+
+  @Test
+  public void testDistinctResults() throws Exception {
+    // only the grouping on both columns may be pushed down, the distinct count is computed on top of it
+    final String sql = String.format("select region, count(distinct category) as categories from elasticsearch.%s.%s "
+        + "group by region", schema, table);
+    testBuilder()
+        .sqlQuery(sql)
+        .unOrdered()
+        .baselineColumns("region", "categories")
+        .baselineValues("east", 2L)
+        .baselineValues("west", 1L)
+        .baselineValues("north", 1L)
+        .baselineValues(null, 1L)
+        .go();
+  }
+
+  @Test
+  public void testIntegerSumNotPushedDown() throws Exception {
+    // Elastic sums as doubles, which would round sums past 2^53
+    final String sql = String.format("select category, sum(quantity) as sum_quantity from elasticsearch.%s.%s "
+        + "group by category", schema, table);
+    verifyNotPushedDown(sql);
+    testBuilder()
+        .sqlQuery(sql)
+        .unOrdered()
+        .baselineColumns("category", "sum_quantity")
+        .baselineValues("a", 8L)
+        .baselineValues("b", 5L)
+        .baselineValues("c", null)
+        .baselineValues(null, 6L)
+        .go();
+  }
+
+  @Test
+  public void testAnalyzedKeyNotPushedDown() throws Exception {
+    verifyNotPushedDown(String.format("select description, count(*) as cnt from elasticsearch.%s.%s "
+        + "group by description", schema, table));
+  }
+
+  @Test
+  public void testExpressionNotPushedDown() throws Exception {
+    verifyNotPushedDown(String.format("select category, max(price * 2) as max_price from elasticsearch.%s.%s "
+        + "group by category", schema, table));
+  }
+
+  @Test
+  public void testDisabled() throws Exception {
+    resetSessionOption(ExecConstants.ELASTIC_AGGREGATE_PUSHDOWN);
+    verifyNotPushedDown(String.format(GROUPED_QUERY, schema, table));
+  }
+}
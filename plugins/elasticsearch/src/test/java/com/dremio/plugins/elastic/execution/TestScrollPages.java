@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.plugins.elastic.execution;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+
+import com.dremio.common.exceptions.UserException;
+import com.dremio.plugins.elastic.ElasticActions.SearchScroll;
+import com.dremio.plugins.elastic.ElasticConnectionPool.ElasticConnection;
+import com.dremio.test.DremioTest;
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.CheckedFuture;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * Test the prefetching of Elasticsearch scroll pages
+ */
+public class TestScrollPages extends DremioTest {
+  private static final byte[] PAGE = new byte[] { 1, 2, 3 };
+
+  @Test
+  public void testPrefetchedPage() {
+    final ElasticConnection connection = mock(ElasticConnection.class);
+    when(connection.executeAsync(any(SearchScroll.class)))
+        .thenReturn(Futures.<byte[], UserException>immediateCheckedFuture(PAGE));
+
+    final ScrollPages pages = new ScrollPages(connection, "1m", "scroll", 10, 4, true);
+    // first page returned hits 0-3, second page is requested right away
+    verify(connection, times(1)).executeAsync(any(SearchScroll.class));
+
+    assertArrayEquals(PAGE, pages.next());
+    verify(connection, never()).execute(any(SearchScroll.class));
+
+    // third page holds the last hits
+    pages.received("scroll");
+    verify(connection, times(2)).executeAsync(any(SearchScroll.class));
+    assertArrayEquals(PAGE, pages.next());
+
+    // all hits were requested, next page is fetched synchronously
+    pages.received("scroll");
+    verify(connection, times(2)).executeAsync(any(SearchScroll.class));
+    when(connection.execute(any(SearchScroll.class))).thenReturn(PAGE);
+    assertArrayEquals(PAGE, pages.next());
+    verify(connection, times(1)).execute(any(SearchScroll.class));
+    pages.close();
+  }
+
+  @Test
+  public void testPrefetchedPageFailure() {
+    final ElasticConnection connection = mock(ElasticConnection.class);
+    final UserException failure = UserException.dataReadError().message("scroll expired").build();
+    when(connection.executeAsync(any(SearchScroll.class)))
+        .thenReturn(Futures.<byte[], UserException>immediateFailedCheckedFuture(failure));
+
+    final ScrollPages pages = new ScrollPages(connection, "1m", "scroll", 10, 4, true);
+    try {
+      pages.next();
+      fail("Expected the failure of the prefetched page");
+    } catch (UserException e) {
+      assertEquals(failure, e);
+    }
+    pages.close();
+  }
+
+  @Test
+  public void testCloseCancelsPrefetchedPage() {
+    final ElasticConnection connection = mock(ElasticConnection.class);
+    final SettableFuture<byte[]> page = SettableFuture.create();
+    final CheckedFuture<byte[], UserException> checkedPage = Futures.makeChecked(page,
+        new Function<Exception, UserException>() {
+          @Override
+          public UserException apply(Exception input) {
+            return UserException.dataReadError(input).build();
+          }
+        });
+    when(connection.executeAsync(any(SearchScroll.class))).thenReturn(checkedPage);
+
+    final ScrollPages pages = new ScrollPages(connection, "1m", "scroll", 10, 4, true);
+    pages.close();
+    assertTrue(page.isCancelled());
+  }
+
+  @Test
+  public void testNoPrefetch() {
+    final ElasticConnection connection = mock(ElasticConnection.class);
+    when(connection.execute(any(SearchScroll.class))).thenReturn(PAGE);
+
+    // prefetch disabled
+    ScrollPages pages = new ScrollPages(connection, "1m", "scroll", 10, 4, false);
+    assertArrayEquals(PAGE, pages.next());
+    pages.received("scroll");
+    pages.close();
+
+    // first page holds all the hits
+    pages = new ScrollPages(connection, "1m", "scroll", 4, 4, true);
+    pages.close();
+
+    verify(connection, never()).executeAsync(any(SearchScroll.class));
+    verify(connection, times(1)).execute(any(SearchScroll.class));
+  }
+}
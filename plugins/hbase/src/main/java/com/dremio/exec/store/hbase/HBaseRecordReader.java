@@ -20,6 +20,7 @@ import static com.dremio.common.util.MajorTypeHelper.getFieldForNameAndMajorType
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -42,6 +43,7 @@ import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.client.Table;
 import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
+import org.apache.hadoop.hbase.util.Bytes;
 
 import com.dremio.common.AutoCloseables;
 import com.dremio.common.exceptions.ExecutionSetupException;
@@ -49,6 +51,7 @@ import com.dremio.common.expression.CompleteType;
 import com.dremio.common.expression.PathSegment;
 import com.dremio.common.expression.PathSegment.NameSegment;
 import com.dremio.common.expression.SchemaPath;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.exception.SchemaChangeException;
 import com.dremio.exec.store.AbstractRecordReader;
 import com.dremio.sabot.exec.context.OperatorContext;
@@ -65,6 +68,8 @@ public class HBaseRecordReader extends AbstractRecordReader implements HBaseCons
 
   private Map<String, StructVector> familyVectorMap;
   private VarBinaryVector rowKeyVector;
+  // vectors of the cells of the last rows, by position of the cell in the row
+  private CellVectors[] cellVectors = new CellVectors[0];
 
   private Table hTable;
   private ResultScanner resultScanner;
@@ -96,6 +101,9 @@ public class HBaseRecordReader extends AbstractRecordReader implements HBaseCons
     hbaseScan
         .setFilter(subScanSpec.asScanFilter())
         .setCaching((int) numRowsPerBatch);
+    if (context != null && context.getOptions().getOption(ExecConstants.HBASE_SCAN_ASYNC_PREFETCH)) {
+      hbaseScan.setAsyncPrefetch(true);
+    }
 
     if (!isStarQuery()) {
       for (SchemaPath column : projectedColumns) {
@@ -208,6 +216,9 @@ public class HBaseRecordReader extends AbstractRecordReader implements HBaseCons
       v.allocateNew();
     }
 
+    // vectors may be replaced between batches
+    Arrays.fill(cellVectors, null);
+
     int rowCount = 0;
     done:
     for (; rowCount < numRowsPerBatch; rowCount++) {
@@ -237,21 +248,14 @@ public class HBaseRecordReader extends AbstractRecordReader implements HBaseCons
         rowKeyVector.setSafe(rowCount, cells[0].getRowArray(), cells[0].getRowOffset(), cells[0].getRowLength());
       }
       if (!rowKeyOnly) {
-        for (final Cell cell : cells) {
-          final int familyOffset = cell.getFamilyOffset();
-          final int familyLength = cell.getFamilyLength();
-          final byte[] familyArray = cell.getFamilyArray();
-          final StructVector sv = getOrCreateFamilyVector(outputMutator, new String(familyArray, familyOffset, familyLength), true);
-          sv.setIndexDefined(rowCount);
-          final int qualifierOffset = cell.getQualifierOffset();
-          final int qualifierLength = cell.getQualifierLength();
-          final byte[] qualifierArray = cell.getQualifierArray();
-          final VarBinaryVector v = getOrCreateColumnVector(sv, new String(qualifierArray, qualifierOffset, qualifierLength));
-
-          final int valueOffset = cell.getValueOffset();
-          final int valueLength = cell.getValueLength();
-          final byte[] valueArray = cell.getValueArray();
-          v.setSafe(rowCount, valueArray, valueOffset, valueLength);
+        if (cellVectors.length < cells.length) {
+          cellVectors = Arrays.copyOf(cellVectors, cells.length);
+        }
+        for (int i = 0; i < cells.length; i++) {
+          final Cell cell = cells[i];
+          final CellVectors vectors = getCellVectors(i, cell);
+          vectors.family.setIndexDefined(rowCount);
+          vectors.column.setSafe(rowCount, cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
         }
       }
     }
@@ -261,6 +265,28 @@ public class HBaseRecordReader extends AbstractRecordReader implements HBaseCons
     return rowCount;
   }
 
+  /**
+   * Get the vectors of a cell. Rows usually have the same columns, so the vectors are looked up by the position of
+   * the cell in the row first, which avoids decoding the family and qualifier names of each cell.
+   */
+  private CellVectors getCellVectors(int index, Cell cell) {
+    final CellVectors cached = cellVectors[index];
+    if (cached != null && cached.matches(cell)) {
+      return cached;
+    }
+
+    final StructVector sv = getOrCreateFamilyVector(outputMutator,
+        new String(cell.getFamilyArray(), cell.getFamilyOffset(), cell.getFamilyLength()), true);
+    final VarBinaryVector v = getOrCreateColumnVector(sv,
+        new String(cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength()));
+    final CellVectors vectors = new CellVectors(
+        Arrays.copyOfRange(cell.getFamilyArray(), cell.getFamilyOffset(), cell.getFamilyOffset() + cell.getFamilyLength()),
+        Arrays.copyOfRange(cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierOffset() + cell.getQualifierLength()),
+        sv, v);
+    cellVectors[index] = vectors;
+    return vectors;
+  }
+
   private StructVector getOrCreateFamilyVector(OutputMutator output, String familyName, boolean allocateOnCreate) {
     StructVector v = familyVectorMap.get(familyName);
     if(v == null) {
@@ -307,4 +333,26 @@ public class HBaseRecordReader extends AbstractRecordReader implements HBaseCons
   protected boolean supportsSkipAllQuery() {
     return true;
   }
+
+  /**
+   * Vectors of a column, with its family and qualifier.
+   */
+  private static final class CellVectors {
+    private final byte[] familyName;
+    private final byte[] qualifier;
+    private final StructVector family;
+    private final VarBinaryVector column;
+
+    private CellVectors(byte[] familyName, byte[] qualifier, StructVector family, VarBinaryVector column) {
+      this.familyName = familyName;
+      this.qualifier = qualifier;
+      this.family = family;
+      this.column = column;
+    }
+
+    private boolean matches(Cell cell) {
+      return Bytes.equals(qualifier, 0, qualifier.length, cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength())
+          && Bytes.equals(familyName, 0, familyName.length, cell.getFamilyArray(), cell.getFamilyOffset(), cell.getFamilyLength());
+    }
+  }
 }
@@ -29,6 +29,7 @@ import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Admin;
 import org.apache.hadoop.hbase.client.Connection;
 import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.util.Bytes;
 
 import com.dremio.common.exceptions.ExecutionSetupException;
 import com.dremio.common.exceptions.UserException;
@@ -54,6 +55,7 @@ import com.dremio.service.namespace.dataset.proto.ScanStats;
 import com.dremio.service.namespace.dataset.proto.ScanStatsType;
 import com.dremio.service.namespace.proto.EntityId;
 import com.dremio.service.users.SystemUser;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 
 import io.protostuff.ByteString;
@@ -66,6 +68,10 @@ public class HBaseTableBuilder implements SourceTableDefinition {
 
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(HBaseTableBuilder.class);
 
+  private static final String DREMIO_EXEC_HBASE_SCAN_SPLIT_SIZE = "dremio.exec.hbase.scan.split.size";
+  private static final long DEFAULT_SPLIT_SIZE = 1024L * 1024L * 1024L;
+  private static final int MAX_SPLITS_PER_REGION = 16;
+
   private final NamespaceKey key;
   private final boolean enableRegionCalc;
   private DatasetConfig oldConfig;
@@ -129,12 +135,14 @@ public class HBaseTableBuilder implements SourceTableDefinition {
 
       TableStatsCalculator statsCalculator = new TableStatsCalculator(conn, tableName, context.getConfig(), enableRegionCalc);
 
+      final long splitSize = context.getConfig().hasPath(DREMIO_EXEC_HBASE_SCAN_SPLIT_SIZE)
+          ? context.getConfig().getBytes(DREMIO_EXEC_HBASE_SCAN_SPLIT_SIZE) : DEFAULT_SPLIT_SIZE;
       List<DatasetSplit> splits = new ArrayList<>();
       for (HRegionLocation regionLocation : regionLocations) {
         HRegionInfo regionInfo = regionLocation.getRegionInfo();
         long estRowCount = statsCalculator.getRegionSizeInBytes(regionInfo.getRegionName());
         count+= estRowCount;
-        splits.add(toSplit(regionLocation.getHostname(), regionInfo, estRowCount));
+        splits.addAll(toSplits(regionLocation.getHostname(), regionInfo, estRowCount, splitSize, enableRegionCalc));
       }
 
 
@@ -161,9 +169,42 @@ public class HBaseTableBuilder implements SourceTableDefinition {
     }
   }
 
-  private DatasetSplit toSplit(String hostname, HRegionInfo info, long estimatedRows) {
+  /**
+   * Create the splits of a region. Regions larger than the split size are divided in key ranges of equal width
+   * (assuming keys are evenly distributed) so that they can be read in parallel. This is only possible for regions
+   * with bounded keys, with known sizes.
+   */
+  @VisibleForTesting
+  static List<DatasetSplit> toSplits(String hostname, HRegionInfo info, long estimatedRows, long splitSize,
+      boolean enableRegionCalc) {
+    final byte[] startKey = info.getStartKey();
+    final byte[] endKey = info.getEndKey();
+    final int splitCount = (int) Math.min(MAX_SPLITS_PER_REGION, (estimatedRows + splitSize - 1) / splitSize);
+
+    byte[][] keys = null;
+    if (enableRegionCalc && splitCount > 1 && startKey != null && startKey.length > 0 && endKey != null && endKey.length > 0) {
+      try {
+        keys = Bytes.split(startKey, endKey, splitCount - 1);
+      } catch (IllegalArgumentException e) {
+        logger.debug("Unable to split region {}", info.getEncodedName(), e);
+      }
+    }
+
+    if (keys == null) {
+      return ImmutableList.of(toSplit(info.getEncodedName(), hostname, startKey, endKey, estimatedRows));
+    }
+
+    final List<DatasetSplit> splits = new ArrayList<>();
+    final long size = estimatedRows / (keys.length - 1);
+    for (int i = 0; i < keys.length - 1; i++) {
+      splits.add(toSplit(info.getEncodedName() + "_" + i, hostname, keys[i], keys[i + 1], size));
+    }
+    return splits;
+  }
+
+  private static DatasetSplit toSplit(String splitKey, String hostname, byte[] startKey, byte[] endKey, long estimatedRows) {
     DatasetSplit split = new DatasetSplit()
-        .setSplitKey(info.getEncodedName())
+        .setSplitKey(splitKey)
         .setSize(estimatedRows)
         .setAffinitiesList(ImmutableList.of(
             new Affinity().setFactor((double)estimatedRows).setHost(hostname)
@@ -171,12 +212,12 @@ public class HBaseTableBuilder implements SourceTableDefinition {
         .setRowCount(estimatedRows);
 
     HBaseSplitXattr.Builder xattr = HBaseSplitXattr.newBuilder();
-    if(info.getStartKey() != null) {
-      xattr.setStart(com.google.protobuf.ByteString.copyFrom(info.getStartKey()));
+    if(startKey != null) {
+      xattr.setStart(com.google.protobuf.ByteString.copyFrom(startKey));
     }
 
-    if(info.getEndKey() != null) {
-      xattr.setStop(com.google.protobuf.ByteString.copyFrom(info.getEndKey()));
+    if(endKey != null) {
+      xattr.setStop(com.google.protobuf.ByteString.copyFrom(endKey));
     }
 
     split.setExtendedProperty(ByteString.copyFrom(xattr.build().toByteArray()));
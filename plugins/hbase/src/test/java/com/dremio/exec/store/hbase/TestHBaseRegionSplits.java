@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.hbase;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.HRegionInfo;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+import com.dremio.hbase.proto.HBasePluginProto.HBaseSplitXattr;
+import com.dremio.service.namespace.dataset.proto.DatasetSplit;
+import com.dremio.test.DremioTest;
+
+/**
+ * Tests for the splitting of HBase regions in {@link HBaseTableBuilder}.
+ */
+public class TestHBaseRegionSplits extends DremioTest {
+
+  private static final TableName TABLE = TableName.valueOf("splits");
+  private static final String HOST = "host1";
+  private static final byte[] START = Bytes.toBytes("aaaa");
+  private static final byte[] END = Bytes.toBytes("zzzz");
+
+  @Test
+  public void largeRegion() throws Exception {
+    final HRegionInfo region = new HRegionInfo(TABLE, START, END);
+    final List<DatasetSplit> splits = HBaseTableBuilder.toSplits(HOST, region, 100, 10, true);
+
+    assertEquals(10, splits.size());
+    byte[] previousStop = null;
+    for (int i = 0; i < splits.size(); i++) {
+      final DatasetSplit split = splits.get(i);
+      final HBaseSplitXattr xattr = xattr(split);
+      assertEquals(region.getEncodedName() + "_" + i, split.getSplitKey());
+      assertEquals(10L, split.getSize().longValue());
+      assertEquals(HOST, split.getAffinitiesList().get(0).getHost());
+      assertTrue(Bytes.compareTo(xattr.getStart().toByteArray(), xattr.getStop().toByteArray()) < 0);
+      if (i == 0) {
+        // first split starts at the beginning of the region
+        assertArrayEquals(START, xattr.getStart().toByteArray());
+      } else {
+        // no gap or overlap between consecutive splits
+        assertArrayEquals(previousStop, xattr.getStart().toByteArray());
+      }
+      previousStop = xattr.getStop().toByteArray();
+    }
+
+    // last split ends at the end of the region
+    assertArrayEquals(END, previousStop);
+  }
+
+  @Test
+  public void splitsPerRegionAreCapped() throws Exception {
+    final HRegionInfo region = new HRegionInfo(TABLE, START, END);
+    final List<DatasetSplit> splits = HBaseTableBuilder.toSplits(HOST, region, 1000, 10, true);
+
+    assertEquals(16, splits.size());
+    assertEquals(1000L / 16, splits.get(0).getSize().longValue());
+    assertArrayEquals(START, xattr(splits.get(0)).getStart().toByteArray());
+    assertArrayEquals(END, xattr(splits.get(15)).getStop().toByteArray());
+  }
+
+  @Test
+  public void partialLastSplit() throws Exception {
+    // 25 rows with a split size of 10 need a third, smaller, split
+    final HRegionInfo region = new HRegionInfo(TABLE, START, END);
+    final List<DatasetSplit> splits = HBaseTableBuilder.toSplits(HOST, region, 25, 10, true);
+
+    assertEquals(3, splits.size());
+    assertArrayEquals(END, xattr(splits.get(2)).getStop().toByteArray());
+  }
+
+  @Test
+  public void regionSmallerThanSplitSize() throws Exception {
+    final HRegionInfo region = new HRegionInfo(TABLE, START, END);
+    assertSingleSplit(region, HBaseTableBuilder.toSplits(HOST, region, 5, 10, true), 5);
+    assertSingleSplit(region, HBaseTableBuilder.toSplits(HOST, region, 10, 10, true), 10);
+    assertSingleSplit(region, HBaseTableBuilder.toSplits(HOST, region, 0, 10, true), 0);
+  }
+
+  @Test
+  public void unboundedRegions() throws Exception {
+    final HRegionInfo first = new HRegionInfo(TABLE, HConstants.EMPTY_START_ROW, END);
+    assertSingleSplit(first, HBaseTableBuilder.toSplits(HOST, first, 100, 10, true), 100);
+
+    final HRegionInfo last = new HRegionInfo(TABLE, START, HConstants.EMPTY_END_ROW);
+    assertSingleSplit(last, HBaseTableBuilder.toSplits(HOST, last, 100, 10, true), 100);
+  }
+
+  @Test
+  public void regionCalculationDisabled() throws Exception {
+    final HRegionInfo region = new HRegionInfo(TABLE, START, END);
+    assertSingleSplit(region, HBaseTableBuilder.toSplits(HOST, region, 100, 10, false), 100);
+  }
+
+  private static void assertSingleSplit(HRegionInfo region, List<DatasetSplit> splits, long size) throws Exception {
+    assertEquals(1, splits.size());
+    final DatasetSplit split = splits.get(0);
+    final HBaseSplitXattr xattr = xattr(split);
+    assertEquals(region.getEncodedName(), split.getSplitKey());
+    assertEquals(size, split.getSize().longValue());
+    assertArrayEquals(region.getStartKey(), xattr.getStart().toByteArray());
+    assertArrayEquals(region.getEndKey(), xattr.getStop().toByteArray());
+  }
+
+  private static HBaseSplitXattr xattr(DatasetSplit split) throws Exception {
+    return HBaseSplitXattr.parseFrom(split.getExtendedProperty().toByteArray());
+  }
+}
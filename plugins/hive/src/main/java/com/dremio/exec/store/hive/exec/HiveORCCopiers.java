@@ -15,12 +15,15 @@
  */
 package com.dremio.exec.store.hive.exec;
 
+import java.nio.ByteOrder;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.arrow.vector.BaseFixedWidthVector;
 import org.apache.arrow.vector.BaseVariableWidthVector;
 import org.apache.arrow.vector.BigIntVector;
 import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.BitVectorHelper;
 import org.apache.arrow.vector.DateMilliVector;
 import org.apache.arrow.vector.DecimalVector;
 import org.apache.arrow.vector.Float4Vector;
@@ -40,6 +43,8 @@ import org.apache.hadoop.hive.serde2.io.HiveDecimalWritable;
 
 import com.dremio.common.exceptions.UserException;
 
+import io.netty.buffer.ArrowBuf;
+
 public class HiveORCCopiers {
 
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(HiveORCCopiers.class);
@@ -117,7 +122,58 @@ public class HiveORCCopiers {
    *    ii) No-nulls: We avoid checking for nulls in input vector
    *    iii) Non-repeating, has nulls: Before copying an element from input vector, we first check if the value is null
    *         in isNull array in input vector.
+   * 4) Non-repeating 8 byte wide values that need no conversion (bigint, double and timestamp) are copied from the
+   *    input array into the output data buffer in one bulk copy, null slots included, and only the validity buffer is
+   *    then updated based on isNull array.
+   */
+
+  private static final int EIGHT_BYTE_WIDTH = 8;
+
+  private static void bulkCopy(long[] input, int inputIdx, int count, BaseFixedWidthVector output, int outputIdx) {
+    output.getDataBuffer()
+        .nioBuffer(outputIdx * EIGHT_BYTE_WIDTH, count * EIGHT_BYTE_WIDTH)
+        .order(ByteOrder.LITTLE_ENDIAN)
+        .asLongBuffer()
+        .put(input, inputIdx, count);
+  }
+
+  private static void bulkCopy(double[] input, int inputIdx, int count, BaseFixedWidthVector output, int outputIdx) {
+    output.getDataBuffer()
+        .nioBuffer(outputIdx * EIGHT_BYTE_WIDTH, count * EIGHT_BYTE_WIDTH)
+        .order(ByteOrder.LITTLE_ENDIAN)
+        .asDoubleBuffer()
+        .put(input, inputIdx, count);
+  }
+
+  /**
+   * Marks the given range of the output vector as non-null, a whole byte of the validity buffer at a time.
    */
+  private static void setNotNull(BaseFixedWidthVector output, int outputIdx, int count) {
+    final ArrowBuf validity = output.getValidityBuffer();
+    final int end = outputIdx + count;
+    int idx = outputIdx;
+    for (; idx < end && (idx & 7) != 0; idx++) {
+      BitVectorHelper.setValidityBitToOne(validity, idx);
+    }
+    for (; idx + 8 <= end; idx += 8) {
+      validity.setByte(idx >>> 3, 0xFF);
+    }
+    for (; idx < end; idx++) {
+      BitVectorHelper.setValidityBitToOne(validity, idx);
+    }
+  }
+
+  /**
+   * Marks the output positions whose input value is not null as non-null.
+   */
+  private static void setNotNull(boolean[] isNull, int inputIdx, int count, BaseFixedWidthVector output, int outputIdx) {
+    final ArrowBuf validity = output.getValidityBuffer();
+    for (int i = 0; i < count; i++, inputIdx++, outputIdx++) {
+      if (!isNull[inputIdx]) {
+        BitVectorHelper.setValidityBitToOne(validity, outputIdx);
+      }
+    }
+  }
 
   private static class IntCopier implements ORCCopier {
     private LongColumnVector inputVector;
@@ -175,16 +231,11 @@ public class HiveORCCopiers {
           outputVector.set(outputIdx, value);
         }
       } else if (inputVector.noNulls) {
-        for (int i = 0; i < count; i++, inputIdx++, outputIdx++) {
-          outputVector.set(outputIdx, input[inputIdx]);
-        }
+        bulkCopy(input, inputIdx, count, outputVector, outputIdx);
+        setNotNull(outputVector, outputIdx, count);
       } else {
-        final boolean isNull[] = inputVector.isNull;
-        for (int i = 0; i < count; i++, inputIdx++, outputIdx++) {
-          if (!isNull[inputIdx]) {
-            outputVector.set(outputIdx, input[inputIdx]);
-          }
-        }
+        bulkCopy(input, inputIdx, count, outputVector, outputIdx);
+        setNotNull(inputVector.isNull, inputIdx, count, outputVector, outputIdx);
       }
     }
   }
@@ -255,12 +306,8 @@ public class HiveORCCopiers {
    //     outputVector.set(outputIdx, input[inputIdx]);
    //   }
       } else {
-        final boolean isNull[] = inputVector.isNull;
-        for (int i = 0; i < count; i++, inputIdx++, outputIdx++) {
-          if (!isNull[inputIdx]) {
-            outputVector.set(outputIdx, input[inputIdx]);
-          }
-        }
+        bulkCopy(input, inputIdx, count, outputVector, outputIdx);
+        setNotNull(inputVector.isNull, inputIdx, count, outputVector, outputIdx);
       }
     }
   }
@@ -405,12 +452,8 @@ public class HiveORCCopiers {
    //     outputVector.set(outputIdx, input[inputIdx]);
    //   }
       } else {
-        final boolean isNull[] = inputVector.isNull;
-        for (int i = 0; i < count; i++, inputIdx++, outputIdx++) {
-          if (!isNull[inputIdx]) {
-            outputVector.set(outputIdx, input[inputIdx]);
-          }
-        }
+        bulkCopy(input, inputIdx, count, outputVector, outputIdx);
+        setNotNull(inputVector.isNull, inputIdx, count, outputVector, outputIdx);
       }
     }
   }
@@ -20,8 +20,10 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -52,6 +54,7 @@ import com.dremio.exec.server.SabotContext;
 import com.dremio.services.fabric.ProxyConnection;
 import com.dremio.services.fabric.api.FabricCommandRunner;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.protobuf.Internal.EnumLite;
 import com.google.protobuf.MessageLite;
 
@@ -79,6 +82,9 @@ class RemoteNodeFileSystem extends FileSystem {
   static final String RPC_TIMEOUT_KEY = "dremio.pdfs.remote.rpc.timeout.ms";
   static final long RPC_TIMEOUT_MS_DEFAULT = 5000;
 
+  static final String READ_AHEAD_COUNT_KEY = "dremio.pdfs.remote.read-ahead.count";
+  static final int READ_AHEAD_COUNT_DEFAULT = 4;
+
   private static final Path ROOT_PATH = new Path("/");
 
   private static final class GetFileStatusCommand extends PDFSCommand<DFS.GetFileStatusResponse> {
@@ -264,6 +270,7 @@ class RemoteNodeFileSystem extends FileSystem {
   private int listStatusBatchSize = LIST_STATUS_BATCH_SIZE_DEFAULT;
   private int writeBufferSize = REMOTE_WRITE_BUFFER_SIZE_DEFAULT;
   private long rpcTimeoutMs = RPC_TIMEOUT_MS_DEFAULT;
+  private int readAheadCount = READ_AHEAD_COUNT_DEFAULT;
 
   public RemoteNodeFileSystem(FabricCommandRunner runner, BufferAllocator allocator) {
     this.runner = runner;
@@ -282,6 +289,7 @@ class RemoteNodeFileSystem extends FileSystem {
     listStatusBatchSize = conf.getInt(LIST_STATUS_BATCH_SIZE_KEY, LIST_STATUS_BATCH_SIZE_DEFAULT);
     writeBufferSize = conf.getInt(REMOTE_WRITE_BUFFER_SIZE_KEY, REMOTE_WRITE_BUFFER_SIZE_DEFAULT);
     rpcTimeoutMs = conf.getTimeDuration(RPC_TIMEOUT_KEY, RPC_TIMEOUT_MS_DEFAULT, TimeUnit.MILLISECONDS);
+    readAheadCount = conf.getInt(READ_AHEAD_COUNT_KEY, READ_AHEAD_COUNT_DEFAULT);
   }
 
   private Path toAbsolutePath(Path p) {
@@ -299,15 +307,83 @@ class RemoteNodeFileSystem extends FileSystem {
 
   private static final ByteBuf EMPTY_BUFFER = Unpooled.unreleasableBuffer(Unpooled.EMPTY_BUFFER);
 
+  /**
+   * A request for a range of a remote file, sent when created.
+   */
+  private final class FileDataRequest {
+    private final long offset;
+    private final int length;
+    private final RpcFuture<DFS.GetFileDataResponse> future;
+
+    private FileDataRequest(String path, long offset, int length) {
+      this.offset = offset;
+      this.length = length;
+
+      final GetFileDataCommand command = new GetFileDataCommand(path, offset, length);
+      runner.runCommand(command);
+      this.future = command.getFuture();
+    }
+
+    /**
+     * Wait for the response. Once received, the data returned by {@link #getBuffer()} is owned by the caller.
+     */
+    private DFS.GetFileDataResponse get() throws IOException {
+      try {
+        return future.checkedGet(rpcTimeoutMs, TimeUnit.MILLISECONDS);
+      } catch(TimeoutException e) {
+        discard();
+        throw new IOException("Timeout occured during I/O request for " + uri, e);
+      } catch(RpcException e) {
+        RpcException.propagateIfPossible(e, IOException.class);
+
+        throw e;
+      }
+    }
+
+    private ByteBuf getBuffer() {
+      final ByteBuf buffer = future.getBuffer();
+      return buffer != null ? buffer : EMPTY_BUFFER;
+    }
+
+    /**
+     * Release the data of a request which is not needed anymore, whenever the response is received.
+     */
+    private void discard() {
+      future.addListener(new Runnable() {
+        @Override
+        public void run() {
+          final ByteBuf buffer = future.getBuffer();
+          if (buffer != null) {
+            buffer.release();
+          }
+        }
+      }, MoreExecutors.directExecutor());
+    }
+  }
+
+  /**
+   * Input stream over a remote file. Data is fetched one buffer at a time, and the response buffers are read
+   * directly (without copy). When the stream is read sequentially, the next buffers are requested ahead of time so
+   * that several requests are in flight: the read ahead depth grows by one with each sequential fetch, up to
+   * {@link #READ_AHEAD_COUNT_KEY}, and is reset by a seek to another position.
+   */
   private final class RemoteNodeInputStream extends FSInputStream {
     private final String path;
     private final int buffersize;
+    // requests sent ahead of the current buffer, in file order
+    private final Deque<FileDataRequest> readAhead = new ArrayDeque<>();
 
     private long pos = 0;
     private boolean closed = false;
     private boolean eof = false;
     private ByteBuf buf;
     private InputStream in;
+    // file offset and reader index of the first byte of buf
+    private long bufOffset = 0;
+    private int bufStartIndex = 0;
+    // file offset following the last data received, -1 if unknown
+    private long nextOffset = -1;
+    private int sequentialFetches = 0;
 
     public RemoteNodeInputStream(String path, int buffersize) throws IOException {
       super();
@@ -324,6 +400,14 @@ class RemoteNodeFileSystem extends FileSystem {
       if (eof) {
         throw new EOFException("Stream is closed");
       }
+
+      // seeking within the current buffer doesn't need a new request
+      if (pos >= bufOffset && pos - bufOffset < buf.writerIndex() - bufStartIndex) {
+        buf.readerIndex(bufStartIndex + (int) (pos - bufOffset));
+        this.pos = pos;
+        return;
+      }
+
       this.pos = pos;
       getData();
     }
@@ -339,6 +423,7 @@ class RemoteNodeFileSystem extends FileSystem {
 
       in.close();
       buf.release();
+      discardReadAhead();
     }
 
     @Override
@@ -396,6 +481,59 @@ class RemoteNodeFileSystem extends FileSystem {
       return read;
     }
 
+    /**
+     * Positional read, with requests of at most the buffer size (like sequential reads) so that the remote node
+     * doesn't have to send a large range in a single response. Up to {@link #READ_AHEAD_COUNT_KEY} requests are sent
+     * ahead of the one being read. Doesn't change the position or the buffered data of the stream.
+     */
+    @Override
+    public int read(long position, byte[] b, int off, int len) throws IOException {
+      checkClosed();
+
+      if (len == 0) {
+        return 0;
+      }
+
+      final Deque<FileDataRequest> requests = new ArrayDeque<>();
+      final long end = position + len;
+      long requestOffset = position;
+      int read = 0;
+      try {
+        while (read < len) {
+          while (requests.size() <= readAheadCount && requestOffset < end) {
+            final int length = (int) Math.min(buffersize, end - requestOffset);
+            requests.add(new FileDataRequest(path, requestOffset, length));
+            requestOffset += length;
+          }
+
+          final FileDataRequest request = requests.poll();
+          final DFS.GetFileDataResponse response = request.get();
+          final ByteBuf data = request.getBuffer();
+          try {
+            if (response.getRead() == -1) {
+              return read == 0 ? -1 : read;
+            }
+
+            final int count = Math.min(request.length, data.readableBytes());
+            data.readBytes(b, off + read, count);
+            read += count;
+            if (count < request.length) {
+              // the file ends within the request
+              return read;
+            }
+          } finally {
+            data.release();
+          }
+        }
+        return read;
+      } finally {
+        // requests past the end of the file
+        for (FileDataRequest request : requests) {
+          request.discard();
+        }
+      }
+    }
+
     private void checkClosed() throws IOException {
       if (closed) {
         throw new IOException("Stream is closed");
@@ -406,25 +544,57 @@ class RemoteNodeFileSystem extends FileSystem {
       // Free previous resources
       in.close();
       buf.release();
+      buf = EMPTY_BUFFER;
+      in = new ByteBufInputStream(buf);
+
+      sequentialFetches = (pos == nextOffset) ? sequentialFetches + 1 : 0;
+
+      // use the data requested ahead if any, requests before the position are not needed anymore
+      FileDataRequest request = null;
+      while (!readAhead.isEmpty()) {
+        final FileDataRequest next = readAhead.poll();
+        if (next.offset == pos) {
+          request = next;
+          break;
+        }
+        next.discard();
+      }
+      if (request == null) {
+        request = new FileDataRequest(path, pos, buffersize);
+      }
 
-      final GetFileDataCommand command = new GetFileDataCommand(path, pos, buffersize);
-      runner.runCommand(command);
+      final DFS.GetFileDataResponse response = request.get();
+      eof = (response.getRead() == -1);
+      buf = request.getBuffer();
+      bufOffset = pos;
+      bufStartIndex = buf.readerIndex();
+      in = new ByteBufInputStream(buf);
 
-      RpcFuture<DFS.GetFileDataResponse> future = command.getFuture();
-      try {
-        DFS.GetFileDataResponse response = future.checkedGet(rpcTimeoutMs, TimeUnit.MILLISECONDS);
-        eof = (response.getRead() == -1);
-        buf = future.getBuffer();
-        if (buf == null) {
-          buf = EMPTY_BUFFER;
-        }
-        in = new ByteBufInputStream(buf);
-      } catch(TimeoutException e) {
-        throw new IOException("Timeout occured during I/O request for " + uri, e);
-      } catch(RpcException e) {
-        RpcException.propagateIfPossible(e, IOException.class);
+      if (eof) {
+        nextOffset = -1;
+        discardReadAhead();
+        return;
+      }
 
-        throw e;
+      nextOffset = pos + response.getRead();
+      // only read ahead if the file didn't end within the buffer
+      if (response.getRead() == request.length) {
+        requestAhead();
+      }
+    }
+
+    private void requestAhead() {
+      final int depth = Math.min(sequentialFetches, readAheadCount);
+      long offset = readAhead.isEmpty() ? nextOffset : readAhead.peekLast().offset + readAhead.peekLast().length;
+      while (readAhead.size() < depth) {
+        readAhead.add(new FileDataRequest(path, offset, buffersize));
+        offset += buffersize;
+      }
+    }
+
+    private void discardReadAhead() {
+      while (!readAhead.isEmpty()) {
+        readAhead.poll().discard();
       }
     }
   }
@@ -624,4 +624,107 @@ public class TestRemoteNodeFileSystem extends ExecTest {
       assertEquals((byte)i, readBuf[i]);
     }
   }
+
+  private static DFS.GetFileDataRequest newGetFileDataRequest(Path path, long start, int length) {
+    return DFS.GetFileDataRequest.newBuilder().setPath(path.toString()).setStart(start).setLength(length).build();
+  }
+
+  @Test
+  public void testInputStreamReadAhead() throws Exception {
+    Path filePath = new Path("/foo/bar");
+    byte[] data = new byte[300];
+    for (int i = 0; i < data.length; ++i) {
+      data[i] = (byte)i;
+    }
+
+    // 300 and 400 are requested ahead as the stream is read sequentially
+    setupRPC(
+      DFS.RpcType.GET_FILE_DATA_REQUEST,
+      Arrays.<MessageLite>asList(
+        newGetFileDataRequest(filePath, 0, 100),
+        newGetFileDataRequest(filePath, 100, 100),
+        newGetFileDataRequest(filePath, 200, 100),
+        newGetFileDataRequest(filePath, 300, 100),
+        newGetFileDataRequest(filePath, 400, 100),
+        newGetFileDataRequest(filePath, 10, 20)),
+      DFS.RpcType.GET_FILE_DATA_RESPONSE,
+      Arrays.<MessageLite>asList(
+        DFS.GetFileDataResponse.newBuilder().setRead(100).build(),
+        DFS.GetFileDataResponse.newBuilder().setRead(100).build(),
+        DFS.GetFileDataResponse.newBuilder().setRead(100).build(),
+        DFS.GetFileDataResponse.newBuilder().setRead(-1).build(),
+        DFS.GetFileDataResponse.newBuilder().setRead(-1).build(),
+        DFS.GetFileDataResponse.newBuilder().setRead(20).build()),
+      Arrays.asList(
+        Unpooled.wrappedBuffer(data, 0, 100),
+        Unpooled.wrappedBuffer(data, 100, 100),
+        Unpooled.wrappedBuffer(data, 200, 100),
+        null,
+        null,
+        Unpooled.wrappedBuffer(data, 10, 20)));
+
+    FileSystem fs = newRemoteNodeFileSystem();
+    try (FSDataInputStream inputStream = fs.open(filePath, 100)) {
+      byte[] readBuf = new byte[1000];
+      int read = inputStream.read(readBuf, 0, 1000);
+      assertEquals(300, read);
+      for (int i = 0; i < 300; ++i) {
+        assertEquals((byte)i, readBuf[i]);
+      }
+
+      // positional read within the buffer size is a single request, and doesn't move the stream
+      byte[] positionalBuf = new byte[20];
+      inputStream.readFully(10, positionalBuf);
+      for (int i = 0; i < 20; ++i) {
+        assertEquals((byte)(i + 10), positionalBuf[i]);
+      }
+      assertEquals(300, inputStream.getPos());
+    }
+  }
+
+  @Test
+  public void testInputStreamPositionalReadInChunks() throws Exception {
+    Path filePath = new Path("/foo/bar");
+    byte[] data = new byte[300];
+    for (int i = 0; i < data.length; ++i) {
+      data[i] = (byte)i;
+    }
+
+    // positional reads are split in requests of at most the buffer size, the last one ends with the file
+    setupRPC(
+      DFS.RpcType.GET_FILE_DATA_REQUEST,
+      Arrays.<MessageLite>asList(
+        newGetFileDataRequest(filePath, 50, 100),
+        newGetFileDataRequest(filePath, 150, 100),
+        newGetFileDataRequest(filePath, 250, 40),
+        newGetFileDataRequest(filePath, 280, 100)),
+      DFS.RpcType.GET_FILE_DATA_RESPONSE,
+      Arrays.<MessageLite>asList(
+        DFS.GetFileDataResponse.newBuilder().setRead(100).build(),
+        DFS.GetFileDataResponse.newBuilder().setRead(100).build(),
+        DFS.GetFileDataResponse.newBuilder().setRead(40).build(),
+        DFS.GetFileDataResponse.newBuilder().setRead(20).build()),
+      Arrays.asList(
+        Unpooled.wrappedBuffer(data, 50, 100),
+        Unpooled.wrappedBuffer(data, 150, 100),
+        Unpooled.wrappedBuffer(data, 250, 40),
+        Unpooled.wrappedBuffer(data, 280, 20)));
+
+    FileSystem fs = newRemoteNodeFileSystem();
+    try (FSDataInputStream inputStream = fs.open(filePath, 100)) {
+      byte[] positionalBuf = new byte[240];
+      inputStream.readFully(50, positionalBuf);
+      for (int i = 0; i < positionalBuf.length; ++i) {
+        assertEquals((byte)(i + 50), positionalBuf[i]);
+      }
+
+      // short read at the end of the file
+      byte[] lastBuf = new byte[100];
+      assertEquals(20, inputStream.read(280, lastBuf, 0, 100));
+      for (int i = 0; i < 20; ++i) {
+        assertEquals((byte)(i + 280), lastBuf[i]);
+      }
+      assertEquals(0, inputStream.getPos());
+    }
+  }
 }
@@ -87,6 +87,9 @@ public interface ExecConstants {
   // Number above which we stop replacing a group of ORs with a set operation.
   PositiveLongValidator FAST_OR_MAX_THRESHOLD = new PositiveLongValidator("exec.operator.orfast.threshold.max", Integer.MAX_VALUE, 1500);
 
+  // Whether or not to evaluate simple filter conditions a batch at a time instead of with generated code.
+  BooleanValidator VECTORIZED_FILTER_ENABLE = new BooleanValidator("exec.operator.filter.vectorized", true);
+
   PositiveLongValidator CODE_GEN_NESTED_METHOD_THRESHOLD = new PositiveLongValidator("exec.operator.codegen.nested_method.threshold", Integer.MAX_VALUE, 100);
 
   /** Size of JDBC batch queue (in batches) above which throttling begins. */
@@ -123,6 +126,8 @@ public interface ExecConstants {
   BooleanValidator ENABLE_VECTORIZED_COPIER = new BooleanValidator("exec.operator.copier.vectorize", true);
   BooleanValidator ENABLE_VECTORIZED_PARTITIONER = new BooleanValidator("exec.operator.partitioner.vectorize", true);
   BooleanValidator DEBUG_HASHJOIN_INSERTION = new BooleanValidator("exec.operator.join.debug-insertion", false);
+  // Whether or not the hash tables of vectorized hash aggregations and joins probe groups of one byte hash tags.
+  BooleanValidator HASH_TABLE_GROUP_PROBING = new BooleanValidator("exec.operator.hashtable.group_probing", false);
 
   String OUTPUT_FORMAT_OPTION = "store.format";
   StringValidator OUTPUT_FORMAT_VALIDATOR = new StringValidator(OUTPUT_FORMAT_OPTION, "parquet");
@@ -162,6 +167,36 @@ public interface ExecConstants {
   BooleanValidator PARQUET_READER_VECTORIZE = new BooleanValidator("store.parquet.vectorize", true);
   BooleanValidator ENABLED_PARQUET_TRACING = new BooleanValidator("store.parquet.vectorize.tracing.enable", false);
 
+  /**
+   * Read the columns of a filtered parquet scan the filter is not on only for the rows passing the filter, when the
+   * filter is not evaluated by the vectorized reader. Only applies to scans with parquet filter conditions, which the
+   * planner doesn't push down yet, so off by default.
+   */
+  BooleanValidator PARQUET_LATE_MATERIALIZATION = new BooleanValidator("store.parquet.late_materialization", false);
+
+  /**
+   * Skip the row groups in which no row passes the filter pushed into a parquet scan, according to the dictionaries of
+   * the filtered columns. Like late materialization, only applies to scans with parquet filter conditions, so off by
+   * default.
+   */
+  BooleanValidator PARQUET_DICTIONARY_FILTER = new BooleanValidator("store.parquet.dictionary_filter", false);
+
+  /**
+   * Number of parquet footers a scan reads ahead in the background while reading the current file. 0 disables
+   * prefetching.
+   */
+  LongValidator PARQUET_FOOTER_PREFETCH_DEPTH = new RangeLongValidator("store.parquet.footer_prefetch_depth", 0, 64, 2);
+  /**
+   * Maximum time in milliseconds a scan waits for a prefetched parquet footer before reading it synchronously.
+   */
+  PositiveLongValidator PARQUET_FOOTER_PREFETCH_WAIT_MS = new PositiveLongValidator("store.parquet.footer_prefetch_wait_ms", Long.MAX_VALUE, 60_000);
+
+  /**
+   * Memory used by the global dictionaries no operator references anymore, kept in the node level global dictionary
+   * cache for the next scans. Read when the cache is created.
+   */
+  LongValidator PARQUET_GLOBAL_DICTIONARY_CACHE_SIZE = new RangeLongValidator("store.parquet.global_dictionary_cache.size_bytes", 0, Long.MAX_VALUE, 256 * 1024 * 1024);
+
   String PARQUET_READER_INT96_AS_TIMESTAMP = "store.parquet.reader.int96_as_timestamp";
   BooleanValidator PARQUET_READER_INT96_AS_TIMESTAMP_VALIDATOR = new BooleanValidator(PARQUET_READER_INT96_AS_TIMESTAMP, true);
 
@@ -213,9 +248,17 @@ public interface ExecConstants {
   BooleanValidator ELASTIC_RULES_PROJECT = new BooleanValidator("store.elastic.enable_project_rule", true);
   BooleanValidator ELASTIC_RULES_EDGE_PROJECT = new BooleanValidator("store.elastic.enable_edge_project_rule", false);
   BooleanValidator ELASTIC_RULES_SAMPLE = new BooleanValidator("store.elastic.enable_sample_rule", true);
+  // push the first phase of aggregations into Elastic, on top of the aggregate rule
+  BooleanValidator ELASTIC_AGGREGATE_PUSHDOWN = new BooleanValidator("store.elastic.aggregate_pushdown", false);
 
   BooleanValidator ELASTIC_ENABLE_MAPPING_CHECKSUM = new BooleanValidator("store.elastic.enable_mapping_checksum", true);
 
+  // request the next scroll page while the current one is parsed
+  BooleanValidator ELASTIC_SCROLL_PREFETCH = new BooleanValidator("store.elastic.scroll_prefetch", true);
+
+  // fetch the next scanner results in the background while the current ones are decoded
+  BooleanValidator HBASE_SCAN_ASYNC_PREFETCH = new BooleanValidator("store.hbase.scan.async_prefetch", true);
+
   BooleanValidator ENABLE_UNION_TYPE = new BooleanValidator("exec.enable_union_type", true);
 
   BooleanValidator ACCELERATION_VERBOSE_LOGGING = new BooleanValidator("accelerator.system.verbose.logging", true);
@@ -344,6 +387,12 @@ public interface ExecConstants {
   PositiveLongValidator PARTITION_SENDER_MAX_MEM = new PositiveLongValidator("exec.partitioner.mem.max", Integer.MAX_VALUE, 100*1024*1024);
   PositiveLongValidator PARTITION_SENDER_MAX_BATCH_SIZE = new PositiveLongValidator("exec.partitioner.batch.size.max", Integer.MAX_VALUE, 1024*1024);
 
+  /**
+   * Applicable only when {@link #ENABLE_VECTORIZED_PARTITIONER} is true. A partition sender logs a warning when the
+   * busiest receiver got more than this many times the average number of records sent to each receiver.
+   */
+  DoubleValidator PARTITION_SENDER_SKEW_WARN_RATIO = new RangeDoubleValidator("exec.partitioner.skew.warn_ratio", 1, 1000, 4);
+
   BooleanValidator DEBUG_QUERY_PROFILE = new BooleanValidator("dremio.profile.debug_columns", false);
 
   PositiveLongValidator LAYOUT_REFRESH_MAX_ATTEMPTS = new PositiveLongValidator("layout.refresh.max.attempts", Integer.MAX_VALUE, 3);
@@ -0,0 +1,260 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.expr.fn.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.dremio.exec.expr.fn.FunctionErrorContext;
+
+import io.netty.buffer.ArrowBuf;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Matcher for SQL LIKE and ILIKE patterns, working directly on the UTF-8 bytes of the input.
+ *
+ * The pattern is split at setup into the literal segments between its '%' wildcards. The first segment is matched as
+ * a prefix unless the pattern starts with '%', the last one as a suffix unless the pattern ends with '%', and the
+ * segments in between are searched left to right (Boyer-Moore-Horspool). This covers exact, prefix, suffix, contains
+ * and multi-segment patterns. As UTF-8 is self-synchronizing, matching the UTF-8 bytes of the segments is the same as
+ * matching their characters.
+ *
+ * Patterns with a '_' wildcard (which matches a character, not a byte) are matched with a regular expression, as are
+ * ILIKE patterns with non ASCII characters. ILIKE inputs with non ASCII characters are also matched with the regular
+ * expression, as some of them (e.g. the Kelvin sign) fold to ASCII letters.
+ */
+public final class SqlLikeMatcher {
+
+  private static final long NON_ASCII_MASK = 0x8080808080808080L;
+
+  private final boolean leadingWildcard;
+  private final boolean trailingWildcard;
+  // literal segments between wildcards (lower case for ILIKE), null if the pattern is matched with a regex
+  private final byte[][] segments;
+  // Horspool shift tables of the segments
+  private final int[][] shifts;
+  private final boolean caseInsensitive;
+
+  private final Matcher regexMatcher;
+  private final CharSequenceWrapper charSequenceWrapper;
+
+  private SqlLikeMatcher(String regex, int flags, FunctionErrorContext errCtx, boolean leadingWildcard,
+      boolean trailingWildcard, byte[][] segments, boolean caseInsensitive) {
+    this.leadingWildcard = leadingWildcard;
+    this.trailingWildcard = trailingWildcard;
+    this.segments = segments;
+    this.caseInsensitive = caseInsensitive;
+    if (segments != null) {
+      this.shifts = new int[segments.length][];
+      for (int i = 0; i < segments.length; i++) {
+        shifts[i] = shiftTable(segments[i]);
+      }
+    } else {
+      this.shifts = null;
+    }
+
+    // regex fallback, always needed for ILIKE as non ASCII inputs are matched with it
+    if (segments == null || caseInsensitive) {
+      this.charSequenceWrapper = new CharSequenceWrapper();
+      this.regexMatcher = StringFunctionUtil.compilePattern(regex, flags, errCtx).matcher(charSequenceWrapper);
+    } else {
+      this.charSequenceWrapper = null;
+      this.regexMatcher = null;
+    }
+  }
+
+  /**
+   * Compiles a LIKE (or ILIKE if caseInsensitive is set) pattern.
+   *
+   * @param pattern the SQL pattern
+   * @param escape the escape string, null if none
+   * @param caseInsensitive true for ILIKE
+   * @param errCtx error context, to report invalid patterns
+   */
+  public static SqlLikeMatcher compile(String pattern, String escape, boolean caseInsensitive,
+      FunctionErrorContext errCtx) {
+    // also validates the pattern and escape
+    final String regex = RegexpUtil.sqlToRegexLike(pattern, escape, errCtx);
+    final int flags = caseInsensitive
+        ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL
+        : Pattern.DOTALL;
+
+    final char escapeChar = escape == null ? 0 : escape.charAt(0);
+    final List<byte[]> segments = new ArrayList<>();
+    final StringBuilder segment = new StringBuilder();
+    boolean specializable = true;
+    boolean leading = false;
+    boolean trailing = false;
+    for (int i = 0; i < pattern.length(); i++) {
+      final char c = pattern.charAt(i);
+      trailing = false;
+      if (escapeChar != 0 && c == escapeChar) {
+        // sequence validated by sqlToRegexLike
+        final char escaped = pattern.charAt(++i);
+        if (caseInsensitive && escaped >= 0x80) {
+          specializable = false;
+          break;
+        }
+        segment.append(escaped);
+      } else if (c == '%') {
+        addSegment(segments, segment, caseInsensitive);
+        leading |= i == 0;
+        trailing = true;
+      } else if (c == '_') {
+        specializable = false;
+        break;
+      } else {
+        if (caseInsensitive && c >= 0x80) {
+          specializable = false;
+          break;
+        }
+        segment.append(c);
+      }
+    }
+    addSegment(segments, segment, caseInsensitive);
+
+    if (!specializable) {
+      return new SqlLikeMatcher(regex, flags, errCtx, false, false, null, caseInsensitive);
+    }
+    return new SqlLikeMatcher(regex, flags, errCtx, leading, trailing, segments.toArray(new byte[segments.size()][]),
+        caseInsensitive);
+  }
+
+  private static void addSegment(List<byte[]> segments, StringBuilder segment, boolean caseInsensitive) {
+    if (segment.length() > 0) {
+      final byte[] bytes = segment.toString().getBytes(UTF_8);
+      if (caseInsensitive) {
+        for (int i = 0; i < bytes.length; i++) {
+          bytes[i] = toLowerCase(bytes[i]);
+        }
+      }
+      segments.add(bytes);
+      segment.setLength(0);
+    }
+  }
+
+  private static int[] shiftTable(byte[] segment) {
+    final int[] shift = new int[256];
+    Arrays.fill(shift, segment.length);
+    for (int i = 0; i < segment.length - 1; i++) {
+      shift[segment[i] & 0xFF] = segment.length - 1 - i;
+    }
+    return shift;
+  }
+
+  /**
+   * @return true if the UTF-8 bytes of buffer, from start (inclusive) to end (exclusive) match the pattern
+   */
+  public boolean matches(int start, int end, ArrowBuf buffer) {
+    if (segments == null || (caseInsensitive && !isAscii(buffer.memoryAddress() + start, end - start))) {
+      charSequenceWrapper.setBuffer(start, end, buffer);
+      regexMatcher.reset();
+      return regexMatcher.matches();
+    }
+
+    final long address = buffer.memoryAddress();
+    final int count = segments.length;
+    int position = start;
+    int limit = end;
+    int first = 0;
+    int last = count;
+
+    if (count == 0) {
+      return leadingWildcard || trailingWildcard || start == end;
+    }
+
+    if (!leadingWildcard) {
+      final byte[] prefix = segments[0];
+      if (limit - position < prefix.length || !regionMatches(address + position, prefix)) {
+        return false;
+      }
+      position += prefix.length;
+      first = 1;
+      if (count == 1 && !trailingWildcard) {
+        return position == limit;
+      }
+    }
+
+    if (!trailingWildcard && last > first) {
+      final byte[] suffix = segments[count - 1];
+      if (limit - position < suffix.length || !regionMatches(address + limit - suffix.length, suffix)) {
+        return false;
+      }
+      limit -= suffix.length;
+      last = count - 1;
+    }
+
+    for (int i = first; i < last; i++) {
+      final int index = indexOf(address, position, limit, segments[i], shifts[i]);
+      if (index < 0) {
+        return false;
+      }
+      position = index + segments[i].length;
+    }
+    return true;
+  }
+
+  private int indexOf(long address, int from, int to, byte[] segment, int[] shift) {
+    final int lastIndex = segment.length - 1;
+    final byte lastByte = segment[lastIndex];
+    int i = from;
+    while (i <= to - segment.length) {
+      final byte b = fold(PlatformDependent.getByte(address + i + lastIndex));
+      if (b == lastByte && regionMatches(address + i, segment)) {
+        return i;
+      }
+      i += shift[b & 0xFF];
+    }
+    return -1;
+  }
+
+  private boolean regionMatches(long address, byte[] segment) {
+    for (int i = 0; i < segment.length; i++) {
+      if (fold(PlatformDependent.getByte(address + i)) != segment[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private byte fold(byte b) {
+    return caseInsensitive ? toLowerCase(b) : b;
+  }
+
+  private static byte toLowerCase(byte b) {
+    return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+  }
+
+  private static boolean isAscii(long address, int length) {
+    int i = 0;
+    for (; i + 8 <= length; i += 8) {
+      if ((PlatformDependent.getLong(address + i) & NON_ASCII_MASK) != 0) {
+        return false;
+      }
+    }
+    for (; i < length; i++) {
+      if (PlatformDependent.getByte(address + i) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
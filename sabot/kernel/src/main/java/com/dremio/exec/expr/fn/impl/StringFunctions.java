@@ -54,25 +54,21 @@ public class StringFunctions{
     @Param VarCharHolder input;
     @Param(constant=true) VarCharHolder pattern;
     @Output BitHolder out;
-    @Workspace java.util.regex.Matcher matcher;
-    @Workspace com.dremio.exec.expr.fn.impl.CharSequenceWrapper charSequenceWrapper;
+    @Workspace com.dremio.exec.expr.fn.impl.SqlLikeMatcher matcher;
     @Inject FunctionErrorContext errCtx;
 
     @Override
     public void setup() {
-      charSequenceWrapper = new com.dremio.exec.expr.fn.impl.CharSequenceWrapper();
-      matcher = com.dremio.exec.expr.fn.impl.StringFunctionUtil.compilePattern(com.dremio.exec.expr.fn.impl.RegexpUtil.sqlToRegexLike(
-          com.dremio.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start,  pattern.end,  pattern.buffer), errCtx),
-          java.util.regex.Pattern.DOTALL,
-          errCtx
-      ).matcher(charSequenceWrapper);
+      matcher = com.dremio.exec.expr.fn.impl.SqlLikeMatcher.compile(
+          com.dremio.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start,  pattern.end,  pattern.buffer),
+          null,
+          false,
+          errCtx);
     }
 
     @Override
     public void eval() {
-      charSequenceWrapper.setBuffer(input.start, input.end, input.buffer);
-      matcher.reset();
-      out.value = matcher.matches()? 1:0;
+      out.value = matcher.matches(input.start, input.end, input.buffer) ? 1 : 0;
     }
   }
 
@@ -83,26 +79,21 @@ public class StringFunctions{
     @Param(constant=true) VarCharHolder pattern;
     @Param(constant=true) VarCharHolder escape;
     @Output BitHolder out;
-    @Workspace java.util.regex.Matcher matcher;
-    @Workspace com.dremio.exec.expr.fn.impl.CharSequenceWrapper charSequenceWrapper;
+    @Workspace com.dremio.exec.expr.fn.impl.SqlLikeMatcher matcher;
     @Inject FunctionErrorContext errCtx;
 
     @Override
     public void setup() {
-      charSequenceWrapper = new com.dremio.exec.expr.fn.impl.CharSequenceWrapper();
-      matcher = com.dremio.exec.expr.fn.impl.StringFunctionUtil.compilePattern(com.dremio.exec.expr.fn.impl.RegexpUtil.sqlToRegexLike(
+      matcher = com.dremio.exec.expr.fn.impl.SqlLikeMatcher.compile(
           com.dremio.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start,  pattern.end,  pattern.buffer),
-          com.dremio.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(escape.start,  escape.end,  escape.buffer), errCtx),
-          java.util.regex.Pattern.DOTALL,
-          errCtx
-      ).matcher(charSequenceWrapper);
+          com.dremio.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(escape.start,  escape.end,  escape.buffer),
+          false,
+          errCtx);
     }
 
     @Override
     public void eval() {
-      charSequenceWrapper.setBuffer(input.start, input.end, input.buffer);
-      matcher.reset();
-      out.value = matcher.matches()? 1:0;
+      out.value = matcher.matches(input.start, input.end, input.buffer) ? 1 : 0;
     }
   }
 
@@ -112,25 +103,21 @@ public class StringFunctions{
     @Param VarCharHolder input;
     @Param(constant=true) VarCharHolder pattern;
     @Output BitHolder out;
-    @Workspace java.util.regex.Matcher matcher;
-    @Workspace com.dremio.exec.expr.fn.impl.CharSequenceWrapper charSequenceWrapper;
+    @Workspace com.dremio.exec.expr.fn.impl.SqlLikeMatcher matcher;
     @Inject FunctionErrorContext errCtx;
 
     @Override
     public void setup() {
-      charSequenceWrapper = new com.dremio.exec.expr.fn.impl.CharSequenceWrapper();
-      matcher = com.dremio.exec.expr.fn.impl.StringFunctionUtil.compilePattern(com.dremio.exec.expr.fn.impl.RegexpUtil.sqlToRegexLike(
-          com.dremio.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start,  pattern.end,  pattern.buffer), errCtx),
-          java.util.regex.Pattern.CASE_INSENSITIVE | java.util.regex.Pattern.UNICODE_CASE | java.util.regex.Pattern.DOTALL,
-          errCtx
-      ).matcher(charSequenceWrapper);
+      matcher = com.dremio.exec.expr.fn.impl.SqlLikeMatcher.compile(
+          com.dremio.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start,  pattern.end,  pattern.buffer),
+          null,
+          true,
+          errCtx);
     }
 
     @Override
     public void eval() {
-      charSequenceWrapper.setBuffer(input.start, input.end, input.buffer);
-      matcher.reset();
-      out.value = matcher.matches()? 1:0;
+      out.value = matcher.matches(input.start, input.end, input.buffer) ? 1 : 0;
     }
   }
 
@@ -141,26 +128,21 @@ public class StringFunctions{
     @Param(constant=true) VarCharHolder pattern;
     @Param(constant=true) VarCharHolder escape;
     @Output BitHolder out;
-    @Workspace java.util.regex.Matcher matcher;
-    @Workspace com.dremio.exec.expr.fn.impl.CharSequenceWrapper charSequenceWrapper;
+    @Workspace com.dremio.exec.expr.fn.impl.SqlLikeMatcher matcher;
     @Inject FunctionErrorContext errCtx;
 
     @Override
     public void setup() {
-      charSequenceWrapper = new com.dremio.exec.expr.fn.impl.CharSequenceWrapper();
-      matcher = com.dremio.exec.expr.fn.impl.StringFunctionUtil.compilePattern(com.dremio.exec.expr.fn.impl.RegexpUtil.sqlToRegexLike( //
+      matcher = com.dremio.exec.expr.fn.impl.SqlLikeMatcher.compile(
           com.dremio.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start,  pattern.end,  pattern.buffer),
-          com.dremio.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(escape.start,  escape.end,  escape.buffer), errCtx),
-          java.util.regex.Pattern.CASE_INSENSITIVE | java.util.regex.Pattern.UNICODE_CASE | java.util.regex.Pattern.DOTALL,
-          errCtx
-      ).matcher(charSequenceWrapper);
+          com.dremio.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(escape.start,  escape.end,  escape.buffer),
+          true,
+          errCtx);
     }
 
     @Override
     public void eval() {
-      charSequenceWrapper.setBuffer(input.start, input.end, input.buffer);
-      matcher.reset();
-      out.value = matcher.matches()? 1:0;
+      out.value = matcher.matches(input.start, input.end, input.buffer) ? 1 : 0;
     }
   }
 
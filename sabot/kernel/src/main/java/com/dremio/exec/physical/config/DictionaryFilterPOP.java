@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.physical.config;
+
+import java.util.Map;
+
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.exec.expr.fn.FunctionLookupContext;
+import com.dremio.exec.physical.base.AbstractSingle;
+import com.dremio.exec.physical.base.PhysicalOperator;
+import com.dremio.exec.physical.base.PhysicalVisitor;
+import com.dremio.exec.planner.physical.visitor.GlobalDictionaryFieldInfo;
+import com.dremio.exec.proto.UserBitShared;
+import com.dremio.exec.record.BatchSchema;
+import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
+import com.dremio.exec.store.CatalogService;
+import com.fasterxml.jackson.annotation.JacksonInject;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+
+/**
+ * Dictionary filter operator configuration: filters rows on global dictionary encoded fields without decoding them.
+ * Each condition only references its field, with the original (decoded) type of the field.
+ */
+@JsonTypeName("dictionary_filter")
+public class DictionaryFilterPOP extends AbstractSingle {
+
+  private final Map<String, GlobalDictionaryFieldInfo> dictionaryEncodedFields;
+  private final Map<String, LogicalExpression> conditions;
+  private final CatalogService catalogService;
+
+  @JsonCreator
+  public DictionaryFilterPOP(@JacksonInject CatalogService catalogService,
+                             @JsonProperty("child") PhysicalOperator child,
+                             @JsonProperty("dictionaryEncodedFields") Map<String, GlobalDictionaryFieldInfo> dictionaryEncodedFields,
+                             @JsonProperty("conditions") Map<String, LogicalExpression> conditions) {
+    super(child);
+    this.catalogService = catalogService;
+    this.dictionaryEncodedFields = dictionaryEncodedFields;
+    this.conditions = conditions;
+  }
+
+  @Override
+  protected PhysicalOperator getNewWithChild(PhysicalOperator child) {
+    return new DictionaryFilterPOP(catalogService, child, dictionaryEncodedFields, conditions);
+  }
+
+  @Override
+  public <T, X, E extends Throwable> T accept(PhysicalVisitor<T, X, E> physicalVisitor, X value) throws E {
+    return physicalVisitor.visitOp(this, value);
+  }
+
+  @JsonIgnore
+  public CatalogService getCatalogService() {
+    return catalogService;
+  }
+
+  public Map<String, GlobalDictionaryFieldInfo> getDictionaryEncodedFields() {
+    return dictionaryEncodedFields;
+  }
+
+  public Map<String, LogicalExpression> getConditions() {
+    return conditions;
+  }
+
+  @Override
+  protected BatchSchema constructSchema(FunctionLookupContext context) {
+    // fields are still dictionary encoded
+    return child.getSchema(context).clone(SelectionVectorMode.TWO_BYTE);
+  }
+
+  @Override
+  public int getOperatorType() {
+    return UserBitShared.CoreOperatorType.DICTIONARY_FILTER_VALUE;
+  }
+}
@@ -15,6 +15,7 @@
  */
 package com.dremio.exec.planner.acceleration;
 
+import java.util.List;
 import java.util.Objects;
 
 public class IncrementalUpdateSettings {
@@ -23,10 +24,17 @@ public class IncrementalUpdateSettings {
 
   private boolean incremental;
   private String updateField;
+  // incrementally updated table when joined with other tables, null if any incrementally updateable scan is updated
+  private List<String> updateTable;
 
   public IncrementalUpdateSettings(boolean incremental, String updateField) {
+    this(incremental, updateField, null);
+  }
+
+  public IncrementalUpdateSettings(boolean incremental, String updateField, List<String> updateTable) {
     this.incremental = incremental;
     this.updateField = updateField;
+    this.updateTable = updateTable;
   }
 
   public IncrementalUpdateSettings columnBased(String columnName) {
@@ -41,6 +49,10 @@ public class IncrementalUpdateSettings {
     return updateField;
   }
 
+  public List<String> getUpdateTable() {
+    return updateTable;
+  }
+
   public boolean isFileBasedUpdate() {
     return incremental && updateField == null;
   }
@@ -54,10 +66,11 @@ public class IncrementalUpdateSettings {
     }
     final IncrementalUpdateSettings that = (IncrementalUpdateSettings) o;
     return (incremental == that.incremental) &&
-        Objects.equals(updateField, that.updateField);
+        Objects.equals(updateField, that.updateField) &&
+        Objects.equals(updateTable, that.updateTable);
   }
 
   public int hashcode() {
-    return Objects.hash(incremental,updateField);
+    return Objects.hash(incremental, updateField, updateTable);
   }
 }
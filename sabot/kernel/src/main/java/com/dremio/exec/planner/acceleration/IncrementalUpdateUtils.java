@@ -17,14 +17,17 @@ package com.dremio.exec.planner.acceleration;
 
 import static com.dremio.exec.planner.logical.RelBuilder.newCalciteRelBuilderWithoutContext;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.core.AggregateCall;
+import org.apache.calcite.rel.core.Join;
 import org.apache.calcite.rel.core.TableScan;
 import org.apache.calcite.rel.logical.LogicalAggregate;
 import org.apache.calcite.rel.logical.LogicalFilter;
+import org.apache.calcite.rel.logical.LogicalJoin;
 import org.apache.calcite.rel.logical.LogicalProject;
 import org.apache.calcite.rel.type.RelDataType;
 import org.apache.calcite.rel.type.RelDataTypeFactory;
@@ -45,6 +48,7 @@ import org.slf4j.LoggerFactory;
 import com.dremio.common.exceptions.UserException;
 import com.dremio.exec.planner.StatelessRelShuttleImpl;
 import com.google.common.base.Function;
+import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
@@ -61,9 +65,28 @@ public class IncrementalUpdateUtils {
 
   public abstract static class BaseShuttle extends StatelessRelShuttleImpl {
     private final String refreshColumn;
+    private final List<String> refreshTable;
 
     public BaseShuttle(String refreshColumn) {
+      this(refreshColumn, null);
+    }
+
+    /**
+     * @param refreshTable the incrementally updated table, when joined with other tables. If null, all the
+     *                     incrementally updateable scans of the plan are updated.
+     */
+    public BaseShuttle(String refreshColumn, List<String> refreshTable) {
       this.refreshColumn = refreshColumn;
+      this.refreshTable = refreshTable;
+    }
+
+    /**
+     * @return true if the scan is incrementally updated, false if it is read fully (e.g. a dimension table joined with
+     * the incrementally updated table)
+     */
+    protected boolean isUpdated(TableScan tableScan) {
+      return tableScan instanceof IncrementallyUpdateable
+        && (refreshTable == null || refreshTable.equals(tableScan.getTable().getQualifiedName()));
     }
 
     public RelNode updateScan(IncrementallyUpdateable scan) {
@@ -146,6 +169,57 @@ public class IncrementalUpdateUtils {
         fieldInfoBuilder.build()
       );
     }
+
+    /**
+     * Joins of the incrementally updated table with dimension tables: only one of the inputs has the $updateId, which
+     * is projected after the fields of the join.
+     */
+    @Override
+    public RelNode visit(LogicalJoin join) {
+      final RelNode left = join.getLeft().accept(this);
+      final RelNode right = join.getRight().accept(this);
+      final RelDataTypeField leftModField = left.getRowType().getField(UPDATE_COLUMN, false, false);
+      final RelDataTypeField rightModField = right.getRowType().getField(UPDATE_COLUMN, false, false);
+      if (leftModField == null && rightModField == null) {
+        return join;
+      }
+      Preconditions.checkState(leftModField == null || rightModField == null,
+        "Only one of the join inputs can be incrementally updated");
+
+      // the inputs may have a new field, find the new index of each field of the join by name
+      final List<String> leftNames = join.getLeft().getRowType().getFieldNames();
+      final List<String> rightNames = join.getRight().getRowType().getFieldNames();
+      final int leftCount = left.getRowType().getFieldCount();
+      final int[] mapping = new int[leftNames.size() + rightNames.size()];
+      for (int i = 0; i < leftNames.size(); i++) {
+        mapping[i] = left.getRowType().getField(leftNames.get(i), true, false).getIndex();
+      }
+      for (int i = 0; i < rightNames.size(); i++) {
+        mapping[leftNames.size() + i] = leftCount + right.getRowType().getField(rightNames.get(i), true, false).getIndex();
+      }
+
+      final RexNode newCondition = join.getCondition().accept(new RexShuttle() {
+        @Override
+        public RexNode visitInputRef(RexInputRef inputRef) {
+          return new RexInputRef(mapping[inputRef.getIndex()], inputRef.getType());
+        }
+      });
+      final Join newJoin = join.copy(join.getTraitSet(), newCondition, left, right, join.getJoinType(),
+        join.isSemiJoinDone());
+
+      final RexBuilder rexBuilder = join.getCluster().getRexBuilder();
+      final List<RexNode> projects = new ArrayList<>(mapping.length + 1);
+      for (int index : mapping) {
+        projects.add(rexBuilder.makeInputRef(newJoin, index));
+      }
+      projects.add(rexBuilder.makeInputRef(newJoin,
+        leftModField != null ? leftModField.getIndex() : leftCount + rightModField.getIndex()));
+      final List<String> fieldNames = ImmutableList.<String>builder()
+        .addAll(join.getRowType().getFieldNames())
+        .add(UPDATE_COLUMN)
+        .build();
+      return LogicalProject.create(newJoin, projects, fieldNames);
+    }
   }
 
   /**
@@ -158,6 +232,10 @@ public class IncrementalUpdateUtils {
       super(refreshColumn);
     }
 
+    public SubstitutionShuttle(String refreshColumn, List<String> refreshTable) {
+      super(refreshColumn, refreshTable);
+    }
+
     @Override
     public RelNode visit(LogicalAggregate aggregate) {
       RelNode input = aggregate.getInput().accept(this);
@@ -189,7 +267,7 @@ public class IncrementalUpdateUtils {
 
     @Override
     public RelNode visit(TableScan tableScan) {
-      if (!(tableScan instanceof IncrementallyUpdateable)) {
+      if (!isUpdated(tableScan)) {
         return tableScan;
       }
       return updateScan((IncrementallyUpdateable) tableScan);
@@ -201,15 +279,15 @@ public class IncrementalUpdateUtils {
    */
   private abstract static class MaterializationShuttle extends BaseShuttle {
 
-    public MaterializationShuttle(String refreshColumn) {
-      super(refreshColumn);
+    public MaterializationShuttle(String refreshColumn, List<String> refreshTable) {
+      super(refreshColumn, refreshTable);
     }
 
     abstract RexNode generateLiteral(RexBuilder rexBuilder, RelDataTypeFactory typeFactory);
 
     @Override
     public RelNode visit(TableScan tableScan) {
-      if (!(tableScan instanceof IncrementallyUpdateable)) {
+      if (!isUpdated(tableScan)) {
         return tableScan;
       }
 
@@ -285,7 +363,11 @@ public class IncrementalUpdateUtils {
     private final long value;
 
     public ColumnMaterializationShuttle(String refreshColumn, long value) {
-      super(refreshColumn);
+      this(refreshColumn, null, value);
+    }
+
+    public ColumnMaterializationShuttle(String refreshColumn, List<String> refreshTable, long value) {
+      super(refreshColumn, refreshTable);
       this.value = value;
     }
 
@@ -305,7 +387,11 @@ public class IncrementalUpdateUtils {
     private final long timeStamp;
 
     public FileMaterializationShuttle(long timeStamp) {
-      super(UPDATE_COLUMN);
+      this(null, timeStamp);
+    }
+
+    public FileMaterializationShuttle(List<String> refreshTable, long timeStamp) {
+      super(UPDATE_COLUMN, refreshTable);
       this.timeStamp = timeStamp;
     }
 
@@ -107,6 +107,13 @@ public abstract class AggPrelBase extends AggregateRelBase implements Prel {
     return operPhase;
   }
 
+  /**
+   * @return true if this is the first phase of a two phase aggregation, whose output is merged by the second phase
+   */
+  public boolean isFirstPhaseOf2() {
+    return operPhase == OperatorPhase.PHASE_1of2;
+  }
+
   public List<NamedExpression> getKeys() {
     return keys;
   }
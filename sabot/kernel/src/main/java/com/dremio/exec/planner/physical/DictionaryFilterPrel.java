@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner.physical;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.calcite.plan.RelOptCluster;
+import org.apache.calcite.plan.RelTraitSet;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.RelWriter;
+import org.apache.calcite.rel.metadata.RelMdUtil;
+import org.apache.calcite.rel.metadata.RelMetadataQuery;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexUtil;
+
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.exec.physical.base.PhysicalOperator;
+import com.dremio.exec.physical.config.DictionaryFilterPOP;
+import com.dremio.exec.planner.logical.ParseContext;
+import com.dremio.exec.planner.logical.RexToExpr;
+import com.dremio.exec.planner.physical.visitor.GlobalDictionaryFieldInfo;
+import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+
+/**
+ * Filter on global dictionary encoded fields, evaluated on the dictionary values instead of the decoded fields.
+ * Each condition only references its field, and fields stay dictionary encoded.
+ */
+public class DictionaryFilterPrel extends SinglePrel {
+
+  private final List<GlobalDictionaryFieldInfo> filteredFields;
+  private final List<RexNode> conditions;
+
+  /**
+   * @param filteredFields dictionary encoded fields the filter is on
+   * @param conditions condition on each of filteredFields, using the original type of the field
+   */
+  public DictionaryFilterPrel(RelOptCluster cluster, RelTraitSet traits, RelNode child,
+                              List<GlobalDictionaryFieldInfo> filteredFields, List<RexNode> conditions) {
+    super(cluster, traits, child);
+    Preconditions.checkArgument(filteredFields.size() == conditions.size());
+    this.filteredFields = filteredFields;
+    this.conditions = conditions;
+  }
+
+  @Override
+  public RelNode copy(RelTraitSet traitSet, List<RelNode> inputs) {
+    return new DictionaryFilterPrel(getCluster(), traitSet, inputs.get(0), filteredFields, conditions);
+  }
+
+  @Override
+  public PhysicalOperator getPhysicalOperator(PhysicalPlanCreator creator) throws IOException {
+    final Prel child = (Prel) this.getInput();
+    final PhysicalOperator childPOP = child.getPhysicalOperator(creator);
+
+    final ParseContext parseContext = new ParseContext(PrelUtil.getSettings(getCluster()));
+    final Map<String, GlobalDictionaryFieldInfo> dictionaryEncodedFields = Maps.newHashMap();
+    final Map<String, LogicalExpression> exprs = Maps.newHashMap();
+    for (int i = 0; i < filteredFields.size(); i++) {
+      final String name = filteredFields.get(i).getFieldName();
+      dictionaryEncodedFields.put(name, filteredFields.get(i));
+      exprs.put(name, RexToExpr.toExpr(parseContext, getInput().getRowType(), getCluster().getRexBuilder(), conditions.get(i)));
+    }
+
+    final DictionaryFilterPOP dictionaryFilterPOP = new DictionaryFilterPOP(creator.getContext().getCatalogService(),
+      childPOP, dictionaryEncodedFields, exprs);
+    return creator.addMetadata(this, dictionaryFilterPOP);
+  }
+
+  @Override
+  public double estimateRowCount(RelMetadataQuery mq) {
+    final RexNode condition = RexUtil.composeConjunction(getCluster().getRexBuilder(), conditions, false);
+    return mq.getRowCount(getInput()) * RelMdUtil.guessSelectivity(condition);
+  }
+
+  @Override
+  public SelectionVectorMode[] getSupportedEncodings() {
+    return SelectionVectorMode.NONE_AND_TWO;
+  }
+
+  @Override
+  public SelectionVectorMode getEncoding() {
+    return SelectionVectorMode.TWO_BYTE;
+  }
+
+  @Override
+  public RelWriter explainTerms(RelWriter pw) {
+    final String[] fields = new String[filteredFields.size()];
+    for (int i = 0; i < fields.length; i++) {
+      fields[i] = filteredFields.get(i).getFieldName();
+    }
+    Arrays.sort(fields);
+    return super.explainTerms(pw)
+      .item("filtered fields", Arrays.toString(fields))
+      .item("conditions", conditions);
+  }
+}
@@ -151,6 +151,8 @@ public class PlannerSettings implements Context{
                               Integer.MAX_VALUE, DEFAULT_IDENTIFIER_MAX_LENGTH);
 
   public static final BooleanValidator ENABLE_GLOBAL_DICTIONARY = new BooleanValidator("planner.enable_global_dictionary", true);
+  // evaluate filters on global dictionary encoded fields once per dictionary value instead of decoding the fields
+  public static final BooleanValidator ENABLE_GLOBAL_DICTIONARY_FILTER = new BooleanValidator("planner.enable_global_dictionary_filter", true);
 
   public static final DoubleValidator FLATTEN_EXPANSION_AMOUNT = new TypeValidators.RangeDoubleValidator("planner.flatten.expansion_size", 0, Double.MAX_VALUE, 10.0d);
 
@@ -353,6 +355,10 @@ public class PlannerSettings implements Context{
     return options.getOption(ENABLE_GLOBAL_DICTIONARY.getOptionName()).getBoolVal();
   }
 
+  public boolean isGlobalDictionaryFilterEnabled() {
+    return options.getOption(ENABLE_GLOBAL_DICTIONARY_FILTER.getOptionName()).getBoolVal();
+  }
+
   public boolean isStreamAggEnabled() {
     return options.getOption(STREAMAGG.getOptionName()).getBoolVal();
   }
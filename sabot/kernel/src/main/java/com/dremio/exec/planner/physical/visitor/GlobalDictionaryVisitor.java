@@ -22,15 +22,21 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.apache.arrow.vector.types.pojo.ArrowType.ArrowTypeID;
 import org.apache.calcite.plan.RelOptCluster;
+import org.apache.calcite.plan.RelOptUtil;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.core.AggregateCall;
 import org.apache.calcite.rel.type.RelDataType;
 import org.apache.calcite.rel.type.RelDataTypeField;
 import org.apache.calcite.rel.type.RelDataTypeFieldImpl;
+import org.apache.calcite.rex.RexBuilder;
+import org.apache.calcite.rex.RexCall;
 import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexLiteral;
 import org.apache.calcite.rex.RexNode;
 import org.apache.calcite.rex.RexShuttle;
+import org.apache.calcite.rex.RexUtil;
 import org.apache.calcite.sql.SqlKind;
 import org.apache.calcite.sql.type.SqlTypeName;
 import org.apache.hadoop.fs.Path;
@@ -38,6 +44,7 @@ import org.apache.hadoop.fs.Path;
 import com.dremio.common.expression.CompleteType;
 import com.dremio.exec.catalog.StoragePluginId;
 import com.dremio.exec.planner.physical.AggPrelBase;
+import com.dremio.exec.planner.physical.DictionaryFilterPrel;
 import com.dremio.exec.planner.physical.DistributionTrait.DistributionField;
 import com.dremio.exec.planner.physical.ExchangePrel;
 import com.dremio.exec.planner.physical.FilterPrel;
@@ -47,6 +54,7 @@ import com.dremio.exec.planner.physical.JoinPrel;
 import com.dremio.exec.planner.physical.LeafPrel;
 import com.dremio.exec.planner.physical.LimitPrel;
 import com.dremio.exec.planner.physical.Prel;
+import com.dremio.exec.planner.physical.PrelUtil;
 import com.dremio.exec.planner.physical.ProjectPrel;
 import com.dremio.exec.planner.sql.TypeInferenceUtils;
 import com.dremio.exec.store.parquet.ParquetFilterCondition;
@@ -69,10 +77,12 @@ import com.google.common.collect.Sets;
 public class GlobalDictionaryVisitor extends BasePrelVisitor<PrelWithDictionaryInfo, Void, RuntimeException> {
 
   private final RelDataType dictionaryDataType;
+  private final boolean dictionaryFilterEnabled;
 
 
   public GlobalDictionaryVisitor(RelOptCluster cluster) {
     dictionaryDataType = cluster.getTypeFactory().createSqlType(SqlTypeName.INTEGER);
+    dictionaryFilterEnabled = PrelUtil.getPlannerSettings(cluster).isGlobalDictionaryFilterEnabled();
   }
 
   public static Prel useGlobalDictionaries(Prel prel) {
@@ -323,17 +333,104 @@ public class GlobalDictionaryVisitor extends BasePrelVisitor<PrelWithDictionaryI
       return new PrelWithDictionaryInfo(filterPrel); // none of fields are encoded
     }
 
+    RexNode condition = filterPrel.getCondition();
+    if (dictionaryFilterEnabled) {
+      // evaluate conditions on a single encoded string field on the dictionary values, without decoding the field
+      final Map<Integer, List<RexNode>> dictionaryConditions = Maps.newTreeMap();
+      final List<RexNode> remainingConditions = Lists.newArrayList();
+      for (RexNode conjunction : RelOptUtil.conjunctions(condition)) {
+        final Set<Integer> fieldsUsed = Sets.newHashSet();
+        conjunction.accept(new InputReferenceRexVisitor(fieldsUsed));
+        if (fieldsUsed.size() == 1 && canFilterOnDictionary(newInput, Iterables.getOnlyElement(fieldsUsed), conjunction)) {
+          final int fieldIndex = Iterables.getOnlyElement(fieldsUsed);
+          if (!dictionaryConditions.containsKey(fieldIndex)) {
+            dictionaryConditions.put(fieldIndex, Lists.<RexNode>newArrayList());
+          }
+          dictionaryConditions.get(fieldIndex).add(conjunction);
+        } else {
+          remainingConditions.add(conjunction);
+        }
+      }
+
+      if (!dictionaryConditions.isEmpty()) {
+        final RexBuilder rexBuilder = filterPrel.getCluster().getRexBuilder();
+        final List<GlobalDictionaryFieldInfo> filteredFields = Lists.newArrayList();
+        final List<RexNode> fieldConditions = Lists.newArrayList();
+        for (Map.Entry<Integer, List<RexNode>> entry : dictionaryConditions.entrySet()) {
+          filteredFields.add(newInput.getGlobalDictionaryFieldInfo(entry.getKey()));
+          fieldConditions.add(RexUtil.composeConjunction(rexBuilder, entry.getValue(), false));
+        }
+        newInput = new PrelWithDictionaryInfo(new DictionaryFilterPrel(filterPrel.getCluster(), newInput.getPrel().getTraitSet(),
+          newInput.getPrel(), filteredFields, fieldConditions), newInput.getFields());
+
+        if (remainingConditions.isEmpty()) {
+          return newInput;
+        }
+        condition = RexUtil.composeConjunction(rexBuilder, remainingConditions, false);
+      }
+    }
+
     final Set<Integer> fieldsUsed = Sets.newHashSet();
     final InputReferenceRexVisitor visitor = new InputReferenceRexVisitor(fieldsUsed);
-    filterPrel.getCondition().accept(visitor);
+    condition.accept(visitor);
 
     // decode used inputs by this filter
     newInput = newInput.decodeFields(fieldsUsed);
 
-    return new PrelWithDictionaryInfo((Prel)filterPrel.copy(filterPrel.getTraitSet(), newInput.getPrel(), filterPrel.getCondition()),
+    return new PrelWithDictionaryInfo((Prel)filterPrel.copy(filterPrel.getTraitSet(), newInput.getPrel(), condition),
       newInput.getFields());
   }
 
+  private static boolean canFilterOnDictionary(PrelWithDictionaryInfo input, int fieldIndex, RexNode condition) {
+    return input.hasGlobalDictionary(fieldIndex)
+      && input.getGlobalDictionaryFieldInfo(fieldIndex).getArrowType().getTypeID() == ArrowTypeID.Utf8
+      && isSafeDictionaryCondition(condition);
+  }
+
+  /**
+   * Dictionary conditions are evaluated on all the values of the global dictionary, including values of rows which
+   * are pruned or never reach the condition. Only accept conditions which can't fail: comparisons, LIKE, IN and
+   * IS [NOT] NULL between the column itself and literals, and their combinations.
+   */
+  private static boolean isSafeDictionaryCondition(RexNode condition) {
+    if (!(condition instanceof RexCall)) {
+      return false;
+    }
+
+    final RexCall call = (RexCall) condition;
+    switch (call.getKind()) {
+      case AND:
+      case OR:
+      case NOT:
+        for (RexNode operand : call.getOperands()) {
+          if (!isSafeDictionaryCondition(operand)) {
+            return false;
+          }
+        }
+        return true;
+
+      case EQUALS:
+      case NOT_EQUALS:
+      case LESS_THAN:
+      case LESS_THAN_OR_EQUAL:
+      case GREATER_THAN:
+      case GREATER_THAN_OR_EQUAL:
+      case LIKE:
+      case IN:
+      case IS_NULL:
+      case IS_NOT_NULL:
+        for (RexNode operand : call.getOperands()) {
+          if (!(operand instanceof RexInputRef) && !(operand instanceof RexLiteral)) {
+            return false;
+          }
+        }
+        return true;
+
+      default:
+        return false;
+    }
+  }
+
   // Pass through do not decode.
   private PrelWithDictionaryInfo visitLimit(LimitPrel limitPrel, Void value) {
     final PrelWithDictionaryInfo newInput = ((Prel)limitPrel.getInput()).accept(this, value);
@@ -30,6 +30,7 @@ import com.dremio.common.config.SabotConfig;
 import com.dremio.common.scanner.persistence.ScanResult;
 import com.dremio.config.DremioConfig;
 import com.dremio.datastore.KVStoreProvider;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.catalog.ConnectionReader;
 import com.dremio.exec.catalog.ViewCreatorFactory;
 import com.dremio.exec.catalog.ViewCreatorFactory.ViewCreator;
@@ -40,6 +41,7 @@ import com.dremio.exec.planner.observer.QueryObserverFactory;
 import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
 import com.dremio.exec.server.options.SystemOptionManager;
 import com.dremio.exec.store.CatalogService;
+import com.dremio.exec.store.parquet.GlobalDictionaryCache;
 import com.dremio.exec.store.sys.PersistentStoreProvider;
 import com.dremio.exec.store.sys.accel.AccelerationListManager;
 import com.dremio.exec.store.sys.accel.AccelerationManager;
@@ -86,6 +88,7 @@ public class SabotContext implements AutoCloseable {
   private final Provider<SpillService> spillService;
   private final Provider<ConnectionReader> connectionReaderProvider;
   private final ClusterResourceInformation clusterInfo;
+  private volatile GlobalDictionaryCache globalDictionaryCache;
 
   public SabotContext(
       DremioConfig dremioConfig,
@@ -271,6 +274,21 @@ public class SabotContext implements AutoCloseable {
     return connectionReaderProvider;
   }
 
+  /**
+   * @return the node level cache of global dictionaries, created on first use
+   */
+  public GlobalDictionaryCache getGlobalDictionaryCache() {
+    if (globalDictionaryCache == null) {
+      synchronized (this) {
+        if (globalDictionaryCache == null) {
+          globalDictionaryCache = new GlobalDictionaryCache(allocator,
+              systemOptions.getOption(ExecConstants.PARQUET_GLOBAL_DICTIONARY_CACHE_SIZE));
+        }
+      }
+    }
+    return globalDictionaryCache;
+  }
+
   public KVStoreProvider getKVStoreProvider() {
     return kvStoreProvider;
   }
@@ -294,7 +312,7 @@ public class SabotContext implements AutoCloseable {
 
   @Override
   public void close() throws Exception {
-    AutoCloseables.close(systemOptions);
+    AutoCloseables.close(globalDictionaryCache, systemOptions);
   }
 
   public Provider<WorkStats> getWorkStatsProvider() {
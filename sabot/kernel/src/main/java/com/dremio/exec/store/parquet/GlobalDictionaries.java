@@ -27,23 +27,34 @@ import com.dremio.exec.planner.physical.visitor.GlobalDictionaryFieldInfo;
 import com.dremio.exec.record.VectorContainer;
 import com.dremio.exec.store.dfs.FileSystemWrapper;
 import com.dremio.sabot.exec.context.OperatorContext;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
+/**
+ * Global dictionaries used by a scan, shared with the other operators of the node through the
+ * {@link GlobalDictionaryCache}.
+ */
 public class GlobalDictionaries implements AutoCloseable {
   private final Map<String, VectorContainer> dictionaries; // key is full column path (dotted)
+  private final List<GlobalDictionaryCache.Reference> references;
 
   public static GlobalDictionaries create(OperatorContext context,
                                           FileSystemWrapper fs,
+                                          GlobalDictionaryCache cache,
                                           List<GlobalDictionaryFieldInfo> globalDictionaryColumns) throws ExecutionSetupException {
     if (globalDictionaryColumns != null && !globalDictionaryColumns.isEmpty()) {
       final Map<String, VectorContainer> dictionaries = Maps.newHashMap();
+      final List<GlobalDictionaryCache.Reference> references = Lists.newArrayList();
       context.getStats().startProcessing();
       try {
         for (GlobalDictionaryFieldInfo field : globalDictionaryColumns) {
-          dictionaries.put(field.getFieldName(), ParquetFormatPlugin.loadDictionary(fs, new Path(field.getDictionaryPath()), context.getAllocator()));
+          final GlobalDictionaryCache.Reference reference = cache.acquire(fs, new Path(field.getDictionaryPath()));
+          references.add(reference);
+          dictionaries.put(field.getFieldName(), reference.getDictionary());
         }
-        return new GlobalDictionaries(dictionaries);
+        return new GlobalDictionaries(dictionaries, references);
       } catch (IOException ioe) {
+        AutoCloseables.close(ioe, references);
         throw new ExecutionSetupException(ioe);
       } finally {
         context.getStats().stopProcessing();
@@ -52,19 +63,24 @@ public class GlobalDictionaries implements AutoCloseable {
     return null; // if no columns should be global dictionary encoded.
   }
 
-  private GlobalDictionaries(Map<String, VectorContainer> dictionaries) {
+  private GlobalDictionaries(Map<String, VectorContainer> dictionaries, List<GlobalDictionaryCache.Reference> references) {
     this.dictionaries = dictionaries;
+    this.references = references;
   }
 
   @Override
   public void close() throws Exception {
     try {
-      AutoCloseables.close(dictionaries.values());
+      AutoCloseables.close(references);
     } finally {
+      references.clear();
       dictionaries.clear();
     }
   }
 
+  /**
+   * @return the dictionaries by column, shared with other operators so they must not be modified
+   */
   public Map<String, VectorContainer> getDictionaries() {
     return dictionaries;
   }
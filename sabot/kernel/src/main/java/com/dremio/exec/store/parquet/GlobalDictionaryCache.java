@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.exec.record.VectorWrapper;
+import com.dremio.exec.util.GlobalDictionaryBuilder;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+/**
+ * Node level cache of global dictionaries, shared by all the scans and dictionary lookups of the node.
+ *
+ * Dictionaries are keyed by file path and modification time (the dictionary version is part of the path), loaded once
+ * in the cache allocator and reference counted. A dictionary is immutable once loaded, and may be read concurrently
+ * by all the operators holding a reference. Dictionaries which are not referenced anymore are kept until the
+ * unreferenced ones use more than the configured size, and are then evicted least recently used first.
+ */
+public class GlobalDictionaryCache implements AutoCloseable {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(GlobalDictionaryCache.class);
+
+  private final BufferAllocator allocator;
+  private final long maxUnreferencedBytes;
+
+  // guarded by this
+  private final Map<String, Entry> entries = new HashMap<>();
+  private long unreferencedBytes;
+  private long clock;
+
+  public GlobalDictionaryCache(BufferAllocator parent, long maxUnreferencedBytes) {
+    this.allocator = parent.newChildAllocator("global-dictionaries", 0, Long.MAX_VALUE);
+    this.maxUnreferencedBytes = maxUnreferencedBytes;
+  }
+
+  /**
+   * Get a reference to the dictionary stored in the given file, loading it if it is not in the cache yet. The
+   * reference must be closed once the dictionary is not used anymore.
+   */
+  public Reference acquire(FileSystem fs, Path path) throws IOException {
+    final FileStatus status = fs.getFileStatus(path);
+    final String key = path.toUri().getPath() + "@" + status.getModificationTime();
+
+    final Entry entry;
+    synchronized (this) {
+      Entry existing = entries.get(key);
+      if (existing == null) {
+        existing = new Entry(key);
+        entries.put(key, existing);
+      }
+      if (existing.refCount++ == 0 && existing.dictionary != null) {
+        unreferencedBytes -= existing.size;
+      }
+      entry = existing;
+    }
+
+    try {
+      entry.load(fs, path);
+    } catch (IOException | RuntimeException e) {
+      release(entry);
+      throw e;
+    }
+    return new Reference(entry);
+  }
+
+  private synchronized void release(Entry entry) {
+    Preconditions.checkState(entry.refCount > 0, "Global dictionary %s released too many times", entry.key);
+    if (--entry.refCount > 0) {
+      return;
+    }
+
+    if (entry.dictionary == null) {
+      // failed to load
+      entries.remove(entry.key);
+      return;
+    }
+
+    entry.lastUsed = ++clock;
+    unreferencedBytes += entry.size;
+    while (unreferencedBytes > maxUnreferencedBytes) {
+      evictLeastRecentlyUsed();
+    }
+  }
+
+  // guarded by this
+  private void evictLeastRecentlyUsed() {
+    Entry eldest = null;
+    for (Entry candidate : entries.values()) {
+      if (candidate.refCount == 0 && candidate.dictionary != null
+          && (eldest == null || candidate.lastUsed < eldest.lastUsed)) {
+        eldest = candidate;
+      }
+    }
+    Preconditions.checkState(eldest != null, "No unreferenced global dictionary to evict");
+
+    entries.remove(eldest.key);
+    unreferencedBytes -= eldest.size;
+    logger.debug("Evicting global dictionary {} ({} bytes)", eldest.key, eldest.size);
+    eldest.dictionary.close();
+  }
+
+  @VisibleForTesting
+  synchronized int size() {
+    return entries.size();
+  }
+
+  @Override
+  public synchronized void close() throws Exception {
+    final List<AutoCloseable> dictionaries = new ArrayList<>();
+    for (Entry entry : entries.values()) {
+      if (entry.refCount > 0) {
+        logger.warn("Global dictionary {} still referenced by {} operators", entry.key, entry.refCount);
+      }
+      dictionaries.add(entry.dictionary);
+    }
+    entries.clear();
+    AutoCloseables.close(dictionaries, allocator);
+  }
+
+  private final class Entry {
+    private final String key;
+    // set once, when loaded
+    private volatile VectorContainer dictionary;
+    private long size;
+    // guarded by the cache
+    private int refCount;
+    private long lastUsed;
+
+    private Entry(String key) {
+      this.key = key;
+    }
+
+    private synchronized void load(FileSystem fs, Path path) throws IOException {
+      if (dictionary != null) {
+        return;
+      }
+      final VectorContainer loaded = GlobalDictionaryBuilder.readDictionary(fs, path, allocator);
+      long bytes = 0;
+      for (VectorWrapper<?> wrapper : loaded) {
+        bytes += wrapper.getValueVector().getBufferSize();
+      }
+      size = bytes;
+      dictionary = loaded;
+    }
+  }
+
+  /**
+   * Reference to a cached dictionary. The dictionary must not be modified.
+   */
+  public final class Reference implements AutoCloseable {
+    private final Entry entry;
+    private boolean closed;
+
+    private Reference(Entry entry) {
+      this.entry = entry;
+    }
+
+    public VectorContainer getDictionary() {
+      Preconditions.checkState(!closed, "Global dictionary reference already closed");
+      return entry.dictionary;
+    }
+
+    @Override
+    public void close() {
+      if (!closed) {
+        closed = true;
+        release(entry);
+      }
+    }
+  }
+}
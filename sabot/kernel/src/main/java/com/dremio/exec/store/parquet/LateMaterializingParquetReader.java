@@ -0,0 +1,249 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.OutOfMemoryException;
+import org.apache.arrow.vector.SchemaChangeCallBack;
+import org.apache.arrow.vector.SimpleIntVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.util.CallBack;
+import org.apache.arrow.vector.util.TransferPair;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.common.exceptions.ExecutionSetupException;
+import com.dremio.common.exceptions.UserException;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.exec.expr.ClassGenerator;
+import com.dremio.exec.expr.ReturnValueExpression;
+import com.dremio.exec.expr.TypeHelper;
+import com.dremio.exec.record.VectorAccessible;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.exec.record.VectorWrapper;
+import com.dremio.exec.record.selection.SelectionVector2;
+import com.dremio.exec.store.RecordReader;
+import com.dremio.exec.store.parquet.CopyingFilteringReader.ContainerAndSV2;
+import com.dremio.exec.store.parquet.CopyingFilteringReader.SV2Holder;
+import com.dremio.sabot.driver.SchemaChangeMutator;
+import com.dremio.sabot.exec.context.OperatorContext;
+import com.dremio.sabot.op.copier.Copier;
+import com.dremio.sabot.op.copier.CopierOperator;
+import com.dremio.sabot.op.filter.Filterer;
+import com.dremio.sabot.op.filter.VectorContainerWithSV;
+import com.dremio.sabot.op.scan.OutputMutator;
+import com.dremio.sabot.op.scan.ScanOperator;
+import com.dremio.sabot.op.scan.ScanOperator.ScanMutator;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.Maps;
+
+/**
+ * Implementation of {@link RecordReader} that materializes the columns of a row group late: the columns the filter
+ * is on are read and filtered first, and the other columns are only materialized for the rows passing the filter.
+ *
+ * The rows passing the filter are handed to the reader of the other columns as deltas (the number of rows to skip
+ * before each selected row), the same way the vectorized reader hands them to the row-wise reader. The values of the
+ * rows filtered out are skipped without being converted, and the filtered columns are copied out of the filter reader
+ * output as in {@link CopyingFilteringReader}. Once no row of the row group passes the filter anymore, the other
+ * columns are not read at all.
+ */
+public class LateMaterializingParquetReader implements RecordReader {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(LateMaterializingParquetReader.class);
+
+  private final OperatorContext context;
+  private final RecordReader filterColumnsReader;
+  private final Set<String> filterColumns;
+  private final RecordReader remainingColumnsReader;
+  private final SimpleIntVector deltas;
+  private final LogicalExpression filterCondition;
+
+  private final Map<String, ValueVector> fieldVectorMap = Maps.newHashMap();
+
+  private final List<TransferPair> copierToOutputTransfers = new ArrayList<>();
+
+  // see CopyingFilteringReader
+  private final SchemaChangeCallBack innerCallback = new SchemaChangeCallBack();
+  private CallBack externalCallback;
+
+  private VectorContainer readerOutput = new VectorContainer();
+  private VectorContainer copyOutput;
+  private SelectionVector2 filteredSV2;
+  private ScanMutator mutator;
+  private Filterer filter;
+  private Copier copier;
+
+  // rows filtered out since the last row passing the filter
+  private int skipped;
+
+  /**
+   * @param filterColumnsReader reader of the columns the filter is on
+   * @param filterColumns lower case names of the columns the filter is on
+   * @param remainingColumnsReader reader of the other columns, only reading the rows selected by the deltas
+   * @param deltas deltas shared with remainingColumnsReader, owned by this reader
+   * @param filterCondition filter, only referencing the columns read by filterColumnsReader
+   */
+  public LateMaterializingParquetReader(OperatorContext context, RecordReader filterColumnsReader,
+      Set<String> filterColumns, RecordReader remainingColumnsReader, SimpleIntVector deltas,
+      LogicalExpression filterCondition) {
+    this.context = context;
+    this.filterColumnsReader = filterColumnsReader;
+    this.filterColumns = filterColumns;
+    this.remainingColumnsReader = remainingColumnsReader;
+    this.deltas = deltas;
+    this.filterCondition = filterCondition;
+  }
+
+  @Override
+  public void setup(OutputMutator output) throws ExecutionSetupException {
+    this.externalCallback = output.getCallBack();
+
+    // inner container populated by the filter columns reader, only holding the filter columns
+    readerOutput = new VectorContainerWithSV(context.getAllocator(), new SelectionVector2(context.getAllocator()));
+    mutator = new ScanMutator(readerOutput, fieldVectorMap, context, innerCallback);
+    for (ValueVector v : output.getVectors()) {
+      final Field f = v.getField();
+      if (filterColumns.contains(f.getName().toLowerCase())) {
+        mutator.addField(f, (Class<? extends ValueVector>) TypeHelper.getValueVectorClass(f));
+      }
+    }
+    innerCallback.getSchemaChangedAndReset();
+    readerOutput.buildSchema();
+
+    filterColumnsReader.setup(mutator);
+    // the other columns are directly read into the output
+    remainingColumnsReader.setup(output);
+
+    final ClassGenerator<Filterer> cg = context.getClassProducer().createGenerator(Filterer.TEMPLATE_DEFINITION2).getRoot();
+    final LogicalExpression expr = context.getClassProducer().materializeAndAllowComplex(filterCondition, readerOutput);
+    cg.addExpr(new ReturnValueExpression(expr), ClassGenerator.BlockCreateMode.MERGE);
+
+    filteredSV2 = new SelectionVector2(context.getAllocator());
+    this.filter = cg.getCodeGenerator().getImplementationClass();
+    filter.setup(context.getClassProducer().getFunctionContext(), readerOutput, new SV2Holder(filteredSV2));
+
+    final VectorAccessible copyInput = new ContainerAndSV2(readerOutput, filteredSV2);
+    copyOutput = VectorContainer.create(context.getAllocator(), readerOutput.getSchema());
+    copyOutput.setInitialCapacity(context.getTargetBatchSize());
+    copier = CopierOperator.getGenerated2Copier(context.getClassProducer(), copyInput, copyOutput);
+
+    for (VectorWrapper<?> wrapper : copyOutput) {
+      final Field field = wrapper.getField();
+      copierToOutputTransfers.add(wrapper.getValueVector().makeTransferPair(output.getVector(field.getName())));
+    }
+
+    deltas.allocateNew(context.getTargetBatchSize());
+  }
+
+  @Override
+  public SchemaChangeMutator getSchemaChangeMutator() {
+    return remainingColumnsReader.getSchemaChangeMutator();
+  }
+
+  @Override
+  public void allocate(Map<String, ValueVector> vectorMap) throws OutOfMemoryException {
+    remainingColumnsReader.allocate(vectorMap);
+  }
+
+  @Override
+  public int next() {
+    final Stopwatch copyWatch = Stopwatch.createUnstarted();
+    final Stopwatch filterWatch = Stopwatch.createUnstarted();
+
+    filterColumnsReader.allocate(fieldVectorMap);
+
+    // keep reading the filter columns until the reader is done or some rows pass the filter
+    int recordCount;
+    int selected = 0;
+    while ((recordCount = filterColumnsReader.next()) > 0) {
+      if (mutator.isSchemaChanged()) {
+        externalCallback.doWork();
+      }
+
+      filterWatch.start();
+      selected = filter.filterBatch(recordCount);
+      skipped = setDeltas(filteredSV2, recordCount, skipped, deltas);
+      filterWatch.stop();
+      if (selected > 0) {
+        break;
+      }
+
+      readerOutput.allocateNew();
+    }
+    context.getStats().addLongStat(ScanOperator.Metric.FILTER_MS, filterWatch.elapsed(TimeUnit.MILLISECONDS));
+
+    if (selected == 0) {
+      // no other row of the row group passes the filter
+      return 0;
+    }
+
+    final int count = remainingColumnsReader.next();
+    if (count != selected) {
+      throw new IllegalStateException(String.format("Inconsistent row count. Reader %s returned %d while " +
+        "%d rows passed the filter", remainingColumnsReader.toString(), count, selected));
+    }
+
+    copyOutput.allocateNew();
+
+    copyWatch.start();
+    final int copied = copier.copyRecords(0, selected);
+    copyWatch.stop();
+    if (copied != selected) { // copier may return earlier if it runs out of memory
+      throw UserException.memoryError().message("Ran out of memory while trying to copy the records.").build(logger);
+    }
+
+    for (TransferPair t : copierToOutputTransfers) {
+      t.transfer();
+    }
+
+    context.getStats().addLongStat(ScanOperator.Metric.COPY_MS, copyWatch.elapsed(TimeUnit.MILLISECONDS));
+    return selected;
+  }
+
+  /**
+   * Sets the deltas of the rows of a batch passing the filter: the number of rows to skip before each of them.
+   *
+   * @param selection rows of the batch passing the filter
+   * @param recordCount number of rows in the batch
+   * @param skipped rows filtered out since the last row passing the filter, before the batch
+   * @param deltas deltas to set
+   * @return rows filtered out since the last row passing the filter, after the batch
+   */
+  @VisibleForTesting
+  static int setDeltas(SelectionVector2 selection, int recordCount, int skipped, SimpleIntVector deltas) {
+    final int selected = selection.getCount();
+    int previous = -1;
+    for (int i = 0; i < selected; i++) {
+      final int index = selection.getIndex(i);
+      deltas.setSafe(i, skipped + index - previous - 1);
+      skipped = 0;
+      previous = index;
+    }
+    deltas.setValueCount(selected);
+    return skipped + recordCount - previous - 1;
+  }
+
+  @Override
+  public void close() throws Exception {
+    AutoCloseables.close(copier, copyOutput, filteredSV2, readerOutput, filterColumnsReader, remainingColumnsReader,
+      deltas);
+  }
+}
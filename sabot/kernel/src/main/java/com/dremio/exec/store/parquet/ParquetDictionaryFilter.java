@@ -0,0 +1,255 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.column.page.DictionaryPage;
+import org.apache.parquet.hadoop.CodecFactory;
+import org.apache.parquet.hadoop.ColumnChunkIncReadStore;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.OriginalType;
+
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.exec.expr.ClassGenerator;
+import com.dremio.exec.expr.ReturnValueExpression;
+import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.exec.record.selection.SelectionVector2;
+import com.dremio.exec.store.parquet.CopyingFilteringReader.SV2Holder;
+import com.dremio.sabot.exec.context.OperatorContext;
+import com.dremio.sabot.op.filter.Filterer;
+import com.dremio.sabot.op.scan.OutputMutator;
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * Uses the dictionaries of the column chunks of a row group to find out whether any row of the row group can pass the
+ * filter conditions pushed into the scan.
+ *
+ * When all the data pages of a column chunk are dictionary encoded, every value of the column is in the dictionary. A
+ * condition on such a column is evaluated on the dictionary values (and null if the column is optional): if none of
+ * them passes, no row of the row group passes the filter and the row group doesn't need to be read.
+ */
+class ParquetDictionaryFilter {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ParquetDictionaryFilter.class);
+
+  // rows are selected by a selection vector of char indices
+  private static final int MAX_DICTIONARY_SIZE = Character.MAX_VALUE;
+
+  private final OperatorContext context;
+  private final ParquetMetadata footer;
+  private final int rowGroupIndex;
+  private final FileSystem fs;
+  private final Path path;
+  private final CodecFactory codecFactory;
+  private final InputStreamProvider inputStreamProvider;
+  private final Map<LogicalExpression, Filterer> filterers;
+
+  /**
+   * @param filterers filters generated for the conditions, shared by the row groups of a scan so that each condition
+   *                  is only generated once
+   */
+  ParquetDictionaryFilter(OperatorContext context, ParquetMetadata footer, int rowGroupIndex, FileSystem fs,
+      Path path, CodecFactory codecFactory, InputStreamProvider inputStreamProvider,
+      Map<LogicalExpression, Filterer> filterers) {
+    this.context = context;
+    this.footer = footer;
+    this.rowGroupIndex = rowGroupIndex;
+    this.fs = fs;
+    this.path = path;
+    this.codecFactory = codecFactory;
+    this.inputStreamProvider = inputStreamProvider;
+    this.filterers = filterers;
+  }
+
+  /**
+   * @param conditions conditions of the filter, which is their conjunction
+   * @param output output of the scan, with the table schema
+   * @return false if no row of the row group can pass the filter
+   */
+  boolean canMatch(List<ParquetFilterCondition> conditions, OutputMutator output) {
+    final BlockMetaData block = footer.getBlocks().get(rowGroupIndex);
+    for (ParquetFilterCondition condition : conditions) {
+      if (!condition.getPath().isSimplePath()) {
+        continue;
+      }
+
+      final String name = condition.getPath().getRootSegment().getPath();
+      for (ColumnChunkMetaData column : block.getColumns()) {
+        final String[] columnPath = column.getPath().toArray();
+        if (columnPath.length == 1 && columnPath[0].equalsIgnoreCase(name)
+            && !canMatch(condition.getExpr(), column, output.getVector(name))) {
+          logger.debug("No value of the dictionary of column {} matches {}, skipping row group {} of {}",
+              name, condition, rowGroupIndex, path);
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private boolean canMatch(LogicalExpression condition, ColumnChunkMetaData column, ValueVector outputVector) {
+    if (outputVector == null || !isDictionaryEncoded(column)) {
+      return true;
+    }
+
+    final MessageType schema = footer.getFileMetaData().getSchema();
+    final ColumnDescriptor descriptor = schema.getColumnDescription(column.getPath().toArray());
+    final MinorType type = getMinorType(descriptor, schema.getType(column.getPath().toArray()).getOriginalType());
+    final Field field = outputVector.getField();
+    if (type == null || type != Types.getMinorTypeForArrowType(field.getType())) {
+      return true;
+    }
+
+    try (VectorContainer dictionary = new VectorContainer(context.getAllocator())) {
+      final int count = readDictionary(descriptor, column, dictionary.addOrGet(field));
+      if (count < 0) {
+        return true;
+      }
+      dictionary.setRecordCount(count);
+      dictionary.buildSchema(SelectionVectorMode.NONE);
+      return anyPasses(condition, dictionary, count);
+    } catch (IOException | RuntimeException e) {
+      logger.debug("Failure while evaluating {} on the dictionary of column {} in {}", condition, column.getPath(), path, e);
+      return true;
+    }
+  }
+
+  /**
+   * Reads the dictionary of a column chunk in a vector, followed by a null value if the column is optional.
+   *
+   * @return the number of values in the vector, -1 if the chunk has no dictionary page or it is too large
+   */
+  private int readDictionary(ColumnDescriptor descriptor, ColumnChunkMetaData column, ValueVector vector) throws IOException {
+    final ColumnChunkIncReadStore store = new ColumnChunkIncReadStore(footer.getBlocks().get(rowGroupIndex).getRowCount(),
+        codecFactory, context.getAllocator(), fs, path, inputStreamProvider);
+    try {
+      store.addColumn(descriptor, column);
+      final DictionaryPage page = store.getPageReader(descriptor).readDictionaryPage();
+      if (page == null) {
+        return -1;
+      }
+
+      final Dictionary dictionary = page.getEncoding().initDictionary(descriptor, page);
+      final int size = dictionary.getMaxId() + 1;
+      final int count = descriptor.getMaxDefinitionLevel() > 0 ? size + 1 : size;
+      if (count > MAX_DICTIONARY_SIZE) {
+        return -1;
+      }
+
+      // values are null unless set
+      vector.allocateNew();
+      for (int i = 0; i < size; i++) {
+        switch (descriptor.getType()) {
+        case INT32:
+          ((IntVector) vector).setSafe(i, dictionary.decodeToInt(i));
+          break;
+        case INT64:
+          ((BigIntVector) vector).setSafe(i, dictionary.decodeToLong(i));
+          break;
+        case FLOAT:
+          ((Float4Vector) vector).setSafe(i, dictionary.decodeToFloat(i));
+          break;
+        case DOUBLE:
+          ((Float8Vector) vector).setSafe(i, dictionary.decodeToDouble(i));
+          break;
+        case BINARY:
+          final byte[] bytes = dictionary.decodeToBinary(i).getBytes();
+          ((VarCharVector) vector).setSafe(i, bytes, 0, bytes.length);
+          break;
+        default:
+          throw new IllegalStateException("Unexpected type " + descriptor.getType());
+        }
+      }
+      vector.setValueCount(count);
+      return count;
+    } finally {
+      store.close();
+    }
+  }
+
+  private boolean anyPasses(LogicalExpression condition, VectorContainer dictionary, int count) {
+    // the dictionary of a column has the type of the output vector in every row group, a filter generated for a
+    // condition only needs to be set up again
+    Filterer filter = filterers.get(condition);
+    if (filter == null) {
+      final ClassGenerator<Filterer> cg = context.getClassProducer().createGenerator(Filterer.TEMPLATE_DEFINITION2).getRoot();
+      final LogicalExpression expr = context.getClassProducer().materializeAndAllowComplex(condition, dictionary);
+      cg.addExpr(new ReturnValueExpression(expr), ClassGenerator.BlockCreateMode.MERGE);
+      filter = cg.getCodeGenerator().getImplementationClass();
+      filterers.put(condition, filter);
+    }
+
+    try (SelectionVector2 selection = new SelectionVector2(context.getAllocator())) {
+      filter.setup(context.getClassProducer().getFunctionContext(), dictionary, new SV2Holder(selection));
+      return filter.filterBatch(count) > 0;
+    }
+  }
+
+  private static MinorType getMinorType(ColumnDescriptor descriptor, OriginalType originalType) {
+    switch (descriptor.getType()) {
+    case INT32:
+      return originalType == null ? MinorType.INT : null;
+    case INT64:
+      return originalType == null ? MinorType.BIGINT : null;
+    case FLOAT:
+      return MinorType.FLOAT4;
+    case DOUBLE:
+      return MinorType.FLOAT8;
+    case BINARY:
+      return originalType == OriginalType.UTF8 ? MinorType.VARCHAR : null;
+    default:
+      return null;
+    }
+  }
+
+  /**
+   * Without page encoding stats, a column chunk is known to only have dictionary encoded pages if it uses the 1.0
+   * dictionary encoding and no other data encoding (RLE and BIT_PACKED are used for the repetition and definition
+   * levels). Chunks which fell back to plain encoding also list PLAIN.
+   */
+  @VisibleForTesting
+  static boolean isDictionaryEncoded(ColumnChunkMetaData column) {
+    final Set<Encoding> encodings = new HashSet<>(column.getEncodings());
+    if (!encodings.remove(Encoding.PLAIN_DICTIONARY)) {
+      return false;
+    }
+    encodings.remove(Encoding.RLE);
+    encodings.remove(Encoding.BIT_PACKED);
+    return encodings.isEmpty();
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.dremio.common.expression.BooleanOperator;
+import com.dremio.common.expression.FunctionCall;
+import com.dremio.common.expression.FunctionCallFactory;
+import com.dremio.common.expression.LogicalExpression;
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * Helpers to evaluate the conjunction of the {@link ParquetFilterCondition}s pushed into a parquet scan.
+ *
+ * The conditions are evaluated most selective first, so that the evaluation of a row stops at the first condition it
+ * doesn't pass. The selectivity of a condition is guessed from its expression, using the same defaults as the planner
+ * (see RelMdUtil.guessSelectivity in Calcite).
+ */
+public final class ParquetFilterConditions {
+
+  private ParquetFilterConditions() {
+  }
+
+  /**
+   * @return the conditions, most selective first
+   */
+  public static List<ParquetFilterCondition> sortBySelectivity(List<ParquetFilterCondition> conditions) {
+    final List<ParquetFilterCondition> sorted = new ArrayList<>(conditions);
+    // stable, conditions with the same selectivity keep their order
+    Collections.sort(sorted, new Comparator<ParquetFilterCondition>() {
+      @Override
+      public int compare(ParquetFilterCondition c1, ParquetFilterCondition c2) {
+        return Double.compare(estimateSelectivity(c1.getExpr()), estimateSelectivity(c2.getExpr()));
+      }
+    });
+    return sorted;
+  }
+
+  /**
+   * @return the conjunction of the conditions, evaluated in order with short-circuiting
+   */
+  public static LogicalExpression toConjunction(List<ParquetFilterCondition> conditions) {
+    if (conditions.size() == 1) {
+      return conditions.get(0).getExpr();
+    }
+
+    final List<LogicalExpression> exprs = new ArrayList<>();
+    for (ParquetFilterCondition condition : conditions) {
+      exprs.add(condition.getExpr());
+    }
+    return FunctionCallFactory.createBooleanOperator("and", exprs);
+  }
+
+  @VisibleForTesting
+  static double estimateSelectivity(LogicalExpression expr) {
+    if (expr instanceof BooleanOperator) {
+      final BooleanOperator operator = (BooleanOperator) expr;
+      double selectivity = operator.isAnd() ? 1.0 : 0.0;
+      for (LogicalExpression arg : operator.args) {
+        if (operator.isAnd()) {
+          selectivity *= estimateSelectivity(arg);
+        } else {
+          selectivity += estimateSelectivity(arg);
+        }
+      }
+      return Math.min(1.0, selectivity);
+    }
+
+    if (expr instanceof FunctionCall) {
+      switch (((FunctionCall) expr).getName()) {
+      case "isnotnull":
+        return 0.9;
+      case "equal":
+      case "is_not_distinct_from":
+        return 0.15;
+      case "less_than":
+      case "less_than_or_equal_to":
+      case "greater_than":
+      case "greater_than_or_equal_to":
+        return 0.5;
+      default:
+        break;
+      }
+    }
+    return 0.25;
+  }
+}
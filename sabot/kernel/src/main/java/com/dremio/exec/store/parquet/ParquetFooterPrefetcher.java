@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+
+import com.dremio.sabot.exec.context.OperatorStats;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Reads the footers of the next files of a scan in the background, while the current file is being read, so that
+ * the footer round trips (which can take tens of milliseconds on object stores) are not on the critical path of the
+ * scan when moving to the next file.
+ *
+ * Files must be requested in the order they were given. At most {@code depth} footers are read ahead, which bounds
+ * the heap used by the prefetched footers. If a footer is not available (not prefetched, requested again, the
+ * background read failed or took too long) {@link #getFooter(String)} returns null and the caller is expected to read
+ * it synchronously, which reports the failure in the context of the scan. Footers are not kept once returned, the
+ * caller caches them.
+ *
+ * The prefetcher must be closed when the scan ends, which cancels the reads still in flight.
+ */
+class ParquetFooterPrefetcher implements AutoCloseable {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ParquetFooterPrefetcher.class);
+
+  private final FileSystem fs;
+  private final ExecutorService executor;
+  private final OperatorStats stats;
+  private final List<FooterFile> files;
+  private final int depth;
+  private final long waitTimeoutMs;
+
+  private final Map<String, Future<ParquetMetadata>> pending = new HashMap<>();
+  // index of the next file to submit
+  private int nextToSubmit;
+  private boolean closed;
+
+  /**
+   * @param fs file system used for the background reads, must not report to the operator stats as it is accessed
+   *           from other threads
+   * @param executor executor running the background reads
+   * @param stats operator stats, time spent waiting for a prefetched footer is accounted as wait time
+   * @param files distinct files of the scan, in the order they will be read
+   * @param depth maximum number of footers read ahead
+   * @param waitTimeoutMs maximum time to wait for a prefetched footer before reading it synchronously
+   */
+  ParquetFooterPrefetcher(FileSystem fs, ExecutorService executor, OperatorStats stats, List<FooterFile> files,
+      int depth, long waitTimeoutMs) {
+    Preconditions.checkArgument(depth > 0, "prefetch depth must be positive");
+    this.fs = fs;
+    this.executor = executor;
+    this.stats = stats;
+    this.files = ImmutableList.copyOf(files);
+    this.depth = depth;
+    this.waitTimeoutMs = waitTimeoutMs;
+    submitNext();
+  }
+
+  /**
+   * Get the footer of the given file, and start reading the footers of the following files.
+   *
+   * @return the footer, or null if it was not prefetched
+   */
+  ParquetMetadata getFooter(String path) {
+    if (closed) {
+      return null;
+    }
+
+    final Future<ParquetMetadata> future = pending.remove(path);
+    submitNext();
+    if (future == null) {
+      return null;
+    }
+
+    ParquetMetadata footer = null;
+    stats.startWait();
+    try {
+      footer = future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      logger.debug("Failed to prefetch footer of {}", path, e.getCause());
+    } catch (TimeoutException e) {
+      logger.debug("Timed out waiting for prefetched footer of {}", path);
+      future.cancel(true);
+    } finally {
+      stats.stopWait();
+    }
+    return footer;
+  }
+
+  /**
+   * Cancel the footer reads in flight, and stop prefetching.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    for (Future<ParquetMetadata> future : pending.values()) {
+      future.cancel(true);
+    }
+    pending.clear();
+  }
+
+  private void submitNext() {
+    while (pending.size() < depth && nextToSubmit < files.size()) {
+      final FooterFile file = files.get(nextToSubmit++);
+      try {
+        pending.put(file.path, executor.submit(new Callable<ParquetMetadata>() {
+          @Override
+          public ParquetMetadata call() throws Exception {
+            return SingletonParquetFooterCache.readFooter(fs, file.path, file.length);
+          }
+        }));
+      } catch (RejectedExecutionException e) {
+        // footer will be read synchronously
+        logger.debug("Unable to prefetch footer of {}", file.path, e);
+      }
+    }
+  }
+
+  /**
+   * A file whose footer should be prefetched.
+   */
+  static final class FooterFile {
+    private final String path;
+    // -1 if unknown
+    private final long length;
+
+    FooterFile(String path, long length) {
+      this.path = path;
+      this.length = length;
+    }
+  }
+}
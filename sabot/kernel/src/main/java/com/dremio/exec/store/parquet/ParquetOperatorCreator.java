@@ -17,6 +17,7 @@ package com.dremio.exec.store.parquet;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -28,6 +29,7 @@ import org.apache.parquet.hadoop.metadata.ParquetMetadata;
 
 import com.dremio.common.exceptions.ExecutionSetupException;
 import com.dremio.common.exceptions.UserException;
+import com.dremio.common.expression.LogicalExpression;
 import com.dremio.exec.ExecConstants;
 import com.dremio.exec.planner.physical.visitor.GlobalDictionaryFieldInfo;
 import com.dremio.exec.store.RecordReader;
@@ -38,6 +40,7 @@ import com.dremio.exec.store.dfs.implicit.ImplicitFilesystemColumnFinder;
 import com.dremio.parquet.reader.ParquetDirectByteBufferAllocator;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.fragment.FragmentExecutionContext;
+import com.dremio.sabot.op.filter.Filterer;
 import com.dremio.sabot.op.scan.ScanOperator;
 import com.dremio.sabot.op.spi.ProducerOperator;
 import com.dremio.sabot.op.spi.ProducerOperator.Creator;
@@ -71,7 +74,8 @@ public class ParquetOperatorCreator implements Creator<ParquetSubScan> {
     // TODO (AH )Fix implicit columns with mod time and global dictionaries
     final ImplicitFilesystemColumnFinder finder = new ImplicitFilesystemColumnFinder(context.getOptions(), fs, config.getColumns(), isAccelerator);
     // load global dictionaries, globalDictionaries must be closed by the last reader
-    final GlobalDictionaries globalDictionaries = GlobalDictionaries.create(context, fs,  config.getGlobalDictionaryEncodedColumns());
+    final GlobalDictionaries globalDictionaries = GlobalDictionaries.create(context, fs,
+        plugin.getContext().getGlobalDictionaryCache(), config.getGlobalDictionaryEncodedColumns());
     final boolean vectorize = context.getOptions().getOption(ExecConstants.PARQUET_READER_VECTORIZE);
     final boolean autoCorrectCorruptDates = ((ParquetFileConfig)FileFormat.getForFile(config.getFormatSettings())).getAutoCorrectCorruptDates();
     final boolean readInt96AsTimeStamp = context.getOptions().getOption(ExecConstants
@@ -96,6 +100,9 @@ public class ParquetOperatorCreator implements Creator<ParquetSubScan> {
     }
     Collections.sort(sortedSplits);
 
+    final ParquetFooterPrefetcher footerPrefetcher = newFooterPrefetcher(plugin, context, config, sortedSplits);
+    final Map<LogicalExpression, Filterer> dictionaryFilterers = new IdentityHashMap<>();
+
     FluentIterable < RecordReader > readers = FluentIterable.from(sortedSplits).transform(new Function<ParquetDatasetSplit, RecordReader>() {
       @Override
       public RecordReader apply(ParquetDatasetSplit split) {
@@ -111,13 +118,23 @@ public class ParquetOperatorCreator implements Creator<ParquetSubScan> {
 
         try {
           Path p = new Path(split.getSplitXAttr().getPath());
-          Long length = split.getSplitXAttr().getFileLength();
-          if (length == null || !context.getOptions().getOption(ExecConstants.PARQUET_CACHED_ENTITY_SET_FILE_SIZE)) {
-            length = fs.getFileStatus(p).getLen();
-          }
           InputStreamProvider inputStreamProvider = new InputStreamProvider(fs, p, useSingleStream);
 
-          final ParquetMetadata footer = footerCache.getFooter(inputStreamProvider.stream(), split.getSplitXAttr().getPath(), length, fs);
+          final String path = split.getSplitXAttr().getPath();
+          ParquetMetadata footer = footerCache.getCachedFooter(path);
+          if (footer == null && footerPrefetcher != null) {
+            footer = footerPrefetcher.getFooter(path);
+            if (footer != null) {
+              footerCache.setFooter(path, footer);
+            }
+          }
+          if (footer == null) {
+            Long length = split.getSplitXAttr().getFileLength();
+            if (length == null || !context.getOptions().getOption(ExecConstants.PARQUET_CACHED_ENTITY_SET_FILE_SIZE)) {
+              length = fs.getFileStatus(p).getLen();
+            }
+            footer = footerCache.getFooter(inputStreamProvider.stream(), path, length, fs);
+          }
 
           final SchemaDerivationHelper schemaHelper = SchemaDerivationHelper.builder()
               .readInt96AsTimeStamp(readInt96AsTimeStamp)
@@ -139,7 +156,8 @@ public class ParquetOperatorCreator implements Creator<ParquetSubScan> {
             schemaHelper,
             vectorize,
             enableDetailedTracing,
-            inputStreamProvider
+            inputStreamProvider,
+            dictionaryFilterers
           );
           return readerConfig.wrapIfNecessary(context.getAllocator(), inner, split.getDatasetSplit());
         } catch (IOException e) {
@@ -149,11 +167,48 @@ public class ParquetOperatorCreator implements Creator<ParquetSubScan> {
       }
     });
 
-    final ScanOperator scan = new ScanOperator(fragmentExecContext.getSchemaUpdater(), config, context, readers.iterator(), globalDictionaries);
+    // footers still being prefetched are cancelled when the scan ends, even if it doesn't get to their files
+    final ScanOperator scan = new ScanOperator(fragmentExecContext.getSchemaUpdater(), config, context, readers.iterator(),
+        globalDictionaries, footerPrefetcher);
     logger.debug("Took {} ms to create Parquet Scan SqlOperatorImpl.", watch.elapsed(TimeUnit.MILLISECONDS));
     return scan;
   }
 
+  /**
+   * Create a prefetcher reading the footers of the next files of the scan in the background, or null if
+   * prefetching is disabled or the scan reads a single file.
+   */
+  private static ParquetFooterPrefetcher newFooterPrefetcher(FileSystemPlugin plugin, OperatorContext context,
+      ParquetSubScan config, List<ParquetDatasetSplit> sortedSplits) {
+    final int depth = (int) context.getOptions().getOption(ExecConstants.PARQUET_FOOTER_PREFETCH_DEPTH);
+    if (depth == 0) {
+      return null;
+    }
+
+    final boolean useCachedLength = context.getOptions().getOption(ExecConstants.PARQUET_CACHED_ENTITY_SET_FILE_SIZE);
+    final List<ParquetFooterPrefetcher.FooterFile> files = Lists.newArrayList();
+    String lastPath = null;
+    for (ParquetDatasetSplit split : sortedSplits) {
+      final String path = split.getSplitXAttr().getPath();
+      // splits are sorted by path, splits of the same file are next to each other
+      if (path.equals(lastPath)) {
+        continue;
+      }
+      final Long length = split.getSplitXAttr().getFileLength();
+      files.add(new ParquetFooterPrefetcher.FooterFile(path, length == null || !useCachedLength ? -1 : length));
+      lastPath = path;
+    }
+
+    if (files.size() < 2) {
+      return null;
+    }
+
+    // background reads must not report to the operator stats, which are not thread safe
+    final FileSystemWrapper prefetchFs = plugin.getFs(config.getUserName(), null);
+    return new ParquetFooterPrefetcher(prefetchFs, context.getExecutor(), context.getStats(), files, depth,
+        context.getOptions().getOption(ExecConstants.PARQUET_FOOTER_PREFETCH_WAIT_MS));
+  }
+
   private static class ParquetDatasetSplit implements Comparable {
     private final DatasetSplit datasetSplit;
     private final ParquetDatasetSplitScanXAttr splitXAttr;
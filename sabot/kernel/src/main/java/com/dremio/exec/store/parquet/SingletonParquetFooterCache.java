@@ -59,6 +59,21 @@ public class SingletonParquetFooterCache {
     return footer;
   }
 
+  /**
+   * @return the footer of the given file if it is the last one cached, null otherwise
+   */
+  public ParquetMetadata getCachedFooter(String path) {
+    return footer != null && lastFile.equals(path) ? footer : null;
+  }
+
+  /**
+   * Cache the footer of a file read elsewhere.
+   */
+  public void setFooter(String path, ParquetMetadata footer) {
+    this.footer = footer;
+    this.lastFile = path;
+  }
+
   private static final void readFully(FSDataInputStream stream, long start, byte[] output, int offset, int len) throws IOException{
     int bytesRead = 0;
     while(bytesRead > -1 && bytesRead < len){
@@ -96,6 +111,17 @@ public class SingletonParquetFooterCache {
     }
   }
 
+  /**
+   * Read the footer of a file whose length may already be known.
+   *
+   * @param fileLength length of the file, or -1 if unknown
+   */
+  static ParquetMetadata readFooter(final FileSystem fs, final String path, long fileLength) throws IOException {
+    try(FSDataInputStream file = fs.open(new Path(path))) {
+      return readFooter(file, path, fileLength, ParquetMetadataConverter.NO_FILTER, fs);
+    }
+  }
+
   private ParquetMetadata readFooter(FSDataInputStream file, String path, long fileLength, FileSystem fs) throws IOException {
     return readFooter(file, path, fileLength, ParquetMetadataConverter.NO_FILTER, fs);
   }
@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -44,10 +45,13 @@ import org.apache.parquet.schema.Type;
 import com.dremio.common.AutoCloseables;
 import com.dremio.common.config.SabotConfig;
 import com.dremio.common.exceptions.ExecutionSetupException;
+import com.dremio.common.expression.LogicalExpression;
 import com.dremio.common.expression.SchemaPath;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.planner.physical.visitor.GlobalDictionaryFieldInfo;
 import com.dremio.exec.record.BatchSchema;
 import com.dremio.exec.store.AbstractRecordReader;
+import com.dremio.exec.store.EmptyRecordReader;
 import com.dremio.exec.store.RecordReader;
 import com.dremio.exec.store.parquet.columnreaders.DeprecatedParquetVectorizedReader;
 import com.dremio.exec.store.parquet2.ParquetRowiseReader;
@@ -55,6 +59,7 @@ import com.dremio.exec.util.ColumnUtils;
 import com.dremio.parquet.reader.ParquetDirectByteBufferAllocator;
 import com.dremio.sabot.driver.SchemaChangeMutator;
 import com.dremio.sabot.exec.context.OperatorContext;
+import com.dremio.sabot.op.filter.Filterer;
 import com.dremio.sabot.op.scan.OutputMutator;
 import com.dremio.sabot.op.scan.ScanOperator.Metric;
 import com.dremio.service.namespace.file.proto.ParquetDatasetSplitScanXAttr;
@@ -85,9 +90,11 @@ public class UnifiedParquetReader implements RecordReader {
   private List<RecordReader> delegates = new ArrayList<>();
   private final List<SchemaPath> nonVectorizableReaderColumns = new ArrayList<>();
   private final List<SchemaPath> vectorizableReaderColumns = new ArrayList<>();
+  private final List<SchemaPath> lateMaterializedColumns = new ArrayList<>();
   private final Map<String, ValueVector> vectorizedMap = new HashMap<>();
   private final Map<String, ValueVector> nonVectorizedMap = new HashMap<>();
   private InputStreamProvider inputStreamProvider;
+  private final Map<LogicalExpression, Filterer> dictionaryFilterers;
 
   public UnifiedParquetReader(
       OperatorContext context,
@@ -105,11 +112,37 @@ public class UnifiedParquetReader implements RecordReader {
       boolean vectorize,
       boolean enableDetailedTracing,
       InputStreamProvider inputStreamProvider) {
+    this(context, readerFactory, tableSchema, realFields, globalDictionaryFieldInfoMap, filterConditions, readEntry, fs,
+      footer, dictionaries, codecFactory, schemaHelper, vectorize, enableDetailedTracing, inputStreamProvider,
+      new IdentityHashMap<LogicalExpression, Filterer>());
+  }
+
+  /**
+   * @param dictionaryFilterers filters generated to evaluate the filter conditions on dictionaries, shared by the
+   *                            readers of a scan
+   */
+  public UnifiedParquetReader(
+      OperatorContext context,
+      ParquetReaderFactory readerFactory,
+      BatchSchema tableSchema,
+      List<SchemaPath> realFields,
+      Map<String, GlobalDictionaryFieldInfo> globalDictionaryFieldInfoMap,
+      List<ParquetFilterCondition> filterConditions,
+      ParquetDatasetSplitScanXAttr readEntry,
+      FileSystem fs,
+      ParquetMetadata footer,
+      GlobalDictionaries dictionaries,
+      CodecFactory codecFactory,
+      SchemaDerivationHelper schemaHelper,
+      boolean vectorize,
+      boolean enableDetailedTracing,
+      InputStreamProvider inputStreamProvider,
+      Map<LogicalExpression, Filterer> dictionaryFilterers) {
     super();
     this.context = context;
     this.readerFactory = readerFactory;
     this.globalDictionaryFieldInfoMap = globalDictionaryFieldInfoMap;
-    this.filterConditions = filterConditions;
+    this.filterConditions = filterConditions == null ? null : ParquetFilterConditions.sortBySelectivity(filterConditions);
     this.fs = fs;
     this.footer = footer;
     this.readEntry = readEntry;
@@ -121,6 +154,7 @@ public class UnifiedParquetReader implements RecordReader {
     this.enableDetailedTracing = enableDetailedTracing;
     this.inputStreamProvider = inputStreamProvider;
     this.schemaHelper = schemaHelper;
+    this.dictionaryFilterers = dictionaryFilterers;
   }
 
   @Override
@@ -131,7 +165,7 @@ public class UnifiedParquetReader implements RecordReader {
 
 
 
-    final ExecutionPath execPath = getExecutionPath();
+    final ExecutionPath execPath = getExecutionPath(output);
     delegates = execPath.getReaders(this);
 
     Preconditions.checkArgument(!delegates.isEmpty(), "There should be at least one delegated RecordReader");
@@ -152,6 +186,7 @@ public class UnifiedParquetReader implements RecordReader {
     context.getStats().setLongStat(Metric.NUM_VECTORIZED_COLUMNS, vectorizableReaderColumns.size());
     context.getStats().setLongStat(Metric.NUM_NON_VECTORIZED_COLUMNS, nonVectorizableReaderColumns.size());
     context.getStats().setLongStat(Metric.FILTER_EXISTS, filterConditions != null && filterConditions.size() > 0 ? 1 : 0);
+    context.getStats().setLongStat(Metric.NUM_LATE_MATERIALIZED_COLUMNS, lateMaterializedColumns.size());
   }
 
   // No reason to use delegates since Parquet always uses the default schema change mutator.
@@ -199,8 +234,79 @@ public class UnifiedParquetReader implements RecordReader {
       return delegate;
     }
 
-    Preconditions.checkState(filterConditions.size() == 1, "we only support a single filterCondition per rowGroupScan for now");
-    return new CopyingFilteringReader(delegate, context, filterConditions.get(0).getExpr());
+    return new CopyingFilteringReader(delegate, context, getFilterExpression());
+  }
+
+  private LogicalExpression getFilterExpression() {
+    return ParquetFilterConditions.toConjunction(filterConditions);
+  }
+
+  /**
+   * @return false if the dictionaries of the row group show that no row of the row group passes the filter
+   */
+  private boolean canMatchFilter(OutputMutator output) {
+    if (filterConditions == null || filterConditions.isEmpty()
+        || !context.getOptions().getOption(ExecConstants.PARQUET_DICTIONARY_FILTER)) {
+      return true;
+    }
+
+    final ParquetDictionaryFilter dictionaryFilter = new ParquetDictionaryFilter(context, footer,
+      readEntry.getRowGroupIndex(), fs, new Path(readEntry.getPath()), codecFactory, inputStreamProvider,
+      dictionaryFilterers);
+    return dictionaryFilter.canMatch(filterConditions, output);
+  }
+
+  /**
+   * Creates a row-wise reader first reading the columns the filter conditions are on, and then the other projected
+   * columns only for the rows passing the filter.
+   *
+   * @return the reader, or null if there is no filter, or if the filter is not on projected top level columns only
+   */
+  private RecordReader newLateMaterializingReader() {
+    if (filterConditions == null || filterConditions.isEmpty() || ColumnUtils.isStarQuery(realFields)
+        || !context.getOptions().getOption(ExecConstants.PARQUET_LATE_MATERIALIZATION)) {
+      return null;
+    }
+
+    final Set<String> filterColumnNames = Sets.newHashSet();
+    for (ParquetFilterCondition condition : filterConditions) {
+      if (!condition.getPath().isSimplePath()) {
+        return null;
+      }
+      filterColumnNames.add(condition.getPath().getRootSegment().getPath().toLowerCase());
+    }
+
+    final List<SchemaPath> filterColumns = new ArrayList<>();
+    final List<SchemaPath> remainingColumns = new ArrayList<>();
+    final Set<String> projectedFilterColumnNames = Sets.newHashSet();
+    for (SchemaPath column : realFields) {
+      final String name = column.getRootSegment().getPath().toLowerCase();
+      if (!filterColumnNames.contains(name)) {
+        remainingColumns.add(column);
+      } else if (column.isSimplePath()) {
+        filterColumns.add(column);
+        projectedFilterColumnNames.add(name);
+      } else {
+        // part of a filter column projected, keep reading whole rows
+        return null;
+      }
+    }
+    if (!projectedFilterColumnNames.equals(filterColumnNames) || remainingColumns.isEmpty()) {
+      return null;
+    }
+
+    final SimpleIntVector deltas = new SimpleIntVector("deltas", context.getAllocator());
+    // row-wise readers close their input stream provider: the filter columns are read through streams of their own,
+    // and the shared provider is owned by the reader of the other columns
+    final InputStreamProvider filterColumnsStreamProvider = new InputStreamProvider(fs, new Path(readEntry.getPath()),
+      inputStreamProvider.singleStream());
+    final RecordReader filterColumnsReader = new ParquetRowiseReader(context, footer, readEntry.getRowGroupIndex(),
+      readEntry.getPath(), filterColumns, fs, schemaHelper, filterColumnsStreamProvider);
+    final RecordReader remainingColumnsReader = new ParquetRowiseReader(context, footer, readEntry.getRowGroupIndex(),
+      readEntry.getPath(), remainingColumns, fs, schemaHelper, deltas, inputStreamProvider);
+    lateMaterializedColumns.addAll(remainingColumns);
+    return new LateMaterializingParquetReader(context, filterColumnsReader, filterColumnNames, remainingColumnsReader,
+      deltas, getFilterExpression());
   }
 
   @Override
@@ -335,7 +441,10 @@ public class UnifiedParquetReader implements RecordReader {
     if (filterConditions == null || filterConditions.isEmpty()) {
       return false;
     }
-    Preconditions.checkState(filterConditions.size() == 1, "we only support a single filterCondition per rowGroupScan for now");
+    // the vectorized reader evaluates a single condition, conjunctions are evaluated by the row-wise readers
+    if (filterConditions.size() > 1) {
+      return false;
+    }
 
     for (SchemaPath schema : vectorizableColumns) {
       if (filterConditions.get(0).getPath().equals(schema)) {
@@ -383,6 +492,11 @@ public class UnifiedParquetReader implements RecordReader {
     ROWWISE {
       @Override
       public List<RecordReader> getReaders(UnifiedParquetReader unifiedReader) {
+        final RecordReader lateMaterializingReader = unifiedReader.newLateMaterializingReader();
+        if (lateMaterializingReader != null) {
+          return Collections.singletonList(lateMaterializingReader);
+        }
+
         List<RecordReader> returnList = new ArrayList<>();
         returnList.add(unifiedReader.addFilterIfNecessary(
           new ParquetRowiseReader(
@@ -489,6 +603,14 @@ public class UnifiedParquetReader implements RecordReader {
         };
         return Collections.singletonList(reader);
       }
+    },
+
+    NOMATCH {
+      @Override
+      public List<RecordReader> getReaders(UnifiedParquetReader unifiedReader) {
+        unifiedReader.context.getStats().addLongStat(Metric.NUM_DICTIONARY_FILTERED_ROW_GROUPS, 1);
+        return Collections.<RecordReader>singletonList(new EmptyRecordReader());
+      }
     };
 
     /**
@@ -500,7 +622,10 @@ public class UnifiedParquetReader implements RecordReader {
     public abstract List<RecordReader> getReaders(UnifiedParquetReader unifiedReader) throws ExecutionSetupException;
   }
 
-  private ExecutionPath getExecutionPath() {
+  private ExecutionPath getExecutionPath(OutputMutator output) {
+    if (!canMatchFilter(output)) {
+      return ExecutionPath.NOMATCH;
+    }
     if ((globalDictionaryFieldInfoMap != null && !globalDictionaryFieldInfoMap.isEmpty())) {
       return ExecutionPath.DEPRECATED_VECTORIZED;
     }
@@ -275,7 +275,8 @@ public class ParquetRowiseReader extends AbstractParquetReader {
                         new ParquetDirectByteBufferAllocator(operatorContext.getAllocator()), 0), operatorContext.getAllocator(),
                 fileSystem, filePath, inputStreamProvider);
 
-        for (String[] path : schema.getPaths()) {
+        // only open the projected columns, the record reader doesn't read the other ones
+        for (String[] path : projection.getPaths()) {
           Type type = schema.getType(path);
           if (type.isPrimitive()) {
             ColumnChunkMetaData md = paths.get(ColumnPath.get(path));
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.sys;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.Iterator;
+
+import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
+import com.dremio.exec.server.SabotContext;
+import com.dremio.metrics.Metrics;
+import com.dremio.metrics.MetricsHistory;
+import com.dremio.sabot.exec.context.OperatorContext;
+
+/**
+ * Iterator that returns a {@link MetricInfo} for every sample of the metrics history of this node. Returns nothing if
+ * the history is disabled.
+ */
+public class MetricsIterator implements Iterator<Object> {
+
+  private final NodeEndpoint endpoint;
+  private final Iterator<MetricsHistory.Sample> samples;
+
+  public MetricsIterator(final SabotContext dbContext, final OperatorContext context) {
+    this.endpoint = dbContext.getEndpoint();
+    final MetricsHistory history = Metrics.getHistory();
+    this.samples = history == null
+        ? Collections.<MetricsHistory.Sample>emptyIterator()
+        : history.getSamples().iterator();
+  }
+
+  @Override
+  public boolean hasNext() {
+    return samples.hasNext();
+  }
+
+  @Override
+  public Object next() {
+    final MetricsHistory.Sample sample = samples.next();
+    return new MetricInfo(endpoint.getAddress(), endpoint.getFabricPort(), sample.getName(),
+        new Timestamp(sample.getTimestamp()), sample.getValue());
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+
+  public static class MetricInfo {
+    /**
+     * The SabotNode hostname
+     */
+    public final String hostname;
+
+    /**
+     * The SabotNode fabric port
+     */
+    public final long fabric_port;
+    public final String name;
+    public final Timestamp sample_time;
+    public final double value;
+
+    public MetricInfo(String hostname, long fabric_port, String name, Timestamp sample_time, double value) {
+      this.hostname = hostname;
+      this.fabric_port = fabric_port;
+      this.name = name;
+      this.sample_time = sample_time;
+      this.value = value;
+    }
+  }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.sys;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.dremio.common.utils.protos.QueryIdHelper;
+import com.dremio.datastore.KVStore;
+import com.dremio.datastore.KVStoreProvider;
+import com.dremio.datastore.ProtostuffSerializer;
+import com.dremio.datastore.StoreBuildingFactory;
+import com.dremio.datastore.StoreCreationFunction;
+import com.dremio.datastore.StringSerializer;
+import com.dremio.exec.proto.UserBitShared.CoreOperatorType;
+import com.dremio.exec.proto.UserBitShared.MajorFragmentProfile;
+import com.dremio.exec.proto.UserBitShared.MinorFragmentProfile;
+import com.dremio.exec.proto.UserBitShared.OperatorProfile;
+import com.dremio.exec.proto.UserBitShared.QueryProfile;
+import com.dremio.exec.proto.UserBitShared.StreamProfile;
+import com.dremio.proto.model.profile.FragmentRow;
+import com.dremio.proto.model.profile.OperatorRow;
+import com.dremio.proto.model.profile.ProfileRows;
+import com.google.common.base.Function;
+import com.google.common.collect.FluentIterable;
+
+/**
+ * Fragment and operator level rows of completed query profiles, keyed by attempt id. The rows are flattened once, when
+ * the query completes, so that the sys.profile_fragments and sys.profile_operators tables can be queried across many
+ * queries without deserializing the full profiles (plans, schemas, metrics...).
+ */
+public final class ProfileRowStore {
+
+  public static final String NAME = "profile_rows";
+
+  private ProfileRowStore() {
+  }
+
+  /**
+   * Flattens the given profile into fragment and operator rows.
+   */
+  public static ProfileRows flatten(QueryProfile profile) {
+    final List<FragmentRow> fragments = new ArrayList<>();
+    final List<OperatorRow> operators = new ArrayList<>();
+
+    for (MajorFragmentProfile major : profile.getFragmentProfileList()) {
+      final int majorId = major.getMajorFragmentId();
+      for (MinorFragmentProfile minor : major.getMinorFragmentProfileList()) {
+        final int minorId = minor.getMinorFragmentId();
+        fragments.add(new FragmentRow()
+            .setMajorFragmentId(majorId)
+            .setMinorFragmentId(minorId)
+            .setHostname(minor.hasEndpoint() ? minor.getEndpoint().getAddress() : null)
+            .setState(minor.hasState() ? minor.getState().name() : null)
+            .setStartTime(minor.getStartTime())
+            .setEndTime(minor.getEndTime())
+            .setMaxMemoryUsed(minor.getMaxMemoryUsed())
+            .setRunDuration(minor.getRunDuration())
+            .setBlockedDuration(minor.getBlockedDuration())
+            .setSleepingDuration(minor.getSleepingDuration()));
+
+        for (OperatorProfile operator : minor.getOperatorProfileList()) {
+          long records = 0;
+          long batches = 0;
+          long bytes = 0;
+          for (StreamProfile input : operator.getInputProfileList()) {
+            records += input.getRecords();
+            batches += input.getBatches();
+            bytes += input.getSize();
+          }
+          final CoreOperatorType type = CoreOperatorType.valueOf(operator.getOperatorType());
+          operators.add(new OperatorRow()
+              .setMajorFragmentId(majorId)
+              .setMinorFragmentId(minorId)
+              .setOperatorId(operator.getOperatorId())
+              .setOperatorType(type == null ? Integer.toString(operator.getOperatorType()) : type.name())
+              .setSetupNanos(operator.getSetupNanos())
+              .setProcessNanos(operator.getProcessNanos())
+              .setWaitNanos(operator.getWaitNanos())
+              .setPeakMemory(operator.getPeakLocalMemoryAllocated())
+              .setInputRecords(records)
+              .setInputBatches(batches)
+              .setInputBytes(bytes));
+        }
+      }
+    }
+
+    return new ProfileRows()
+        .setQueryId(QueryIdHelper.getQueryId(profile.getId()))
+        .setUser(profile.getUser())
+        .setQueryStart(profile.getStart())
+        .setQueryEnd(profile.getEnd())
+        .setQueryState(profile.hasState() ? profile.getState().name() : null)
+        .setFragmentList(fragments)
+        .setOperatorList(operators);
+  }
+
+  static Iterator<Object> getFragments(KVStoreProvider provider) {
+    return FluentIterable.from(provider.getStore(ProfileRowStoreCreator.class).find())
+        .transformAndConcat(new Function<Map.Entry<String, ProfileRows>, Iterable<Object>>() {
+          @Override
+          public Iterable<Object> apply(Map.Entry<String, ProfileRows> entry) {
+            final ProfileRows rows = entry.getValue();
+            final List<Object> fragments = new ArrayList<>();
+            if (rows.getFragmentList() != null) {
+              for (FragmentRow row : rows.getFragmentList()) {
+                fragments.add(new FragmentProfileInfo(rows, row));
+              }
+            }
+            return fragments;
+          }
+        })
+        .iterator();
+  }
+
+  static Iterator<Object> getOperators(KVStoreProvider provider) {
+    return FluentIterable.from(provider.getStore(ProfileRowStoreCreator.class).find())
+        .transformAndConcat(new Function<Map.Entry<String, ProfileRows>, Iterable<Object>>() {
+          @Override
+          public Iterable<Object> apply(Map.Entry<String, ProfileRows> entry) {
+            final ProfileRows rows = entry.getValue();
+            final List<Object> operators = new ArrayList<>();
+            if (rows.getOperatorList() != null) {
+              for (OperatorRow row : rows.getOperatorList()) {
+                operators.add(new OperatorProfileInfo(rows, row));
+              }
+            }
+            return operators;
+          }
+        })
+        .iterator();
+  }
+
+  private static Timestamp toTimestamp(Long millis) {
+    return millis == null ? null : new Timestamp(millis);
+  }
+
+  /**
+   * Row of sys.profile_fragments
+   */
+  public static class FragmentProfileInfo {
+    public final String query_id;
+    public final String user;
+    public final Timestamp query_start;
+    public final String query_state;
+    public final Integer major_fragment_id;
+    public final Integer minor_fragment_id;
+    public final String hostname;
+    public final String state;
+    public final Timestamp start_time;
+    public final Timestamp end_time;
+    public final Long max_memory_used;
+    public final Long run_duration;
+    public final Long blocked_duration;
+    public final Long sleeping_duration;
+
+    FragmentProfileInfo(ProfileRows rows, FragmentRow row) {
+      this.query_id = rows.getQueryId();
+      this.user = rows.getUser();
+      this.query_start = toTimestamp(rows.getQueryStart());
+      this.query_state = rows.getQueryState();
+      this.major_fragment_id = row.getMajorFragmentId();
+      this.minor_fragment_id = row.getMinorFragmentId();
+      this.hostname = row.getHostname();
+      this.state = row.getState();
+      this.start_time = toTimestamp(row.getStartTime());
+      this.end_time = toTimestamp(row.getEndTime());
+      this.max_memory_used = row.getMaxMemoryUsed();
+      this.run_duration = row.getRunDuration();
+      this.blocked_duration = row.getBlockedDuration();
+      this.sleeping_duration = row.getSleepingDuration();
+    }
+  }
+
+  /**
+   * Row of sys.profile_operators
+   */
+  public static class OperatorProfileInfo {
+    public final String query_id;
+    public final String user;
+    public final Timestamp query_start;
+    public final String query_state;
+    public final Integer major_fragment_id;
+    public final Integer minor_fragment_id;
+    public final Integer operator_id;
+    public final String operator_type;
+    public final Long setup_nanos;
+    public final Long process_nanos;
+    public final Long wait_nanos;
+    public final Long peak_memory;
+    public final Long input_records;
+    public final Long input_batches;
+    public final Long input_bytes;
+
+    OperatorProfileInfo(ProfileRows rows, OperatorRow row) {
+      this.query_id = rows.getQueryId();
+      this.user = rows.getUser();
+      this.query_start = toTimestamp(rows.getQueryStart());
+      this.query_state = rows.getQueryState();
+      this.major_fragment_id = row.getMajorFragmentId();
+      this.minor_fragment_id = row.getMinorFragmentId();
+      this.operator_id = row.getOperatorId();
+      this.operator_type = row.getOperatorType();
+      this.setup_nanos = row.getSetupNanos();
+      this.process_nanos = row.getProcessNanos();
+      this.wait_nanos = row.getWaitNanos();
+      this.peak_memory = row.getPeakMemory();
+      this.input_records = row.getInputRecords();
+      this.input_batches = row.getInputBatches();
+      this.input_bytes = row.getInputBytes();
+    }
+  }
+
+  /**
+   * Creator for the profile rows store.
+   */
+  public static class ProfileRowStoreCreator implements StoreCreationFunction<KVStore<String, ProfileRows>> {
+    @Override
+    public KVStore<String, ProfileRows> build(StoreBuildingFactory factory) {
+      return factory.<String, ProfileRows>newStore()
+          .name(NAME)
+          .keySerializer(StringSerializer.class)
+          .valueSerializer(ProfileRowsSerializer.class)
+          .build();
+    }
+  }
+
+  /**
+   * Serializer for profile rows.
+   */
+  public static class ProfileRowsSerializer extends ProtostuffSerializer<ProfileRows> {
+    public ProfileRowsSerializer() {
+      super(ProfileRows.getSchema());
+    }
+  }
+}
@@ -55,7 +55,8 @@ import com.google.common.collect.ImmutableList;
  * <p>
  *   OPTION, NODES and VERSION are local tables available on every SabotNode.
  *   MEMORY and THREADS are distributed tables with one record on every
- *   SabotNode.
+ *   SabotNode. METRICS is a distributed table with the sampled metrics
+ *   history of every SabotNode.
  * </p>
  */
 public enum SystemTable {
@@ -104,6 +105,27 @@ public enum SystemTable {
     }
   },
 
+  METRICS("metrics", true, MetricsIterator.MetricInfo.class) {
+    @Override
+    public Iterator<Object> getIterator(final SabotContext sContext, final OperatorContext context) {
+      return new MetricsIterator(sContext, context);
+    }
+  },
+
+  PROFILE_FRAGMENTS("profile_fragments", false, ProfileRowStore.FragmentProfileInfo.class) {
+    @Override
+    public Iterator<Object> getIterator(final SabotContext sContext, final OperatorContext context) {
+      return ProfileRowStore.getFragments(sContext.getKVStoreProvider());
+    }
+  },
+
+  PROFILE_OPERATORS("profile_operators", false, ProfileRowStore.OperatorProfileInfo.class) {
+    @Override
+    public Iterator<Object> getIterator(final SabotContext sContext, final OperatorContext context) {
+      return ProfileRowStore.getOperators(sContext.getKVStoreProvider());
+    }
+  },
+
   QUERIES("queries", true, QueryIterator.QueryInfo.class) {
     @Override
     public Iterator<Object> getIterator(final SabotContext sContext, final OperatorContext context) {
@@ -100,6 +100,18 @@ public class FragmentExecutors implements AutoCloseable, Iterable<FragmentExecut
       }
     });
 
+    // tasks waiting in the queues of the slicing threads, to be picked up on the next scheduling round
+    Metrics.registerGauge(MetricRegistry.name("dremio.exec.work.staged_tasks"), new Gauge<Integer>() {
+      @Override
+      public Integer getValue() {
+        int staged = 0;
+        for (TaskPool.ThreadInfo info : pool.getSlicingThreads()) {
+          staged += info.numStagedTasks;
+        }
+        return staged;
+      }
+    });
+
     initEvictionThread(evictionDelayMillis);
   }
 
@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.aggregate.vectorized;
+
+import static com.dremio.sabot.op.aggregate.vectorized.VectorizedHashAggOperator.HTORDINAL_OFFSET;
+import static com.dremio.sabot.op.aggregate.vectorized.VectorizedHashAggOperator.KEYINDEX_OFFSET;
+import static com.dremio.sabot.op.aggregate.vectorized.VectorizedHashAggOperator.PARTITIONINDEX_HTORDINAL_WIDTH;
+
+import java.util.Arrays;
+
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Partition and hash table ordinal of the keys of a single INT or BIT GROUP BY column, in an array indexed directly
+ * by key value. The array covers a range of values starting at the smallest key of the first batch, plus null.
+ *
+ * When all the keys of a step of {@link VectorizedHashAggOperator#consumeData(int)} are known, the tuples
+ * <partition index, hash table ordinal, record index> used for accumulation are written directly from the incoming
+ * vector, without pivoting, hashing or probing the hash tables. Otherwise the keys go through the hash tables as usual,
+ * and their ordinals are recorded afterwards.
+ *
+ * Ordinals are only valid as long as no partition is spilled, so they are cleared whenever one is.
+ */
+class DirectKeyOrdinals {
+  private static final int ABSENT = -1;
+  /* partition index in the lower bits of each entry, there are at most 32 partitions */
+  private static final int PARTITION_BITS = 5;
+  private static final int PARTITION_MASK = (1 << PARTITION_BITS) - 1;
+  private static final int MAX_ORDINAL = Integer.MAX_VALUE >>> PARTITION_BITS;
+
+  private final IntVector intVector;
+  private final BitVector bitVector;
+  private final int range;
+  /* (ordinal << PARTITION_BITS) | partition index for each key in the range, followed by null */
+  private final int[] entries;
+  private final int[] partitionRecords;
+
+  private boolean baseSet;
+  private int base;
+  /* keys of the first batch don't fit in the range, don't bother with the other ones */
+  private boolean disabled;
+
+  DirectKeyOrdinals(final FieldVector keyVector, final int maxRange, final int numPartitions) {
+    if (keyVector instanceof BitVector) {
+      this.intVector = null;
+      this.bitVector = (BitVector) keyVector;
+      this.range = 2;
+      this.baseSet = true;
+    } else {
+      this.intVector = (IntVector) keyVector;
+      this.bitVector = null;
+      this.range = maxRange;
+    }
+    this.entries = new int[range + 1];
+    this.partitionRecords = new int[numPartitions];
+    clear();
+  }
+
+  /**
+   * @return true if the keys of the given GROUP BY column can be looked up directly
+   */
+  static boolean isSupported(final FieldVector keyVector) {
+    return keyVector instanceof IntVector || keyVector instanceof BitVector;
+  }
+
+  /**
+   * Forget all ordinals, after the hash table of a partition has been reset.
+   */
+  void clear() {
+    Arrays.fill(entries, ABSENT);
+  }
+
+  /**
+   * @return index of the entry of the key of a record, or -1 if the key is out of range
+   */
+  private int slot(final int recordIndex) {
+    if (bitVector != null) {
+      return bitVector.isNull(recordIndex) ? range : bitVector.get(recordIndex);
+    }
+    if (intVector.isNull(recordIndex)) {
+      return range;
+    }
+    final long offset = (long) intVector.get(recordIndex) - base;
+    return offset >= 0 && offset < range ? (int) offset : -1;
+  }
+
+  /**
+   * Write the tuples of the records of a step, if all their keys are known.
+   *
+   * @param offsets address of the tuples <partition index, hash table ordinal, record index>
+   * @param startingRecordIndex index of the first record of the step in the incoming batch
+   * @param records number of records in the step
+   * @param partitions partitions of the operator, whose record counts are bumped if all keys are known
+   * @return bitmap of the partitions used by the records, or -1 if a key isn't known
+   */
+  long lookup(final long offsets, final int startingRecordIndex, final int records,
+              final VectorizedHashAggPartition[] partitions) {
+    if (disabled || !baseSet) {
+      return -1;
+    }
+
+    final int[] entries = this.entries;
+    final int[] partitionRecords = this.partitionRecords;
+    Arrays.fill(partitionRecords, 0);
+    long partitionsUsed = 0;
+    long offsetAddr = offsets;
+    for (int i = 0; i < records; i++, offsetAddr += PARTITIONINDEX_HTORDINAL_WIDTH) {
+      final int slot = slot(startingRecordIndex + i);
+      if (slot < 0 || entries[slot] == ABSENT) {
+        return -1;
+      }
+      final int entry = entries[slot];
+      final int partitionIndex = entry & PARTITION_MASK;
+      PlatformDependent.putByte(offsetAddr, (byte) partitionIndex);
+      PlatformDependent.putInt(offsetAddr + HTORDINAL_OFFSET, entry >>> PARTITION_BITS);
+      PlatformDependent.putInt(offsetAddr + KEYINDEX_OFFSET, startingRecordIndex + i);
+      partitionsUsed = partitionsUsed | (1L << partitionIndex);
+      partitionRecords[partitionIndex]++;
+    }
+
+    for (int i = 0; i < partitionRecords.length; i++) {
+      if (partitionRecords[i] > 0) {
+        partitions[i].bumpRecords(partitionRecords[i]);
+      }
+    }
+    return partitionsUsed;
+  }
+
+  /**
+   * Record the ordinals of the keys of a step once they have been inserted into the hash tables.
+   *
+   * @param offsets address of the tuples written by the insertion, in record order
+   * @param startingRecordIndex index of the first record of the step in the incoming batch
+   * @param records number of records in the step
+   */
+  void record(final long offsets, final int startingRecordIndex, final int records) {
+    if (disabled) {
+      return;
+    }
+    if (!baseSet && !setBase(startingRecordIndex, records)) {
+      return;
+    }
+
+    final int[] entries = this.entries;
+    long offsetAddr = offsets;
+    for (int i = 0; i < records; i++, offsetAddr += PARTITIONINDEX_HTORDINAL_WIDTH) {
+      final int slot = slot(startingRecordIndex + i);
+      if (slot < 0 || entries[slot] != ABSENT) {
+        continue;
+      }
+      final int ordinal = PlatformDependent.getInt(offsetAddr + HTORDINAL_OFFSET);
+      if (ordinal <= MAX_ORDINAL) {
+        entries[slot] = (ordinal << PARTITION_BITS) | PlatformDependent.getByte(offsetAddr);
+      }
+    }
+  }
+
+  /**
+   * Start the range at the smallest key of the first records, if all of them fit in it.
+   *
+   * @return false if the keys are too far apart to be looked up directly
+   */
+  private boolean setBase(final int startingRecordIndex, final int records) {
+    long min = Long.MAX_VALUE;
+    long max = Long.MIN_VALUE;
+    for (int i = startingRecordIndex; i < startingRecordIndex + records; i++) {
+      if (!intVector.isNull(i)) {
+        final int value = intVector.get(i);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+      }
+    }
+    if (min > max) {
+      /* only nulls so far */
+      return false;
+    }
+    if (max - min >= range) {
+      disabled = true;
+      return false;
+    }
+    base = (int) min;
+    baseSet = true;
+    return true;
+  }
+}
@@ -71,7 +71,8 @@ public class HashAggStats {
     UNUSED_FOR_FIXED_KEYS,      /* unused capacity for fixed block vectors */
     ALLOCATED_FOR_VARIABLE_KEYS, /* total capacity allocated for variable block vectors */
     UNUSED_FOR_VARIABLE_KEYS, /* unused capacity for variable block vectors */
-    MAX_VARIABLE_BLOCK_LENGTH; /* maximum amount of data (pivoted keys) that can be stored in variable block vector */
+    MAX_VARIABLE_BLOCK_LENGTH, /* maximum amount of data (pivoted keys) that can be stored in variable block vector */
+    DIRECT_KEY_RECORDS;       /* number of records aggregated with their keys looked up directly, without hashing */
 
     @Override
     public int metricId() {
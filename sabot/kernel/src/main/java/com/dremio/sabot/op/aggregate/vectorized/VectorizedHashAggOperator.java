@@ -226,6 +226,11 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
   public static final PowerOfTwoLongValidator VECTORIZED_HASHAGG_JOINT_ALLOCATION_MAX = new PowerOfTwoLongValidator("exec.operator.aggregate.vectorize.joint_allocation_max", 1024*1024, 64*1024);
   public static final BooleanValidator VECTORIZED_HASHAGG_USE_MINIMUM_AS_LIMIT = new BooleanValidator("exec.operator.aggregate.vectorize.use_minimum_as_limit", false);
   public static final PositiveLongValidator VARIABLE_FIELD_SIZE_ESTIMATE = new PositiveLongValidator("exec.operator.aggregate.vectorize.variable_width_size_estimate", Integer.MAX_VALUE, 15);
+  /* with a single INT or BIT GROUP BY key, look the partition and ordinal of keys in a range of values up directly
+   * instead of going through the hash tables, see DirectKeyOrdinals. The range is allocated on heap, 4 bytes per value.
+   */
+  public static final BooleanValidator VECTORIZED_HASHAGG_DIRECT_KEYS = new BooleanValidator("exec.operator.aggregate.vectorize.direct_keys", true);
+  public static final PositiveLongValidator VECTORIZED_HASHAGG_DIRECT_KEYS_MAX_RANGE = new PositiveLongValidator("exec.operator.aggregate.vectorize.direct_keys_max_range", 1 << 24, 1 << 16);
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(VectorizedHashAggOperator.class);
 
   private final OperatorContext context;
@@ -240,6 +245,7 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
   private final Stopwatch sortPriorToAccumulateWatch = Stopwatch.createUnstarted();
   private final Stopwatch spillPartitionWatch = Stopwatch.createUnstarted();
   private final Stopwatch readSpilledBatchWatch = Stopwatch.createUnstarted();
+  private long directKeyRecords;
 
   private ImmutableList<FieldVector> vectorsToValidate;
   private PivotDef pivot;
@@ -250,6 +256,8 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
   private PartitionToLoadSpilledData partitionToLoadSpilledData;
   private VectorizedHashAggPartitionSpillHandler partitionSpillHandler;
   private InternalState internalStateMachine;
+  /* null unless the keys are looked up directly */
+  private DirectKeyOrdinals directKeyOrdinals;
 
   /* configured options */
   private final int numPartitions;
@@ -294,6 +302,9 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
   private final long jointAllocationLimit;
 
   private final boolean setLimitToMinReservation;
+  private final boolean groupProbing;
+  private final boolean directKeys;
+  private final int directKeysMaxRange;
 
   public static final String OUT_OF_MEMORY_MSG = "Vectorized Hash Agg ran out of memory";
 
@@ -310,6 +321,9 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
     Preconditions.checkArgument(maxHashTableBatchSize > 0 && maxHashTableBatchSize <= 4096,
       "Error: max hash table batch size should be greater than 0 and not exceed 4096");
     final boolean traceOnException = options.getOption(VECTORIZED_HASHAGG_DEBUG_DETAILED_EXCEPTION);
+    this.groupProbing = options.getOption(ExecConstants.HASH_TABLE_GROUP_PROBING);
+    this.directKeys = options.getOption(VECTORIZED_HASHAGG_DIRECT_KEYS);
+    this.directKeysMaxRange = (int) options.getOption(VECTORIZED_HASHAGG_DIRECT_KEYS_MAX_RANGE);
     this.hashPartitionMask = numPartitions - 1;
     this.statsHolder = new HashTableStatsHolder();
     this.outputPartitionIndex = 0;
@@ -460,7 +474,7 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
          * allocation fails so we don't have to rely on rollback closeable
          */
         final LBlockHashTable hashTable = new LBlockHashTable(HashConfig.getDefault(), pivot, allocator,
-          minHashTableSizePerPartition, estimatedVariableWidthKeySize, true, accumulator, maxHashTableBatchSize);
+          minHashTableSizePerPartition, estimatedVariableWidthKeySize, true, accumulator, maxHashTableBatchSize, groupProbing);
         final String partitionIdentifier = "P" + String.format("%03d", i);
         final VectorizedHashAggPartition hashAggPartition =  new VectorizedHashAggPartition(accumulator, hashTable, pivot.getBlockWidth(), partitionIdentifier);
         this.hashAggPartitions[i] = hashAggPartition;
@@ -606,6 +620,9 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
       fvps.add(new FieldVectorPair(inputVector, outputVector));
     }
 
+    if (directKeys && fvps.size() == 1 && DirectKeyOrdinals.isSupported(fvps.get(0).getIncoming())) {
+      this.directKeyOrdinals = new DirectKeyOrdinals(fvps.get(0).getIncoming(), directKeysMaxRange, numPartitions);
+    }
     this.vectorsToValidate = validationVectors.build();
     return PivotBuilder.getBlockDefinition(fvps);
   }
@@ -655,6 +672,20 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
        */
       final int stepSize = Math.min(maxHashTableBatchSize, records - recordsConsumed);
 
+      /* all the keys of the step are known, accumulate them directly */
+      if (directKeyOrdinals != null) {
+        insertWatch.start();
+        final long partitionsUsed = directKeyOrdinals.lookup(offsets.memoryAddress(), recordsConsumed, stepSize, hashAggPartitions);
+        insertWatch.stop();
+        if (partitionsUsed >= 0) {
+          accumulateForAllPartitions(offsets, stepSize, partitionsUsed);
+          directKeyRecords += stepSize;
+          recordsConsumed += stepSize;
+          resetHashTableInsertionStructures();
+          continue;
+        }
+      }
+
       /* STEP 1: first we pivot, this step is unrelated to partitioning */
       pivotWatch.start();
       final int recordsPivoted = BoundedPivots.pivot(pivot, recordsConsumed, stepSize, fixedBlockVector, variableBlockVector);
@@ -671,7 +702,12 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
       hashComputationWatch.stop();
 
       /* STEP 3: then we hash partition the dataset and add pivoted data to multiple hash tables */
+      final int oomsBeforeInsertion = ooms;
       long partitionsUsed = insertIntoPartitions(offsets, hashValues, recordsPivoted, keyFixedVectorAddr, keyVarVectorAddr, recordsConsumed);
+      /* ordinals of the keys inserted before a spill are stale */
+      if (directKeyOrdinals != null && ooms == oomsBeforeInsertion) {
+        directKeyOrdinals.record(offsets.memoryAddress(), recordsConsumed, recordsPivoted);
+      }
 
       /* STEP 4: then we do accumulators for all partitions in a single pass */
       accumulateForAllPartitions(offsets, recordsPivoted, partitionsUsed);
@@ -744,6 +780,15 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
     long partitionsUsed = 0;
     insertWatch.start();
     for(int keyIndex = 0; keyIndex < records; keyIndex++, offsetAddr += PARTITIONINDEX_HTORDINAL_WIDTH){
+      /* load the memory that the insertions of the next keys need ahead of them, see LBlockHashTable#add */
+      if (keyIndex + 2 * LBlockHashTable.PREFETCH_DISTANCE < records) {
+        final long aheadHash = hashValues.get(keyIndex + 2 * LBlockHashTable.PREFETCH_DISTANCE);
+        hashAggPartitions[((int)(aheadHash >> 32)) & hashPartitionMask].hashTable.prefetchControl((int)aheadHash);
+      }
+      if (keyIndex + LBlockHashTable.PREFETCH_DISTANCE < records) {
+        final long aheadHash = hashValues.get(keyIndex + LBlockHashTable.PREFETCH_DISTANCE);
+        hashAggPartitions[((int)(aheadHash >> 32)) & hashPartitionMask].hashTable.prefetchKey((int)aheadHash);
+      }
       final long keyHash = hashValues.get(keyIndex);
       /* get the partition index from higher order bits in hash */
       final int hashPartitionIndex = ((int)(keyHash >> 32)) & hashPartitionMask;
@@ -822,6 +867,9 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
       victimPartition = hashAggPartitions[failedPartitionIndex];
     }
     accumulateBeforeSpill(victimPartition, offsets, keyIndex);
+    if (directKeyOrdinals != null) {
+      directKeyOrdinals.clear();
+    }
     spillPartitionWatch.start();
     try {
       partitionSpillHandler.spillPartition(victimPartition);
@@ -1338,6 +1386,7 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
     stats.setLongStat(Metric.SORT_ACCUMULATE_TIME, sortPriorToAccumulateWatch.elapsed(TimeUnit.NANOSECONDS));
     stats.setLongStat(Metric.TOTAL_SPILLED_DATA_SIZE, partitionSpillHandler.getTotalSpilledDataSize());
     stats.setLongStat(Metric.MAX_SPILLED_DATA_SIZE, partitionSpillHandler.getMaxSpilledDataSize());
+    stats.setLongStat(Metric.DIRECT_KEY_RECORDS, directKeyRecords);
 
     if (iterations == 1) {
       stats.setLongStat(Metric.ALLOCATED_FOR_FIXED_KEYS, statsHolder.allocatedForFixedBlocks);
@@ -19,6 +19,7 @@ import static java.util.Arrays.asList;
 import static java.util.Arrays.copyOfRange;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Formatter;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -49,6 +50,12 @@ import io.netty.util.internal.PlatformDependent;
  *
  * Built from the following koloboke independent implementations and customized
  * for this purpose: UpdatableQHashObjSetGO < UpdatableObjQHashSetSO < UpdatableSeparateKVObjQHashGO < UpdatableSeparateKVObjQHashSO < UpdatableQHash
+ *
+ * With group probing, control slots are split in groups of {@link #GROUP_SIZE} slots, and each slot has a one byte
+ * tag in a {@link TagBlock}: {@link #EMPTY_TAG} if the slot is free, or else the top 7 bits of the hash of its key.
+ * Lookups compare the tags of a group 8 at a time, only read the controls (and compare keys) of the slots whose tag
+ * matches, and stop at the first group with a free slot. The table also grows incrementally: the previous control
+ * and tag blocks are migrated a few groups per insertion, instead of all at once.
  */
 public final class LBlockHashTable implements AutoCloseable {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(LBlockHashTable.class);
@@ -61,6 +68,19 @@ public final class LBlockHashTable implements AutoCloseable {
   private static final int RETRY_RETURN_CODE = -2;
   public static final int ORDINAL_SIZE = 4;
 
+  public static final int GROUP_SIZE = 16;
+  public static final byte EMPTY_TAG = (byte) 0x80;
+  private static final long LOW_BITS = 0x0101010101010101L;
+  private static final long HIGH_BITS = 0x8080808080808080L;
+  // groups of the previous table migrated for each insertion while growing
+  private static final int MIGRATED_GROUPS_PER_INSERT = 2;
+
+  /* batched lookups load the controls of the keys 2 * PREFETCH_DISTANCE ahead, and their first table keys
+   * PREFETCH_DISTANCE ahead, so that the cache misses of several keys are pending at the same time.
+   */
+  public static final int PREFETCH_DISTANCE = 8;
+  private static final int HASH_VALUE_WIDTH = 8;
+
   private final HashConfigWrapper config;
   private final ResizeListener listener;
 
@@ -68,6 +88,7 @@ public final class LBlockHashTable implements AutoCloseable {
   private final BufferAllocator allocator;
   private final boolean fixedOnly;
   private final boolean enforceVarWidthBufferLimit; // may not need this option once HashJoin spilling is implemented.
+  private final boolean groupProbing;
 
   private int capacity;
   private int maxSize;
@@ -87,11 +108,24 @@ public final class LBlockHashTable implements AutoCloseable {
   private FixedBlockVector[] fixedBlocks = new FixedBlockVector[0];
   private VariableBlockVector[] variableBlocks = new VariableBlockVector[0];
   private long tableControlAddresses[] = new long[0];
+  private TagBlock tagBlock;
+  private long tableTagAddress;
   private long tableFixedAddresses[] = new long[0];
   private long openVariableAddresses[] = new long[0]; // current pointer where we should add values.
   private long initVariableAddresses[] = new long[0];
   private long maxVariableAddresses[] = new long[0];
 
+  // previous control and tag blocks, while they are migrated to the current ones (group probing only)
+  private ControlBlock[] resizeControlBlocks;
+  private long[] resizeControlAddresses;
+  private TagBlock resizeTagBlock;
+  private long resizeTagAddress;
+  private int resizeCapacity;
+  private int resizeMigratedGroups;
+
+  // sum of the values loaded ahead of lookups, so that the loads are not optimized away
+  private long prefetched;
+
   private int rehashCount = 0;
   private Stopwatch rehashTimer = Stopwatch.createUnstarted();
   private Stopwatch initTimer = Stopwatch.createUnstarted();
@@ -114,12 +148,26 @@ public final class LBlockHashTable implements AutoCloseable {
                          boolean enforceVarWidthBufferLimit,
                          ResizeListener listener,
                          final int maxHashTableBatchSize) {
+    this(config, pivot, allocator, initialSize, defaultVariableLengthSize, enforceVarWidthBufferLimit, listener,
+      maxHashTableBatchSize, false);
+  }
+
+  public LBlockHashTable(HashConfig config,
+                         PivotDef pivot,
+                         BufferAllocator allocator,
+                         int initialSize,
+                         int defaultVariableLengthSize,
+                         boolean enforceVarWidthBufferLimit,
+                         ResizeListener listener,
+                         final int maxHashTableBatchSize,
+                         boolean groupProbing) {
     this.pivot = pivot;
     this.allocator = allocator;
     this.config = new HashConfigWrapper(config);
     this.fixedOnly = pivot.getVariableCount() == 0;
     this.enforceVarWidthBufferLimit = enforceVarWidthBufferLimit;
     this.listener = listener;
+    this.groupProbing = groupProbing;
     /* maximum records that can be stored in hashtable block/chunk */
     this.MAX_VALUES_PER_BATCH = maxHashTableBatchSize;
     this.variableBlockMaxLength = (pivot.getVariableCount() == 0) ? 0 : (MAX_VALUES_PER_BATCH * (((defaultVariableLengthSize + VAR_OFFSET_SIZE) * pivot.getVariableCount()) + VAR_LENGTH_SIZE));
@@ -129,7 +177,7 @@ public final class LBlockHashTable implements AutoCloseable {
     this.unusedForFixedBlocks = 0;
     this.unusedForVarBlocks = 0;
     internalInit(LHashCapacities.capacity(this.config, initialSize, false));
-    logger.debug("initialized hashtable, maxSize:{}, capacity:{}, batches:{}, maxVariableBlockLength:{}, maxValuesPerBatch:{}", maxSize, capacity, batches, variableBlockMaxLength, MAX_VALUES_PER_BATCH);
+    logger.debug("initialized hashtable, maxSize:{}, capacity:{}, batches:{}, maxVariableBlockLength:{}, maxValuesPerBatch:{}, groupProbing:{}", maxSize, capacity, batches, variableBlockMaxLength, MAX_VALUES_PER_BATCH, groupProbing);
   }
 
   public int getMaxValuesPerBatch() {
@@ -170,6 +218,90 @@ public final class LBlockHashTable implements AutoCloseable {
     return getOrInsertWithRetry(keyFixedVectorAddr, keyVarVectorAddr, keyIndex, keyHash, false);
   }
 
+  /**
+   * Add or find the keys of a pivoted batch, loading the memory each lookup needs a few keys ahead.
+   * @param keyFixedVectorAddr starting address of fixed vector block
+   * @param keyVarVectorAddr starting address of variable vector block
+   * @param keyHashesAddr starting address of the 8 byte hash values of the keys (only the lower 4 bytes are used)
+   * @param records number of keys
+   * @param ordinalsAddr starting address of the 4 byte ordinals of the keys to set
+   */
+  public final void add(final long keyFixedVectorAddr, final long keyVarVectorAddr, final long keyHashesAddr,
+                        final int records, final long ordinalsAddr) {
+    getOrInsertBatch(keyFixedVectorAddr, keyVarVectorAddr, keyHashesAddr, records, ordinalsAddr, true);
+  }
+
+  /**
+   * Find the keys of a pivoted batch, setting -1 for the keys not in the table.
+   * @see #add(long, long, long, int, long)
+   */
+  public final void find(final long keyFixedVectorAddr, final long keyVarVectorAddr, final long keyHashesAddr,
+                         final int records, final long ordinalsAddr) {
+    getOrInsertBatch(keyFixedVectorAddr, keyVarVectorAddr, keyHashesAddr, records, ordinalsAddr, false);
+  }
+
+  private void getOrInsertBatch(final long keyFixedVectorAddr, final long keyVarVectorAddr, final long keyHashesAddr,
+                                final int records, final long ordinalsAddr, boolean insertNew) {
+    for (int keyIndex = -2 * PREFETCH_DISTANCE; keyIndex < records; keyIndex++) {
+      final int controlIndex = keyIndex + 2 * PREFETCH_DISTANCE;
+      if (controlIndex < records) {
+        prefetchControl((int) PlatformDependent.getLong(keyHashesAddr + controlIndex * HASH_VALUE_WIDTH));
+      }
+      final int keyAheadIndex = keyIndex + PREFETCH_DISTANCE;
+      if (keyAheadIndex >= 0 && keyAheadIndex < records) {
+        prefetchKey((int) PlatformDependent.getLong(keyHashesAddr + keyAheadIndex * HASH_VALUE_WIDTH));
+      }
+      if (keyIndex >= 0) {
+        final int keyHash = (int) PlatformDependent.getLong(keyHashesAddr + keyIndex * HASH_VALUE_WIDTH);
+        PlatformDependent.putInt(ordinalsAddr + keyIndex * ORDINAL_SIZE,
+          getOrInsertWithRetry(keyFixedVectorAddr, keyVarVectorAddr, keyIndex, keyHash, insertNew));
+      }
+    }
+  }
+
+  /**
+   * Load the control (and tags) the lookup of a hash starts with, ahead of the lookup.
+   *
+   * Java has no prefetch instruction, but the load doesn't block the following instructions, so it overlaps
+   * with the lookups of the keys before. Loads are only hints: the table may have changed by the time of the lookup.
+   */
+  public void prefetchControl(final int keyHash) {
+    if (groupProbing) {
+      final int slot = (keyHash & (capacity / GROUP_SIZE - 1)) * GROUP_SIZE;
+      prefetched += PlatformDependent.getLong(tableTagAddress + slot) + PlatformDependent.getLong(getControlAddress(slot));
+    } else {
+      prefetched += PlatformDependent.getLong(getControlAddress(keyHash % capacity));
+    }
+  }
+
+  /**
+   * Load the table key the lookup of a hash is first compared with, ahead of the lookup. Its control is expected
+   * to have been loaded by {@link #prefetchControl(int)} before.
+   */
+  public void prefetchKey(final int keyHash) {
+    final long control;
+    if (groupProbing) {
+      final int slot = (keyHash & (capacity / GROUP_SIZE - 1)) * GROUP_SIZE;
+      final long diff = PlatformDependent.getLong(tableTagAddress + slot) ^ (tag(keyHash) * LOW_BITS);
+      final long matches = (diff - LOW_BITS) & ~diff & HIGH_BITS;
+      if (matches == 0) {
+        return;
+      }
+      control = PlatformDependent.getLong(getControlAddress(slot + (Long.numberOfTrailingZeros(matches) >>> 3)));
+    } else {
+      control = PlatformDependent.getLong(getControlAddress(keyHash % capacity));
+      if (control == LFREE) {
+        return;
+      }
+    }
+    final int ordinal = (int) control;
+    prefetched += PlatformDependent.getInt(tableFixedAddresses[getChunkIndexForOrdinal(ordinal)] + (getOffsetInChunkForOrdinal(ordinal) * pivot.getBlockWidth()));
+  }
+
+  private long getControlAddress(final int slot) {
+    return tableControlAddresses[getChunkIndexForOrdinal(slot)] + (getOffsetInChunkForOrdinal(slot) * CONTROL_WIDTH);
+  }
+
   private final int getOrInsertWithRetry(final long keyFixedVectorAddr, final long keyVarVectorAddr,
                                          final int keyIndex, final int keyHash, boolean insertNew) {
     int returnValue = getOrInsert(keyFixedVectorAddr, keyVarVectorAddr, keyIndex, keyHash, insertNew);
@@ -203,6 +335,10 @@ public final class LBlockHashTable implements AutoCloseable {
       keyVarLen = PlatformDependent.getInt(keyVarAddr);
     }
 
+    if (groupProbing) {
+      return getOrInsertGrouped(blockWidth, dataWidth, keyFixedAddr, keyVarAddr, keyVarLen, keyHash, insertNew);
+    }
+
     // start with a hash index.
     int controlIndex = keyHash % capacity;
 
@@ -257,6 +393,113 @@ public final class LBlockHashTable implements AutoCloseable {
 
   }
 
+  private int getOrInsertGrouped(final int blockWidth, final int dataWidth, final long keyFixedAddr,
+                                 final long keyVarAddr, final int keyVarLen, final int keyHash, boolean insertNew) {
+    if (resizeControlBlocks != null && !insertNew) {
+      // lookups come once the table is built, don't keep probing the previous blocks for each of them
+      completeResize();
+    }
+
+    final int result = probeGroups(tableTagAddress, tableControlAddresses, capacity, blockWidth, dataWidth,
+      keyFixedAddr, keyVarAddr, keyVarLen, keyHash);
+    if (result >= 0) {
+      return result;
+    }
+
+    if (resizeControlBlocks != null) {
+      // the key may not have been migrated yet
+      final int resizeResult = probeGroups(resizeTagAddress, resizeControlAddresses, resizeCapacity, blockWidth,
+        dataWidth, keyFixedAddr, keyVarAddr, keyVarLen, keyHash);
+      if (resizeResult >= 0) {
+        return resizeResult;
+      }
+    }
+
+    if (!insertNew) {
+      return -1;
+    }
+
+    // key is absent, insert it in the free slot found by the probe.
+    final int slot = -result - 1;
+    final long tableControlAddr = tableControlAddresses[getChunkIndexForOrdinal(slot)] + (getOffsetInChunkForOrdinal(slot) * CONTROL_WIDTH);
+    final int ordinal = insert(blockWidth, tableControlAddr, keyHash, dataWidth, keyFixedAddr, keyVarAddr, keyVarLen);
+    if (ordinal != RETRY_RETURN_CODE) {
+      PlatformDependent.putByte(tableTagAddress + slot, (byte) tag(keyHash));
+      if (resizeControlBlocks != null) {
+        migrateGroups(MIGRATED_GROUPS_PER_INSERT);
+      }
+    }
+    return ordinal;
+  }
+
+  /**
+   * Probe the groups of a table for a key.
+   *
+   * Slots of a group are filled in order (there are no deletions), so the key is absent once a free slot is found.
+   * Tags are matched 8 at a time with the usual SWAR zero byte test on (tags ^ key tag): it may report a false match
+   * for a slot above a true one, but never for a free slot, and matches are verified against the control anyway.
+   *
+   * @return ordinal of the key if present, or else -(slot + 1) with slot the first free slot for the key.
+   */
+  private int probeGroups(final long tagAddr, final long[] controlAddrs, final int capacity, final int blockWidth,
+                          final int dataWidth, final long keyFixedAddr, final long keyVarAddr, final int keyVarLen,
+                          final int keyHash) {
+    final int groupMask = capacity / GROUP_SIZE - 1;
+    final long tagPattern = tag(keyHash) * LOW_BITS;
+    int group = keyHash & groupMask;
+    for (int step = 1; ; step++) {
+      final int groupSlot = group * GROUP_SIZE;
+      for (int half = 0; half < GROUP_SIZE; half += 8) {
+        // little endian: the tag of slot (groupSlot + half + i) is byte i of the word
+        final long tags = PlatformDependent.getLong(tagAddr + groupSlot + half);
+        final long diff = tags ^ tagPattern;
+        long matches = (diff - LOW_BITS) & ~diff & HIGH_BITS;
+        while (matches != 0) {
+          final int slot = groupSlot + half + (Long.numberOfTrailingZeros(matches) >>> 3);
+          final long control = PlatformDependent.getLong(controlAddrs[getChunkIndexForOrdinal(slot)] + (getOffsetInChunkForOrdinal(slot) * CONTROL_WIDTH));
+          if (keyHash == (int) (control >>> 32)) {
+            final int ordinal = (int) control;
+            final int dataChunkIndex = getChunkIndexForOrdinal(ordinal);
+            final long tableDataAddr = tableFixedAddresses[dataChunkIndex] + (getOffsetInChunkForOrdinal(ordinal) * blockWidth);
+            if (fixedKeyEquals(keyFixedAddr, tableDataAddr, dataWidth) && (fixedOnly || variableKeyEquals(keyVarAddr, initVariableAddresses[dataChunkIndex] + PlatformDependent.getInt(tableDataAddr + dataWidth), keyVarLen))) {
+              return ordinal;
+            }
+          }
+          matches &= matches - 1;
+        }
+
+        final long free = tags & HIGH_BITS;
+        if (free != 0) {
+          return -(groupSlot + half + (Long.numberOfTrailingZeros(free) >>> 3)) - 1;
+        }
+      }
+      // triangular probing visits all the groups, as their count is a power of 2
+      group = (group + step) & groupMask;
+    }
+  }
+
+  /**
+   * Find the first free slot for a hash in the current table.
+   */
+  private int freeSlot(final int keyHash) {
+    final int groupMask = capacity / GROUP_SIZE - 1;
+    int group = keyHash & groupMask;
+    for (int step = 1; ; step++) {
+      final int groupSlot = group * GROUP_SIZE;
+      for (int half = 0; half < GROUP_SIZE; half += 8) {
+        final long free = PlatformDependent.getLong(tableTagAddress + groupSlot + half) & HIGH_BITS;
+        if (free != 0) {
+          return groupSlot + half + (Long.numberOfTrailingZeros(free) >>> 3);
+        }
+      }
+      group = (group + step) & groupMask;
+    }
+  }
+
+  private static long tag(final int keyHash) {
+    return keyHash >>> 25;
+  }
+
   // Get the length of the variable keys for the record specified by ordinal.
   public int getVarKeyLength(int ordinal) {
     if (fixedOnly) {
@@ -533,8 +776,13 @@ public final class LBlockHashTable implements AutoCloseable {
       return 0;
     }
     final long sizeOfKeyBlocks = getKeyBlockSizeInBytes();
-    final long sizeOfControlBlock = CONTROL_WIDTH * MAX_VALUES_PER_BATCH * blocks();
-    return sizeOfKeyBlocks + sizeOfControlBlock;
+    // with group probing, control blocks are allocated for the whole capacity
+    final long sizeOfControlBlock = CONTROL_WIDTH * MAX_VALUES_PER_BATCH * (groupProbing ? controlBlocks.length : blocks());
+    final long sizeOfTagBlock = tagBlock != null ? tagBlock.getSizeInBytes() : 0;
+    // blocks of the previous table are held until all its groups are migrated
+    final long sizeOfResizeBlocks = resizeControlBlocks == null ? 0
+        : CONTROL_WIDTH * MAX_VALUES_PER_BATCH * resizeControlBlocks.length + resizeTagBlock.getSizeInBytes();
+    return sizeOfKeyBlocks + sizeOfControlBlock + sizeOfTagBlock + sizeOfResizeBlocks;
   }
 
   /**
@@ -691,6 +939,90 @@ public final class LBlockHashTable implements AutoCloseable {
     }
   }
 
+  /**
+   * Start growing the table with group probing: the new control and tag blocks are used for insertions right away,
+   * and the previous ones are still probed until all their groups are migrated.
+   */
+  private void startResize(int newCapacity) {
+    // only one table is migrated at a time
+    if (resizeControlBlocks != null) {
+      migrateGroups(Integer.MAX_VALUE);
+    }
+
+    final ControlBlock[] oldControlBlocks = this.controlBlocks;
+    final long[] oldControlAddrs = this.tableControlAddresses;
+    final TagBlock oldTagBlock = this.tagBlock;
+    final long oldTagAddr = this.tableTagAddress;
+    final int oldCapacity = this.capacity;
+
+    /* this is the only step that allocates memory, if it fails the state is unchanged */
+    internalInit(newCapacity);
+
+    this.resizeControlBlocks = oldControlBlocks;
+    this.resizeControlAddresses = oldControlAddrs;
+    this.resizeTagBlock = oldTagBlock;
+    this.resizeTagAddress = oldTagAddr;
+    this.resizeCapacity = oldCapacity;
+    this.resizeMigratedGroups = 0;
+  }
+
+  /**
+   * Migrate the next groups of the previous table to the current one, and release the previous table once done.
+   */
+  private void migrateGroups(final int count) {
+    final int groups = resizeCapacity / GROUP_SIZE;
+    final int end = resizeMigratedGroups + Math.min(count, groups - resizeMigratedGroups);
+    final long[] controlAddrs = this.tableControlAddresses;
+    for (int slot = resizeMigratedGroups * GROUP_SIZE, max = end * GROUP_SIZE; slot < max; slot++) {
+      final byte tag = PlatformDependent.getByte(resizeTagAddress + slot);
+      if (tag == EMPTY_TAG) {
+        // remaining slots of the group are free too
+        slot |= GROUP_SIZE - 1;
+        continue;
+      }
+      final long control = PlatformDependent.getLong(resizeControlAddresses[getChunkIndexForOrdinal(slot)] + (getOffsetInChunkForOrdinal(slot) * CONTROL_WIDTH));
+      final int newSlot = freeSlot((int) (control >>> 32));
+      PlatformDependent.putLong(controlAddrs[getChunkIndexForOrdinal(newSlot)] + (getOffsetInChunkForOrdinal(newSlot) * CONTROL_WIDTH), control);
+      PlatformDependent.putByte(tableTagAddress + newSlot, tag);
+    }
+    resizeMigratedGroups = end;
+
+    if (end == groups) {
+      releaseResize();
+    }
+  }
+
+  private void completeResize() {
+    if (resizeControlBlocks == null) {
+      return;
+    }
+    rehashTimer.start();
+    try {
+      migrateGroups(Integer.MAX_VALUE);
+    } finally {
+      rehashTimer.stop();
+    }
+  }
+
+  /**
+   * Release the previous table of a resize, whether its groups are all migrated or its entries are discarded.
+   */
+  private void releaseResize() {
+    if (resizeControlBlocks == null) {
+      return;
+    }
+    for (ControlBlock block : resizeControlBlocks) {
+      block.close();
+    }
+    resizeTagBlock.close();
+    resizeControlBlocks = null;
+    resizeControlAddresses = null;
+    resizeTagBlock = null;
+    resizeTagAddress = 0;
+    resizeCapacity = 0;
+    resizeMigratedGroups = 0;
+  }
+
   private static final boolean fixedKeyEquals(
     final long keyDataAddr,
     final long tableDataAddr,
@@ -780,7 +1112,8 @@ public final class LBlockHashTable implements AutoCloseable {
 
   @Override
   public void close() throws Exception {
-    AutoCloseables.close((Iterable<AutoCloseable>) Iterables.concat(FluentIterable.of(controlBlocks).toList(), FluentIterable.of(fixedBlocks).toList(), FluentIterable.of(variableBlocks).toList()));
+    releaseResize();
+    AutoCloseables.close((Iterable<AutoCloseable>) Iterables.concat(FluentIterable.of(controlBlocks).toList(), FluentIterable.of(fixedBlocks).toList(), FluentIterable.of(variableBlocks).toList(), Collections.<AutoCloseable>singletonList(tagBlock)));
   }
 
   private void tryRehashForExpansion() {
@@ -788,7 +1121,11 @@ public final class LBlockHashTable implements AutoCloseable {
     if (newCapacity > capacity()) {
       try {
         rehashTimer.start();
-        rehash(newCapacity);
+        if (groupProbing) {
+          startResize(newCapacity);
+        } else {
+          rehash(newCapacity);
+        }
         rehashCount++;
       } finally {
         rehashTimer.stop();
@@ -811,7 +1148,7 @@ public final class LBlockHashTable implements AutoCloseable {
     assert (capacity & (capacity - 1)) == 0;
     initTimer.start();
     /* tentative new state */
-    capacity = Math.max(Numbers.nextPowerOfTwo(MAX_VALUES_PER_BATCH), capacity);
+    capacity = Math.max(minimumCapacity(), capacity);
     final int newCapacity = capacity;
     final int newMaxSize = !LHashCapacities.isMaxCapacity(capacity, false) ? config.maxSize(capacity) : capacity - 1;
     final int newBatches = (int) Math.ceil( capacity / (MAX_VALUES_PER_BATCH * 1.0d) );
@@ -829,11 +1166,24 @@ public final class LBlockHashTable implements AutoCloseable {
         newControlBlocks[i] = new ControlBlock(allocator, MAX_VALUES_PER_BATCH);
         rollbackable.add(newControlBlocks[i]);
         newTableControlAddresses[i] = newControlBlocks[i].getMemoryAddress();
-        initControlBlock(newTableControlAddresses[i]);
+        if (!groupProbing) {
+          /* with group probing, free slots are only tracked by their tag */
+          initControlBlock(newTableControlAddresses[i]);
+        }
+      }
+
+      final TagBlock newTagBlock;
+      if (groupProbing) {
+        newTagBlock = new TagBlock(allocator, newCapacity);
+        rollbackable.add(newTagBlock);
+      } else {
+        newTagBlock = null;
       }
 
       /* memory allocation successful so update ControlBlock arrays and state */
       this.controlBlocks = newControlBlocks;
+      this.tagBlock = newTagBlock;
+      this.tableTagAddress = groupProbing ? newTagBlock.getMemoryAddress() : 0;
       this.tableControlAddresses = newTableControlAddresses;
       this.capacity = newCapacity;
       this.batches = newBatches;
@@ -979,11 +1329,23 @@ public final class LBlockHashTable implements AutoCloseable {
     return sb.toString();
   }
 
+  /**
+   * Smallest capacity of the table: a power of 2 that fits {@link #MAX_VALUES_PER_BATCH}, and at least one group
+   * with group probing.
+   */
+  private int minimumCapacity() {
+    final int capacity = Numbers.nextPowerOfTwo(MAX_VALUES_PER_BATCH);
+    return groupProbing ? Math.max(GROUP_SIZE, capacity) : capacity;
+  }
+
   /**
    * Resets the HashTable to minimum size which has capacity to contain {@link #MAX_VALUES_PER_BATCH}.
    */
   public void resetToMinimumSize() throws Exception {
-    if (capacity() <= MAX_VALUES_PER_BATCH) {
+    // entries of a table being migrated are discarded too
+    releaseResize();
+
+    if (capacity() <= (groupProbing ? minimumCapacity() : MAX_VALUES_PER_BATCH)) {
       /* if there is only 1 batch, we don't need to shrink hashtable
        * just reset the state for first batch
        */
@@ -992,18 +1354,20 @@ public final class LBlockHashTable implements AutoCloseable {
     }
 
     final List<AutoCloseable> toRelease = Lists.newArrayList();
+    // with group probing, the minimum capacity may take more than one control block
+    final int controlBatches = groupProbing ? (int) Math.ceil(minimumCapacity() / (MAX_VALUES_PER_BATCH * 1.0d)) : 1;
 
     // Release all except the first entry
-    toRelease.addAll(asList(copyOfRange(controlBlocks, 1, controlBlocks.length)));
+    toRelease.addAll(asList(copyOfRange(controlBlocks, controlBatches, controlBlocks.length)));
     toRelease.addAll(asList(copyOfRange(fixedBlocks, 1, fixedBlocks.length)));
     toRelease.addAll(asList(copyOfRange(variableBlocks, 1, variableBlocks.length)));
     AutoCloseables.close(toRelease);
 
-    controlBlocks = copyOfRange(controlBlocks, 0, 1);
+    controlBlocks = copyOfRange(controlBlocks, 0, controlBatches);
     fixedBlocks = copyOfRange(fixedBlocks, 0, 1);
     variableBlocks = copyOfRange(variableBlocks, 0, 1);
 
-    tableControlAddresses = copyOfRange(tableControlAddresses, 0, 1);
+    tableControlAddresses = copyOfRange(tableControlAddresses, 0, controlBatches);
     tableFixedAddresses = copyOfRange(tableFixedAddresses, 0, 1);
     initVariableAddresses = copyOfRange(initVariableAddresses, 0, 1);
     openVariableAddresses = copyOfRange(openVariableAddresses, 0, 1);
@@ -1013,17 +1377,31 @@ public final class LBlockHashTable implements AutoCloseable {
   }
 
   private void resetToMinimumSizeHelper() throws Exception {
-    controlBlocks[0].reset();
+    for (ControlBlock controlBlock : controlBlocks) {
+      controlBlock.reset();
+    }
     fixedBlocks[0].reset();
     variableBlocks[0].reset();
     currentOrdinal = 0;
     gaps = 0;
-    capacity = MAX_VALUES_PER_BATCH;
+    capacity = groupProbing ? minimumCapacity() : MAX_VALUES_PER_BATCH;
     maxSize = !LHashCapacities.isMaxCapacity(capacity, false) ? config.maxSize(capacity) : capacity - 1;
-    batches = 1;
+    batches = controlBlocks.length;
     openVariableAddresses[0] = initVariableAddresses[0];
 
-    initControlBlock(tableControlAddresses[0]);
+    if (groupProbing) {
+      if (tagBlock.getSizeInBytes() > capacity) {
+        /* shrink the tag block too, so that its memory is released on spill */
+        final TagBlock newTagBlock = new TagBlock(allocator, capacity);
+        tagBlock.close();
+        tagBlock = newTagBlock;
+        tableTagAddress = newTagBlock.getMemoryAddress();
+      } else {
+        tagBlock.reset(capacity);
+      }
+    } else {
+      initControlBlock(tableControlAddresses[0]);
+    }
 
     listener.resetToMinimumSize();
   }
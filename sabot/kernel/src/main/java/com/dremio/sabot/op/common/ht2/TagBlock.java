@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.common.ht2;
+
+import org.apache.arrow.memory.BufferAllocator;
+
+import io.netty.buffer.ArrowBuf;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * One byte tag for each control slot of a {@link LBlockHashTable} using group probing.
+ */
+public class TagBlock implements AutoCloseable {
+  private ArrowBuf buf;
+
+  public TagBlock(final BufferAllocator allocator, final int capacity){
+    this.buf = allocator.buffer(capacity);
+    reset(capacity);
+  }
+
+  public long getMemoryAddress(){
+    return buf.memoryAddress();
+  }
+
+  /**
+   * @return size of the block in bytes, one per slot
+   */
+  public long getSizeInBytes() {
+    return buf == null ? 0 : buf.capacity();
+  }
+
+  /**
+   * Mark the first slots as free.
+   * @param slots number of slots to reset
+   */
+  public void reset(final int slots) {
+    if (buf != null) {
+      PlatformDependent.setMemory(buf.memoryAddress(), slots, LBlockHashTable.EMPTY_TAG);
+    }
+  }
+
+  @Override
+  public void close() {
+    if(buf != null){
+      buf.release();
+      buf = null;
+    }
+  }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.dictionary;
+
+import static org.apache.arrow.vector.types.Types.getMinorTypeForArrowType;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.arrow.vector.util.TransferPair;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.common.exceptions.ExecutionSetupException;
+import com.dremio.common.expression.CompleteType;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.exec.expr.ClassGenerator;
+import com.dremio.exec.expr.ReturnValueExpression;
+import com.dremio.exec.physical.config.DictionaryFilterPOP;
+import com.dremio.exec.planner.physical.visitor.GlobalDictionaryFieldInfo;
+import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
+import com.dremio.exec.record.TypedFieldId;
+import com.dremio.exec.record.VectorAccessible;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.exec.record.VectorWrapper;
+import com.dremio.exec.record.selection.SelectionVector2;
+import com.dremio.exec.store.parquet.GlobalDictionaryCache;
+import com.dremio.sabot.exec.context.OperatorContext;
+import com.dremio.sabot.op.filter.Filterer;
+import com.dremio.sabot.op.filter.VectorContainerWithSV;
+import com.dremio.sabot.op.spi.SingleInputOperator;
+import com.google.common.collect.Lists;
+
+/**
+ * Dictionary filter operator.
+ *
+ * Filters rows on global dictionary encoded string fields without decoding them: the condition on a field is
+ * evaluated once per value of its dictionary (and once for null) at setup, and rows are selected by looking up the
+ * results with their dictionary ids. Fields stay encoded, and are decoded further up in the plan if needed.
+ */
+public class DictionaryFilterOperator implements SingleInputOperator {
+
+  // dictionary values are filtered by a selection vector of char indices
+  private static final int MAX_VALUES_PER_BATCH = Character.MAX_VALUE;
+
+  private final DictionaryFilterPOP config;
+  private final OperatorContext context;
+  private final VectorContainerWithSV output;
+  private final List<GlobalDictionaryCache.Reference> dictionaryReferences = Lists.newArrayList();
+
+  private State state = State.NEEDS_SETUP;
+  private VectorAccessible input;
+  private TransferPair[] transfers;
+  private IntVector[] idVectors;
+  // for each filtered field, whether each dictionary id passes the condition, followed by whether null passes it
+  private boolean[][] matches;
+  private int recordCount;
+
+  public DictionaryFilterOperator(final OperatorContext context, final DictionaryFilterPOP config) {
+    this.config = config;
+    this.context = context;
+    this.output = context.createOutputVectorContainerWithSV();
+  }
+
+  @Override
+  public State getState() {
+    return state;
+  }
+
+  @Override
+  public VectorAccessible setup(VectorAccessible accessible) throws Exception {
+    state.is(State.NEEDS_SETUP);
+    input = accessible;
+    if (input.getSchema().getSelectionVectorMode() == SelectionVectorMode.FOUR_BYTE) {
+      throw new UnsupportedOperationException("SV4 not supported by dictionary filter operator");
+    }
+
+    final List<TransferPair> transferList = Lists.newArrayList();
+    for (VectorWrapper<?> v : input) {
+      transferList.add(v.getValueVector().makeTransferPair(output.addOrGet(v.getField())));
+    }
+    transfers = transferList.toArray(new TransferPair[transferList.size()]);
+
+    final Map<String, LogicalExpression> conditions = config.getConditions();
+    idVectors = new IntVector[conditions.size()];
+    matches = new boolean[conditions.size()][];
+    int i = 0;
+    for (Map.Entry<String, LogicalExpression> entry : conditions.entrySet()) {
+      final String fieldName = entry.getKey();
+      final GlobalDictionaryFieldInfo fieldInfo = config.getDictionaryEncodedFields().get(fieldName);
+      if (getMinorTypeForArrowType(fieldInfo.getArrowType()) != MinorType.VARCHAR) {
+        throw new ExecutionSetupException(String.format("Field %s of type %s can't be filtered on its dictionary",
+          fieldName, fieldInfo.getArrowType()));
+      }
+
+      final TypedFieldId id = input.getValueVectorId(SchemaPath.getSimplePath(fieldName));
+      idVectors[i] = input.getValueAccessorById(IntVector.class, id.getFieldIds()).getValueVector();
+
+      // dictionaries are shared with the other operators of the node, and released when this operator is closed
+      final GlobalDictionaryCache.Reference reference =
+        DictionaryLookupOperator.acquireDictionary(config.getCatalogService(), fieldInfo);
+      dictionaryReferences.add(reference);
+      final VarBinaryVector dictionary = reference.getDictionary().getValueAccessorById(VarBinaryVector.class, 0).getValueVector();
+      matches[i] = evaluate(fieldName, entry.getValue(), dictionary);
+      i++;
+    }
+
+    output.buildSchema(SelectionVectorMode.TWO_BYTE);
+    state = State.CAN_CONSUME;
+    return output;
+  }
+
+  /**
+   * Evaluates a condition on all the values of a dictionary, and null.
+   */
+  private boolean[] evaluate(String fieldName, LogicalExpression condition, VarBinaryVector dictionary) throws Exception {
+    final int size = dictionary.getValueCount();
+    final boolean[] results = new boolean[size + 1];
+    try (VectorContainer values = new VectorContainer(context.getAllocator());
+         VectorContainerWithSV selected = new VectorContainerWithSV(context.getAllocator(), new SelectionVector2(context.getAllocator()))) {
+      final VarCharVector vector = values.addOrGet(CompleteType.VARCHAR.toField(fieldName));
+      values.buildSchema(SelectionVectorMode.NONE);
+
+      final ClassGenerator<Filterer> cg = context.getClassProducer().createGenerator(Filterer.TEMPLATE_DEFINITION2).getRoot();
+      final LogicalExpression expr = context.getClassProducer().materializeAndAllowComplex(condition, values);
+      cg.addExpr(new ReturnValueExpression(expr), ClassGenerator.BlockCreateMode.MERGE);
+      final Filterer filter = cg.getCodeGenerator().getImplementationClass();
+      filter.setup(context.getClassProducer().getFunctionContext(), values, selected);
+
+      final SelectionVector2 selection = selected.getSelectionVector2();
+      for (int start = 0; start <= size; start += MAX_VALUES_PER_BATCH) {
+        final int count = Math.min(MAX_VALUES_PER_BATCH, size + 1 - start);
+        // values are null unless set, the last one is left null
+        vector.allocateNew();
+        for (int j = 0; j < count && start + j < size; j++) {
+          final byte[] value = dictionary.get(start + j);
+          vector.setSafe(j, value, 0, value.length);
+        }
+        vector.setValueCount(count);
+        values.setRecordCount(count);
+
+        final int passed = filter.filterBatch(count);
+        for (int j = 0; j < passed; j++) {
+          results[start + selection.getIndex(j)] = true;
+        }
+      }
+    }
+    return results;
+  }
+
+  @Override
+  public void consumeData(int records) throws Exception {
+    state.is(State.CAN_CONSUME);
+
+    if (records == 0) {
+      recordCount = 0;
+      state = State.CAN_PRODUCE;
+      return;
+    }
+
+    final SelectionVector2 sv2 = output.getSelectionVector2();
+    sv2.allocateNew(records);
+    int count = 0;
+    if (input.getSchema().getSelectionVectorMode() == SelectionVectorMode.TWO_BYTE) {
+      final SelectionVector2 incomingSv2 = input.getSelectionVector2();
+      for (int i = 0; i < records; i++) {
+        final char index = incomingSv2.getIndex(i);
+        if (matches(index)) {
+          sv2.setIndex(count++, index);
+        }
+      }
+    } else {
+      for (int i = 0; i < records; i++) {
+        if (matches(i)) {
+          sv2.setIndex(count++, (char) i);
+        }
+      }
+    }
+    sv2.setRecordCount(count);
+    recordCount = count;
+
+    for (TransferPair t : transfers) {
+      t.transfer();
+    }
+    state = State.CAN_PRODUCE;
+  }
+
+  private boolean matches(int index) {
+    for (int i = 0; i < idVectors.length; i++) {
+      final boolean[] fieldMatches = matches[i];
+      final int id = idVectors[i].isNull(index) ? fieldMatches.length - 1 : idVectors[i].get(index);
+      if (!fieldMatches[id]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int outputData() throws Exception {
+    state.is(State.CAN_PRODUCE);
+    state = State.CAN_CONSUME;
+
+    output.setRecordCount(recordCount);
+    return recordCount;
+  }
+
+  @Override
+  public void noMoreToConsume() throws Exception {
+    state = State.DONE;
+  }
+
+  @Override
+  public <OUT, IN, EXCEP extends Throwable> OUT accept(OperatorVisitor<OUT, IN, EXCEP> visitor, IN value) throws EXCEP {
+    return visitor.visitSingleInput(this, value);
+  }
+
+  @Override
+  public void close() throws Exception {
+    try {
+      AutoCloseables.close(output, AutoCloseables.all(dictionaryReferences));
+    } finally {
+      dictionaryReferences.clear();
+    }
+  }
+
+  public static class DictionaryFilterCreator implements SingleInputOperator.Creator<DictionaryFilterPOP> {
+
+    @Override
+    public SingleInputOperator create(OperatorContext context, DictionaryFilterPOP operator) throws ExecutionSetupException {
+      return new DictionaryFilterOperator(context, operator);
+    }
+  }
+}
@@ -47,14 +47,16 @@ import com.dremio.common.util.MajorTypeHelper;
 import com.dremio.exec.catalog.StoragePluginId;
 import com.dremio.exec.expr.TypeHelper;
 import com.dremio.exec.physical.config.DictionaryLookupPOP;
+import com.dremio.exec.planner.physical.visitor.GlobalDictionaryFieldInfo;
 import com.dremio.exec.record.TypedFieldId;
 import com.dremio.exec.record.VectorAccessible;
 import com.dremio.exec.record.VectorContainer;
 import com.dremio.exec.record.selection.SelectionVector2;
+import com.dremio.exec.store.CatalogService;
 import com.dremio.exec.store.StoragePlugin;
 import com.dremio.exec.store.dfs.FileSystemPlugin;
 import com.dremio.exec.store.dfs.FileSystemWrapper;
-import com.dremio.exec.store.parquet.ParquetFormatPlugin;
+import com.dremio.exec.store.parquet.GlobalDictionaryCache;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.op.filter.VectorContainerWithSV;
 import com.dremio.sabot.op.spi.SingleInputOperator;
@@ -73,6 +75,7 @@ public class DictionaryLookupOperator implements SingleInputOperator {
   private Map<String, ValueVector> allocationVectors;
   private List<TransferPair> transferPairs;
   private final Map<String, VectorContainer> dictionaries = Maps.newHashMap();
+  private final List<GlobalDictionaryCache.Reference> dictionaryReferences = Lists.newArrayList();
   private int recordsConsumedCurrentBatch;
   private Map<String, ValueVector> dictionaryIdIncomingVectors;
   private boolean hasSv2 = false;
@@ -144,12 +147,24 @@ public class DictionaryLookupOperator implements SingleInputOperator {
   }
 
   public VectorContainer loadDictionary(String fieldName) throws IOException, ExecutionSetupException {
-    final StoragePluginId id = config.getDictionaryEncodedFields().get(fieldName).getStoragePluginId();
-    final StoragePlugin storagePlugin = config.getCatalogService().getSource(id);
+    // dictionaries are shared with the other operators of the node, and released when this operator is closed
+    final GlobalDictionaryCache.Reference reference = acquireDictionary(config.getCatalogService(),
+        config.getDictionaryEncodedFields().get(fieldName));
+    dictionaryReferences.add(reference);
+    return reference.getDictionary();
+  }
+
+  /**
+   * Acquires the dictionary of a global dictionary encoded field from the cache of the node, to be closed by the caller.
+   */
+  static GlobalDictionaryCache.Reference acquireDictionary(CatalogService catalogService, GlobalDictionaryFieldInfo fieldInfo)
+      throws IOException, ExecutionSetupException {
+    final StoragePluginId id = fieldInfo.getStoragePluginId();
+    final StoragePlugin storagePlugin = catalogService.getSource(id);
     if (storagePlugin instanceof FileSystemPlugin) {
       final FileSystemPlugin fsPlugin = (FileSystemPlugin) storagePlugin;
       final FileSystem fs = FileSystemWrapper.get(fsPlugin.getFsConf());
-      return ParquetFormatPlugin.loadDictionary(fs, new Path(config.getDictionaryEncodedFields().get(fieldName).getDictionaryPath()), context.getAllocator());
+      return fsPlugin.getContext().getGlobalDictionaryCache().acquire(fs, new Path(fieldInfo.getDictionaryPath()));
     } else {
       throw new ExecutionSetupException(format("Storage plugin %s is not a filesystem plugin", id.getName()));
     }
@@ -464,9 +479,10 @@ public class DictionaryLookupOperator implements SingleInputOperator {
   @Override
   public void close() throws Exception {
     try {
-      AutoCloseables.close(outgoing, dictionaries.values());
+      AutoCloseables.close(outgoing, AutoCloseables.all(dictionaryReferences));
     } finally {
       dictionaries.clear();
+      dictionaryReferences.clear();
     }
   }
 
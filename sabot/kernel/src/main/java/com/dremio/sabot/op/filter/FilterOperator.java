@@ -61,9 +61,11 @@ public class FilterOperator implements SingleInputOperator {
   private Filterer filter;
   private TransferPair[] tx;
   private NativeFilter nativeFilter;
+  private VectorizedFilter vectorizedFilter;
   private FilterFunction filterFunction;
   private Stopwatch javaCodeGenWatch = Stopwatch.createUnstarted();
   private Stopwatch gandivaCodeGenWatch = Stopwatch.createUnstarted();
+  private Stopwatch vectorizedWatch = Stopwatch.createUnstarted();
   private Stopwatch evalWatch;
   private boolean debugCodegenMessages;
 
@@ -92,7 +94,13 @@ public class FilterOperator implements SingleInputOperator {
       default:
         throw new UnsupportedOperationException();
     }
-    evalWatch = (nativeFilter == null) ? javaCodeGenWatch : gandivaCodeGenWatch;
+    if (nativeFilter != null) {
+      evalWatch = gandivaCodeGenWatch;
+    } else if (vectorizedFilter != null) {
+      evalWatch = vectorizedWatch;
+    } else {
+      evalWatch = javaCodeGenWatch;
+    }
     output.buildSchema(SelectionVectorMode.TWO_BYTE);
     state = State.CAN_CONSUME;
     return output;
@@ -144,14 +152,22 @@ public class FilterOperator implements SingleInputOperator {
     AutoCloseables.close(output, nativeFilter);
     context.getStats().addLongStat(Metric.JAVA_EXECUTE_TIME, javaCodeGenWatch.elapsed(TimeUnit.MILLISECONDS));
     context.getStats().addLongStat(Metric.GANDIVA_EXECUTE_TIME, gandivaCodeGenWatch.elapsed(TimeUnit.MILLISECONDS));
+    context.getStats().addLongStat(Metric.VECTORIZED_EXECUTE_TIME, vectorizedWatch.elapsed(TimeUnit.MILLISECONDS));
     javaCodeGenWatch.reset();
     gandivaCodeGenWatch.reset();
+    vectorizedWatch.reset();
   }
 
   protected void generateSV2Filterer() throws SchemaChangeException, GandivaException {
     setupTransfers();
 
     final LogicalExpression expr = context.getClassProducer().materializeAndAllowComplex(filterOptions, config.getExpr(), input);
+    if (!expr.isEvaluationTypeSupported(EvaluationType.ExecutionType.GANDIVA)
+        && context.getOptions().getOption(ExecConstants.VECTORIZED_FILTER_ENABLE)) {
+      // null if the expression is too complex, evaluated by generated code then
+      vectorizedFilter = VectorizedFilter.build(expr, input, output.getSelectionVector2());
+    }
+
     if (expr.isEvaluationTypeSupported(EvaluationType.ExecutionType.GANDIVA)) {
       if (this.debugCodegenMessages) {
         logger.info("Switching to LLVM for options {} for evaluation of expression {}", this.curExecOption, expr);
@@ -160,6 +176,11 @@ public class FilterOperator implements SingleInputOperator {
       nativeFilter = NativeFilter.build(expr, input, output.getSelectionVector2());
       gandivaCodeGenWatch.stop();
       filterFunction = nativeFilter::filterBatch;
+    } else if (vectorizedFilter != null) {
+      if (this.debugCodegenMessages) {
+        logger.info("Using vectorized evaluation of expression {}", expr);
+      }
+      filterFunction = vectorizedFilter::filterBatch;
     } else {
       if (this.debugCodegenMessages) {
         logger.info("Switching to Java for options {} for evaluation of expression {}", this.curExecOption, expr);
@@ -22,7 +22,8 @@ public class FilterStats {
     JAVA_BUILD_TIME,
     JAVA_EXECUTE_TIME,
     GANDIVA_BUILD_TIME,
-    GANDIVA_EXECUTE_TIME;
+    GANDIVA_EXECUTE_TIME,
+    VECTORIZED_EXECUTE_TIME;
 
     @Override
     public int metricId() {
@@ -0,0 +1,518 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.filter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BaseVariableWidthVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.arrow.vector.util.ByteFunctionHelpers;
+
+import com.dremio.common.expression.BooleanOperator;
+import com.dremio.common.expression.FunctionHolderExpression;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.ValueExpressions;
+import com.dremio.exec.expr.ValueVectorReadExpression;
+import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
+import com.dremio.exec.record.TypedFieldId;
+import com.dremio.exec.record.VectorAccessible;
+import com.dremio.exec.record.selection.SelectionVector2;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+
+import io.netty.buffer.ArrowBuf;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Filter evaluating its condition a batch at a time instead of a row at a time.
+ *
+ * Supported conditions are ANDs and ORs of comparisons between a column and a constant and of IS [NOT] NULL on a
+ * column, which also covers BETWEEN and small IN lists as expanded by the planner. Each predicate is evaluated over the
+ * whole batch into a bitmap (one bit per row), bitmaps are combined a 64 bit word at a time, and the resulting bitmap
+ * is compacted into the outgoing selection vector. As NOT is not supported, a predicate which is null for a row
+ * doesn't need three valued logic: its bit is simply not set.
+ *
+ * Conditions which are not supported are evaluated by the code generated filter.
+ */
+public class VectorizedFilter {
+
+  // larger ORs are evaluated with a set by the code generated filter
+  private static final int MAX_OR_ARGS = 8;
+
+  // outcomes of a comparison, predicates pass for a set of them
+  private static final int LESS = 1;
+  private static final int EQUAL = 2;
+  private static final int GREATER = 4;
+  // NaN compared to anything
+  private static final int UNORDERED = 8;
+
+  private final Predicate predicate;
+  private final SelectionVector2 selectionVector;
+  private long[] bitmap = new long[0];
+
+  private VectorizedFilter(Predicate predicate, SelectionVector2 selectionVector) {
+    this.predicate = predicate;
+    this.selectionVector = selectionVector;
+  }
+
+  /**
+   * @param expr materialized filter condition
+   * @param input incoming batch, without selection vector
+   * @param selectionVector outgoing selection vector
+   * @return the vectorized filter, or null if the condition or the input is not supported
+   */
+  public static VectorizedFilter build(LogicalExpression expr, VectorAccessible input, SelectionVector2 selectionVector) {
+    if (input.getSchema().getSelectionVectorMode() != SelectionVectorMode.NONE) {
+      return null;
+    }
+    final Predicate predicate = toPredicate(expr, input);
+    return predicate == null ? null : new VectorizedFilter(predicate, selectionVector);
+  }
+
+  /**
+   * Filters a batch of records.
+   * @param recordCount number of records in the batch
+   * @return the number of records that passed the filter
+   */
+  public int filterBatch(int recordCount) {
+    if (recordCount == 0) {
+      return 0;
+    }
+
+    final int wordCount = wordCount(recordCount);
+    if (bitmap.length < wordCount) {
+      bitmap = new long[wordCount];
+    }
+    predicate.evaluate(recordCount, bitmap);
+
+    selectionVector.allocateNew(recordCount);
+    final int count = compact(bitmap, wordCount, selectionVector);
+    selectionVector.setRecordCount(count);
+    return count;
+  }
+
+  /**
+   * Sets the indices of the bits set in the bitmap in the selection vector.
+   * @return the number of bits set
+   */
+  @VisibleForTesting
+  static int compact(long[] bitmap, int wordCount, SelectionVector2 selectionVector) {
+    int count = 0;
+    for (int w = 0; w < wordCount; w++) {
+      long word = bitmap[w];
+      final int base = w << 6;
+      while (word != 0) {
+        selectionVector.setIndex(count++, (char) (base + Long.numberOfTrailingZeros(word)));
+        word &= word - 1;
+      }
+    }
+    return count;
+  }
+
+  private static int wordCount(int recordCount) {
+    return (recordCount + 63) >>> 6;
+  }
+
+  private static Predicate toPredicate(LogicalExpression expr, VectorAccessible input) {
+    if (expr instanceof BooleanOperator) {
+      final BooleanOperator operator = (BooleanOperator) expr;
+      if (operator.isOr() && operator.args.size() > MAX_OR_ARGS) {
+        return null;
+      }
+      final List<Predicate> args = Lists.newArrayList();
+      for (LogicalExpression arg : operator.args) {
+        final Predicate predicate = toPredicate(arg, input);
+        if (predicate == null) {
+          return null;
+        }
+        args.add(predicate);
+      }
+      return operator.isAnd() ? new And(args) : new Or(args);
+    }
+
+    if (!(expr instanceof FunctionHolderExpression)) {
+      return null;
+    }
+    final FunctionHolderExpression call = (FunctionHolderExpression) expr;
+    switch (call.getName()) {
+    case "isnull":
+    case "isnotnull": {
+      final ValueVector vector = call.args.size() == 1 ? getVector(call.args.get(0), input) : null;
+      return vector == null ? null : new NullCheck(vector, call.getName().equals("isnull"));
+    }
+    case "equal":
+      return toComparison(call, EQUAL, EQUAL, input);
+    case "not_equal":
+      return toComparison(call, LESS | GREATER | UNORDERED, LESS | GREATER | UNORDERED, input);
+    case "less_than":
+      return toComparison(call, LESS, GREATER, input);
+    case "less_than_or_equal_to":
+      return toComparison(call, LESS | EQUAL, GREATER | EQUAL, input);
+    case "greater_than":
+      return toComparison(call, GREATER, LESS, input);
+    case "greater_than_or_equal_to":
+      return toComparison(call, GREATER | EQUAL, LESS | EQUAL, input);
+    default:
+      return null;
+    }
+  }
+
+  /**
+   * @param outcomes outcomes passing the comparison, with the column on the left
+   * @param flippedOutcomes outcomes passing the comparison, with the column on the right
+   */
+  private static Predicate toComparison(FunctionHolderExpression call, int outcomes, int flippedOutcomes,
+      VectorAccessible input) {
+    if (call.args.size() != 2) {
+      return null;
+    }
+    if (call.args.get(0) instanceof ValueVectorReadExpression) {
+      return toComparison((ValueVectorReadExpression) call.args.get(0), call.args.get(1), outcomes, input);
+    }
+    if (call.args.get(1) instanceof ValueVectorReadExpression) {
+      return toComparison((ValueVectorReadExpression) call.args.get(1), call.args.get(0), flippedOutcomes, input);
+    }
+    return null;
+  }
+
+  private static Predicate toComparison(ValueVectorReadExpression column, LogicalExpression constant, int outcomes,
+      VectorAccessible input) {
+    final ValueVector vector = getVector(column, input);
+    if (vector == null) {
+      return null;
+    }
+
+    // types have to match exactly, the planner adds casts otherwise
+    final MinorType type = Types.getMinorTypeForArrowType(column.getCompleteType().getType());
+    switch (type) {
+    case INT:
+      return constant instanceof ValueExpressions.IntExpression
+        ? new IntComparison(vector, ((ValueExpressions.IntExpression) constant).getInt(), outcomes) : null;
+    case BIGINT:
+      return constant instanceof ValueExpressions.LongExpression
+        ? new BigIntComparison(vector, ((ValueExpressions.LongExpression) constant).getLong(), outcomes) : null;
+    case DATEMILLI:
+      return constant instanceof ValueExpressions.DateExpression
+        ? new BigIntComparison(vector, ((ValueExpressions.DateExpression) constant).getDate(), outcomes) : null;
+    case TIMESTAMPMILLI:
+      return constant instanceof ValueExpressions.TimeStampExpression
+        ? new BigIntComparison(vector, ((ValueExpressions.TimeStampExpression) constant).getTimeStamp(), outcomes) : null;
+    case FLOAT4:
+      return constant instanceof ValueExpressions.FloatExpression
+        ? new Float4Comparison(vector, ((ValueExpressions.FloatExpression) constant).getFloat(), outcomes) : null;
+    case FLOAT8:
+      return constant instanceof ValueExpressions.DoubleExpression
+        ? new Float8Comparison(vector, ((ValueExpressions.DoubleExpression) constant).getDouble(), outcomes) : null;
+    case VARCHAR:
+      return constant instanceof ValueExpressions.QuotedString
+        ? new VarCharComparison(vector, ((ValueExpressions.QuotedString) constant).getString().getBytes(StandardCharsets.UTF_8), outcomes)
+        : null;
+    default:
+      return null;
+    }
+  }
+
+  /**
+   * @return the top level fixed or variable width vector read by the expression, null otherwise
+   */
+  private static ValueVector getVector(LogicalExpression expr, VectorAccessible input) {
+    if (!(expr instanceof ValueVectorReadExpression)) {
+      return null;
+    }
+    final TypedFieldId fieldId = ((ValueVectorReadExpression) expr).getFieldId();
+    if (fieldId.isHyperReader() || fieldId.hasRemainder() || fieldId.getFieldIds().length != 1) {
+      return null;
+    }
+    final ValueVector vector = input.getValueAccessorById(ValueVector.class, fieldId.getFieldIds()).getValueVector();
+    return vector instanceof BaseFixedWidthVector || vector instanceof BaseVariableWidthVector ? vector : null;
+  }
+
+  /**
+   * Reads the validity bits of the first records of a vector in words, the bits after the last record are cleared.
+   */
+  @VisibleForTesting
+  static void readValidity(ArrowBuf validity, int recordCount, long[] words) {
+    final int wordCount = wordCount(recordCount);
+    final long address = validity.memoryAddress();
+    final int capacity = validity.capacity();
+    for (int w = 0; w < wordCount; w++) {
+      final int offset = w << 3;
+      if (offset + 8 <= capacity) {
+        words[w] = PlatformDependent.getLong(address + offset);
+      } else {
+        long word = 0;
+        for (int b = 0; offset + b < capacity && b < 8; b++) {
+          word |= (PlatformDependent.getByte(address + offset + b) & 0xFFL) << (b << 3);
+        }
+        words[w] = word;
+      }
+    }
+    final int remainder = recordCount & 63;
+    if (remainder != 0) {
+      words[wordCount - 1] &= (1L << remainder) - 1;
+    }
+  }
+
+  private static int compare(long value, long constant) {
+    return value < constant ? LESS : (value == constant ? EQUAL : GREATER);
+  }
+
+  private static int compare(double value, double constant) {
+    return value < constant ? LESS : (value == constant ? EQUAL : (value > constant ? GREATER : UNORDERED));
+  }
+
+  /**
+   * Predicate evaluated over a batch.
+   */
+  private abstract static class Predicate {
+    /**
+     * Sets the bits of the records passing the predicate in the first words of the result, and clears the others.
+     */
+    abstract void evaluate(int recordCount, long[] result);
+  }
+
+  private static final class And extends Predicate {
+    private final Predicate[] args;
+    private long[] scratch = new long[0];
+
+    And(List<Predicate> args) {
+      this.args = args.toArray(new Predicate[args.size()]);
+    }
+
+    @Override
+    void evaluate(int recordCount, long[] result) {
+      final int wordCount = wordCount(recordCount);
+      if (scratch.length < wordCount) {
+        scratch = new long[wordCount];
+      }
+      args[0].evaluate(recordCount, result);
+      for (int i = 1; i < args.length; i++) {
+        args[i].evaluate(recordCount, scratch);
+        long any = 0;
+        for (int w = 0; w < wordCount; w++) {
+          result[w] &= scratch[w];
+          any |= result[w];
+        }
+        if (any == 0) {
+          // no record passes the conjunction anymore
+          return;
+        }
+      }
+    }
+  }
+
+  private static final class Or extends Predicate {
+    private final Predicate[] args;
+    private long[] scratch = new long[0];
+
+    Or(List<Predicate> args) {
+      this.args = args.toArray(new Predicate[args.size()]);
+    }
+
+    @Override
+    void evaluate(int recordCount, long[] result) {
+      final int wordCount = wordCount(recordCount);
+      if (scratch.length < wordCount) {
+        scratch = new long[wordCount];
+      }
+      args[0].evaluate(recordCount, result);
+      for (int i = 1; i < args.length; i++) {
+        args[i].evaluate(recordCount, scratch);
+        for (int w = 0; w < wordCount; w++) {
+          result[w] |= scratch[w];
+        }
+      }
+    }
+  }
+
+  private static final class NullCheck extends Predicate {
+    private final ValueVector vector;
+    private final boolean isNull;
+
+    NullCheck(ValueVector vector, boolean isNull) {
+      this.vector = vector;
+      this.isNull = isNull;
+    }
+
+    @Override
+    void evaluate(int recordCount, long[] result) {
+      readValidity(vector.getValidityBuffer(), recordCount, result);
+      if (isNull) {
+        final int wordCount = wordCount(recordCount);
+        for (int w = 0; w < wordCount; w++) {
+          result[w] = ~result[w];
+        }
+        final int remainder = recordCount & 63;
+        if (remainder != 0) {
+          result[wordCount - 1] &= (1L << remainder) - 1;
+        }
+      }
+    }
+  }
+
+  /**
+   * Comparison of a column with a constant: the values of the column are compared with the constant a word of records
+   * at a time, and the records with a null value are cleared using the validity bits of the column.
+   */
+  private abstract static class Comparison extends Predicate {
+    protected final ValueVector vector;
+    protected final int outcomes;
+
+    Comparison(ValueVector vector, int outcomes) {
+      this.vector = vector;
+      this.outcomes = outcomes;
+    }
+
+    @Override
+    final void evaluate(int recordCount, long[] result) {
+      readValidity(vector.getValidityBuffer(), recordCount, result);
+      final int wordCount = wordCount(recordCount);
+      for (int w = 0; w < wordCount; w++) {
+        if (result[w] != 0) {
+          final int start = w << 6;
+          result[w] &= compareWord(start, Math.min(start + 64, recordCount));
+        }
+      }
+    }
+
+    /**
+     * @return the bits of the records from start (bit 0) to end passing the comparison, ignoring nulls
+     */
+    abstract long compareWord(int start, int end);
+  }
+
+  private static final class IntComparison extends Comparison {
+    private final int constant;
+
+    IntComparison(ValueVector vector, int constant, int outcomes) {
+      super(vector, outcomes);
+      this.constant = constant;
+    }
+
+    @Override
+    long compareWord(int start, int end) {
+      final long address = vector.getDataBuffer().memoryAddress();
+      long word = 0;
+      for (int i = start; i < end; i++) {
+        if ((compare(PlatformDependent.getInt(address + (i << 2)), constant) & outcomes) != 0) {
+          word |= 1L << (i - start);
+        }
+      }
+      return word;
+    }
+  }
+
+  private static final class BigIntComparison extends Comparison {
+    private final long constant;
+
+    BigIntComparison(ValueVector vector, long constant, int outcomes) {
+      super(vector, outcomes);
+      this.constant = constant;
+    }
+
+    @Override
+    long compareWord(int start, int end) {
+      final long address = vector.getDataBuffer().memoryAddress();
+      long word = 0;
+      for (int i = start; i < end; i++) {
+        if ((compare(PlatformDependent.getLong(address + ((long) i << 3)), constant) & outcomes) != 0) {
+          word |= 1L << (i - start);
+        }
+      }
+      return word;
+    }
+  }
+
+  private static final class Float4Comparison extends Comparison {
+    private final float constant;
+
+    Float4Comparison(ValueVector vector, float constant, int outcomes) {
+      super(vector, outcomes);
+      this.constant = constant;
+    }
+
+    @Override
+    long compareWord(int start, int end) {
+      final long address = vector.getDataBuffer().memoryAddress();
+      long word = 0;
+      for (int i = start; i < end; i++) {
+        if ((compare(Float.intBitsToFloat(PlatformDependent.getInt(address + (i << 2))), constant) & outcomes) != 0) {
+          word |= 1L << (i - start);
+        }
+      }
+      return word;
+    }
+  }
+
+  private static final class Float8Comparison extends Comparison {
+    private final double constant;
+
+    Float8Comparison(ValueVector vector, double constant, int outcomes) {
+      super(vector, outcomes);
+      this.constant = constant;
+    }
+
+    @Override
+    long compareWord(int start, int end) {
+      final long address = vector.getDataBuffer().memoryAddress();
+      long word = 0;
+      for (int i = start; i < end; i++) {
+        if ((compare(Double.longBitsToDouble(PlatformDependent.getLong(address + ((long) i << 3))), constant) & outcomes) != 0) {
+          word |= 1L << (i - start);
+        }
+      }
+      return word;
+    }
+  }
+
+  private static final class VarCharComparison extends Comparison {
+    private final byte[] constant;
+    // only equality matters, values of a different length don't need to be compared
+    private final boolean equality;
+
+    VarCharComparison(ValueVector vector, byte[] constant, int outcomes) {
+      super(vector, outcomes);
+      this.constant = constant;
+      this.equality = (outcomes & (LESS | GREATER)) == 0 || (outcomes & (LESS | GREATER)) == (LESS | GREATER);
+    }
+
+    @Override
+    long compareWord(int start, int end) {
+      final long offsetAddress = vector.getOffsetBuffer().memoryAddress();
+      final ArrowBuf data = vector.getDataBuffer();
+      long word = 0;
+      for (int i = start; i < end; i++) {
+        final int valueStart = PlatformDependent.getInt(offsetAddress + (i << 2));
+        final int valueEnd = PlatformDependent.getInt(offsetAddress + ((i + 1) << 2));
+        final int outcome;
+        if (equality && valueEnd - valueStart != constant.length) {
+          outcome = LESS;
+        } else {
+          final int cmp = ByteFunctionHelpers.compare(data, valueStart, valueEnd, constant, 0, constant.length);
+          outcome = cmp < 0 ? LESS : (cmp == 0 ? EQUAL : GREATER);
+        }
+        if ((outcome & outcomes) != 0) {
+          word |= 1L << (i - start);
+        }
+      }
+      return word;
+    }
+  }
+}
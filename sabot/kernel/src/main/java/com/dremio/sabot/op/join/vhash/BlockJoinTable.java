@@ -53,10 +53,11 @@ public class BlockJoinTable implements JoinTable {
   private final Stopwatch probeHashComputationWatch = Stopwatch.createUnstarted();
   private boolean fixedOnly;
 
-  public BlockJoinTable(PivotDef buildPivot, PivotDef probePivot, BufferAllocator allocator, NullComparator nullMask, int minSize, int varFieldAverageSize) {
+  public BlockJoinTable(PivotDef buildPivot, PivotDef probePivot, BufferAllocator allocator, NullComparator nullMask, int minSize, int varFieldAverageSize,
+                        boolean groupProbing) {
     super();
     this.table = new LBlockHashTable(HashConfig.getDefault(), buildPivot, allocator, minSize,
-        varFieldAverageSize, false, ResizeListener.NO_OP, MAX_VALUES_PER_BATCH);
+        varFieldAverageSize, false, ResizeListener.NO_OP, MAX_VALUES_PER_BATCH, groupProbing);
     this.buildPivot = buildPivot;
     this.probePivot = probePivot;
     this.allocator = allocator;
@@ -138,10 +139,7 @@ public class BlockJoinTable implements JoinTable {
 
         // STEP 3: then we insert build side into hash table
         insertWatch.start();
-        for(int keyIndex = 0 ; keyIndex < records; keyIndex++, findAddr += 4) {
-          final int keyHash = (int)hashValues.get(keyIndex);
-          PlatformDependent.putInt(findAddr, table.add(keyFixedVectorAddr, keyVarVectorAddr, keyIndex, keyHash));
-        }
+        table.add(keyFixedVectorAddr, keyVarVectorAddr, hashValues.getBufferAddress(), records, findAddr);
         insertWatch.stop();
       }
 
@@ -180,15 +178,14 @@ public class BlockJoinTable implements JoinTable {
       HashComputation.computeHash(blockChunk);
       probeHashComputationWatch.stop();
 
-      // STEP 3: then we probe hash table.
+      // STEP 3: then we probe hash table, for all the keys at once.
       probeFindWatch.start();
+      table.find(keyFixedVectorAddr, keyVarVectorAddr, hashValues.getBufferAddress(), records, offsetAddr);
+
+      // STEP 4: then we skip the keys with nulls that are not comparable.
       final NullComparator compare = nullMask;
       switch(compare.getMode()){
       case NONE:
-        for(int keyIndex = 0; keyIndex < records; keyIndex++, offsetAddr += 4) {
-          final int keyHash = (int)hashValues.get(keyIndex);
-          PlatformDependent.putInt(offsetAddr, table.find(keyFixedVectorAddr, keyVarVectorAddr, keyIndex, keyHash));
-        }
         break;
 
       // 32 bits to consider.
@@ -196,11 +193,8 @@ public class BlockJoinTable implements JoinTable {
         long bitsAddr = keyFixedVectorAddr;
         final int nullMask = compare.getFour();
         for(int keyIndex = 0; keyIndex < records; keyIndex++, offsetAddr += 4, bitsAddr += blockWidth){
-          if((PlatformDependent.getInt(bitsAddr) & nullMask) == nullMask){
+          if((PlatformDependent.getInt(bitsAddr) & nullMask) != nullMask){
             // the nulls are not comparable. as such, this doesn't match.
-            final int keyHash = (int)hashValues.get(keyIndex);
-            PlatformDependent.putInt(offsetAddr, table.find(keyFixedVectorAddr, keyVarVectorAddr, keyIndex, keyHash));
-          } else {
             PlatformDependent.putInt(offsetAddr, SKIP);
           }
         }
@@ -212,10 +206,7 @@ public class BlockJoinTable implements JoinTable {
         long bitsAddr = keyFixedVectorAddr;
         final long nullMask = compare.getEight();
         for(int keyIndex = 0; keyIndex < records; keyIndex++, offsetAddr += 4, bitsAddr += blockWidth){
-          if((PlatformDependent.getLong(bitsAddr) & nullMask) == nullMask){
-            final int keyHash = (int)hashValues.get(keyIndex);
-            PlatformDependent.putInt(offsetAddr, table.find(keyFixedVectorAddr, keyVarVectorAddr, keyIndex, keyHash));
-          } else {
+          if((PlatformDependent.getLong(bitsAddr) & nullMask) != nullMask){
             // the nulls are not comparable. as such, this doesn't match.
             PlatformDependent.putInt(offsetAddr, SKIP);
           }
@@ -227,10 +218,7 @@ public class BlockJoinTable implements JoinTable {
       case BIG: {
         long bitsAddr = keyFixedVectorAddr;
         for(int keyIndex = 0; keyIndex < records; keyIndex++, offsetAddr += 4, bitsAddr += blockWidth){
-          if(compare.isComparableBigBits(bitsAddr)){
-            final int keyHash = (int)hashValues.get(keyIndex);
-            PlatformDependent.putInt(offsetAddr, table.find(keyFixedVectorAddr, keyVarVectorAddr, keyIndex, keyHash));
-          } else {
+          if(!compare.isComparableBigBits(bitsAddr)){
             // the nulls are not comparable. as such, this doesn't match.
             PlatformDependent.putInt(offsetAddr, SKIP);
           }
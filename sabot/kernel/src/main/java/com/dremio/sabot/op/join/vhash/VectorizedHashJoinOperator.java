@@ -301,7 +301,8 @@ public class VectorizedHashJoinOperator implements DualInputOperator {
         // Create the hyper container with isKeyBits that indicates which field is key and will not be added to hyper container
         hyperContainer = new ExpandableHyperContainer(context.getAllocator(), right.getSchema(), isKeyBits);
         // Create generic hash table
-        this.table = new BlockJoinTable(buildPivot, probePivot, context.getAllocator(), comparator, (int)context.getOptions().getOption(ExecConstants.MIN_HASH_TABLE_SIZE), INITIAL_VAR_FIELD_AVERAGE_SIZE);
+        this.table = new BlockJoinTable(buildPivot, probePivot, context.getAllocator(), comparator, (int)context.getOptions().getOption(ExecConstants.MIN_HASH_TABLE_SIZE), INITIAL_VAR_FIELD_AVERAGE_SIZE,
+          context.getOptions().getOption(ExecConstants.HASH_TABLE_GROUP_PROBING));
         break;
       default:
         throw new UnsupportedOperationException();
@@ -87,7 +87,9 @@ public class ScanOperator implements ProducerOperator {
     FILTER_MS,
     PARQUET_EXEC_PATH, // type of readers (vectorized, non-vectorized or combination used) in parquet
     FILTER_EXISTS, // Is there a filter pushed into scan?
-    PARQUET_BYTES_READ // Represents total number of actual bytes (uncompressed) read while parquet scan.
+    PARQUET_BYTES_READ, // Represents total number of actual bytes (uncompressed) read while parquet scan.
+    NUM_LATE_MATERIALIZED_COLUMNS, // number of columns only read for the rows passing the filter pushed into scan
+    NUM_DICTIONARY_FILTERED_ROW_GROUPS // number of row groups skipped as no dictionary value passes the filter
     ;
 
     @Override
@@ -111,6 +113,8 @@ public class ScanOperator implements ProducerOperator {
   private final List<String> tableSchemaPath;
   private final SubScan config;
   private final GlobalDictionaries globalDictionaries;
+  // resources shared by the readers, closed with the operator
+  private final AutoCloseable readersResource;
   private final Stopwatch readTime = Stopwatch.createUnstarted();
 
   public ScanOperator(SchemaChangeListener schemaUpdater, SubScan config, OperatorContext context, Iterator<RecordReader> readers) {
@@ -118,6 +122,12 @@ public class ScanOperator implements ProducerOperator {
   }
 
   public ScanOperator(SchemaChangeListener schemaUpdater, SubScan config, OperatorContext context, Iterator<RecordReader> readers, GlobalDictionaries globalDictionaries) {
+    this(schemaUpdater, config, context, readers, globalDictionaries, null);
+  }
+
+  public ScanOperator(SchemaChangeListener schemaUpdater, SubScan config, OperatorContext context, Iterator<RecordReader> readers,
+                      GlobalDictionaries globalDictionaries, AutoCloseable readersResource) {
+    this.readersResource = readersResource;
     if (!readers.hasNext()) {
       this.readers = ImmutableList.<RecordReader>of(new EmptyRecordReader(context)).iterator();
     } else {
@@ -353,7 +363,7 @@ public class ScanOperator implements ProducerOperator {
 
   @Override
   public void close() throws Exception {
-    AutoCloseables.close(outgoing, currentReader, globalDictionaries);
+    AutoCloseables.close(outgoing, currentReader, globalDictionaries, readersResource);
   }
 
 }
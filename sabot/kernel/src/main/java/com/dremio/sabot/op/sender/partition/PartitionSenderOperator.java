@@ -92,7 +92,9 @@ public class PartitionSenderOperator extends BaseSender {
     PRECOPY_NS,
     FLUSH_NS,
     NUM_FLUSHES,
-    BUCKET_SIZE;
+    BUCKET_SIZE,
+    SKEW_RATIO, // records sent to the busiest receiver relative to the average, in percent
+    MAX_RECORDS_RECEIVER; // minor fragment id of the busiest receiver
 
     @Override
     public int metricId() {
@@ -63,6 +63,8 @@ public class OutgoingBatch extends VectorContainer {
   private int preCopyIdx;
   /** true if receiver finished */
   private volatile boolean dropAll;
+  /** total number of records sent through this batch */
+  private long totalRecords;
 
   OutgoingBatch(int batchIdx, int nextBatchIdx, int maxRecords, final VectorAccessible incoming,
                 BufferAllocator allocator, AccountingExecTunnel tunnel, HashPartitionSender config,
@@ -100,6 +102,14 @@ public class OutgoingBatch extends VectorContainer {
     return batchIdx;
   }
 
+  int getOppositeMinorFragmentId() {
+    return oppositeMinorFragmentId;
+  }
+
+  long getTotalRecords() {
+    return totalRecords;
+  }
+
   List<FieldVector> getFieldVectors() {
     return VectorContainer.getFieldVectors(this);
   }
@@ -169,6 +179,7 @@ public class OutgoingBatch extends VectorContainer {
       oppositeMinorFragmentId);
 
     updateStats(writableBatch);
+    totalRecords += preCopyIdx;
 
     stats.startWait();
     tunnel.sendRecordBatch(writableBatch);
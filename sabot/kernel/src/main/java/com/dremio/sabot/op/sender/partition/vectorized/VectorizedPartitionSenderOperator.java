@@ -62,6 +62,8 @@ import io.netty.util.internal.PlatformDependent;
  * Each incoming batch may be processed in multiple passes, each time copying up to numRecordsBeforeFlush rows.
  */
 public class VectorizedPartitionSenderOperator extends BaseSender {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(VectorizedPartitionSenderOperator.class);
+
   @VisibleForTesting
   public static final int PARTITION_MULTIPLE = 8;
 
@@ -299,6 +301,46 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
     state = State.DONE;
 
     stats.setLongStat(Metric.FLUSH_NS, flushWatch.elapsed(NANOSECONDS));
+    updateReceiverStats();
+  }
+
+  /**
+   * Compute how evenly the records were distributed across the receivers, and warn if a single receiver got most of
+   * them: that receiver will take much longer than the others to finish and will dominate the query run time.
+   */
+  private void updateReceiverStats() {
+    long totalRecords = 0;
+    long minRecords = Long.MAX_VALUE;
+    long maxRecords = 0;
+    int maxReceiver = -1;
+    for (int p = 0; p < numReceivers; p++) {
+      // both batches of a receiver send to the same minor fragment
+      final long records = batches[p].getTotalRecords() + batches[p + numReceivers].getTotalRecords();
+      totalRecords += records;
+      minRecords = Math.min(minRecords, records);
+      if (records > maxRecords) {
+        maxRecords = records;
+        maxReceiver = batches[p].getOppositeMinorFragmentId();
+      }
+    }
+
+    if (totalRecords == 0) {
+      return;
+    }
+
+    final long skewPercent = maxRecords * numReceivers * 100 / totalRecords;
+    final double skewRatio = skewPercent / 100.0;
+    stats.setLongStat(Metric.MIN_RECORDS, minRecords);
+    stats.setLongStat(Metric.MAX_RECORDS, maxRecords);
+    stats.setLongStat(Metric.MAX_RECORDS_RECEIVER, maxReceiver);
+    stats.setLongStat(Metric.SKEW_RATIO, skewPercent);
+
+    if (numReceivers > 1 && skewRatio > context.getOptions().getOption(ExecConstants.PARTITION_SENDER_SKEW_WARN_RATIO)) {
+      final ExecProtos.FragmentHandle handle = context.getFragmentHandle();
+      logger.warn("Skewed partitioning in fragment {}:{}. Receiver {}:{} got {} of {} records ({}x the average)",
+        handle.getMajorFragmentId(), handle.getMinorFragmentId(), config.getOppositeMajorFragmentId(), maxReceiver,
+        maxRecords, totalRecords, String.format("%.1f", skewRatio));
+    }
   }
 
   @Override
@@ -31,6 +31,7 @@ import org.apache.hadoop.fs.permission.FsPermission;
 import com.dremio.common.config.SabotConfig;
 import com.dremio.common.exceptions.UserException;
 import com.dremio.exec.ExecConstants;
+import com.dremio.metrics.Metrics;
 import com.dremio.options.OptionManager;
 import com.dremio.service.spill.SpillDirectory;
 import com.dremio.service.spill.SpillService;
@@ -46,6 +47,7 @@ public class SpillManager implements AutoCloseable {
   static final String DREMIO_LOCAL_IMPL_STRING = "fs.dremio-local.impl";
   private static final String DREMIO_LOCAL_SCHEME = "dremio-local";
   private static final String LOCAL_SCHEMA = "file";
+  private static final String SPILL_BYTES_METRIC = "dremio.spill.bytes_written";
 
   private final String id;
   private final long minDiskSpace;
@@ -113,11 +115,11 @@ public class SpillManager implements AutoCloseable {
     }
 
     public FSDataOutputStream create() throws IOException {
-      return fs.create(path);
+      return new MeteredOutputStream(fs.create(path));
     }
 
     public FSDataOutputStream append() throws IOException {
-      return fs.append(path);
+      return new MeteredOutputStream(fs.append(path));
     }
 
     public FSDataInputStream open() throws IOException {
@@ -142,6 +144,32 @@ public class SpillManager implements AutoCloseable {
     }
   }
 
+  /**
+   * Adds the number of bytes written to a spill file to the spill bytes metric when the stream is closed.
+   */
+  private static final class MeteredOutputStream extends FSDataOutputStream {
+    private final long startPosition;
+    private boolean closed;
+
+    MeteredOutputStream(FSDataOutputStream out) throws IOException {
+      super(out, null, out.getPos());
+      this.startPosition = out.getPos();
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      try {
+        super.close();
+      } finally {
+        Metrics.getInstance().counter(SPILL_BYTES_METRIC).inc(getPos() - startPosition);
+      }
+    }
+  }
+
   private static boolean enabledHealthCheck(String scheme) {
     return DREMIO_LOCAL_SCHEME.equals(scheme) || LOCAL_SCHEMA.equals(scheme);
   }
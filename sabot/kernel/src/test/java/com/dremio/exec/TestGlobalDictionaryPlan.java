@@ -111,10 +111,62 @@ public class TestGlobalDictionaryPlan extends PlanTestBase {
     testPlanOneExcludedPattern(query, "DictionaryLookup");
     enableGlobalDictionary();
     testPlanSubstrPatternsInOrder(query,
-      new String[] {"DictionaryLookup(decoded fields=[[city, group, position]])"}, null);
+      new String[] {"DictionaryLookup(decoded fields=[[city, group, position, state]])",
+        "DictionaryFilter(filtered fields=[[state]]"}, null);
     validateResults(query, "testFilterWithDictionaryColumn");
   }
 
+  @Test
+  public void testFilterWithDictionaryColumnDecoded() throws Exception {
+    final String query = "select * from dfs_test.globaldictionary where state='TX'";
+    enableGlobalDictionary();
+    try {
+      testNoResult("alter session set \"planner.enable_global_dictionary_filter\"=false");
+      testPlanOneExcludedPattern(query, "DictionaryFilter");
+      testPlanSubstrPatternsInOrder(query,
+        new String[] {"DictionaryLookup(decoded fields=[[city, group, position]])"}, null);
+      validateResults(query, "testFilterWithDictionaryColumn");
+    } finally {
+      testNoResult("alter session set \"planner.enable_global_dictionary_filter\"=true");
+    }
+  }
+
+  @Test
+  public void testFilterWithDictionaryAndOtherColumns() throws Exception {
+    final String query = "select city, state from dfs_test.globaldictionary where state like 'T%' and employee_id > 1100 and state || city <> 'TXAustin'";
+    enableGlobalDictionary();
+    // conditions on other columns or more than one column are evaluated after decoding
+    testPlanSubstrPatternsInOrder(query,
+      new String[] {"DictionaryLookup(decoded fields=[[city, state]])", "DictionaryFilter(filtered fields=[[state]]"}, null);
+    try {
+      // compare with the results of decoding all columns before filtering
+      testBuilder()
+        .optionSettingQueriesForTestQuery("alter session set \"planner.enable_global_dictionary_filter\"=true")
+        .optionSettingQueriesForBaseline("alter session set \"planner.enable_global_dictionary_filter\"=false")
+        .unOrdered()
+        .sqlQuery(query)
+        .sqlBaselineQuery(query)
+        .go();
+    } finally {
+      testNoResult("alter session set \"planner.enable_global_dictionary_filter\"=true");
+    }
+  }
+
+  @Test
+  public void testFilterWithFailingCast() throws Exception {
+    // no row has state WA, so the cast is never evaluated on a city
+    final String query = "select city, state from dfs_test.globaldictionary where state = 'WA' and cast(city as int) > 5";
+    enableGlobalDictionary();
+    // conditions which may fail are not evaluated on all the values of the dictionary
+    testPlanSubstrPatternsInOrder(query,
+      new String[] {"DictionaryLookup(decoded fields=[[city, state]])", "DictionaryFilter(filtered fields=[[state]]"}, null);
+    testBuilder()
+      .sqlQuery(query)
+      .unOrdered()
+      .expectsEmptyResultSet()
+      .go();
+  }
+
   @Test
   public void testSimpleGroupBy() throws Exception {
     final String query = "select city, state from dfs_test.globaldictionary group by city, state";
@@ -133,6 +185,7 @@ public class TestGlobalDictionaryPlan extends PlanTestBase {
     enableGlobalDictionary();
 //    testPlanSubstrPatternsInOrder(query,
 //      new String[] {"DictionaryLookup(decoded fields=[[city]])", "DictionaryLookup(decoded fields=[[state]])"}, null);
+    testPlanSubstrPatternsInOrder(query, new String[] {"DictionaryFilter(filtered fields=[[position, state]]"}, null);
     validateResults(query, "testGroupByWithFilter");
   }
 
@@ -198,8 +251,9 @@ public class TestGlobalDictionaryPlan extends PlanTestBase {
     testPlanOneExcludedPattern(query, "DictionaryLookup");
     enableGlobalDictionary();
     testPlanSubstrPatternsInOrder(query,
-      new String[] {"DictionaryLookup(decoded fields=[[city, group]])",
+      new String[] {"DictionaryLookup(decoded fields=[[city, group, position]])",
         "DictionaryLookup(decoded fields=[[place]])", "DictionaryLookup(decoded fields=[[state]])"}, null);
+    testPlanSubstrPatternsInOrder(query, new String[] {"DictionaryFilter(filtered fields=[[position]]"}, null);
     validateResults(query, "testInnerJoinWithFilter");
   }
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.expr.fn.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+import java.util.regex.Pattern;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.exec.expr.fn.FunctionErrorContext;
+import com.dremio.exec.expr.fn.FunctionErrorContextBuilder;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Unit tests for {@link SqlLikeMatcher}, checked against the regular expression LIKE used to be evaluated with
+ */
+public class TestSqlLikeMatcher {
+  private static final FunctionErrorContext ERR_CTX = FunctionErrorContextBuilder.builder().build();
+
+  private static final String[] PATTERNS = {
+      "", "%", "%%", "abc", "abc%", "%abc", "%abc%", "a%c", "a%b%c", "%a%b%c%", "ab%bc", "%error%", "_bc", "a_c%",
+      "%\u00e9t\u00e9%", "\u00e9%", "a\\%c", "a\\%%", "%\\_%", "%\\\\%"
+  };
+
+  private static final String[] INPUTS = {
+      "", "a", "abc", "ABC", "abcabc", "xabcx", "ac", "abbc", "abc", "aXbYc", "error", "an ERROR occurred", "xyzerrorxyz",
+      "\u00e9t\u00e9", "un \u00c9T\u00c9 chaud", "a%c", "a%cd", "a_c", "a\\c", "\u212a", "k", "s\u017f"
+  };
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void setup() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+  }
+
+  @After
+  public void close() throws Exception {
+    AutoCloseables.close(allocator);
+  }
+
+  private boolean matches(SqlLikeMatcher matcher, String input) {
+    final byte[] bytes = input.getBytes(UTF_8);
+    // one extra byte before the input, so that the start offset is not 0
+    try (ArrowBuf buffer = allocator.buffer(bytes.length + 1)) {
+      buffer.setByte(0, 'z');
+      buffer.setBytes(1, bytes);
+      return matcher.matches(1, bytes.length + 1, buffer);
+    }
+  }
+
+  private static boolean regexMatches(String pattern, String escape, boolean caseInsensitive, String input) {
+    final int flags = caseInsensitive ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL : Pattern.DOTALL;
+    return Pattern.compile(RegexpUtil.sqlToRegexLike(pattern, escape), flags).matcher(input).matches();
+  }
+
+  private void check(String escape, boolean caseInsensitive) {
+    for (String pattern : PATTERNS) {
+      final SqlLikeMatcher matcher = SqlLikeMatcher.compile(pattern, escape, caseInsensitive, ERR_CTX);
+      for (String input : INPUTS) {
+        assertEquals(String.format("'%s' %s '%s'", input, caseInsensitive ? "ILIKE" : "LIKE", pattern),
+            regexMatches(pattern, escape, caseInsensitive, input), matches(matcher, input));
+      }
+    }
+  }
+
+  @Test
+  public void testLike() {
+    check("\\", false);
+  }
+
+  @Test
+  public void testILike() {
+    check("\\", true);
+  }
+
+  @Test
+  public void testLongInput() {
+    final StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      builder.append("some log line ").append(i).append(' ');
+    }
+    final String input = builder.toString();
+    assertEquals(false, matches(SqlLikeMatcher.compile("%error%", null, false, ERR_CTX), input));
+    assertEquals(true, matches(SqlLikeMatcher.compile("%line 999 %", null, false, ERR_CTX), input));
+    assertEquals(true, matches(SqlLikeMatcher.compile("%LINE 5%LINE 6%", null, true, ERR_CTX), input));
+    assertEquals(false, matches(SqlLikeMatcher.compile("%line 6%line 5", null, false, ERR_CTX), input));
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.dremio.exec.record.BatchSchema;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.exec.util.GlobalDictionaryBuilder;
+
+/**
+ * Unit tests for {@link GlobalDictionaryCache}
+ */
+public class TestGlobalDictionaryCache {
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private BufferAllocator allocator;
+  private FileSystem fs;
+
+  @Before
+  public void setup() throws Exception {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    fs = FileSystem.getLocal(new Configuration());
+  }
+
+  @After
+  public void cleanup() throws Exception {
+    allocator.close();
+  }
+
+  private Path writeDictionary(String name, int... values) throws Exception {
+    final Path path = new Path(folder.getRoot().toURI().toString(), name);
+    try (VectorContainer dictionary = new VectorContainer(allocator);
+         FSDataOutputStream out = fs.create(path)) {
+      final IntVector vector = dictionary.addOrGet(new Field("c0", true, new ArrowType.Int(32, true), null));
+      vector.allocateNew();
+      for (int i = 0; i < values.length; i++) {
+        vector.setSafe(i, values[i]);
+      }
+      vector.setValueCount(values.length);
+      dictionary.setRecordCount(values.length);
+      dictionary.buildSchema(BatchSchema.SelectionVectorMode.NONE);
+      GlobalDictionaryBuilder.writeDictionary(out, dictionary, values.length, allocator);
+    }
+    return path;
+  }
+
+  @Test
+  public void testSharedDictionary() throws Exception {
+    final Path path = writeDictionary("c0.dict", 10, 20, 30);
+    try (GlobalDictionaryCache cache = new GlobalDictionaryCache(allocator, 0)) {
+      try (GlobalDictionaryCache.Reference ref1 = cache.acquire(fs, path);
+           GlobalDictionaryCache.Reference ref2 = cache.acquire(fs, path)) {
+        // loaded once, and shared
+        assertSame(ref1.getDictionary(), ref2.getDictionary());
+        assertEquals(3, ref1.getDictionary().getRecordCount());
+        assertEquals(20, ref1.getDictionary().getValueAccessorById(IntVector.class, 0).getValueVector().get(1));
+        assertEquals(1, cache.size());
+      }
+      // no room for unreferenced dictionaries
+      assertEquals(0, cache.size());
+    }
+  }
+
+  @Test
+  public void testEviction() throws Exception {
+    final Path path1 = writeDictionary("c1.dict", 1, 2, 3);
+    final Path path2 = writeDictionary("c2.dict", 4, 5, 6);
+    final Path path3 = writeDictionary("c3.dict", 7, 8, 9);
+
+    final long size;
+    try (GlobalDictionaryCache cache = new GlobalDictionaryCache(allocator, Long.MAX_VALUE);
+         GlobalDictionaryCache.Reference ref = cache.acquire(fs, path1)) {
+      size = ref.getDictionary().getValueAccessorById(IntVector.class, 0).getValueVector().getBufferSize();
+    }
+
+    // room for two unreferenced dictionaries
+    try (GlobalDictionaryCache cache = new GlobalDictionaryCache(allocator, 2 * size)) {
+      cache.acquire(fs, path1).close();
+      cache.acquire(fs, path2).close();
+      assertEquals(2, cache.size());
+
+      // path1 is used again, path2 is the least recently used
+      final VectorContainer dictionary1;
+      try (GlobalDictionaryCache.Reference ref = cache.acquire(fs, path1)) {
+        dictionary1 = ref.getDictionary();
+      }
+      cache.acquire(fs, path3).close();
+      assertEquals(2, cache.size());
+
+      try (GlobalDictionaryCache.Reference ref = cache.acquire(fs, path1)) {
+        assertSame(dictionary1, ref.getDictionary());
+      }
+    }
+  }
+}
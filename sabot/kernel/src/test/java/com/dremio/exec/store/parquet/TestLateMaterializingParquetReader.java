@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.SimpleIntVector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.exec.record.selection.SelectionVector2;
+
+/**
+ * Unit tests for {@link LateMaterializingParquetReader}
+ */
+public class TestLateMaterializingParquetReader {
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void setup() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+  }
+
+  @After
+  public void cleanup() {
+    allocator.close();
+  }
+
+  private int setDeltas(SimpleIntVector deltas, int recordCount, int skipped, int... selected) {
+    try (SelectionVector2 selection = new SelectionVector2(allocator)) {
+      selection.allocateNew(recordCount);
+      for (int i = 0; i < selected.length; i++) {
+        selection.setIndex(i, selected[i]);
+      }
+      selection.setRecordCount(selected.length);
+      return LateMaterializingParquetReader.setDeltas(selection, recordCount, skipped, deltas);
+    }
+  }
+
+  private static void assertDeltas(SimpleIntVector deltas, int... expected) {
+    assertEquals(expected.length, deltas.getValueCount());
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i], deltas.get(i));
+    }
+  }
+
+  @Test
+  public void testDeltas() {
+    try (SimpleIntVector deltas = new SimpleIntVector("deltas", allocator)) {
+      deltas.allocateNew(4);
+
+      // rows 0, 3, 4 and 9 of 10
+      assertEquals(0, setDeltas(deltas, 10, 0, 0, 3, 4, 9));
+      assertDeltas(deltas, 0, 2, 0, 4);
+
+      // rows 2 and 5 of 8
+      assertEquals(2, setDeltas(deltas, 8, 0, 2, 5));
+      assertDeltas(deltas, 2, 2);
+    }
+  }
+
+  @Test
+  public void testDeltasAcrossBatches() {
+    try (SimpleIntVector deltas = new SimpleIntVector("deltas", allocator)) {
+      deltas.allocateNew(1);
+
+      // row 1 of 4, then no row of 5, then rows 2, 3 and 4 of 6
+      int skipped = setDeltas(deltas, 4, 0, 1);
+      assertEquals(2, skipped);
+      assertDeltas(deltas, 1);
+
+      skipped = setDeltas(deltas, 5, skipped);
+      assertEquals(7, skipped);
+      assertDeltas(deltas);
+
+      skipped = setDeltas(deltas, 6, skipped, 2, 3, 4);
+      assertEquals(1, skipped);
+      assertDeltas(deltas, 9, 0, 0);
+    }
+  }
+}
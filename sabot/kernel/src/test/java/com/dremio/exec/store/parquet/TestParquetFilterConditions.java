@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.junit.Test;
+
+import com.dremio.common.expression.BooleanOperator;
+import com.dremio.common.expression.FunctionCallFactory;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.expression.ValueExpressions;
+
+/**
+ * Unit tests for {@link ParquetFilterConditions} and {@link ParquetDictionaryFilter}
+ */
+public class TestParquetFilterConditions {
+
+  private static ParquetFilterCondition newCondition(String column, String op, LogicalExpression value) {
+    final SchemaPath path = SchemaPath.getSimplePath(column);
+    return new ParquetFilterCondition(path, null, FunctionCallFactory.createExpression(op, path, value), -1);
+  }
+
+  @Test
+  public void testSortBySelectivity() {
+    final ParquetFilterCondition range = newCondition("a", ">", ValueExpressions.getInt(10));
+    final ParquetFilterCondition other = newCondition("b", "like", ValueExpressions.getChar("x%"));
+    final ParquetFilterCondition equality = newCondition("c", "=", ValueExpressions.getInt(1));
+    final ParquetFilterCondition in = new ParquetFilterCondition(SchemaPath.getSimplePath("d"), null,
+      FunctionCallFactory.createExpression("or",
+        newCondition("d", "=", ValueExpressions.getInt(1)).getExpr(),
+        newCondition("d", "=", ValueExpressions.getInt(2)).getExpr()), -1);
+
+    final List<ParquetFilterCondition> sorted = ParquetFilterConditions.sortBySelectivity(asList(range, other, equality, in));
+    assertEquals(asList(equality, other, in, range), sorted);
+  }
+
+  @Test
+  public void testConjunction() {
+    final ParquetFilterCondition condition1 = newCondition("a", "=", ValueExpressions.getInt(1));
+    final ParquetFilterCondition condition2 = newCondition("b", ">", ValueExpressions.getInt(10));
+
+    assertSame(condition1.getExpr(), ParquetFilterConditions.toConjunction(asList(condition1)));
+
+    final LogicalExpression conjunction = ParquetFilterConditions.toConjunction(asList(condition1, condition2));
+    assertTrue(conjunction instanceof BooleanOperator);
+    assertTrue(((BooleanOperator) conjunction).isAnd());
+    assertEquals(asList(condition1.getExpr(), condition2.getExpr()), ((BooleanOperator) conjunction).args);
+  }
+
+  private static ColumnChunkMetaData newColumn(Encoding... encodings) {
+    final ColumnChunkMetaData column = mock(ColumnChunkMetaData.class);
+    when(column.getEncodings()).thenReturn(EnumSet.copyOf(asList(encodings)));
+    return column;
+  }
+
+  @Test
+  public void testDictionaryEncoded() {
+    assertTrue(ParquetDictionaryFilter.isDictionaryEncoded(newColumn(Encoding.PLAIN_DICTIONARY)));
+    assertTrue(ParquetDictionaryFilter.isDictionaryEncoded(newColumn(Encoding.PLAIN_DICTIONARY, Encoding.RLE, Encoding.BIT_PACKED)));
+    // fell back to plain encoding
+    assertFalse(ParquetDictionaryFilter.isDictionaryEncoded(newColumn(Encoding.PLAIN_DICTIONARY, Encoding.PLAIN, Encoding.RLE)));
+    assertFalse(ParquetDictionaryFilter.isDictionaryEncoded(newColumn(Encoding.PLAIN, Encoding.RLE)));
+    // 2.0 dictionary encoding, pages may have fallen back
+    assertFalse(ParquetDictionaryFilter.isDictionaryEncoded(newColumn(Encoding.RLE_DICTIONARY, Encoding.RLE)));
+  }
+}
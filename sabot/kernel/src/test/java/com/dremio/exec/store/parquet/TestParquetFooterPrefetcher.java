@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.common.util.FileUtils;
+import com.dremio.exec.store.parquet.ParquetFooterPrefetcher.FooterFile;
+import com.dremio.sabot.exec.context.OperatorStats;
+import com.google.common.util.concurrent.MoreExecutors;
+
+/**
+ * Unit tests for {@link ParquetFooterPrefetcher}
+ */
+public class TestParquetFooterPrefetcher {
+  private static final long WAIT_MS = 60_000;
+
+  private FileSystem fs;
+  private ExecutorService executor;
+
+  @Before
+  public void setup() throws Exception {
+    fs = FileSystem.getLocal(new Configuration());
+    executor = MoreExecutors.newDirectExecutorService();
+  }
+
+  @After
+  public void cleanup() {
+    executor.shutdownNow();
+  }
+
+  private static String resource(String name) throws Exception {
+    return FileUtils.getResourceAsFile(name).toURI().toString();
+  }
+
+  @Test
+  public void testPrefetch() throws Exception {
+    final String file1 = resource("/directcount.parquet");
+    final String file2 = resource("/window/3648.parquet");
+    final String missing = file1 + ".missing";
+    final ParquetFooterPrefetcher prefetcher = new ParquetFooterPrefetcher(fs, executor, mock(OperatorStats.class),
+        asList(new FooterFile(file1, -1), new FooterFile(missing, -1), new FooterFile(file2, -1)), 1, WAIT_MS);
+
+    final ParquetMetadata footer1 = prefetcher.getFooter(file1);
+    assertNotNull(footer1);
+    // same file again, footer is cached by the caller
+    assertNull(prefetcher.getFooter(file1));
+
+    // failed reads are reported by the synchronous read
+    assertNull(prefetcher.getFooter(missing));
+
+    final ParquetMetadata footer2 = prefetcher.getFooter(file2);
+    assertEquals(SingletonParquetFooterCache.readFooter(fs, file2, -1).getBlocks().size(), footer2.getBlocks().size());
+
+    // not one of the scanned files
+    assertNull(prefetcher.getFooter(file1 + ".other"));
+    prefetcher.close();
+  }
+
+  @Test
+  public void testTimeout() throws Exception {
+    final String file1 = resource("/directcount.parquet");
+    final String file2 = resource("/window/3648.parquet");
+    final ExecutorService blockedExecutor = Executors.newSingleThreadExecutor();
+    final CountDownLatch latch = new CountDownLatch(1);
+    try {
+      blockedExecutor.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws Exception {
+          latch.await();
+          return null;
+        }
+      });
+
+      // footers are never read while the executor is blocked, they are read synchronously instead
+      final ParquetFooterPrefetcher prefetcher = new ParquetFooterPrefetcher(fs, blockedExecutor, mock(OperatorStats.class),
+          asList(new FooterFile(file1, -1), new FooterFile(file2, -1)), 2, 10);
+      assertNull(prefetcher.getFooter(file1));
+      prefetcher.close();
+    } finally {
+      latch.countDown();
+      blockedExecutor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testClose() throws Exception {
+    final String file1 = resource("/directcount.parquet");
+    final String file2 = resource("/window/3648.parquet");
+    final ExecutorService blockedExecutor = Executors.newSingleThreadExecutor();
+    final CountDownLatch latch = new CountDownLatch(1);
+    try {
+      blockedExecutor.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws Exception {
+          latch.await();
+          return null;
+        }
+      });
+
+      final ParquetFooterPrefetcher prefetcher = new ParquetFooterPrefetcher(fs, blockedExecutor, mock(OperatorStats.class),
+          asList(new FooterFile(file1, -1), new FooterFile(file2, -1)), 2, WAIT_MS);
+      prefetcher.close();
+
+      // reads in flight are cancelled, and nothing is prefetched anymore
+      latch.countDown();
+      assertNull(prefetcher.getFooter(file1));
+      assertNull(prefetcher.getFooter(file2));
+    } finally {
+      latch.countDown();
+      blockedExecutor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.sys;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.sql.Timestamp;
+
+import org.junit.Test;
+
+import com.dremio.common.utils.protos.QueryIdHelper;
+import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
+import com.dremio.exec.proto.UserBitShared.CoreOperatorType;
+import com.dremio.exec.proto.UserBitShared.FragmentState;
+import com.dremio.exec.proto.UserBitShared.MajorFragmentProfile;
+import com.dremio.exec.proto.UserBitShared.MinorFragmentProfile;
+import com.dremio.exec.proto.UserBitShared.OperatorProfile;
+import com.dremio.exec.proto.UserBitShared.QueryId;
+import com.dremio.exec.proto.UserBitShared.QueryProfile;
+import com.dremio.exec.proto.UserBitShared.QueryResult.QueryState;
+import com.dremio.exec.proto.UserBitShared.StreamProfile;
+import com.dremio.exec.store.sys.ProfileRowStore.FragmentProfileInfo;
+import com.dremio.exec.store.sys.ProfileRowStore.OperatorProfileInfo;
+import com.dremio.exec.store.sys.ProfileRowStore.ProfileRowsSerializer;
+import com.dremio.proto.model.profile.FragmentRow;
+import com.dremio.proto.model.profile.OperatorRow;
+import com.dremio.proto.model.profile.ProfileRows;
+import com.dremio.test.DremioTest;
+
+/**
+ * Tests for flattening query profiles into the rows of sys.profile_fragments and sys.profile_operators.
+ */
+public class TestProfileRowStore extends DremioTest {
+
+  private static final QueryId QUERY_ID = QueryId.newBuilder().setPart1(1234).setPart2(5678).build();
+
+  private static QueryProfile profile() {
+    final MajorFragmentProfile major0 = MajorFragmentProfile.newBuilder()
+        .setMajorFragmentId(0)
+        .addMinorFragmentProfile(MinorFragmentProfile.newBuilder()
+            .setMinorFragmentId(0)
+            .setEndpoint(NodeEndpoint.newBuilder().setAddress("host1"))
+            .setState(FragmentState.FINISHED)
+            .setStartTime(1000)
+            .setEndTime(2000)
+            .setMaxMemoryUsed(4096)
+            .setRunDuration(700)
+            .setBlockedDuration(200)
+            .setSleepingDuration(100)
+            .addOperatorProfile(OperatorProfile.newBuilder()
+                .setOperatorId(0)
+                .setOperatorType(CoreOperatorType.SCREEN_VALUE)
+                .setSetupNanos(1)
+                .setProcessNanos(2)
+                .setWaitNanos(3)
+                .setPeakLocalMemoryAllocated(4)
+                .addInputProfile(StreamProfile.newBuilder().setRecords(10).setBatches(1).setSize(100)))
+            .addOperatorProfile(OperatorProfile.newBuilder()
+                .setOperatorId(1)
+                .setOperatorType(CoreOperatorType.HASH_AGGREGATE_VALUE)
+                .setSetupNanos(5)
+                .setProcessNanos(6)
+                .setWaitNanos(7)
+                .setPeakLocalMemoryAllocated(8)
+                // inputs are summed across streams
+                .addInputProfile(StreamProfile.newBuilder().setRecords(20).setBatches(2).setSize(200))
+                .addInputProfile(StreamProfile.newBuilder().setRecords(30).setBatches(3).setSize(300))))
+        .build();
+
+    final MajorFragmentProfile major1 = MajorFragmentProfile.newBuilder()
+        .setMajorFragmentId(1)
+        // no endpoint or state reported yet
+        .addMinorFragmentProfile(MinorFragmentProfile.newBuilder()
+            .setMinorFragmentId(3)
+            .addOperatorProfile(OperatorProfile.newBuilder()
+                .setOperatorId(2)
+                .setOperatorType(9999)))
+        .build();
+
+    return QueryProfile.newBuilder()
+        .setId(QUERY_ID)
+        .setUser("user1")
+        .setStart(500)
+        .setEnd(2500)
+        .setState(QueryState.COMPLETED)
+        .addFragmentProfile(major0)
+        .addFragmentProfile(major1)
+        .build();
+  }
+
+  @Test
+  public void flatten() {
+    final ProfileRows rows = ProfileRowStore.flatten(profile());
+
+    assertEquals(QueryIdHelper.getQueryId(QUERY_ID), rows.getQueryId());
+    assertEquals("user1", rows.getUser());
+    assertEquals(500L, rows.getQueryStart().longValue());
+    assertEquals(2500L, rows.getQueryEnd().longValue());
+    assertEquals("COMPLETED", rows.getQueryState());
+
+    assertEquals(2, rows.getFragmentList().size());
+    assertEquals(new FragmentRow()
+        .setMajorFragmentId(0)
+        .setMinorFragmentId(0)
+        .setHostname("host1")
+        .setState("FINISHED")
+        .setStartTime(1000L)
+        .setEndTime(2000L)
+        .setMaxMemoryUsed(4096L)
+        .setRunDuration(700L)
+        .setBlockedDuration(200L)
+        .setSleepingDuration(100L), rows.getFragmentList().get(0));
+
+    final FragmentRow unknownFragment = rows.getFragmentList().get(1);
+    assertEquals(1, unknownFragment.getMajorFragmentId().intValue());
+    assertEquals(3, unknownFragment.getMinorFragmentId().intValue());
+    assertNull(unknownFragment.getHostname());
+    assertNull(unknownFragment.getState());
+
+    assertEquals(3, rows.getOperatorList().size());
+    assertEquals(new OperatorRow()
+        .setMajorFragmentId(0)
+        .setMinorFragmentId(0)
+        .setOperatorId(0)
+        .setOperatorType("SCREEN")
+        .setSetupNanos(1L)
+        .setProcessNanos(2L)
+        .setWaitNanos(3L)
+        .setPeakMemory(4L)
+        .setInputRecords(10L)
+        .setInputBatches(1L)
+        .setInputBytes(100L), rows.getOperatorList().get(0));
+    assertEquals(new OperatorRow()
+        .setMajorFragmentId(0)
+        .setMinorFragmentId(0)
+        .setOperatorId(1)
+        .setOperatorType("HASH_AGGREGATE")
+        .setSetupNanos(5L)
+        .setProcessNanos(6L)
+        .setWaitNanos(7L)
+        .setPeakMemory(8L)
+        .setInputRecords(50L)
+        .setInputBatches(5L)
+        .setInputBytes(500L), rows.getOperatorList().get(1));
+
+    final OperatorRow unknownOperator = rows.getOperatorList().get(2);
+    assertEquals(1, unknownOperator.getMajorFragmentId().intValue());
+    assertEquals(3, unknownOperator.getMinorFragmentId().intValue());
+    assertEquals("9999", unknownOperator.getOperatorType());
+    assertEquals(0L, unknownOperator.getInputRecords().longValue());
+  }
+
+  @Test
+  public void tableRows() {
+    final ProfileRows rows = ProfileRowStore.flatten(profile());
+
+    final FragmentProfileInfo fragment = new FragmentProfileInfo(rows, rows.getFragmentList().get(0));
+    assertEquals(QueryIdHelper.getQueryId(QUERY_ID), fragment.query_id);
+    assertEquals("user1", fragment.user);
+    assertEquals(new Timestamp(500), fragment.query_start);
+    assertEquals("COMPLETED", fragment.query_state);
+    assertEquals("host1", fragment.hostname);
+    assertEquals(new Timestamp(1000), fragment.start_time);
+    assertEquals(new Timestamp(2000), fragment.end_time);
+    assertEquals(700L, fragment.run_duration.longValue());
+
+    final OperatorProfileInfo operator = new OperatorProfileInfo(rows, rows.getOperatorList().get(1));
+    assertEquals(QueryIdHelper.getQueryId(QUERY_ID), operator.query_id);
+    assertEquals(new Timestamp(500), operator.query_start);
+    assertEquals(1, operator.operator_id.intValue());
+    assertEquals("HASH_AGGREGATE", operator.operator_type);
+    assertEquals(6L, operator.process_nanos.longValue());
+    assertEquals(50L, operator.input_records.longValue());
+  }
+
+  @Test
+  public void serializerRoundTrip() throws Exception {
+    final ProfileRows rows = ProfileRowStore.flatten(profile());
+    final ProfileRowsSerializer serializer = new ProfileRowsSerializer();
+
+    assertEquals(rows, serializer.revert(serializer.convert(rows)));
+    assertEquals(rows, serializer.fromJson(serializer.toJson(rows)));
+  }
+}
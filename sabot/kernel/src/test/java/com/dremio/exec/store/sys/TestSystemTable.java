@@ -75,6 +75,17 @@ public class TestSystemTable extends BaseTestQuery {
     test("select * from sys.memory");
   }
 
+  @Test
+  public void metricsTable() throws Exception {
+    test("select * from sys.metrics");
+  }
+
+  @Test
+  public void profileTables() throws Exception {
+    test("select * from sys.profile_fragments");
+    test("select * from sys.profile_operators");
+  }
+
   @Test
   public void fragmentsTable() throws Exception {
     test("select * from sys.fragments");
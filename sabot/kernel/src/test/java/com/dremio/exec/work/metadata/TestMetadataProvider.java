@@ -188,7 +188,7 @@ public class TestMetadataProvider extends BaseTestQuery {
 
     assertEquals(RequestStatus.OK, resp.getStatus());
     List<TableMetadata> tables = resp.getTablesList();
-    assertEquals(19, tables.size());
+    assertEquals(22, tables.size());
 
     Iterator<TableMetadata> iterator = tables.iterator();
     verifyTable("INFORMATION_SCHEMA", "CATALOGS", iterator.next());
@@ -201,8 +201,11 @@ public class TestMetadataProvider extends BaseTestQuery {
     verifyTable("sys", "fragments", iterator.next());
     verifyTable("sys", "materializations", iterator.next());
     verifyTable("sys", "memory", iterator.next());
+    verifyTable("sys", "metrics", iterator.next());
     verifyTable("sys", "nodes", iterator.next());
     verifyTable("sys", "options", iterator.next());
+    verifyTable("sys", "profile_fragments", iterator.next());
+    verifyTable("sys", "profile_operators", iterator.next());
     verifyTable("sys", "queries", iterator.next());
     verifyTable("sys", "reflections", iterator.next());
     verifyTable("sys", "refreshes", iterator.next());
@@ -233,7 +236,7 @@ public class TestMetadataProvider extends BaseTestQuery {
 
     assertEquals(RequestStatus.OK, resp.getStatus());
     List<TableMetadata> tables = resp.getTablesList();
-    assertEquals(18, tables.size());
+    assertEquals(21, tables.size());
 
     Iterator<TableMetadata> iterator = tables.iterator();
     verifyTable("INFORMATION_SCHEMA", "CATALOGS", iterator.next());
@@ -246,8 +249,11 @@ public class TestMetadataProvider extends BaseTestQuery {
     verifyTable("sys", "fragments", iterator.next());
     verifyTable("sys", "materializations", iterator.next());
     verifyTable("sys", "memory", iterator.next());
+    verifyTable("sys", "metrics", iterator.next());
     verifyTable("sys", "nodes", iterator.next());
     verifyTable("sys", "options", iterator.next());
+    verifyTable("sys", "profile_fragments", iterator.next());
+    verifyTable("sys", "profile_operators", iterator.next());
     verifyTable("sys", "queries", iterator.next());
     verifyTable("sys", "reflections", iterator.next());
     verifyTable("sys", "refreshes", iterator.next());
@@ -265,7 +271,7 @@ public class TestMetadataProvider extends BaseTestQuery {
 
     assertEquals(RequestStatus.OK, resp.getStatus());
     List<TableMetadata> tables = resp.getTablesList();
-    assertEquals(10, tables.size());
+    assertEquals(12, tables.size());
 
     Iterator<TableMetadata> iterator = tables.iterator();
     verifyTable("INFORMATION_SCHEMA", "CATALOGS", iterator.next());
@@ -276,6 +282,8 @@ public class TestMetadataProvider extends BaseTestQuery {
     verifyTable("sys", "memory", iterator.next());
     verifyTable("sys", "nodes", iterator.next());
     verifyTable("sys", "options", iterator.next());
+    verifyTable("sys", "profile_fragments", iterator.next());
+    verifyTable("sys", "profile_operators", iterator.next());
     verifyTable("sys", "reflections", iterator.next());
     verifyTable("sys", "version", iterator.next());
   }
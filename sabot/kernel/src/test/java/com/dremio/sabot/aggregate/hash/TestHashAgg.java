@@ -18,6 +18,8 @@ package com.dremio.sabot.aggregate.hash;
 import static com.dremio.sabot.Fixtures.t;
 import static com.dremio.sabot.Fixtures.th;
 import static com.dremio.sabot.Fixtures.tr;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
@@ -42,7 +44,9 @@ import com.dremio.sabot.BaseTestOperator;
 import com.dremio.sabot.Fixtures;
 import com.dremio.sabot.Fixtures.Table;
 import com.dremio.sabot.Generator;
+import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.op.aggregate.hash.HashAggOperator;
+import com.dremio.sabot.op.aggregate.vectorized.HashAggStats;
 import com.dremio.sabot.op.aggregate.vectorized.VectorizedHashAggOperator;
 
 import io.airlift.tpch.GenerationDefinition.TpchTable;
@@ -206,6 +210,53 @@ public class TestHashAgg extends BaseTestOperator {
     tr(Fixtures.NULL_BOOLEAN, 20, 300L)
   );
 
+  @Test
+  public void intKeysLookedUpDirectly() throws Exception {
+    /* batches of two records: known keys, null, a key far out of the range of the first batch and one below it */
+    final Table inputData = t(
+      th("x", "y"),
+      tr(3, 1L),
+      tr(4, 2L),
+      tr(3, 3L),
+      tr(Fixtures.NULL_INT, 4L),
+      tr(4, 5L),
+      tr(Fixtures.NULL_INT, 6L),
+      tr(3, 7L),
+      tr(1_000_000, 8L),
+      tr(3, 9L),
+      tr(2, 10L)
+    );
+
+    final Table expected = t(
+      th("x", "sum", "cnt"),
+      tr(2, 10L, 1L),
+      tr(3, 20L, 4L),
+      tr(4, 7L, 2L),
+      tr(1_000_000, 8L, 1L),
+      tr(Fixtures.NULL_INT, 10L, 2L))
+      .orderInsensitive();
+
+    final HashAggregate conf = new HashAggregate(null,
+                                                 Arrays.asList(n("x")),
+                                                 Arrays.asList(
+                                                   n("sum(y)", "sum"),
+                                                   n("count(y)", "cnt")
+                                                 ),
+                                                 true,
+                                                 1f);
+    for (boolean directKeys : new boolean[] {true, false}) {
+      try (AutoCloseable options1 = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_USE_SPILLING_OPERATOR, true);
+           AutoCloseable options2 = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_DIRECT_KEYS, directKeys)) {
+        final OperatorStats stats = validateSingle(conf, VectorizedHashAggOperator.class, inputData, expected, 2);
+        if (directKeys) {
+          assertTrue(stats.getLongStat(HashAggStats.Metric.DIRECT_KEY_RECORDS) > 0);
+        } else {
+          assertEquals(0, stats.getLongStat(HashAggStats.Metric.DIRECT_KEY_RECORDS));
+        }
+      }
+    }
+  }
+
   @Test
   public void intWork() throws Exception {
     HashAggregate conf = new HashAggregate(null,
@@ -19,6 +19,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import com.dremio.common.util.TestTools;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.physical.config.HashAggregate;
 import com.dremio.exec.proto.UserBitShared;
 import com.dremio.sabot.BaseTestOperator;
@@ -286,6 +287,35 @@ public class TestSpillingHashAgg extends BaseTestOperator {
     }
   }
 
+  /**
+   * Test spilling with group probing, which resets the hash tables of spilled partitions and grows them incrementally
+   * @throws Exception
+   */
+  @Test
+  public void testSpill3KWithGroupProbing() throws Exception {
+    final HashAggregate agg = getHashAggregate();
+    agg.setInitialAllocation(1_000_000);
+    agg.setMaxAllocation(4_000_000);
+    try (AutoCloseable useSpillingAgg = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_USE_SPILLING_OPERATOR, true);
+         AutoCloseable groupProbing = with(ExecConstants.HASH_TABLE_GROUP_PROBING, true)) {
+      try (CustomHashAggDataGenerator generator = new CustomHashAggDataGenerator(2000, getTestAllocator(), true)) {
+        Fixtures.Table table = generator.getExpectedGroupsAndAggregations();
+        validateSingle(agg, VectorizedHashAggOperator.class, generator, table, 2000);
+      }
+      try (CustomHashAggDataGenerator generator = new CustomHashAggDataGenerator(3000, getTestAllocator(), true)) {
+        Fixtures.Table table = generator.getExpectedGroupsAndAggregations();
+        validateSingle(agg, VectorizedHashAggOperator.class, generator, table, 3000);
+        final VectorizedHashAggSpillStats stats = agg.getSpillStats();
+        assertTrue(stats.getSpills() > 0);
+      }
+      try (CustomHashAggDataGenerator generator = new CustomHashAggDataGenerator(3000, getTestAllocator(), true);
+           AutoCloseable options = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_USE_MINIMUM_AS_LIMIT, true)) {
+        Fixtures.Table table = generator.getExpectedGroupsAndAggregations();
+        validateSingle(agg, VectorizedHashAggOperator.class, generator, table, 3000);
+      }
+    }
+  }
+
   private HashAggregate getHashAggregateWithCount() {
     return new HashAggregate(null,
                              Arrays.asList(n("FIXKEY1"), n("FIXKEY2"), n("VARKEY1")),
@@ -15,16 +15,39 @@
  */
 package com.dremio.sabot.filter;
 
+import static com.dremio.sabot.Fixtures.NULL_BIGINT;
+import static com.dremio.sabot.Fixtures.NULL_DATE;
+import static com.dremio.sabot.Fixtures.NULL_DOUBLE;
+import static com.dremio.sabot.Fixtures.NULL_FLOAT;
+import static com.dremio.sabot.Fixtures.NULL_INT;
+import static com.dremio.sabot.Fixtures.NULL_TIMESTAMP;
+import static com.dremio.sabot.Fixtures.NULL_VARCHAR;
 import static com.dremio.sabot.Fixtures.t;
 import static com.dremio.sabot.Fixtures.th;
 import static com.dremio.sabot.Fixtures.tr;
+import static org.junit.Assert.assertNotNull;
 
+import java.util.List;
+
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalDateTime;
 import org.junit.Test;
 
+import com.dremio.common.expression.FunctionCallFactory;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.expression.ValueExpressions;
+import com.dremio.common.util.DateTimes;
+import com.dremio.exec.expr.ExpressionTreeMaterializer;
 import com.dremio.exec.physical.config.Filter;
 import com.dremio.sabot.BaseTestOperator;
+import com.dremio.sabot.Fixtures.DataRow;
 import com.dremio.sabot.Fixtures.Table;
+import com.dremio.sabot.Generator;
 import com.dremio.sabot.op.filter.FilterOperator;
+import com.dremio.sabot.op.filter.VectorizedFilter;
+import com.google.common.collect.Lists;
 
 public class TestSimpleFilter extends BaseTestOperator {
 
@@ -85,5 +108,208 @@ public class TestSimpleFilter extends BaseTestOperator {
     validateSingle(f, FilterOperator.class, input, output);
   }
 
+  @Test
+  public void rangeFilterWithNulls() throws Exception {
+    // evaluated a batch at a time, over several words of records
+    Filter f = new Filter(null, toExpr("c0 >= 10 and c0 < 150 or 190 <= c0"), 1f);
+    final List<DataRow> inputRows = Lists.newArrayList();
+    final List<DataRow> outputRows = Lists.newArrayList();
+    for (int i = 0; i < 200; i++) {
+      if (i % 7 == 0) {
+        inputRows.add(tr(NULL_INT));
+      } else {
+        inputRows.add(tr(i));
+        if ((i >= 10 && i < 150) || i >= 190) {
+          outputRows.add(tr(i));
+        }
+      }
+    }
+
+    Table input = t(th("c0"), inputRows.toArray(new DataRow[inputRows.size()]));
+    Table output = t(th("c0"), outputRows.toArray(new DataRow[outputRows.size()]));
+
+    assertVectorized(f, input);
+    validateSingle(f, FilterOperator.class, input, output, 100);
+    validateSingle(f, FilterOperator.class, input, output, 63);
+  }
+
+  @Test
+  public void varcharEqualityAndNullFilter() throws Exception {
+
+    Filter f = new Filter(null, toExpr("c0 = 'hello' or c0 = 'bye' or isnull(c0)"), 1f);
+    Table input = t(
+        th("c0"),
+        tr("hello"),
+        tr("hell"),
+        tr(NULL_VARCHAR),
+        tr("bye"),
+        tr("hello world")
+        );
+
+    Table output = t(
+        th("c0"),
+        tr("hello"),
+        tr(NULL_VARCHAR),
+        tr("bye")
+        );
+
+    assertVectorized(f, input);
+    validateSingle(f, FilterOperator.class, input, output);
+  }
+
+  @Test
+  public void varcharRangeFilter() throws Exception {
+
+    Filter f = new Filter(null, toExpr("c0 > 'b' and c0 <= 'hello'"), 1f);
+    Table input = t(
+        th("c0"),
+        tr("hello"),
+        tr("a"),
+        tr("b"),
+        tr("bye"),
+        tr("hello world")
+        );
+
+    Table output = t(
+        th("c0"),
+        tr("hello"),
+        tr("bye")
+        );
+
+    assertVectorized(f, input);
+    validateSingle(f, FilterOperator.class, input, output);
+  }
+
+  @Test
+  public void bigIntFilter() throws Exception {
+    Filter f = new Filter(null, toExpr("c0 > 5000000000l or c0 = 7l"), 1f);
+    Table input = t(
+        th("c0"),
+        tr(7L),
+        tr(5000000000L),
+        tr(NULL_BIGINT),
+        tr(5000000001L),
+        tr(-6000000000L)
+        );
+
+    Table output = t(
+        th("c0"),
+        tr(7L),
+        tr(5000000001L)
+        );
+
+    assertVectorized(f, input);
+    validateSingle(f, FilterOperator.class, input, output);
+  }
+
+  @Test
+  public void floatFilterWithNaN() throws Exception {
+    // NaN is unordered: it only passes not equal
+    Table input = t(
+        th("c0"),
+        tr(1.5f),
+        tr(Float.NaN),
+        tr(2.5f),
+        tr(NULL_FLOAT),
+        tr(-3.5f)
+        );
+
+    Filter lessThan = new Filter(null, toExpr("c0 < 2.5f"), 1f);
+    assertVectorized(lessThan, input);
+    validateSingle(lessThan, FilterOperator.class, input, t(th("c0"), tr(1.5f), tr(-3.5f)));
+
+    Filter greaterOrEqual = new Filter(null, toExpr("2.5f <= c0"), 1f);
+    assertVectorized(greaterOrEqual, input);
+    validateSingle(greaterOrEqual, FilterOperator.class, input, t(th("c0"), tr(2.5f)));
+
+    Filter notEqual = new Filter(null, toExpr("c0 <> 2.5f"), 1f);
+    assertVectorized(notEqual, input);
+    validateSingle(notEqual, FilterOperator.class, input, t(th("c0"), tr(1.5f), tr(Float.NaN), tr(-3.5f)));
+  }
+
+  @Test
+  public void doubleFilterWithNaN() throws Exception {
+    Table input = t(
+        th("c0"),
+        tr(1.5d),
+        tr(Double.NaN),
+        tr(2.5d),
+        tr(NULL_DOUBLE),
+        tr(-3.5d)
+        );
+
+    Filter greaterThan = new Filter(null, toExpr("c0 > 1.5d"), 1f);
+    assertVectorized(greaterThan, input);
+    validateSingle(greaterThan, FilterOperator.class, input, t(th("c0"), tr(2.5d)));
+
+    Filter equal = new Filter(null, toExpr("c0 = 1.5d or c0 <= -3.5d"), 1f);
+    assertVectorized(equal, input);
+    validateSingle(equal, FilterOperator.class, input, t(th("c0"), tr(1.5d), tr(-3.5d)));
+
+    Filter notEqual = new Filter(null, toExpr("c0 != 1.5d"), 1f);
+    assertVectorized(notEqual, input);
+    validateSingle(notEqual, FilterOperator.class, input, t(th("c0"), tr(Double.NaN), tr(2.5d), tr(-3.5d)));
+  }
+
+  @Test
+  public void dateFilter() throws Exception {
+    final LocalDate date = new LocalDate(2018, 1, 15);
+    final LogicalExpression constant =
+        new ValueExpressions.DateExpression(date.toDateTimeAtStartOfDay(DateTimeZone.UTC).getMillis());
+    Filter f = new Filter(null, FunctionCallFactory.createExpression("greater_than_or_equal_to",
+        SchemaPath.getSimplePath("c0"), constant), 1f);
+    Table input = t(
+        th("c0"),
+        tr(new LocalDate(2018, 1, 14)),
+        tr(date),
+        tr(NULL_DATE),
+        tr(new LocalDate(2019, 3, 1))
+        );
+
+    Table output = t(
+        th("c0"),
+        tr(date),
+        tr(new LocalDate(2019, 3, 1))
+        );
+
+    assertVectorized(f, input);
+    validateSingle(f, FilterOperator.class, input, output);
+  }
+
+  @Test
+  public void timestampFilter() throws Exception {
+    final LocalDateTime timestamp = new LocalDateTime(2018, 1, 15, 10, 30, 0, 250);
+    final LogicalExpression constant = new ValueExpressions.TimeStampExpression(DateTimes.toMillis(timestamp));
+    Filter f = new Filter(null, FunctionCallFactory.createExpression("less_than",
+        SchemaPath.getSimplePath("c0"), constant), 1f);
+    Table input = t(
+        th("c0"),
+        tr(new LocalDateTime(2018, 1, 15, 10, 30, 0, 249)),
+        tr(timestamp),
+        tr(NULL_TIMESTAMP),
+        tr(new LocalDateTime(2017, 12, 31, 23, 59, 59, 999)),
+        tr(new LocalDateTime(2018, 1, 16, 0, 0, 0, 0))
+        );
 
+    Table output = t(
+        th("c0"),
+        tr(new LocalDateTime(2018, 1, 15, 10, 30, 0, 249)),
+        tr(new LocalDateTime(2017, 12, 31, 23, 59, 59, 999))
+        );
+
+    assertVectorized(f, input);
+    validateSingle(f, FilterOperator.class, input, output);
+  }
+
+  /**
+   * Check that the condition is evaluated by {@link VectorizedFilter}, and not by generated code.
+   */
+  private void assertVectorized(Filter f, Table input) throws Exception {
+    try (Generator generator = input.toGenerator(getTestAllocator())) {
+      final LogicalExpression expr = ExpressionTreeMaterializer.materializeAndCheckErrors(f.getExpr(),
+          generator.getOutput().getSchema(), testContext.getFunctionLookupContext());
+      assertNotNull("Condition not supported by the vectorized filter",
+          VectorizedFilter.build(expr, generator.getOutput(), null));
+    }
+  }
 }
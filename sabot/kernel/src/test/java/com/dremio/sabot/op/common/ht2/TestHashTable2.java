@@ -21,6 +21,8 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Random;
 
 import org.apache.arrow.memory.BufferAllocator;
@@ -36,6 +38,8 @@ import com.dremio.common.util.Numbers;
 import com.dremio.exec.record.VectorContainer;
 import com.koloboke.collect.hash.HashConfig;
 
+import io.netty.buffer.ArrowBuf;
+
 public class TestHashTable2 {
 
   private int MAX_VALUES_PER_BATCH = 0;
@@ -438,4 +442,224 @@ public class TestHashTable2 {
       }
     }
   }
+
+  @Test
+  public void groupProbing() throws Exception {
+    MAX_VALUES_PER_BATCH = 4096;
+    groupProbingHelper();
+    MAX_VALUES_PER_BATCH = 990;
+    groupProbingHelper();
+  }
+
+  private void groupProbingHelper() throws Exception {
+    final Random random = new Random();
+    final String[] distinctStrings = new String[5000];
+    for (int i = 0; i < distinctStrings.length; i++) {
+      distinctStrings[i] = RandomStringUtils.randomAlphanumeric(8) + String.format("%05d", i);
+    }
+    final String[] col1Arr = new String[40000];
+    final Integer[] col2Arr = new Integer[col1Arr.length];
+    final String[] absentArr = new String[col1Arr.length];
+    for (int i = 0; i < col1Arr.length; i++) {
+      if (i % 13 != 0) {
+        col1Arr[i] = distinctStrings[random.nextInt(distinctStrings.length)];
+      }
+      if (i % 17 != 0) {
+        col2Arr[i] = random.nextInt(4);
+      }
+      absentArr[i] = "absent" + i;
+    }
+
+    // ordinals are given in order of first insertion, as there are no gaps without var width buffer limits
+    final Map<String, Integer> keyOrdinals = new HashMap<>();
+    final int[] expectedOrdinals = new int[col1Arr.length];
+    for (int i = 0; i < col1Arr.length; i++) {
+      final String key = col1Arr[i] + "|" + col2Arr[i];
+      Integer ordinal = keyOrdinals.get(key);
+      if (ordinal == null) {
+        ordinal = keyOrdinals.size();
+        keyOrdinals.put(key, ordinal);
+      }
+      expectedOrdinals[i] = ordinal;
+    }
+
+    try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         final VectorContainer c = new VectorContainer();) {
+
+      VarCharVector col1 = new VarCharVector("col1", allocator);
+      TestVarBinaryPivot.populate(col1, col1Arr);
+      c.add(col1);
+      IntVector col2 = new IntVector("col2", allocator);
+      TestIntPivot.populate(col2, col2Arr);
+      c.add(col2);
+      VarCharVector absent = new VarCharVector("absent", allocator);
+      TestVarBinaryPivot.populate(absent, absentArr);
+      c.add(absent);
+      final int records = c.setAllCount(col1Arr.length);
+      final PivotDef pivot = PivotBuilder.getBlockDefinition(
+          new FieldVectorPair(col1, col1),
+          new FieldVectorPair(col2, col2)
+      );
+      final PivotDef absentPivot = PivotBuilder.getBlockDefinition(
+          new FieldVectorPair(absent, absent),
+          new FieldVectorPair(col2, col2)
+      );
+      try (
+          final FixedBlockVector fbv = new FixedBlockVector(allocator, pivot.getBlockWidth());
+          final VariableBlockVector var = new VariableBlockVector(allocator, pivot.getVariableCount());
+          final FixedBlockVector absentFbv = new FixedBlockVector(allocator, absentPivot.getBlockWidth());
+          final VariableBlockVector absentVar = new VariableBlockVector(allocator, absentPivot.getVariableCount());) {
+
+        Pivots.pivot(pivot, records, fbv, var);
+        Pivots.pivot(absentPivot, records, absentFbv, absentVar);
+
+        try (LBlockHashTable bht = new LBlockHashTable(HashConfig.getDefault(), pivot, allocator,
+            200, 10, false, ResizeListener.NO_OP, MAX_VALUES_PER_BATCH, true);
+             SimpleBigIntVector hashValues = new SimpleBigIntVector("hashvalues", allocator);
+             SimpleBigIntVector absentHashValues = new SimpleBigIntVector("absenthashvalues", allocator)) {
+          final long keyFixedVectorAddr = fbv.getMemoryAddress();
+          final long keyVarVectorAddr = var.getMemoryAddress();
+
+          hashValues.allocateNew(records);
+          HashComputation.computeHash(new BlockChunk(keyFixedVectorAddr, keyVarVectorAddr, false,
+              pivot.getBlockWidth(), records, hashValues.getBufferAddress(), 0));
+          absentHashValues.allocateNew(records);
+          HashComputation.computeHash(new BlockChunk(absentFbv.getMemoryAddress(), absentVar.getMemoryAddress(), false,
+              absentPivot.getBlockWidth(), records, absentHashValues.getBufferAddress(), 0));
+
+          // the table grows several times while inserting
+          final int[] actualOrdinals = new int[records];
+          for (int keyIndex = 0; keyIndex < records; keyIndex++) {
+            final int keyHash = (int)hashValues.get(keyIndex);
+            actualOrdinals[keyIndex] = bht.add(keyFixedVectorAddr, keyVarVectorAddr, keyIndex, keyHash);
+          }
+          assertArrayEquals("ordinals mismatch", expectedOrdinals, actualOrdinals);
+          assertEquals("Absolute size mismatch", keyOrdinals.size(), bht.size());
+          assertTrue("Expected the table to grow", bht.getRehashCount() > 0);
+
+          for (int keyIndex = 0; keyIndex < records; keyIndex++) {
+            final int keyHash = (int)hashValues.get(keyIndex);
+            actualOrdinals[keyIndex] = bht.find(keyFixedVectorAddr, keyVarVectorAddr, keyIndex, keyHash);
+          }
+          assertArrayEquals("ordinals mismatch on find", expectedOrdinals, actualOrdinals);
+
+          for (int keyIndex = 0; keyIndex < records; keyIndex++) {
+            final int keyHash = (int)absentHashValues.get(keyIndex);
+            assertEquals(-1, bht.find(absentFbv.getMemoryAddress(), absentVar.getMemoryAddress(), keyIndex, keyHash));
+          }
+
+          // control and tag blocks are allocated for the whole capacity
+          final int capacityBeforeReset = bht.capacity();
+          final long tableSize = (long) capacityBeforeReset * (LBlockHashTable.CONTROL_WIDTH + 1);
+          assertTrue("Size of control and tag blocks not reported", bht.getSizeInBytes() >= tableSize);
+
+          // the table is usable again after a reset, which releases its blocks beyond the minimum capacity
+          final long allocatedBeforeReset = allocator.getAllocatedMemory();
+          bht.resetToMinimumSize();
+          assertEquals(0, bht.size());
+          assertTrue("Expected the table to shrink", bht.capacity() < capacityBeforeReset);
+          assertTrue("Control and tag blocks not released",
+              allocatedBeforeReset - allocator.getAllocatedMemory()
+                  >= (long) (capacityBeforeReset - bht.capacity()) * (LBlockHashTable.CONTROL_WIDTH + 1));
+          for (int keyIndex = 0; keyIndex < records; keyIndex++) {
+            final int keyHash = (int)hashValues.get(keyIndex);
+            actualOrdinals[keyIndex] = bht.add(keyFixedVectorAddr, keyVarVectorAddr, keyIndex, keyHash);
+          }
+          assertArrayEquals("ordinals mismatch after reset", expectedOrdinals, actualOrdinals);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void batchedAddAndFind() throws Exception {
+    MAX_VALUES_PER_BATCH = 4096;
+    batchedAddAndFindHelper(false);
+    batchedAddAndFindHelper(true);
+    MAX_VALUES_PER_BATCH = 990;
+    batchedAddAndFindHelper(false);
+    batchedAddAndFindHelper(true);
+  }
+
+  private void batchedAddAndFindHelper(boolean groupProbing) throws Exception {
+    final Random random = new Random();
+    final String[] col1Arr = new String[20000];
+    final Integer[] col2Arr = new Integer[col1Arr.length];
+    for (int i = 0; i < col1Arr.length; i++) {
+      if (i % 11 != 0) {
+        col1Arr[i] = "key" + random.nextInt(3000);
+      }
+      col2Arr[i] = random.nextInt(3);
+    }
+
+    try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         final VectorContainer c = new VectorContainer();) {
+
+      VarCharVector col1 = new VarCharVector("col1", allocator);
+      TestVarBinaryPivot.populate(col1, col1Arr);
+      c.add(col1);
+      IntVector col2 = new IntVector("col2", allocator);
+      TestIntPivot.populate(col2, col2Arr);
+      c.add(col2);
+      final int records = c.setAllCount(col1Arr.length);
+      final PivotDef pivot = PivotBuilder.getBlockDefinition(
+          new FieldVectorPair(col1, col1),
+          new FieldVectorPair(col2, col2)
+      );
+      try (
+          final FixedBlockVector fbv = new FixedBlockVector(allocator, pivot.getBlockWidth());
+          final VariableBlockVector var = new VariableBlockVector(allocator, pivot.getVariableCount());) {
+
+        Pivots.pivot(pivot, records, fbv, var);
+
+        try (LBlockHashTable expected = new LBlockHashTable(HashConfig.getDefault(), pivot, allocator,
+            200, 10, false, ResizeListener.NO_OP, MAX_VALUES_PER_BATCH, groupProbing);
+             LBlockHashTable bht = new LBlockHashTable(HashConfig.getDefault(), pivot, allocator,
+            200, 10, false, ResizeListener.NO_OP, MAX_VALUES_PER_BATCH, groupProbing);
+             SimpleBigIntVector hashValues = new SimpleBigIntVector("hashvalues", allocator);
+             ArrowBuf ordinals = allocator.buffer(col1Arr.length * 4)) {
+          final long keyFixedVectorAddr = fbv.getMemoryAddress();
+          final long keyVarVectorAddr = var.getMemoryAddress();
+
+          hashValues.allocateNew(records);
+          HashComputation.computeHash(new BlockChunk(keyFixedVectorAddr, keyVarVectorAddr, false,
+              pivot.getBlockWidth(), records, hashValues.getBufferAddress(), 0));
+
+          // find in an empty table, then insert half the keys, then all of them
+          bht.find(keyFixedVectorAddr, keyVarVectorAddr, hashValues.getBufferAddress(), records, ordinals.memoryAddress());
+          for (int keyIndex = 0; keyIndex < records; keyIndex++) {
+            assertEquals(-1, ordinals.getInt(keyIndex * 4));
+          }
+
+          final int[] expectedOrdinals = new int[records];
+          for (int keyIndex = 0; keyIndex < records; keyIndex++) {
+            final int keyHash = (int)hashValues.get(keyIndex);
+            expectedOrdinals[keyIndex] = expected.add(keyFixedVectorAddr, keyVarVectorAddr, keyIndex, keyHash);
+          }
+
+          bht.add(keyFixedVectorAddr, keyVarVectorAddr, hashValues.getBufferAddress(), records / 2, ordinals.memoryAddress());
+          bht.find(keyFixedVectorAddr, keyVarVectorAddr, hashValues.getBufferAddress(), records, ordinals.memoryAddress());
+          for (int keyIndex = 0; keyIndex < records; keyIndex++) {
+            final int firstIndex = indexOf(expectedOrdinals, expectedOrdinals[keyIndex]);
+            assertEquals(firstIndex < records / 2 ? expectedOrdinals[keyIndex] : -1, ordinals.getInt(keyIndex * 4));
+          }
+
+          bht.add(keyFixedVectorAddr, keyVarVectorAddr, hashValues.getBufferAddress(), records, ordinals.memoryAddress());
+          for (int keyIndex = 0; keyIndex < records; keyIndex++) {
+            assertEquals(expectedOrdinals[keyIndex], ordinals.getInt(keyIndex * 4));
+          }
+          assertEquals(expected.size(), bht.size());
+        }
+      }
+    }
+  }
+
+  private static int indexOf(int[] values, int value) {
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.common.ht2;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.SimpleBigIntVector;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import com.google.common.base.Stopwatch;
+import com.koloboke.collect.hash.HashConfig;
+
+import io.netty.buffer.ArrowBuf;
+
+/*
+ * Compare insertion and lookup times of LBlockHashTable with and without group probing, one key or a batch at a time.
+ * Ignoring test by default, since it can take very long to run.
+ */
+@Ignore
+public class TestHashTablePerf {
+  private static final int MAX_VALUES_PER_BATCH = 4096;
+  private static final int RECORDS = 1 << 22;
+  private static final int RUNS = 5;
+  private static final int BATCH_SIZE = 4096;
+
+  private void run(int distinctKeys) throws Exception {
+    final Random random = new Random(distinctKeys);
+    final Integer[] values = new Integer[RECORDS];
+    for (int i = 0; i < RECORDS; i++) {
+      values[i] = random.nextInt(distinctKeys);
+    }
+
+    try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         IntVector col = new IntVector("col", allocator)) {
+      TestIntPivot.populate(col, values);
+      final PivotDef pivot = PivotBuilder.getBlockDefinition(new FieldVectorPair(col, col));
+      try (FixedBlockVector fbv = new FixedBlockVector(allocator, pivot.getBlockWidth());
+           VariableBlockVector var = new VariableBlockVector(allocator, pivot.getVariableCount());
+           SimpleBigIntVector hashValues = new SimpleBigIntVector("hashvalues", allocator)) {
+        Pivots.pivot(pivot, RECORDS, fbv, var);
+        hashValues.allocateNew(RECORDS);
+        HashComputation.computeHash(new BlockChunk(fbv.getMemoryAddress(), var.getMemoryAddress(), true,
+          pivot.getBlockWidth(), RECORDS, hashValues.getBufferAddress(), 0));
+
+        for (int i = 0; i < RUNS; i++) {
+          runOne(allocator, pivot, fbv, var, hashValues, false, false, distinctKeys);
+          runOne(allocator, pivot, fbv, var, hashValues, true, false, distinctKeys);
+          runOne(allocator, pivot, fbv, var, hashValues, false, true, distinctKeys);
+          runOne(allocator, pivot, fbv, var, hashValues, true, true, distinctKeys);
+        }
+      }
+    }
+  }
+
+  private void runOne(BufferAllocator allocator, PivotDef pivot, FixedBlockVector fbv, VariableBlockVector var,
+                      SimpleBigIntVector hashValues, boolean groupProbing, boolean batched, int distinctKeys) throws Exception {
+    final long keyFixedVectorAddr = fbv.getMemoryAddress();
+    final long keyVarVectorAddr = var.getMemoryAddress();
+    try (LBlockHashTable bht = new LBlockHashTable(HashConfig.getDefault(), pivot, allocator, 16000, 10, false,
+        ResizeListener.NO_OP, MAX_VALUES_PER_BATCH, groupProbing);
+         ArrowBuf ordinals = allocator.buffer(BATCH_SIZE * LBlockHashTable.ORDINAL_SIZE)) {
+      final Stopwatch insertWatch = Stopwatch.createStarted();
+      if (batched) {
+        // keys are fixed width only, so a batch starts at its first fixed key
+        for (int start = 0; start < RECORDS; start += BATCH_SIZE) {
+          bht.add(keyFixedVectorAddr + start * pivot.getBlockWidth(), keyVarVectorAddr,
+            hashValues.getBufferAddress() + start * 8, BATCH_SIZE, ordinals.memoryAddress());
+        }
+      } else {
+        for (int keyIndex = 0; keyIndex < RECORDS; keyIndex++) {
+          bht.add(keyFixedVectorAddr, keyVarVectorAddr, keyIndex, (int) hashValues.get(keyIndex));
+        }
+      }
+      insertWatch.stop();
+
+      final Stopwatch findWatch = Stopwatch.createStarted();
+      if (batched) {
+        for (int start = 0; start < RECORDS; start += BATCH_SIZE) {
+          bht.find(keyFixedVectorAddr + start * pivot.getBlockWidth(), keyVarVectorAddr,
+            hashValues.getBufferAddress() + start * 8, BATCH_SIZE, ordinals.memoryAddress());
+        }
+      } else {
+        for (int keyIndex = 0; keyIndex < RECORDS; keyIndex++) {
+          bht.find(keyFixedVectorAddr, keyVarVectorAddr, keyIndex, (int) hashValues.get(keyIndex));
+        }
+      }
+      findWatch.stop();
+
+      System.out.println("group probing " + groupProbing + " batched " + batched + " for " + distinctKeys + " distinct keys:" +
+        " insert : " + insertWatch.elapsed(TimeUnit.MILLISECONDS) + "ms" +
+        " find : " + findWatch.elapsed(TimeUnit.MILLISECONDS) + "ms" +
+        " rehash : " + bht.getRehashTime(TimeUnit.MILLISECONDS) + "ms");
+    }
+  }
+
+  @Test
+  public void fewKeys() throws Exception {
+    run(1 << 10);
+  }
+
+  @Test
+  public void manyKeys() throws Exception {
+    run(1 << 20);
+  }
+
+  @Test
+  public void mostlyDistinctKeys() throws Exception {
+    run(RECORDS);
+  }
+}
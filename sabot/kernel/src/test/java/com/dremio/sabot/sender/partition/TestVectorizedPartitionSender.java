@@ -37,8 +37,10 @@ import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
 import com.dremio.exec.record.FragmentWritableBatch;
 import com.dremio.sabot.BaseTestOperator;
 import com.dremio.sabot.CustomGenerator;
+import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.exec.rpc.AccountingExecTunnel;
 import com.dremio.sabot.exec.rpc.TunnelProvider;
+import com.dremio.sabot.op.sender.partition.PartitionSenderOperator.Metric;
 import com.dremio.sabot.op.sender.partition.vectorized.VectorizedPartitionSenderOperator;
 
 import io.netty.buffer.ByteBuf;
@@ -102,6 +104,22 @@ public class TestVectorizedPartitionSender extends BaseTestOperator {
       sum += rowCountPerFragment[i];
     }
     assertEquals(NUM_ROWS, sum);
+
+    final OperatorStats stats = op.getOperatorContext().getStats();
+    int min = Integer.MAX_VALUE;
+    int max = 0;
+    int maxFragment = -1;
+    for (int i = 0; i < NUM_FRAGMENTS; i++) {
+      min = Math.min(min, rowCountPerFragment[i]);
+      if (rowCountPerFragment[i] > max) {
+        max = rowCountPerFragment[i];
+        maxFragment = i;
+      }
+    }
+    assertEquals(min, stats.getLongStat(Metric.MIN_RECORDS));
+    assertEquals(max, stats.getLongStat(Metric.MAX_RECORDS));
+    assertEquals(maxFragment, stats.getLongStat(Metric.MAX_RECORDS_RECEIVER));
+    assertEquals(max * NUM_FRAGMENTS * 100 / NUM_ROWS, stats.getLongStat(Metric.SKEW_RATIO));
   }
 
   public List<MinorFragmentEndpoint> getEndpoints() {
@@ -16,6 +16,7 @@
 package com.dremio.service.reflection;
 
 import java.util.ArrayDeque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
@@ -96,6 +97,49 @@ public class DependencyGraph {
     return subGraph;
   }
 
+  /**
+   * @return all the reflections the given reflection depends on, directly or transitively
+   */
+  synchronized Set<ReflectionId> getUpstreamReflections(final ReflectionId reflectionId) {
+    final Set<ReflectionId> upstream = Sets.newHashSet();
+    final Queue<ReflectionId> queue = new ArrayDeque<>();
+    queue.add(reflectionId);
+
+    while (!queue.isEmpty()) {
+      for (DependencyEntry entry : predecessors.get(queue.remove())) {
+        if (entry.getType() == DependencyType.REFLECTION) {
+          final ReflectionId predecessor = ((ReflectionDependency) entry).getReflectionId();
+          if (upstream.add(predecessor)) {
+            queue.add(predecessor);
+          }
+        }
+      }
+    }
+
+    return upstream;
+  }
+
+  /**
+   * @return length of the longest chain of reflections depending on the given reflection, 0 if no reflection depends
+   * on it
+   */
+  synchronized int getDownstreamDepth(final ReflectionId reflectionId) {
+    return getDownstreamDepth(reflectionId, new HashMap<ReflectionId, Integer>());
+  }
+
+  private int getDownstreamDepth(ReflectionId reflectionId, Map<ReflectionId, Integer> depths) {
+    Integer depth = depths.get(reflectionId);
+    if (depth == null) {
+      // the graph has no cycle
+      depth = 0;
+      for (ReflectionId successor : successors.get(reflectionId)) {
+        depth = Math.max(depth, 1 + getDownstreamDepth(successor, depths));
+      }
+      depths.put(reflectionId, depth);
+    }
+    return depth;
+  }
+
   private synchronized void setPredecessors(final ReflectionId reflectionId, Set<DependencyEntry> dependencies) throws DependencyException {
     // make sure we are not causing any cyclic dependency.
     // if reflectionId depends on reflectionId' and reflectionId' is in reflectionId sub-graph
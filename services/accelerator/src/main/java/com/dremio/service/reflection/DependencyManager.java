@@ -328,6 +328,20 @@ public class DependencyManager {
     return graph.getPredecessors(reflectionId);
   }
 
+  /**
+   * @return all the reflections the given reflection depends on, directly or transitively
+   */
+  Set<ReflectionId> getUpstreamReflections(final ReflectionId reflectionId) {
+    return graph.getUpstreamReflections(reflectionId);
+  }
+
+  /**
+   * @return length of the longest chain of reflections depending on the given reflection
+   */
+  int getDownstreamDepth(final ReflectionId reflectionId) {
+    return graph.getDownstreamDepth(reflectionId);
+  }
+
   public void setDependencies(final ReflectionId reflectionId, ExtractedDependencies extracted) throws DependencyException {
     Preconditions.checkState(!extracted.isEmpty(), "expected non empty dependencies");
 
@@ -15,12 +15,15 @@
  */
 package com.dremio.service.reflection;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.JoinRelType;
 import org.apache.calcite.rel.core.TableScan;
 import org.apache.calcite.rel.logical.LogicalAggregate;
 import org.apache.calcite.rel.logical.LogicalFilter;
+import org.apache.calcite.rel.logical.LogicalJoin;
 import org.apache.calcite.rel.logical.LogicalProject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,13 +62,61 @@ public class IncrementalUpdateUtils {
       public RelNode visit(TableScan tableScan) {
         List<String> tablePath = tableScan.getTable().getQualifiedName();
         final AccelerationSettings settings = reflectionSettings.getReflectionSettings(new NamespaceKey(tablePath));
-        refreshField.value = settings.getRefreshField();
+        if (settings.getMethod() == RefreshMethod.INCREMENTAL) {
+          refreshField.value = settings.getRefreshField();
+        }
         return tableScan;
       }
     });
     return refreshField.value;
   }
 
+  /**
+   * Find the incrementally refreshed table of a plan that joins it with dimension tables.
+   *
+   * @return path of the incrementally refreshed table, null if the plan has no join
+   */
+  public static List<String> findRefreshTable(RelNode normalizedPlan, final ReflectionSettings reflectionSettings) {
+    final Pointer<List<String>> refreshTable = new Pointer<>();
+    final Pointer<Boolean> hasJoin = new Pointer<>(false);
+    normalizedPlan.accept(new StatelessRelShuttleImpl() {
+      @Override
+      public RelNode visit(LogicalJoin join) {
+        hasJoin.value = true;
+        return super.visit(join);
+      }
+
+      @Override
+      public RelNode visit(TableScan tableScan) {
+        List<String> tablePath = tableScan.getTable().getQualifiedName();
+        if (reflectionSettings.getReflectionSettings(new NamespaceKey(tablePath)).getMethod() == RefreshMethod.INCREMENTAL) {
+          refreshTable.value = tablePath;
+        }
+        return tableScan;
+      }
+    });
+    return hasJoin.value ? refreshTable.value : null;
+  }
+
+  /**
+   * Find the dimension tables of a plan, the tables which are not incrementally refreshed and are fully read on each
+   * refresh.
+   */
+  public static List<NamespaceKey> findDimensionTables(RelNode normalizedPlan, final ReflectionSettings reflectionSettings) {
+    final List<NamespaceKey> dimensionTables = new ArrayList<>();
+    normalizedPlan.accept(new StatelessRelShuttleImpl() {
+      @Override
+      public RelNode visit(TableScan tableScan) {
+        final NamespaceKey tablePath = new NamespaceKey(tableScan.getTable().getQualifiedName());
+        if (reflectionSettings.getReflectionSettings(tablePath).getMethod() != RefreshMethod.INCREMENTAL) {
+          dimensionTables.add(tablePath);
+        }
+        return tableScan;
+      }
+    });
+    return dimensionTables;
+  }
+
   /**
    * Check if a plan can support incremental update
    */
@@ -77,8 +128,13 @@ public class IncrementalUpdateUtils {
 
   /**
    * Visitor that checks if a logical plan can support incremental update. The supported pattern right now is a plan
-   * that contains only Filters, Projects, Scans, and Aggregates. There can only be one Aggregate in the plan, and the
-   * Scan most support incremental update.
+   * that contains only Filters, Projects, Scans, Aggregates and Joins. There can only be one Aggregate in the plan, and
+   * the Scan most support incremental update.
+   *
+   * Joins are supported when one input reads the incrementally updated table, and the other input only reads (using
+   * Filters and Projects) dimension tables which are not incrementally updated: the new rows of the incrementally
+   * updated table are joined with the whole dimension tables. The outer side of outer joins must be the incrementally
+   * updated input.
    */
   private static class IncrementalChecker extends RoutingShuttle {
     private final ReflectionSettings reflectionSettings;
@@ -140,6 +196,70 @@ public class IncrementalUpdateUtils {
     public RelNode visit(LogicalFilter filter) {
       return visitChild(filter, 0, filter.getInput());
     }
+
+    @Override
+    public RelNode visit(LogicalJoin join) {
+      final boolean leftIncremental = hasIncrementalScan(join.getLeft());
+      final boolean rightIncremental = hasIncrementalScan(join.getRight());
+      final JoinRelType outerType = leftIncremental ? JoinRelType.LEFT : JoinRelType.RIGHT;
+      if (leftIncremental == rightIncremental
+          || (join.getJoinType() != JoinRelType.INNER && join.getJoinType() != outerType)) {
+        return visit((RelNode) join);
+      }
+
+      final RelNode dimension = leftIncremental ? join.getRight() : join.getLeft();
+      final DimensionChecker dimensionChecker = new DimensionChecker();
+      dimension.accept(dimensionChecker);
+      if (dimensionChecker.unsupportedOperator != null) {
+        return visit(dimensionChecker.unsupportedOperator);
+      }
+
+      return leftIncremental ? visitChild(join, 0, join.getLeft()) : visitChild(join, 1, join.getRight());
+    }
+
+    private boolean hasIncrementalScan(RelNode input) {
+      final Pointer<Boolean> incremental = new Pointer<>(false);
+      input.accept(new StatelessRelShuttleImpl() {
+        @Override
+        public RelNode visit(TableScan tableScan) {
+          List<String> tablePath = tableScan.getTable().getQualifiedName();
+          final AccelerationSettings settings = reflectionSettings.getReflectionSettings(new NamespaceKey(tablePath));
+          incremental.value |= settings.getMethod() == RefreshMethod.INCREMENTAL;
+          return tableScan;
+        }
+      });
+      return incremental.value;
+    }
+  }
+
+  /**
+   * Visitor that checks that the dimension side of a join only contains Filters, Projects and Scans.
+   */
+  private static class DimensionChecker extends RoutingShuttle {
+    private RelNode unsupportedOperator = null;
+
+    @Override
+    public RelNode visit(RelNode other) {
+      if (unsupportedOperator == null) {
+        unsupportedOperator = other;
+      }
+      return other;
+    }
+
+    @Override
+    public RelNode visit(TableScan tableScan) {
+      return tableScan;
+    }
+
+    @Override
+    public RelNode visit(LogicalProject project) {
+      return visitChild(project, 0, project.getInput());
+    }
+
+    @Override
+    public RelNode visit(LogicalFilter filter) {
+      return visitChild(filter, 0, filter.getInput());
+    }
   }
 
 }
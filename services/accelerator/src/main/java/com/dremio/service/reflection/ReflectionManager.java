@@ -20,6 +20,7 @@ import static com.dremio.exec.ExecConstants.LAYOUT_REFRESH_MAX_ATTEMPTS;
 import static com.dremio.service.reflection.ReflectionOptions.COMPACTION_TRIGGER_FILE_SIZE;
 import static com.dremio.service.reflection.ReflectionOptions.COMPACTION_TRIGGER_NUMBER_FILES;
 import static com.dremio.service.reflection.ReflectionOptions.ENABLE_COMPACTION;
+import static com.dremio.service.reflection.ReflectionOptions.MAX_CONCURRENT_REFRESHES;
 import static com.dremio.service.reflection.ReflectionOptions.REFLECTION_DELETION_GRACE_PERIOD;
 import static com.dremio.service.reflection.ReflectionOptions.REFLECTION_DELETION_NUM_ENTRIES;
 import static com.dremio.service.reflection.ReflectionUtils.computeDataPartitions;
@@ -36,7 +37,9 @@ import static com.dremio.service.reflection.proto.ReflectionState.REFRESHING;
 import static com.dremio.service.reflection.proto.ReflectionState.UPDATE;
 import static com.dremio.service.users.SystemUser.SYSTEM_USERNAME;
 
+import java.util.ArrayList;
 import java.util.ConcurrentModificationException;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -97,6 +100,7 @@ import com.google.common.collect.Iterables;
 /**
  * Manages reflections, excluding external reflections, by observing changes to the reflection goals, datasets, materialization
  * jobs and executing the appropriate handling logic sequentially.
+ * The refreshes are started in dependency order, and run concurrently as decided by the {@link RefreshScheduler}.
  */
 public class ReflectionManager implements Runnable {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ReflectionManager.class);
@@ -130,6 +134,7 @@ public class ReflectionManager implements Runnable {
   private final WakeUpCallback wakeUpCallback;
   private final Supplier<ExpansionHelper> expansionHelper;
   private final Path accelerationBasePath;
+  private final RefreshScheduler refreshScheduler;
 
   private long lastWakeupTime;
 
@@ -156,6 +161,7 @@ public class ReflectionManager implements Runnable {
     final FileSystemPlugin accelerationPlugin = sabotContext.getCatalogService()
       .getSource(ReflectionServiceImpl.ACCELERATOR_STORAGEPLUGIN_NAME);
     accelerationBasePath = accelerationPlugin.getConfig().getPath();
+    refreshScheduler = new RefreshScheduler(dependencyManager);
   }
 
   @Override
@@ -251,20 +257,58 @@ public class ReflectionManager implements Runnable {
   }
 
   /**
-   * 2nd pass: go through the reflection store
+   * 2nd pass: go through the reflection store.<br>
+   * All the entries not due for refresh are handled first, so that the jobs done during this pass are accounted for
+   * when deciding which refreshes to start
    */
   private void handleEntries() {
     final long noDependencyRefreshPeriodMs = optionManager.getOption(ReflectionOptions.NO_DEPENDENCY_REFRESH_PERIOD_SECONDS) * 1000;
+    final int maxConcurrentRefreshes = (int) optionManager.getOption(MAX_CONCURRENT_REFRESHES);
 
+    final List<ReflectionEntry> dueForRefresh = new ArrayList<>();
+    final Set<ReflectionId> running = new HashSet<>();
     Iterable<ReflectionEntry> entries = reflectionStore.find();
     for (ReflectionEntry entry : entries) {
       try {
-        handleEntry(entry, noDependencyRefreshPeriodMs);
+        if (isDueForRefresh(entry, noDependencyRefreshPeriodMs)) {
+          dueForRefresh.add(entry);
+          continue;
+        }
+        handleEntry(entry);
+        if (isRunning(entry.getState())) {
+          running.add(entry.getId());
+        }
       } catch (Exception e) {
         logger.error("Couldn't handle reflection entry {}", entry.getId().getId(), e);
         reportFailure(entry, entry.getState());
       }
     }
+
+    for (ReflectionEntry entry : refreshScheduler.schedule(dueForRefresh, running, maxConcurrentRefreshes)) {
+      try {
+        refresh(entry);
+      } catch (Exception e) {
+        logger.error("Couldn't refresh reflection entry {}", entry.getId().getId(), e);
+        reportFailure(entry, entry.getState());
+      }
+    }
+  }
+
+  private boolean isDueForRefresh(ReflectionEntry entry, long noDependencyRefreshPeriodMs) {
+    switch (entry.getState()) {
+      case UPDATE:
+      case REFRESH:
+        return true;
+      case ACTIVE:
+        // only refresh ACTIVE reflections when they are due for refresh
+        return dependencyManager.shouldRefresh(entry.getId(), noDependencyRefreshPeriodMs);
+      default:
+        return false;
+    }
+  }
+
+  private static boolean isRunning(ReflectionState state) {
+    return state == REFRESHING || state == METADATA_REFRESH || state == COMPACTING;
   }
 
   private void handleDeletedDatasets() {
@@ -279,7 +323,7 @@ public class ReflectionManager implements Runnable {
     }
   }
 
-  private void handleEntry(ReflectionEntry entry, final long noDependencyRefreshPeriodMs) {
+  private void handleEntry(ReflectionEntry entry) {
     final ReflectionState state = entry.getState();
     switch (state) {
       case FAILED:
@@ -292,17 +336,9 @@ public class ReflectionManager implements Runnable {
         handleRefreshingEntry(entry);
         break;
       case UPDATE:
-        deprecateMaterializations(entry);
-        startRefresh(entry);
-        break;
       case ACTIVE:
-        if (!dependencyManager.shouldRefresh(entry.getId(), noDependencyRefreshPeriodMs)) {
-          // only refresh ACTIVE reflections when they are due for refresh
-          break;
-        }
       case REFRESH:
-        logger.info("reflection {} is due for refresh", getId(entry));
-        startRefresh(entry);
+        // refreshes are started once all the entries are handled
         break;
       case DEPRECATE:
         deprecateMaterializations(entry);
@@ -313,6 +349,15 @@ public class ReflectionManager implements Runnable {
     }
   }
 
+  private void refresh(ReflectionEntry entry) {
+    if (entry.getState() == UPDATE) {
+      deprecateMaterializations(entry);
+    } else {
+      logger.info("reflection {} is due for refresh", getId(entry));
+    }
+    startRefresh(entry);
+  }
+
   /**
    * handles entry in REFRESHING/METADATA_REFRESH state
    */
@@ -359,6 +404,7 @@ public class ReflectionManager implements Runnable {
         materializationStore.save(m);
         entry.setState(ACTIVE);
         reflectionStore.save(entry);
+        refreshScheduler.refreshFailed(entry.getId());
         break;
       case FAILED:
         logger.debug("job {} for materialization {} failed", job.getJobId().getId(), getId(m));
@@ -464,6 +510,7 @@ public class ReflectionManager implements Runnable {
     logger.debug("deleting reflection {}", getId(entry));
     reflectionStore.delete(entry.getId());
     dependencyManager.delete(entry.getId());
+    refreshScheduler.delete(entry.getId());
   }
 
   private void deleteMaterialization(Materialization materialization) {
@@ -531,6 +578,7 @@ public class ReflectionManager implements Runnable {
       materialization.setState(MaterializationState.DONE);
       entry.setState(ACTIVE)
         .setNumFailures(0);
+      refreshScheduler.refreshDone(entry.getId(), now);
     }
   }
 
@@ -587,6 +635,7 @@ public class ReflectionManager implements Runnable {
       // but if we really fail to handle a successful refresh job for 3 times in a row, the entry is in a bad state
       entry.setRefreshMethod(decision.getAccelerationSettings().getMethod())
         .setRefreshField(decision.getAccelerationSettings().getRefreshField())
+        .setRefreshTableList(decision.getRefreshTableList())
         .setDatasetHash(decision.getDatasetHash())
         .setDontGiveUp(dependencyManager.dontGiveUp(entry.getId()));
     } catch (Exception | AssertionError e) {
@@ -785,6 +834,7 @@ public class ReflectionManager implements Runnable {
 
   private void startRefresh(ReflectionEntry entry) {
     final long jobSubmissionTime = System.currentTimeMillis();
+    final long previousSubmission = entry.getLastSubmittedRefresh() == null ? 0 : entry.getLastSubmittedRefresh();
     // we should always update lastSubmittedRefresh to avoid an immediate refresh if we fail to start a refresh job
     entry.setLastSubmittedRefresh(jobSubmissionTime);
 
@@ -800,6 +850,7 @@ public class ReflectionManager implements Runnable {
       entry.setState(REFRESHING)
         .setRefreshJobId(refreshJobId);
       reflectionStore.save(entry);
+      refreshScheduler.refreshStarted(entry.getId(), previousSubmission, jobSubmissionTime);
 
       logger.debug("Started job {} to materialize reflection {}", refreshJobId.getId(), entry.getId().getId());
     } catch (Exception | AssertionError e) {
@@ -817,6 +868,7 @@ public class ReflectionManager implements Runnable {
   }
 
   private void reportFailure(ReflectionEntry entry, ReflectionState newState) {
+    refreshScheduler.refreshFailed(entry.getId());
     if (entry.getDontGiveUp()) {
       logger.debug("ignoring failure on reflection {} as it is marked as don't give up", getId(entry));
       entry.setState(newState)
@@ -50,6 +50,8 @@ public interface ReflectionOptions {
   BooleanValidator REFLECTION_ENABLE_SUBSTITUTION = new BooleanValidator("reflection.enable.substitutions", true);
   // if a reflection has no known dependencies how long should we wait before we attempt to refresh again
   PositiveLongValidator NO_DEPENDENCY_REFRESH_PERIOD_SECONDS = new PositiveLongValidator("reflection.no_dependency.refresh_period_seconds", Long.MAX_VALUE, TimeUnit.MINUTES.toSeconds(30));
+  // maximum number of reflection jobs (refresh, metadata refresh and compaction) the reflection manager runs at the same time
+  PositiveLongValidator MAX_CONCURRENT_REFRESHES = new PositiveLongValidator("reflection.manager.max_concurrent_refreshes", Integer.MAX_VALUE, 10);
   // should compaction be enabled
   BooleanValidator ENABLE_COMPACTION = new BooleanValidator("reflection.compaction.enabled", false);
   // at least how many files there should be to trigger compaction
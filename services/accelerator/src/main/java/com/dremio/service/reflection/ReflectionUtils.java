@@ -71,6 +71,7 @@ import com.dremio.service.namespace.dataset.DatasetVersion;
 import com.dremio.service.namespace.dataset.proto.DatasetConfig;
 import com.dremio.service.namespace.dataset.proto.DatasetType;
 import com.dremio.service.namespace.dataset.proto.ParentDataset;
+import com.dremio.service.namespace.dataset.proto.ReadDefinition;
 import com.dremio.service.namespace.dataset.proto.RefreshMethod;
 import com.dremio.service.namespace.dataset.proto.ViewFieldType;
 import com.dremio.service.reflection.proto.DataPartition;
@@ -142,6 +143,25 @@ public class ReflectionUtils {
     return hash;
   }
 
+  /**
+   * Computes a hash of the dimension tables joined with an incrementally refreshed table, from their read signatures,
+   * to detect when they change.
+   *
+   * @return the hash, or null if the changes of one of the dimension tables cannot be detected
+   */
+  public static Integer computeDimensionsHash(List<NamespaceKey> dimensionTables, NamespaceService namespaceService)
+      throws NamespaceException {
+    int hash = 1;
+    for (NamespaceKey table : dimensionTables) {
+      final ReadDefinition readDefinition = namespaceService.getDataset(table).getReadDefinition();
+      if (readDefinition == null || readDefinition.getReadSignature() == null) {
+        return null;
+      }
+      hash = 31 * hash + readDefinition.getReadSignature().hashCode();
+    }
+    return hash;
+  }
+
   public static Job submitRefreshJob(JobsService jobsService, NamespaceService namespaceService, ReflectionEntry entry,
       Materialization materialization, String sql, JobStatusListener jobStatusListener) {
     final SqlQuery query = new SqlQuery(sql, SYSTEM_USERNAME);
@@ -214,7 +234,8 @@ public class ReflectionUtils {
       double originalCost) {
     final IncrementalUpdateSettings updateSettings = new IncrementalUpdateSettings(
       reflectionEntry.getRefreshMethod() == RefreshMethod.INCREMENTAL,
-      reflectionEntry.getRefreshField());
+      reflectionEntry.getRefreshField(),
+      CollectionUtils.isEmpty(reflectionEntry.getRefreshTableList()) ? null : reflectionEntry.getRefreshTableList());
     return new MaterializationDescriptor(
       toReflectionInfo(reflectionGoal),
       materialization.getId().getId(),
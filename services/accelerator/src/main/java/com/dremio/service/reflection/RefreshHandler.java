@@ -62,6 +62,7 @@ import com.dremio.exec.store.sys.accel.AccelerationManager.ExcludedReflectionsPr
 import com.dremio.exec.work.AttemptId;
 import com.dremio.options.OptionManager;
 import com.dremio.service.job.proto.ScanPath;
+import com.dremio.service.namespace.NamespaceException;
 import com.dremio.service.namespace.NamespaceKey;
 import com.dremio.service.namespace.NamespaceService;
 import com.dremio.service.namespace.dataset.proto.AccelerationSettings;
@@ -82,6 +83,7 @@ import com.dremio.service.reflection.proto.Refresh;
 import com.dremio.service.reflection.proto.RefreshDecision;
 import com.dremio.service.reflection.store.MaterializationStore;
 import com.dremio.service.users.SystemUser;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Function;
 import com.google.common.base.Objects;
 import com.google.common.base.Optional;
@@ -388,7 +390,8 @@ public class RefreshHandler implements SqlToPlanHandler {
    * Determine whether the provided materialization will be a partial or a full along with associated updateId, seriesId, etc.
    * @return The refresh decisions made
    */
-  private RefreshDecision getRefreshDecision(ReflectionEntry entry, Materialization materialization,
+  @VisibleForTesting
+  static RefreshDecision getRefreshDecision(ReflectionEntry entry, Materialization materialization,
       ReflectionSettings reflectionSettings, NamespaceService namespace, MaterializationStore materializationStore,
       RelNode normalizedPlan, Iterable<DremioTable> requestedTables) {
 
@@ -399,6 +402,28 @@ public class RefreshHandler implements SqlToPlanHandler {
     // We load settings here to determine what type of update we need to do (full or incremental)
     final AccelerationSettings settings = IncrementalUpdateUtils.extractRefreshSettings(normalizedPlan, reflectionSettings);
 
+    // for incremental refreshes of a table joined with dimension tables, the new rows are joined with the whole dimension
+    // tables, which must then not change between refreshes
+    Integer dimensionsHash = null;
+    if (settings.getMethod() == RefreshMethod.INCREMENTAL) {
+      final List<String> refreshTable = IncrementalUpdateUtils.findRefreshTable(normalizedPlan, reflectionSettings);
+      if (refreshTable != null) {
+        try {
+          dimensionsHash = ReflectionUtils.computeDimensionsHash(
+            IncrementalUpdateUtils.findDimensionTables(normalizedPlan, reflectionSettings), namespace);
+        } catch (NamespaceException e) {
+          logger.debug("Couldn't find the dimension tables of reflection {}", ReflectionUtils.getId(entry), e);
+        }
+        if (dimensionsHash == null) {
+          logger.trace("Changes of the dimension tables cannot be detected, doing a full refresh.");
+          settings.setMethod(RefreshMethod.FULL)
+            .setRefreshField(null);
+        } else {
+          decision.setRefreshTableList(refreshTable);
+        }
+      }
+    }
+
     decision.setAccelerationSettings(settings);
 
     if (requestedTables != null && !Iterables.isEmpty(requestedTables)) {
@@ -428,7 +453,9 @@ public class RefreshHandler implements SqlToPlanHandler {
 
     try {
       final DatasetConfig dataset = namespace.findDatasetByUUID(entry.getDatasetId());
-      decision.setDatasetHash(ReflectionUtils.computeDatasetHash(dataset, namespace));
+      final Integer datasetHash = ReflectionUtils.computeDatasetHash(dataset, namespace);
+      // a change of the dimension tables also requires an initial refresh
+      decision.setDatasetHash(dimensionsHash == null ? datasetHash : 31 * datasetHash + dimensionsHash);
     } catch (Exception e) {
       throw UserException.validationError()
         .message("Couldn't expand a materialized view on a non existing dataset")
@@ -450,7 +477,8 @@ public class RefreshHandler implements SqlToPlanHandler {
     }
 
     // if the refresh settings changed, do an initial refresh.
-    if (entry.getRefreshMethod() != settings.getMethod() || !Objects.equal(entry.getRefreshField(), settings.getRefreshField())) {
+    if (entry.getRefreshMethod() != settings.getMethod() || !Objects.equal(entry.getRefreshField(), settings.getRefreshField())
+        || !Objects.equal(entry.getRefreshTableList(), decision.getRefreshTableList())) {
       logger.trace("Change in refresh method, doing an initial refresh.");
       return decision.setInitialRefresh(true)
           .setUpdateId(Long.MIN_VALUE)
@@ -476,14 +504,14 @@ public class RefreshHandler implements SqlToPlanHandler {
 
   private static RelShuttle getShuttle(RefreshDecision decision) {
     Preconditions.checkArgument(useShuttle(decision));
-    return getShuttle(decision.getAccelerationSettings(), decision.getUpdateId());
+    return getShuttle(decision.getAccelerationSettings(), decision.getRefreshTableList(), decision.getUpdateId());
   }
 
-  public static RelShuttle getShuttle(AccelerationSettings settings, long updateId) {
+  public static RelShuttle getShuttle(AccelerationSettings settings, List<String> refreshTable, long updateId) {
     if (settings.getRefreshField() != null) {
-      return new ColumnMaterializationShuttle(settings.getRefreshField(), updateId);
+      return new ColumnMaterializationShuttle(settings.getRefreshField(), refreshTable, updateId);
     } else {
-      return new FileMaterializationShuttle(updateId);
+      return new FileMaterializationShuttle(refreshTable, updateId);
     }
   }
 
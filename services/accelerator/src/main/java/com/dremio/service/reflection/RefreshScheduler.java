@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.reflection;
+
+import static com.dremio.service.reflection.DependencyUtils.filterReflectionDependencies;
+import static com.dremio.service.reflection.ReflectionUtils.getId;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.dremio.metrics.Metrics;
+import com.dremio.service.reflection.DependencyEntry.ReflectionDependency;
+import com.dremio.service.reflection.proto.ReflectionEntry;
+import com.dremio.service.reflection.proto.ReflectionId;
+import com.google.common.base.Preconditions;
+
+/**
+ * Decides which of the reflections due for refresh the {@link ReflectionManager} refreshes now.
+ *
+ * Reflections are refreshed upstream first: a reflection is not refreshed while a reflection it depends on, directly or
+ * transitively, is being refreshed or is also due for refresh, as it would need to be refreshed again once the upstream
+ * materialization lands. As the manager is woken up when the upstream jobs are done, the downstream refreshes start as
+ * soon as the upstream materializations are available.
+ *
+ * Independent reflections are refreshed concurrently, up to a maximum number of running jobs, starting with the
+ * reflections heading the longest chains of dependent reflections (the critical path), then the least recently
+ * refreshed ones.
+ *
+ * The scheduler also tracks the critical path latency of the refreshes: the time between the start of a refresh and
+ * the completion of the refresh of the last reflection of its chain of dependent reflections.
+ */
+class RefreshScheduler {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(RefreshScheduler.class);
+
+  private final DependencyManager dependencyManager;
+  private final Histogram criticalPathLatency;
+
+  // only accessed by the reflection manager thread
+  // start of the chain of refreshes which led to the refresh of each reflection being refreshed
+  private final Map<ReflectionId, Long> runningChains = new HashMap<>();
+  // chain of refreshes which led to the last successful refresh of each reflection
+  private final Map<ReflectionId, RefreshChain> landedChains = new HashMap<>();
+
+  RefreshScheduler(DependencyManager dependencyManager) {
+    this.dependencyManager = Preconditions.checkNotNull(dependencyManager, "dependency manager required");
+    this.criticalPathLatency = Metrics.getInstance().histogram(
+      MetricRegistry.name("reflections", "refresh", "critical_path_ms"));
+  }
+
+  /**
+   * @param due reflections due for refresh
+   * @param running reflections with a running job (refresh, metadata refresh or compaction)
+   * @param maxRunning maximum number of reflections with a running job
+   * @return reflections to refresh now, in the order they should be started
+   */
+  List<ReflectionEntry> schedule(List<ReflectionEntry> due, Set<ReflectionId> running, int maxRunning) {
+    final Set<ReflectionId> pending = new HashSet<>(running);
+    for (ReflectionEntry entry : due) {
+      pending.add(entry.getId());
+    }
+
+    final List<ReflectionEntry> ready = new ArrayList<>();
+    final Map<ReflectionId, Integer> depths = new HashMap<>();
+    for (ReflectionEntry entry : due) {
+      if (Collections.disjoint(dependencyManager.getUpstreamReflections(entry.getId()), pending)) {
+        ready.add(entry);
+        depths.put(entry.getId(), dependencyManager.getDownstreamDepth(entry.getId()));
+      } else {
+        logger.debug("reflection {} waits for the refresh of the reflections it depends on", getId(entry));
+      }
+    }
+
+    Collections.sort(ready, new Comparator<ReflectionEntry>() {
+      @Override
+      public int compare(ReflectionEntry e1, ReflectionEntry e2) {
+        final int byDepth = Integer.compare(depths.get(e2.getId()), depths.get(e1.getId()));
+        if (byDepth != 0) {
+          return byDepth;
+        }
+        return Long.compare(lastSubmittedRefresh(e1), lastSubmittedRefresh(e2));
+      }
+    });
+
+    final int available = Math.max(0, maxRunning - running.size());
+    if (ready.size() > available) {
+      logger.debug("{} reflections due for refresh wait for one of the {} running reflection jobs to be done",
+        ready.size() - available, running.size());
+      return ready.subList(0, available);
+    }
+    return ready;
+  }
+
+  private static long lastSubmittedRefresh(ReflectionEntry entry) {
+    return entry.getLastSubmittedRefresh() == null ? 0 : entry.getLastSubmittedRefresh();
+  }
+
+  /**
+   * Called when the refresh of a reflection was started.
+   *
+   * @param previousSubmission time the previous refresh of the reflection was submitted
+   */
+  void refreshStarted(ReflectionId reflectionId, long previousSubmission, long now) {
+    // the refresh belongs to the chains of the reflections it depends on that landed since its previous refresh
+    long chainStart = now;
+    for (ReflectionDependency dependency : filterReflectionDependencies(dependencyManager.getDependencies(reflectionId))) {
+      final RefreshChain landed = landedChains.get(dependency.getReflectionId());
+      if (landed != null && landed.end > previousSubmission) {
+        chainStart = Math.min(chainStart, landed.start);
+      }
+    }
+    runningChains.put(reflectionId, chainStart);
+  }
+
+  /**
+   * Called when the materialization of a reflection landed.
+   */
+  void refreshDone(ReflectionId reflectionId, long now) {
+    final Long chainStart = runningChains.remove(reflectionId);
+    if (chainStart == null) {
+      // refresh started before the manager started
+      return;
+    }
+
+    landedChains.put(reflectionId, new RefreshChain(chainStart, now));
+    if (dependencyManager.getDownstreamDepth(reflectionId) == 0) {
+      // last reflection of the chain
+      criticalPathLatency.update(now - chainStart);
+      logger.debug("chain of refreshes ending with reflection {} took {} ms", reflectionId.getId(), now - chainStart);
+    }
+  }
+
+  /**
+   * Called when the refresh of a reflection failed or was cancelled.
+   */
+  void refreshFailed(ReflectionId reflectionId) {
+    runningChains.remove(reflectionId);
+  }
+
+  /**
+   * Called when a reflection is deleted.
+   */
+  void delete(ReflectionId reflectionId) {
+    runningChains.remove(reflectionId);
+    landedChains.remove(reflectionId);
+  }
+
+  private static final class RefreshChain {
+    private final long start;
+    private final long end;
+
+    private RefreshChain(long start, long end) {
+      this.start = start;
+      this.end = end;
+    }
+  }
+}
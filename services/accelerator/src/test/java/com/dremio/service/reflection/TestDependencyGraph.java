@@ -331,4 +331,30 @@ public class TestDependencyGraph {
     // in-memory and reloaded are the same
     assertEquals(preDvdsagg2Id2, preDvdsagg2Id3);
   }
+
+  @Test
+  public void testUpstreamAndDownstream() throws Exception {
+    final DependencyGraph graph = new DependencyGraph(dependenciesStore);
+
+    // pds1 > raw1 > agg1 > vds-agg2 and pds2 > raw2 > agg2 > vds-agg2
+    graph.setDependencies(rId("raw1"), Sets.<DependencyEntry>newHashSet(dependencyByName.get("pds1")));
+    graph.setDependencies(rId("agg1"), Sets.<DependencyEntry>newHashSet(DependencyEntry.of(rId("raw1"))));
+    graph.setDependencies(rId("raw2"), Sets.<DependencyEntry>newHashSet(dependencyByName.get("pds2")));
+    graph.setDependencies(rId("agg2"), Sets.<DependencyEntry>newHashSet(DependencyEntry.of(rId("raw2"))));
+    graph.setDependencies(rId("vds-agg2"), Sets.<DependencyEntry>newHashSet(DependencyEntry.of(rId("agg1")),
+      DependencyEntry.of(rId("agg2"))));
+    // raw2 > agg3
+    graph.setDependencies(rId("agg3"), Sets.<DependencyEntry>newHashSet(DependencyEntry.of(rId("raw2"))));
+
+    assertEquals(Sets.newHashSet(rId("raw1"), rId("agg1"), rId("raw2"), rId("agg2")),
+      graph.getUpstreamReflections(rId("vds-agg2")));
+    assertEquals(Sets.newHashSet(rId("raw2")), graph.getUpstreamReflections(rId("agg3")));
+    assertTrue(graph.getUpstreamReflections(rId("raw1")).isEmpty());
+
+    assertEquals(2, graph.getDownstreamDepth(rId("raw1")));
+    assertEquals(2, graph.getDownstreamDepth(rId("raw2")));
+    assertEquals(1, graph.getDownstreamDepth(rId("agg2")));
+    assertEquals(0, graph.getDownstreamDepth(rId("agg3")));
+    assertEquals(0, graph.getDownstreamDepth(rId("vds-agg2")));
+  }
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.reflection;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.dremio.service.reflection.proto.ReflectionEntry;
+import com.dremio.service.reflection.proto.ReflectionId;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+/**
+ * Tests for {@link RefreshScheduler}
+ */
+public class TestRefreshScheduler {
+
+  private DependencyManager dependencyManager;
+  private RefreshScheduler scheduler;
+
+  @Before
+  public void setup() {
+    dependencyManager = Mockito.mock(DependencyManager.class);
+    scheduler = new RefreshScheduler(dependencyManager);
+
+    // raw1 > agg1 > vds-agg, raw2 and raw3 are independent
+    dependsOn("raw1");
+    dependsOn("agg1", "raw1");
+    dependsOn("vds-agg", "raw1", "agg1");
+    dependsOn("raw2");
+    dependsOn("raw3");
+    when(dependencyManager.getDownstreamDepth(rId("raw1"))).thenReturn(2);
+    when(dependencyManager.getDownstreamDepth(rId("agg1"))).thenReturn(1);
+  }
+
+  private static ReflectionId rId(String id) {
+    return new ReflectionId(id);
+  }
+
+  private static ReflectionEntry entry(String id, long lastSubmittedRefresh) {
+    return new ReflectionEntry()
+      .setId(rId(id))
+      .setLastSubmittedRefresh(lastSubmittedRefresh);
+  }
+
+  private void dependsOn(String id, String... upstream) {
+    final ImmutableSet.Builder<ReflectionId> upstreamIds = ImmutableSet.builder();
+    for (String upstreamId : upstream) {
+      upstreamIds.add(rId(upstreamId));
+    }
+    when(dependencyManager.getUpstreamReflections(rId(id))).thenReturn(upstreamIds.build());
+  }
+
+  private static List<String> ids(List<ReflectionEntry> entries) {
+    final List<String> ids = Lists.newArrayList();
+    for (ReflectionEntry entry : entries) {
+      ids.add(entry.getId().getId());
+    }
+    return ids;
+  }
+
+  @Test
+  public void testUpstreamFirst() {
+    final List<ReflectionEntry> due = ImmutableList.of(entry("vds-agg", 0), entry("agg1", 0), entry("raw2", 1),
+      entry("raw1", 2), entry("raw3", 0));
+
+    // raw1 heads the longest chain, then the least recently refreshed first
+    assertEquals(ImmutableList.of("raw1", "raw3", "raw2"),
+      ids(scheduler.schedule(due, Collections.<ReflectionId>emptySet(), 10)));
+
+    // raw1 is being refreshed
+    assertEquals(ImmutableList.of("raw3", "raw2"),
+      ids(scheduler.schedule(ImmutableList.of(entry("vds-agg", 0), entry("agg1", 0), entry("raw2", 1),
+        entry("raw3", 0)), ImmutableSet.of(rId("raw1")), 10)));
+
+    // raw1 landed
+    assertEquals(ImmutableList.of("agg1"),
+      ids(scheduler.schedule(ImmutableList.of(entry("vds-agg", 0), entry("agg1", 0)),
+        Collections.<ReflectionId>emptySet(), 10)));
+  }
+
+  @Test
+  public void testMaxRunning() {
+    final List<ReflectionEntry> due = ImmutableList.of(entry("raw1", 0), entry("raw2", 1), entry("raw3", 2));
+
+    assertEquals(ImmutableList.of("raw1", "raw2"),
+      ids(scheduler.schedule(due, Collections.<ReflectionId>emptySet(), 2)));
+    assertEquals(ImmutableList.of("raw1"),
+      ids(scheduler.schedule(due, ImmutableSet.of(rId("agg1")), 2)));
+    assertEquals(ImmutableList.of(),
+      ids(scheduler.schedule(due, ImmutableSet.of(rId("agg1"), rId("vds-agg")), 2)));
+  }
+}
@@ -23,6 +23,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
 import com.dremio.common.SerializedExecutor;
 import com.dremio.common.exceptions.UserException;
 import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
@@ -103,11 +104,14 @@ public abstract class RpcBus<T extends EnumLite, C extends RemoteConnection> imp
   protected final RpcConfig rpcConfig;
 
   private final Histogram sendDurations;
+  private final Meter sendBytes;
 
   public RpcBus(RpcConfig rpcConfig) {
     this.rpcConfig = rpcConfig;
     this.sendDurations = Metrics.getInstance()
         .histogram(rpcConfig.getName() + "-send-durations-ms");
+    this.sendBytes = Metrics.getInstance()
+        .meter(rpcConfig.getName() + "-send-bytes");
   }
 
   <SEND extends MessageLite, RECEIVE extends MessageLite>
@@ -160,6 +164,7 @@ public abstract class RpcBus<T extends EnumLite, C extends RemoteConnection> imp
       final Stopwatch stopwatch = Stopwatch.createStarted();
       ChannelListenerWithCoordinationId futureListener = connection.createNewRpcListener(listener, clazz);
       OutboundRpcMessage m = new OutboundRpcMessage(RpcMode.REQUEST, rpcType, futureListener.getCoordinationId(), protobufBody, dataBodies);
+      sendBytes.mark(getSize(protobufBody, dataBodies));
       ChannelFuture channelFuture = connection.getChannel().writeAndFlush(m);
       channelFuture.addListener(futureListener);
       channelFuture.addListener(new GenericFutureListener<Future<? super Void>>() {
@@ -184,6 +189,16 @@ public abstract class RpcBus<T extends EnumLite, C extends RemoteConnection> imp
     }
   }
 
+  private static long getSize(MessageLite protobufBody, ByteBuf... dataBodies) {
+    long size = protobufBody.getSerializedSize();
+    if (dataBodies != null) {
+      for (ByteBuf b : dataBodies) {
+        size += b.readableBytes();
+      }
+    }
+    return size;
+  }
+
   public abstract C initRemoteConnection(SocketChannel channel);
 
   public class ChannelClosedHandler implements ChannelFutureListener {
@@ -71,6 +71,9 @@ public class CoreIndexedStoreImpl<K, V> implements CoreIndexedStore<K, V> {
   public static final IndexKey ID_KEY = new IndexKey(IndexedStore.ID_FIELD_NAME, IndexedStore.ID_FIELD_NAME,
       String.class, null, false, true);
 
+  // number of documents added to the index at once while reindexing
+  private static final int REINDEX_BATCH_SIZE = 64;
+
   private class ReindexThread extends Thread {
     private final Iterator<Entry<KVStoreTuple<K>, KVStoreTuple<V>>> iterator;
     private final Object lock;
@@ -88,25 +91,34 @@ public class CoreIndexedStoreImpl<K, V> implements CoreIndexedStore<K, V> {
     @Override
     public void run() {
       try {
+        final List<Entry<KVStoreTuple<K>, KVStoreTuple<V>>> entries = new ArrayList<>(REINDEX_BATCH_SIZE);
+        final List<Document> docs = new ArrayList<>(REINDEX_BATCH_SIZE);
         while (!cancelled.get()) {
-          final Entry<KVStoreTuple<K>, KVStoreTuple<V>> entry;
-          // Get the next element
+          // Get the next elements, a batch at a time to limit contention on the lock
+          entries.clear();
           synchronized (lock) {
-            if (!iterator.hasNext()) {
-              break;
+            while (entries.size() < REINDEX_BATCH_SIZE && iterator.hasNext()) {
+              entries.add(iterator.next());
             }
-            entry = iterator.next();
           }
 
-          elementCount++;
+          if (entries.isEmpty()) {
+            break;
+          }
 
-          final Document doc = toDoc(entry.getKey(), entry.getValue());
+          elementCount += entries.size();
 
-          if (doc == null) {
-            continue;
+          docs.clear();
+          for (Entry<KVStoreTuple<K>, KVStoreTuple<V>> entry : entries) {
+            final Document doc = toDoc(entry.getKey(), entry.getValue());
+            if (doc != null) {
+              docs.add(doc);
+            }
           }
 
-          index.add(doc);
+          if (!docs.isEmpty()) {
+            index.addMany(docs.toArray(new Document[docs.size()]));
+          }
         }
       } catch (Throwable t) {
         cancelled.set(true);
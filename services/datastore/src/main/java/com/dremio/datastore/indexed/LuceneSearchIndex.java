@@ -21,8 +21,12 @@ import static java.lang.String.format;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.lucene.analysis.core.KeywordAnalyzer;
 import org.apache.lucene.document.Document;
@@ -31,14 +35,19 @@ import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.LiveIndexWriterConfig;
 import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BulkScorer;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHitCountCollector;
+import org.apache.lucene.search.Weight;
 import org.apache.lucene.store.BaseDirectory;
 import org.apache.lucene.store.MMapDirectory;
 import org.apache.lucene.store.RAMDirectory;
@@ -53,6 +62,8 @@ import com.dremio.metrics.Metrics;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 
 /**
@@ -99,6 +110,30 @@ public class LuceneSearchIndex implements AutoCloseable {
    */
   public static final String OVERRIDE_SPINS_PROPERTY = "dremio.lucene.override_spins";
 
+  /**
+   * Property name for the maximum time (in millis) the searcher may lag behind the writes when nobody is waiting for
+   * them. The searcher is reopened in the background at least this often.
+   *
+   * Default is 1s
+   */
+  public static final String NRT_MAX_STALE_MILLIS_PROPERTY = "dremio.lucene.nrt.max_stale_ms";
+
+  /**
+   * Property name for the minimum time (in millis) between two searcher reopens when a search is waiting for
+   * a write to become visible
+   *
+   * Default is 0 (reopen immediately)
+   */
+  public static final String NRT_MIN_STALE_MILLIS_PROPERTY = "dremio.lucene.nrt.min_stale_ms";
+
+  /**
+   * Property name for the number of writes after which a searcher reopen is requested, without waiting for the
+   * next background reopen
+   *
+   * Default is 1000
+   */
+  public static final String NRT_REOPEN_WRITES_PROPERTY = "dremio.lucene.nrt.reopen_writes";
+
 
   private static final String METRIC_PREFIX = "kvstore.lucene";
 
@@ -119,6 +154,13 @@ public class LuceneSearchIndex implements AutoCloseable {
   private static final int REINDEX_RAM_BUFFER_SIZE_MB = Integer.getInteger(REINDEX_RAM_BUFFER_SIZE_MB_PROPERTY,
       (int) (Runtime.getRuntime().totalMemory() / (1024 * 1024) / REINDEX_RAM_BUFFER_SIZE_AUTO_RATIO));
 
+  private static final double NRT_MAX_STALE_SEC = Integer.getInteger(NRT_MAX_STALE_MILLIS_PROPERTY, 1_000) / 1000D;
+  private static final double NRT_MIN_STALE_SEC = Integer.getInteger(NRT_MIN_STALE_MILLIS_PROPERTY, 0) / 1000D;
+  private static final int NRT_REOPEN_WRITES = Integer.getInteger(NRT_REOPEN_WRITES_PROPERTY, 1_000);
+
+  // maximum number of distinct count queries whose result is cached per segment
+  private static final int SEGMENT_COUNT_CACHE_SIZE = 128;
+
 
   /**
    * Starts a thread that will commit the writer every 60s (by default), if any exception is thrown during commit it will
@@ -195,8 +237,18 @@ public class LuceneSearchIndex implements AutoCloseable {
   private final IndexWriter writer;
   private final BaseDirectory directory;
   private final SearcherManager searcherManager;
+  private final ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
   private final String name;
 
+  // sequence number of the last write, searches wait for the searcher to include it
+  private final AtomicLong lastWrite = new AtomicLong();
+  // writes since the last reopen request
+  private final AtomicInteger pendingWrites = new AtomicInteger();
+
+  // counts of queries per segment, keyed (by identity) by the segment core and deletes. A segment is immutable until
+  // new deletes are applied, which gives it a new key, so counts over unchanged segments are reused across searchers.
+  private final Cache<Object, Cache<Query, Integer>> segmentCounts = CacheBuilder.newBuilder().weakKeys().build();
+
   private volatile boolean reindexing = false;
 
   public LuceneSearchIndex(
@@ -241,6 +293,10 @@ public class LuceneSearchIndex implements AutoCloseable {
       writer = new IndexWriter(directory, writerConfig);
       commit();
       searcherManager = new SearcherManager(writer, true, true, null);
+      reopenThread = new ControlledRealTimeReopenThread<>(writer, searcherManager, NRT_MAX_STALE_SEC, NRT_MIN_STALE_SEC);
+      reopenThread.setName(format("LuceneSearchIndex:reopen %s", name));
+      reopenThread.setDaemon(true);
+      reopenThread.start();
 
       committerThread = new CommitterThread();
     } catch(IOException ex){
@@ -259,16 +315,35 @@ public class LuceneSearchIndex implements AutoCloseable {
       .build());
   }
 
+  /**
+   * Waits for the searcher to include the last write. The searcher is reopened in the background, so it usually
+   * already does.
+   */
   private void checkIfChanged() {
-    try{
-      if (!searcherManager.isSearcherCurrent()) {
-        searcherManager.maybeRefreshBlocking();
-      }
-    }catch(IOException ex){
+    try {
+      reopenThread.waitForGeneration(lastWrite.get());
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
       throw Throwables.propagate(ex);
     }
   }
 
+  /**
+   * Records a write, and requests a reopen of the searcher if many writes are not visible yet.
+   */
+  private void written(long sequenceNumber, int count) {
+    lastWrite.accumulateAndGet(sequenceNumber, Math::max);
+    if (pendingWrites.addAndGet(count) >= NRT_REOPEN_WRITES) {
+      pendingWrites.set(0);
+      try {
+        // does not wait, only signals the reopen thread
+        reopenThread.waitForGeneration(sequenceNumber, 0);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
   private void commit() throws IOException {
     try (CommitCloser committer = commitWrapper.open(name)) {
       writer.commit();
@@ -280,7 +355,7 @@ public class LuceneSearchIndex implements AutoCloseable {
     committerThread.throwExceptionIfAny();
     Preconditions.checkNotNull(document.getField(IndexedStore.ID_FIELD_NAME));
     try{
-      writer.addDocument(document);
+      written(writer.addDocument(document), 1);
     } catch(IOException ex) {
       throw Throwables.propagate(ex);
     }
@@ -289,9 +364,7 @@ public class LuceneSearchIndex implements AutoCloseable {
   public void addMany(Document... documents) {
     committerThread.throwExceptionIfAny();
     try{
-      for(Document d : documents){
-        writer.addDocument(d);
-      }
+      written(writer.addDocuments(Arrays.asList(documents)), documents.length);
     } catch(IOException ex) {
       throw Throwables.propagate(ex);
     }
@@ -300,7 +373,7 @@ public class LuceneSearchIndex implements AutoCloseable {
   public void update(Term term, Document document) {
     committerThread.throwExceptionIfAny();
     try {
-      writer.updateDocument(term, document);
+      written(writer.updateDocument(term, document), 1);
     } catch(IOException ex) {
       throw Throwables.propagate(ex);
     }
@@ -310,7 +383,7 @@ public class LuceneSearchIndex implements AutoCloseable {
     committerThread.throwExceptionIfAny();
     checkIfChanged();
     try(Searcher searcher = acquireSearcher()) {
-      return searcher.count(query);
+      return searcher.cachedCount(query);
     }
   }
 
@@ -321,7 +394,7 @@ public class LuceneSearchIndex implements AutoCloseable {
 
     try(Searcher searcher = acquireSearcher()) {
       for(Query q : queries){
-        integers.add(searcher.count(q));
+        integers.add(searcher.cachedCount(q));
       }
       return integers;
     }
@@ -419,6 +492,7 @@ public class LuceneSearchIndex implements AutoCloseable {
     }
 
     committerThread.close();
+    reopenThread.close();
 
     // commit will fail if writer is closed
     if (writer.isOpen()) {
@@ -449,7 +523,7 @@ public class LuceneSearchIndex implements AutoCloseable {
   public void deleteDocuments(Term key) {
     committerThread.throwExceptionIfAny();
     try {
-      writer.deleteDocuments(key);
+      written(writer.deleteDocuments(key), 1);
     } catch (IOException ex) {
       throw Throwables.propagate(ex);
     }
@@ -458,10 +532,10 @@ public class LuceneSearchIndex implements AutoCloseable {
   public void delete() {
     committerThread.throwExceptionIfAny();
     try {
-      writer.deleteAll();
+      written(writer.deleteAll(), 1);
       commit();
       // Forcing refresh of index so that open files are freed and deleted from disk
-      checkIfChanged();
+      searcherManager.maybeRefreshBlocking();
     } catch(Exception ex){
       throw Throwables.propagate(ex);
     }
@@ -553,14 +627,43 @@ public class LuceneSearchIndex implements AutoCloseable {
       }
     }
 
-    public int count(Query q) {
+    /**
+     * Counts the documents matching the query, segment by segment, reusing the count of segments which didn't change
+     * since the same query was last counted.
+     */
+    public int cachedCount(Query q) {
       try {
-        return searcher.count(q);
-      } catch(IOException ex){
+        Weight weight = null;
+        int count = 0;
+        for (LeafReaderContext leaf : searcher.getIndexReader().leaves()) {
+          final Cache<Query, Integer> counts = segmentCounts.get(leaf.reader().getCombinedCoreAndDeletesKey(),
+              () -> CacheBuilder.newBuilder().maximumSize(SEGMENT_COUNT_CACHE_SIZE).<Query, Integer>build());
+          Integer leafCount = counts.getIfPresent(q);
+          if (leafCount == null) {
+            if (weight == null) {
+              weight = searcher.createNormalizedWeight(q, false);
+            }
+            leafCount = count(weight, leaf);
+            counts.put(q, leafCount);
+          }
+          count += leafCount;
+        }
+        return count;
+      } catch(IOException | ExecutionException ex){
         throw Throwables.propagate(ex);
       }
     }
 
+    private int count(Weight weight, LeafReaderContext leaf) throws IOException {
+      final BulkScorer scorer = weight.bulkScorer(leaf);
+      if (scorer == null) {
+        return 0;
+      }
+      final TotalHitCountCollector collector = new TotalHitCountCollector();
+      scorer.score(collector.getLeafCollector(leaf), leaf.reader().getLiveDocs());
+      return collector.getTotalHits();
+    }
+
     @Override
     public void close() {
       try {
@@ -574,7 +677,7 @@ public class LuceneSearchIndex implements AutoCloseable {
   @VisibleForTesting
   public void deleteEverything() throws IOException{
     committerThread.throwExceptionIfAny();
-    writer.deleteAll();
+    written(writer.deleteAll(), 1);
     commit();
   }
 }
@@ -33,6 +33,7 @@ import org.apache.lucene.index.Term;
 import org.apache.lucene.queries.TermsQuery;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.Query;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.TermQuery;
@@ -45,6 +46,7 @@ import org.junit.rules.TemporaryFolder;
 
 import com.dremio.datastore.IndexedStore;
 import com.dremio.datastore.SearchQueryUtils;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 
 /**
@@ -201,6 +203,37 @@ public class TestLuceneIndexer {
     }
   }
 
+  @Test
+  public void testCountsAfterWrites() throws Exception {
+    try (LuceneSearchIndex index = new LuceneSearchIndex(null, "counts", true, CommitWrapper.NO_OP)) {
+      final Document[] documents = new Document[10];
+      for (int i = 0; i < documents.length; i++) {
+        documents[i] = new Document();
+        documents[i].add(new StringField(IndexedStore.ID_FIELD_NAME, new BytesRef(Integer.toString(i).getBytes()), Store.YES));
+        documents[i].add(new StringField("user", i % 2 == 0 ? "even" : "odd", Field.Store.NO));
+      }
+      index.addMany(documents);
+
+      final TermQuery even = new TermQuery(new Term("user", "even"));
+      final TermQuery odd = new TermQuery(new Term("user", "odd"));
+      assertEquals(5, index.count(even));
+      assertEquals(5, index.count(odd));
+
+      // counts of unchanged segments are cached, counts must still reflect new segments, updates and deletes
+      final Document updated = new Document();
+      updated.add(new StringField(IndexedStore.ID_FIELD_NAME, new BytesRef("1".getBytes()), Store.YES));
+      updated.add(new StringField("user", "even", Field.Store.NO));
+      index.update(new Term(IndexedStore.ID_FIELD_NAME, new BytesRef("1".getBytes())), updated);
+      assertEquals(6, index.count(even));
+      assertEquals(4, index.count(odd));
+
+      index.deleteDocuments(new Term(IndexedStore.ID_FIELD_NAME, new BytesRef("0".getBytes())));
+      assertEquals(5, index.count(even));
+      assertEquals(4, index.count(odd));
+      assertEquals(ImmutableList.of(5, 4), index.count(ImmutableList.<Query>of(even, odd)));
+    }
+  }
+
   @Test
   @Ignore
   public void testSearcherManager() throws Exception {
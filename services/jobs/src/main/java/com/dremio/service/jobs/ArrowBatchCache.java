@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.jobs;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.OutOfMemoryException;
+import org.apache.hadoop.fs.Path;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * LRU cache of serialized record batches read from job result Arrow files, so that hot pages of a job output can be
+ * served without going back to the job results store.
+ *
+ * Batches are kept in their serialized form, in buffers allocated from a dedicated allocator whose limit bounds the
+ * cache size. Buffers handed out by {@link #get(Path, long)} are retained and must be released by the caller, which
+ * makes it safe to evict a batch while it is being read.
+ */
+class ArrowBatchCache implements AutoCloseable {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ArrowBatchCache.class);
+
+  private final BufferAllocator allocator;
+  private final long maxBytes;
+  // access ordered, eldest entry is the least recently used
+  private final LinkedHashMap<BatchKey, ArrowBuf> batches = new LinkedHashMap<>(16, 0.75f, true);
+
+  ArrowBatchCache(BufferAllocator parentAllocator, long maxBytes) {
+    this.allocator = parentAllocator.newChildAllocator("job-results-batch-cache", 0, maxBytes);
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Get the serialized batch starting at the given offset of the given file.
+   *
+   * @return a retained buffer which must be released by the caller, or null if the batch is not cached
+   */
+  synchronized ArrowBuf get(Path path, long offset) {
+    final ArrowBuf buf = batches.get(new BatchKey(path, offset));
+    if (buf == null) {
+      return null;
+    }
+    buf.retain();
+    return buf;
+  }
+
+  /**
+   * Cache the serialized batch starting at the given offset of the given file. Least recently used batches are
+   * evicted to make room for it. Batches larger than the cache are ignored.
+   */
+  synchronized void put(Path path, long offset, byte[] serializedBatch) {
+    final int length = serializedBatch.length;
+    final BatchKey key = new BatchKey(path, offset);
+    if (length == 0 || length > maxBytes || batches.containsKey(key)) {
+      return;
+    }
+
+    final Iterator<ArrowBuf> lru = batches.values().iterator();
+    while (allocator.getAllocatedMemory() + length > maxBytes && lru.hasNext()) {
+      lru.next().release();
+      lru.remove();
+    }
+
+    final ArrowBuf buf;
+    try {
+      buf = allocator.buffer(length);
+    } catch (OutOfMemoryException e) {
+      // evicted batches still referenced by readers are accounted until they are released
+      logger.debug("Not enough memory to cache batch at offset {} of {}", offset, path);
+      return;
+    }
+
+    buf.writeBytes(serializedBatch);
+    batches.put(key, buf);
+  }
+
+  /**
+   * @return true if the batch starting at the given offset of the given file is cached
+   */
+  synchronized boolean contains(Path path, long offset) {
+    return batches.containsKey(new BatchKey(path, offset));
+  }
+
+  /**
+   * @return size of the largest batch which can be cached
+   */
+  long getMaxBatchSize() {
+    return maxBytes;
+  }
+
+  /**
+   * Drop the batches of all the files under the given directory, once they are deleted.
+   */
+  synchronized void invalidate(Path directory) {
+    final Iterator<Map.Entry<BatchKey, ArrowBuf>> iterator = batches.entrySet().iterator();
+    while (iterator.hasNext()) {
+      final Map.Entry<BatchKey, ArrowBuf> entry = iterator.next();
+      if (isUnder(entry.getKey().path, directory)) {
+        entry.getValue().release();
+        iterator.remove();
+      }
+    }
+  }
+
+  private static boolean isUnder(Path path, Path directory) {
+    for (Path parent = path.getParent(); parent != null; parent = parent.getParent()) {
+      if (parent.equals(directory)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @VisibleForTesting
+  synchronized int size() {
+    return batches.size();
+  }
+
+  @Override
+  public synchronized void close() throws Exception {
+    for (ArrowBuf buf : batches.values()) {
+      buf.release();
+    }
+    batches.clear();
+
+    // batches handed out by get() and not released yet are still accounted by the allocator, which can only be
+    // closed by calling close() again once they are released
+    final long outstanding = allocator.getAllocatedMemory();
+    if (outstanding > 0) {
+      logger.warn("{} bytes of cached job result batches are still referenced, leaving the cache allocator open",
+          outstanding);
+      return;
+    }
+    allocator.close();
+  }
+
+  private static final class BatchKey {
+    private final Path path;
+    private final long offset;
+
+    private BatchKey(Path path, long offset) {
+      this.path = path;
+      this.offset = offset;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, offset);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof BatchKey)) {
+        return false;
+      }
+      final BatchKey other = (BatchKey) obj;
+      return offset == other.offset && Objects.equals(path, other.path);
+    }
+  }
+}
@@ -21,7 +21,10 @@ import static com.dremio.exec.store.easy.arrow.ArrowFormatPlugin.MAGIC_STRING_LE
 import static com.dremio.service.jobs.RecordBatchHolder.newRecordBatchHolder;
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -43,9 +46,13 @@ import com.dremio.exec.store.easy.arrow.ArrowFileFooter;
 import com.dremio.exec.store.easy.arrow.ArrowFileFormat;
 import com.dremio.exec.store.easy.arrow.ArrowFileMetadata;
 import com.dremio.exec.store.easy.arrow.ArrowRecordBatchSummary;
+import com.dremio.exec.vector.complex.fn.ArrowBufInputStream;
 import com.dremio.sabot.op.sort.external.RecordBatchData;
+import com.dremio.service.jobs.JobResultsIndex.FileIndex;
 import com.google.common.collect.Lists;
 
+import io.netty.buffer.ArrowBuf;
+
 /**
  * Reader which takes a file and reads the record batches.
  */
@@ -54,18 +61,37 @@ class ArrowFileReader implements AutoCloseable {
 
   private final FileSystem dfs;
   private final ArrowFileMetadata metadata;
+  private final FileIndex index;
+  private final ArrowBatchCache batchCache;
   private final BufferAllocator allocator;
   private final Path path;
 
   private FSDataInputStream inputStream;
 
   ArrowFileReader(final FileSystem dfs, Path basePath, final ArrowFileMetadata metadata, final BufferAllocator allocator) {
+    this(dfs, basePath, metadata, new FileIndex(metadata.getFooter()), null, allocator);
+  }
+
+  /**
+   * Create a reader using a prebuilt batch index and, optionally, a cache of serialized batches.
+   */
+  ArrowFileReader(final FileSystem dfs, Path basePath, final ArrowFileMetadata metadata, final FileIndex index,
+      final ArrowBatchCache batchCache, final BufferAllocator allocator) {
     this.dfs = dfs;
     this.metadata = metadata;
+    this.index = index;
+    this.batchCache = batchCache;
     this.allocator = allocator;
     this.path = new Path(basePath, metadata.getPath());
   }
 
+  private FSDataInputStream getInputStream() throws IOException {
+    if (inputStream == null) {
+      openFile();
+    }
+    return inputStream;
+  }
+
   private void openFile() throws IOException {
     inputStream = dfs.open(path);
 
@@ -121,40 +147,18 @@ class ArrowFileReader implements AutoCloseable {
         "Invalid start index (%s) and limit (%s) combination. Record count in file (%s)",
         start, limit, metadata.getRecordCount());
 
-    openFile();
-
-    final VectorAccessibleSerializable vectorAccessibleSerializable = new VectorAccessibleSerializable(allocator);
     final List<RecordBatchHolder> batches = Lists.newArrayList();
-    final ArrowFileFooter footer = metadata.getFooter();
 
-    long runningCount = 0;
+    // Find the batch that contains the start index, there is none if the file is empty
+    final int firstBatch = index.findBatch(start);
     long remaining = limit;
-    final int numBatches = footer.getBatchList() == null ? 0 : footer.getBatchList().size();
-    for(int batchIndex = 0; batchIndex < numBatches; batchIndex++) {
-      ArrowRecordBatchSummary batchSummary = footer.getBatchList().get(batchIndex);
-      // Skip past empty batches
-      if (batchSummary.getRecordCount() == 0) {
-        continue;
-      }
-
-      runningCount += batchSummary.getRecordCount();
-
-      // Skip batches until we reach a batch that contains the start index
-      if (start >= runningCount) {
-        // valid indices in up until the current batch are in range [0, runningCount - 1]
-        continue;
-      }
-
-      final long currentBatchCount = batchSummary.getRecordCount();
-
-      // Seek to the place where the batch starts and read
-      inputStream.seek(batchSummary.getOffset());
-      vectorAccessibleSerializable.readFromStream(inputStream);
-      final VectorContainer vectorContainer = vectorAccessibleSerializable.get();
+    for(int batchIndex = firstBatch; batchIndex >= 0 && batchIndex < index.getBatchCount(); batchIndex++) {
+      final ArrowRecordBatchSummary batchSummary = index.getBatch(batchIndex);
+      final VectorContainer vectorContainer = readBatch(batchSummary);
 
       // Find the start and end indices within the batch.
-      final int batchStart = Math.max(0, (int) (start - (runningCount - currentBatchCount)));
-      final int batchEnd = (int) Math.min(currentBatchCount, batchStart + remaining);
+      final int batchStart = Math.max(0, (int) (start - index.getRecordOffset(batchIndex)));
+      final int batchEnd = (int) Math.min(batchSummary.getRecordCount(), batchStart + remaining);
 
       final RecordBatchHolder batchHolder = newRecordBatchHolder(
           new RecordBatchData(vectorContainer, allocator),
@@ -178,6 +182,42 @@ class ArrowFileReader implements AutoCloseable {
     return batches;
   }
 
+  /**
+   * Read the batch described by the given summary, from the batch cache if present.
+   */
+  private VectorContainer readBatch(ArrowRecordBatchSummary batchSummary) throws IOException {
+    final VectorAccessibleSerializable vectorAccessibleSerializable = new VectorAccessibleSerializable(allocator);
+    final long offset = batchSummary.getOffset();
+
+    if (batchCache != null) {
+      final ArrowBuf cachedBatch = batchCache.get(path, offset);
+      if (cachedBatch != null) {
+        try (InputStream input = ArrowBufInputStream.getStream(0, cachedBatch.writerIndex(), cachedBatch)) {
+          vectorAccessibleSerializable.readFromStream(input);
+        } finally {
+          cachedBatch.release();
+        }
+        return vectorAccessibleSerializable.get();
+      }
+    }
+
+    // Seek to the place where the batch starts and read
+    final FSDataInputStream input = getInputStream();
+    input.seek(offset);
+    if (batchCache == null || batchCache.contains(path, offset)) {
+      // cached by another reader in the meantime, no need to keep a copy
+      vectorAccessibleSerializable.readFromStream(input);
+    } else {
+      final CapturingInputStream capturingInput = new CapturingInputStream(input, batchCache.getMaxBatchSize());
+      vectorAccessibleSerializable.readFromStream(capturingInput);
+      final byte[] capturedBytes = capturingInput.getCapturedBytes();
+      if (capturedBytes != null) {
+        batchCache.put(path, offset, capturedBytes);
+      }
+    }
+    return vectorAccessibleSerializable.get();
+  }
+
   @Override
   public void close() throws IOException {
     if (inputStream != null) {
@@ -192,15 +232,16 @@ class ArrowFileReader implements AutoCloseable {
    * @throws IOException
    */
   private RecordBatchHolder getEmptyBatch() throws IOException {
+    final FSDataInputStream input = getInputStream();
     final FileStatus fileStatus = dfs.getFileStatus(path);
     final long len = fileStatus.getLen();
-    inputStream.seek(len - (MAGIC_STRING_LENGTH + FOOTER_OFFSET_SIZE));
+    input.seek(len - (MAGIC_STRING_LENGTH + FOOTER_OFFSET_SIZE));
 
-    final long footerOffset = inputStream.readLong();
+    final long footerOffset = input.readLong();
 
     // Read the footer
-    inputStream.seek(footerOffset);
-    ArrowFileFormat.ArrowFileFooter footer = ArrowFileFormat.ArrowFileFooter.parseDelimitedFrom(inputStream);
+    input.seek(footerOffset);
+    ArrowFileFormat.ArrowFileFooter footer = ArrowFileFormat.ArrowFileFooter.parseDelimitedFrom(input);
     BatchSchema footerSchema = BatchSchema.newBuilder().addSerializedFields(footer.getFieldList()).build();
 
     final VectorContainer vectorContainer = new VectorContainer();
@@ -249,4 +290,77 @@ class ArrowFileReader implements AutoCloseable {
 
     return beanMetadata;
   }
+
+  /**
+   * Input stream which keeps a copy of all the bytes read from the underlying stream, until more than a given number
+   * of bytes are read.
+   */
+  private static final class CapturingInputStream extends FilterInputStream {
+    private static final int SKIP_BUFFER_SIZE = 8192;
+
+    private final long maxBytes;
+    private ByteArrayOutputStream capturedBytes = new ByteArrayOutputStream();
+
+    private CapturingInputStream(InputStream in, long maxBytes) {
+      super(in);
+      this.maxBytes = maxBytes;
+    }
+
+    private boolean canCapture(int len) {
+      if (capturedBytes != null && capturedBytes.size() + (long) len > maxBytes) {
+        // too large to be cached, stop copying
+        capturedBytes = null;
+      }
+      return capturedBytes != null;
+    }
+
+    @Override
+    public int read() throws IOException {
+      final int b = super.read();
+      if (b != -1 && canCapture(1)) {
+        capturedBytes.write(b);
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      final int read = super.read(b, off, len);
+      if (read > 0 && canCapture(read)) {
+        capturedBytes.write(b, off, read);
+      }
+      return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      if (capturedBytes == null) {
+        return super.skip(n);
+      }
+
+      // skipped bytes are part of the batch too, read them so that they are captured
+      final byte[] buffer = new byte[(int) Math.min(n, SKIP_BUFFER_SIZE)];
+      long skipped = 0;
+      while (skipped < n) {
+        final int read = read(buffer, 0, (int) Math.min(n - skipped, buffer.length));
+        if (read < 0) {
+          break;
+        }
+        skipped += read;
+      }
+      return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+
+    /**
+     * @return the bytes read, or null if there were too many of them
+     */
+    private byte[] getCapturedBytes() {
+      return capturedBytes == null ? null : capturedBytes.toByteArray();
+    }
+  }
 }
@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.jobs;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.RelVisitor;
+import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexShuttle;
+
+import com.dremio.exec.work.user.SubstitutionSettings;
+import com.dremio.service.job.proto.JobId;
+import com.dremio.service.job.proto.JobInfo;
+import com.dremio.service.job.proto.ParentDatasetInfo;
+import com.dremio.service.namespace.NamespaceException;
+import com.dremio.service.namespace.NamespaceKey;
+import com.dremio.service.namespace.NamespaceService;
+import com.dremio.service.namespace.dataset.proto.DatasetConfig;
+import com.dremio.service.namespace.dataset.proto.ParentDataset;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Maps a fingerprint of a job request to a previously completed job whose results are still available in the
+ * {@link JobResultsStore}, so that a repeated identical query can be served without being executed again.
+ *
+ * The fingerprint only covers the request (sql, context, user, query type and substitution settings). The versions
+ * of all the datasets the query read are recorded when the job completes and checked on every lookup: a metadata
+ * refresh of any of the datasets (or a change to a view definition) bumps the dataset version and invalidates the
+ * entry.
+ */
+class JobResultsCache {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(JobResultsCache.class);
+
+  private static final String SYS_SCHEMA = "sys";
+  private static final String INFORMATION_SCHEMA = "INFORMATION_SCHEMA";
+
+  private final Cache<String, CachedJob> cache;
+
+  JobResultsCache(long ttlMillis, long maxRecords) {
+    this.cache = CacheBuilder.newBuilder()
+        // single segment so that the weight limit applies to the whole cache and not per segment
+        .concurrencyLevel(1)
+        .expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS)
+        .maximumWeight(maxRecords)
+        .weigher((String key, CachedJob value) -> (int) Math.min(Integer.MAX_VALUE, Math.max(1, value.recordCount)))
+        .build();
+  }
+
+  /**
+   * Compute the fingerprint of a job request.
+   *
+   * @param request the job request
+   * @return the fingerprint, or null if the request results cannot be cached
+   */
+  static String fingerprint(JobRequest request) {
+    if (!QueryTypeUtils.isResultsCacheable(request.getQueryType())) {
+      return null;
+    }
+
+    final Hasher hasher = Hashing.sha256().newHasher()
+        .putString(request.getSqlQuery().getSql(), UTF_8)
+        .putInt(0)
+        .putString(String.valueOf(request.getSqlQuery().getContext()), UTF_8)
+        .putInt(0)
+        .putString(String.valueOf(request.getUsername()), UTF_8)
+        .putInt(0)
+        .putString(request.getQueryType().name(), UTF_8);
+
+    final SubstitutionSettings substitutionSettings = request.getSubstitutionSettings();
+    if (substitutionSettings != null) {
+      hasher.putInt(0)
+          .putString(String.valueOf(substitutionSettings.getExclusions()), UTF_8)
+          .putInt(0)
+          .putString(String.valueOf(substitutionSettings.getInclusions()), UTF_8);
+    }
+
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Check if the results of a completed query can be reused. Queries reading system tables or using non
+   * deterministic or dynamic functions (RAND, NOW...) produce different results every time they are run.
+   *
+   * @param info the job info, with parent datasets populated
+   * @param finalPlan the final physical plan of the query
+   * @return true if the results can be cached
+   */
+  static boolean isReusable(JobInfo info, RelNode finalPlan) {
+    if (finalPlan == null || info.getParentsList() == null || info.getParentsList().isEmpty()) {
+      return false;
+    }
+
+    for (ParentDatasetInfo parent : info.getParentsList()) {
+      // versions of unknown datasets can't be checked when serving results
+      if (parent.getDatasetPathList() == null || isSystemDataset(parent.getDatasetPathList())) {
+        return false;
+      }
+    }
+
+    final DeterministicChecker checker = new DeterministicChecker();
+    checker.go(finalPlan);
+    return checker.isDeterministic();
+  }
+
+  /**
+   * Record the results of a completed job.
+   *
+   * @param fingerprint the request fingerprint
+   * @param jobId the completed job
+   * @param info the job info, with parent datasets and result metadata populated
+   * @param recordCount the number of records output by the job
+   * @param namespaceService namespace service used to look up the dataset versions
+   */
+  void put(String fingerprint, JobId jobId, JobInfo info, long recordCount, NamespaceService namespaceService) {
+    final Map<NamespaceKey, Long> versions = new HashMap<>();
+    try {
+      for (List<String> path : getDatasetPaths(info)) {
+        final NamespaceKey key = new NamespaceKey(path);
+        versions.put(key, namespaceService.getDataset(key).getVersion());
+      }
+    } catch (NamespaceException | IllegalArgumentException e) {
+      logger.debug("Not caching results of job {} as its datasets could not be resolved", jobId.getId(), e);
+      return;
+    }
+
+    cache.put(fingerprint, new CachedJob(jobId, versions, recordCount));
+  }
+
+  /**
+   * Get the job whose results can be served for the given fingerprint.
+   *
+   * @param fingerprint the request fingerprint
+   * @param namespaceService namespace service used to validate the dataset versions
+   * @return the job id if present and all the datasets are still at the version read by the job
+   */
+  Optional<JobId> get(String fingerprint, NamespaceService namespaceService) {
+    final CachedJob cachedJob = cache.getIfPresent(fingerprint);
+    if (cachedJob == null) {
+      return Optional.absent();
+    }
+
+    for (Map.Entry<NamespaceKey, Long> entry : cachedJob.datasetVersions.entrySet()) {
+      final DatasetConfig config;
+      try {
+        config = namespaceService.getDataset(entry.getKey());
+      } catch (NamespaceException e) {
+        cache.invalidate(fingerprint);
+        return Optional.absent();
+      }
+
+      if (!Objects.equals(config.getVersion(), entry.getValue())) {
+        logger.debug("Invalidating cached results of job {} as dataset {} changed", cachedJob.jobId.getId(),
+            entry.getKey());
+        cache.invalidate(fingerprint);
+        return Optional.absent();
+      }
+    }
+
+    return Optional.of(cachedJob.jobId);
+  }
+
+  void invalidate(String fingerprint) {
+    cache.invalidate(fingerprint);
+  }
+
+  void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  @VisibleForTesting
+  long size() {
+    cache.cleanUp();
+    return cache.size();
+  }
+
+  private static Collection<List<String>> getDatasetPaths(JobInfo info) {
+    final Map<String, List<String>> paths = new LinkedHashMap<>();
+    for (ParentDatasetInfo parent : info.getParentsList()) {
+      paths.put(parent.getDatasetPathList().toString(), parent.getDatasetPathList());
+    }
+
+    // views only change version when their definition changes, also check the datasets they depend on
+    if (info.getGrandParentsList() != null) {
+      for (ParentDataset grandParent : info.getGrandParentsList()) {
+        if (grandParent.getDatasetPathList() == null) {
+          continue;
+        }
+        paths.put(grandParent.getDatasetPathList().toString(), grandParent.getDatasetPathList());
+      }
+    }
+    return paths.values();
+  }
+
+  private static boolean isSystemDataset(List<String> path) {
+    return path != null && !path.isEmpty()
+        && (SYS_SCHEMA.equalsIgnoreCase(path.get(0)) || INFORMATION_SCHEMA.equalsIgnoreCase(path.get(0)));
+  }
+
+  /**
+   * Visits all the expressions of a plan looking for non deterministic or dynamic functions.
+   */
+  private static final class DeterministicChecker extends RelVisitor {
+    private boolean deterministic = true;
+
+    private final RexShuttle shuttle = new RexShuttle() {
+      @Override
+      public RexNode visitCall(RexCall call) {
+        if (!call.getOperator().isDeterministic() || call.getOperator().isDynamicFunction()) {
+          deterministic = false;
+        }
+        return super.visitCall(call);
+      }
+    };
+
+    @Override
+    public void visit(RelNode node, int ordinal, RelNode parent) {
+      node.accept(shuttle);
+      if (deterministic) {
+        super.visit(node, ordinal, parent);
+      }
+    }
+
+    boolean isDeterministic() {
+      return deterministic;
+    }
+  }
+
+  private static final class CachedJob {
+    private final JobId jobId;
+    private final Map<NamespaceKey, Long> datasetVersions;
+    private final long recordCount;
+
+    private CachedJob(JobId jobId, Map<NamespaceKey, Long> datasetVersions, long recordCount) {
+      this.jobId = jobId;
+      this.datasetVersions = datasetVersions;
+      this.recordCount = recordCount;
+    }
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.jobs;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.dremio.exec.store.easy.arrow.ArrowFileFooter;
+import com.dremio.exec.store.easy.arrow.ArrowFileMetadata;
+import com.dremio.exec.store.easy.arrow.ArrowRecordBatchSummary;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Record offset index over the Arrow files of a job output. Maps a record offset to the file, and within a file to
+ * the record batch (and its byte position) containing it, so that pages deep into large results can be loaded
+ * without scanning the file and batch lists.
+ *
+ * The index is built from the {@link ArrowFileMetadata} footers recorded in the job info when the results are
+ * written.
+ */
+final class JobResultsIndex {
+
+  private final List<ArrowFileMetadata> files;
+  // record offset of the first record of each file
+  private final long[] fileRecordOffsets;
+  private final FileIndex[] fileIndexes;
+
+  JobResultsIndex(List<ArrowFileMetadata> files) {
+    this.files = ImmutableList.copyOf(files);
+    this.fileRecordOffsets = new long[files.size()];
+    this.fileIndexes = new FileIndex[files.size()];
+
+    long runningCount = 0;
+    for (int i = 0; i < files.size(); i++) {
+      fileRecordOffsets[i] = runningCount;
+      fileIndexes[i] = new FileIndex(files.get(i).getFooter());
+      runningCount += files.get(i).getRecordCount();
+    }
+  }
+
+  int getFileCount() {
+    return files.size();
+  }
+
+  ArrowFileMetadata getFile(int fileIndex) {
+    return files.get(fileIndex);
+  }
+
+  FileIndex getFileIndex(int fileIndex) {
+    return fileIndexes[fileIndex];
+  }
+
+  long getFileRecordOffset(int fileIndex) {
+    return fileRecordOffsets[fileIndex];
+  }
+
+  /**
+   * Find the file containing the given record.
+   *
+   * @param recordOffset record offset in the job output (0 based index)
+   * @return the index of the file, or -1 if the offset is past the last record
+   */
+  int findFile(long recordOffset) {
+    if (recordOffset < 0 || files.isEmpty()) {
+      return -1;
+    }
+
+    int index = Arrays.binarySearch(fileRecordOffsets, recordOffset);
+    if (index < 0) {
+      index = -index - 2;
+    } else {
+      // skip past empty files starting at the same offset
+      while (index + 1 < fileRecordOffsets.length && fileRecordOffsets[index + 1] == recordOffset) {
+        index++;
+      }
+    }
+
+    if (recordOffset >= fileRecordOffsets[index] + files.get(index).getRecordCount()) {
+      return -1;
+    }
+    return index;
+  }
+
+  /**
+   * Record offset index of the batches of a single Arrow file. Empty batches are not indexed.
+   */
+  static final class FileIndex {
+    // record offset (in file) of the first record of each non empty batch
+    private final long[] recordOffsets;
+    private final ArrowRecordBatchSummary[] batches;
+
+    FileIndex(ArrowFileFooter footer) {
+      final List<ArrowRecordBatchSummary> batchList = footer == null || footer.getBatchList() == null
+          ? ImmutableList.<ArrowRecordBatchSummary>of() : footer.getBatchList();
+
+      int nonEmpty = 0;
+      for (ArrowRecordBatchSummary batch : batchList) {
+        if (batch.getRecordCount() > 0) {
+          nonEmpty++;
+        }
+      }
+
+      this.recordOffsets = new long[nonEmpty];
+      this.batches = new ArrowRecordBatchSummary[nonEmpty];
+
+      long runningCount = 0;
+      int i = 0;
+      for (ArrowRecordBatchSummary batch : batchList) {
+        if (batch.getRecordCount() > 0) {
+          recordOffsets[i] = runningCount;
+          batches[i] = batch;
+          runningCount += batch.getRecordCount();
+          i++;
+        }
+      }
+    }
+
+    int getBatchCount() {
+      return batches.length;
+    }
+
+    ArrowRecordBatchSummary getBatch(int batchIndex) {
+      return batches[batchIndex];
+    }
+
+    long getRecordOffset(int batchIndex) {
+      return recordOffsets[batchIndex];
+    }
+
+    /**
+     * Find the batch containing the given record.
+     *
+     * @param recordOffset record offset in the file (0 based index)
+     * @return the index of the batch, or -1 if the offset is past the last record
+     */
+    int findBatch(long recordOffset) {
+      if (recordOffset < 0 || batches.length == 0) {
+        return -1;
+      }
+
+      int index = Arrays.binarySearch(recordOffsets, recordOffset);
+      if (index < 0) {
+        index = -index - 2;
+      }
+
+      if (recordOffset >= recordOffsets[index] + batches[index].getRecordCount()) {
+        return -1;
+      }
+      return index;
+    }
+  }
+}
@@ -30,6 +30,7 @@ import org.apache.arrow.memory.BufferAllocator;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 
+import com.dremio.common.AutoCloseables;
 import com.dremio.common.exceptions.UserException;
 import com.dremio.common.perf.Timer.TimedBlock;
 import com.dremio.common.utils.PathUtils;
@@ -48,6 +49,7 @@ import com.google.common.base.FinalizablePhantomReference;
 import com.google.common.base.FinalizableReference;
 import com.google.common.base.FinalizableReferenceQueue;
 import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
@@ -70,10 +72,20 @@ public class JobResultsStore implements Service {
   private final BufferAllocator allocator;
   private final Set<FinalizableReference> jobResultReferences = Sets.newConcurrentHashSet();
   private final LoadingCache<JobId, JobData> jobResults;
+  private final Cache<JobId, JobResultsIndex> jobResultsIndexes;
+  private final ArrowBatchCache batchCache;
   private final IndexedStore<JobId, JobResult> store;
 
   public JobResultsStore(final FileSystemPlugin plugin, final IndexedStore<JobId, JobResult> store,
       final BufferAllocator allocator) throws IOException {
+    this(plugin, store, allocator, 0);
+  }
+
+  /**
+   * @param batchCacheSize memory (in bytes) used to cache hot record batches, 0 to disable the cache
+   */
+  public JobResultsStore(final FileSystemPlugin plugin, final IndexedStore<JobId, JobResult> store,
+      final BufferAllocator allocator, final long batchCacheSize) throws IOException {
     this.storageName = plugin.getName();
     this.dfs = plugin.getFS(ImpersonationUtil.getProcessUserName());
     this.jobStoreLocation = plugin.getConfig().getPath();
@@ -92,6 +104,12 @@ public class JobResultsStore implements Service {
                 return newJobDataReference(jobDataImpl);
               }
             });
+
+    this.jobResultsIndexes = CacheBuilder.newBuilder()
+        .maximumSize(100)
+        .expireAfterAccess(15, TimeUnit.MINUTES)
+        .build();
+    this.batchCache = batchCacheSize > 0 ? new ArrowBatchCache(allocator, batchCacheSize) : null;
   }
 
 
@@ -120,6 +138,10 @@ public class JobResultsStore implements Service {
         dfs.delete(jobOutputDir, true);
         logger.info("Deleted job output directory : " + jobOutputDir);
       }
+      jobResultsIndexes.invalidate(jobId);
+      if (batchCache != null) {
+        batchCache.invalidate(jobOutputDir);
+      }
       return true;
     } catch (IOException e) {
       logger.warn("Could not delete job output directory : " + jobOutputDir, e);
@@ -203,52 +225,37 @@ public class JobResultsStore implements Service {
             .build(logger);
       }
 
-      final List<ArrowFileMetadata> resultFilesToRead = Lists.newArrayList();
-      int runningFileRecordCount = 0;
-      for(ArrowFileMetadata fileMetadata : resultMetadata) {
-        if (offset < runningFileRecordCount + fileMetadata.getRecordCount()) {
-          resultFilesToRead.add(fileMetadata);
-
-          if (resultFilesToRead.size() == 1) {
-            // update the given offset to start from the current file
-            offset -= runningFileRecordCount;
-          }
-
-          // Check if the offset + limit falls within the current file
-          if (offset + limit <= runningFileRecordCount + fileMetadata.getRecordCount()) {
-            break;
-          }
-        }
-
-        runningFileRecordCount += fileMetadata.getRecordCount();
-      }
-
+      final JobResultsIndex index = getJobResultsIndex(jobId, job, resultMetadata);
       final List<RecordBatchHolder> batchHolders = Lists.newArrayList();
-      if (resultFilesToRead.isEmpty()) {
+      final int firstFile = index.findFile(offset);
+      if (firstFile < 0) {
         // when the query returns no results at all or the requested range is invalid, return an empty record batch
         // for metadata purposes.
-        try (ArrowFileReader fileReader = new ArrowFileReader(dfs, jobOutputDir, resultMetadata.get(0), allocator)) {
+        try (ArrowFileReader fileReader = newFileReader(jobOutputDir, index, 0)) {
           batchHolders.addAll(fileReader.read(0, 0));
         }
       } else {
-        runningFileRecordCount = 0;
-        int remaining = limit;
-        for(ArrowFileMetadata file : resultFilesToRead) {
+        long remaining = limit;
+        int fileIndex = firstFile;
+        do {
+          final ArrowFileMetadata file = index.getFile(fileIndex);
 
           // Find the starting record index in file
-          final long fileOffset = Math.max(0, offset - runningFileRecordCount);
+          final long fileOffset = Math.max(0, offset - index.getFileRecordOffset(fileIndex));
 
           // Find how many records to read from file.
           // Min of remaining records in file or remaining records in total to read.
           final long fileLimit = Math.min(file.getRecordCount() - fileOffset, remaining);
 
-          try (ArrowFileReader fileReader = new ArrowFileReader(dfs, jobOutputDir, file, allocator)) {
-            batchHolders.addAll(fileReader.read(fileOffset, fileLimit));
-            remaining -= fileLimit;
+          if (file.getRecordCount() > 0) {
+            try (ArrowFileReader fileReader = newFileReader(jobOutputDir, index, fileIndex)) {
+              batchHolders.addAll(fileReader.read(fileOffset, fileLimit));
+              remaining -= fileLimit;
+            }
           }
 
-          runningFileRecordCount += file.getRecordCount();
-        }
+          fileIndex++;
+        } while (remaining > 0 && fileIndex < index.getFileCount());
       }
 
       return new RecordBatches(batchHolders);
@@ -259,6 +266,28 @@ public class JobResultsStore implements Service {
     }
   }
 
+  /**
+   * Get the record offset index of the job output. The index is only kept around once the job is completed.
+   */
+  private JobResultsIndex getJobResultsIndex(JobId jobId, JobResult job, List<ArrowFileMetadata> resultMetadata) {
+    final List<JobAttempt> attempts = job.getAttemptsList();
+    final boolean completed = !attempts.isEmpty() && attempts.get(attempts.size() - 1).getState() == JobState.COMPLETED;
+    if (!completed) {
+      return new JobResultsIndex(resultMetadata);
+    }
+
+    try {
+      return jobResultsIndexes.get(jobId, () -> new JobResultsIndex(resultMetadata));
+    } catch (ExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    }
+  }
+
+  private ArrowFileReader newFileReader(Path jobOutputDir, JobResultsIndex index, int fileIndex) {
+    return new ArrowFileReader(dfs, jobOutputDir, index.getFile(fileIndex), index.getFileIndex(fileIndex), batchCache,
+        allocator);
+  }
+
   public JobData get(JobId jobId) {
     try{
       return jobResults.get(jobId);
@@ -306,6 +335,7 @@ public class JobResultsStore implements Service {
 
     jobResults.invalidateAll();
     jobResults.cleanUp();
+    jobResultsIndexes.invalidateAll();
 
     // Closing open references
     Iterator<FinalizableReference> iterator = jobResultReferences.iterator();
@@ -314,5 +344,7 @@ public class JobResultsStore implements Service {
 
       ref.finalizeReferent();
     }
+
+    AutoCloseables.close(batchCache);
   }
 }
@@ -110,7 +110,8 @@ public interface JobsService extends Service {
 
 
   /**
-   * Get the number of jobs run sorted by job type given a date range
+   * Get the number of jobs run sorted by job type given a date range. The range may be widened to whole
+   * minutes.
    *
    * @param startDate Start date (inclusive)
    * @param endDate   End date (inclusive)
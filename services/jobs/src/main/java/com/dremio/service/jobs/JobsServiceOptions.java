@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.jobs;
+
+import java.util.concurrent.TimeUnit;
+
+import com.dremio.options.Options;
+import com.dremio.options.TypeValidators.BooleanValidator;
+import com.dremio.options.TypeValidators.PositiveLongValidator;
+import com.dremio.options.TypeValidators.RangeLongValidator;
+
+/**
+ * System options that affect the jobs service
+ */
+@Options
+public interface JobsServiceOptions {
+
+  // should results of repeated identical queries be served from the results of a previous job
+  BooleanValidator RESULTS_CACHE_ENABLED = new BooleanValidator("jobs.results.cache.enabled", false);
+  // how long a cached job result can be reused after the job completed (read when the jobs service starts)
+  PositiveLongValidator RESULTS_CACHE_TTL_SECONDS = new PositiveLongValidator("jobs.results.cache.ttl_seconds", Long.MAX_VALUE, TimeUnit.HOURS.toSeconds(1));
+  // total number of output records across all cached job results (read when the jobs service starts)
+  PositiveLongValidator RESULTS_CACHE_MAX_RECORDS = new PositiveLongValidator("jobs.results.cache.max_records", Long.MAX_VALUE, 10_000_000);
+  // memory used to cache hot record batches of job results, 0 to disable (read when the jobs service starts)
+  RangeLongValidator RESULTS_BATCH_CACHE_SIZE_BYTES = new RangeLongValidator("jobs.results.batch_cache.size_bytes", 0, Long.MAX_VALUE, 64 * 1024 * 1024);
+  // should profiles of old jobs be moved out of the KV store to the profile archive (read when the jobs service starts)
+  BooleanValidator PROFILES_ARCHIVE_ENABLED = new BooleanValidator("jobs.profiles.archive.enabled", false);
+  // age of the jobs whose profiles are moved to the profile archive
+  PositiveLongValidator PROFILES_ARCHIVE_AGE_IN_DAYS = new PositiveLongValidator("jobs.profiles.archive.age_days", Long.MAX_VALUE, 7);
+}
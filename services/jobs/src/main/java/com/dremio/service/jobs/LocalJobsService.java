@@ -127,7 +127,10 @@ import com.dremio.exec.server.SabotContext;
 import com.dremio.exec.store.dfs.FileSystemPlugin;
 import com.dremio.exec.store.easy.arrow.ArrowFileFormat;
 import com.dremio.exec.store.easy.arrow.ArrowFileMetadata;
+import com.dremio.exec.store.sys.ProfileRowStore;
+import com.dremio.exec.store.sys.ProfileRowStore.ProfileRowStoreCreator;
 import com.dremio.exec.store.sys.accel.AccelerationDetailsPopulator;
+import com.dremio.exec.util.ImpersonationUtil;
 import com.dremio.exec.work.AttemptId;
 import com.dremio.exec.work.foreman.ExecutionPlan;
 import com.dremio.exec.work.protector.ForemenTool;
@@ -141,12 +144,14 @@ import com.dremio.exec.work.user.LocalQueryExecutor;
 import com.dremio.exec.work.user.LocalUserUtil;
 import com.dremio.options.OptionManager;
 import com.dremio.proto.model.attempts.AttemptReason;
+import com.dremio.proto.model.profile.ProfileRows;
 import com.dremio.resource.ResourceSchedulingDecisionInfo;
 import com.dremio.sabot.op.sort.external.RecordBatchData;
 import com.dremio.sabot.rpc.user.QueryDataBatch;
 import com.dremio.sabot.rpc.user.UserSession;
 import com.dremio.service.BindingCreator;
 import com.dremio.service.job.proto.Acceleration;
+import com.dremio.service.job.proto.ArchivedProfile;
 import com.dremio.service.job.proto.ExtraInfo;
 import com.dremio.service.job.proto.JobAttempt;
 import com.dremio.service.job.proto.JobDetails;
@@ -154,11 +159,13 @@ import com.dremio.service.job.proto.JobId;
 import com.dremio.service.job.proto.JobInfo;
 import com.dremio.service.job.proto.JobResult;
 import com.dremio.service.job.proto.JobState;
+import com.dremio.service.job.proto.JobStats;
 import com.dremio.service.job.proto.JoinAnalysis;
 import com.dremio.service.job.proto.JoinInfo;
 import com.dremio.service.job.proto.ParentDatasetInfo;
 import com.dremio.service.job.proto.QueryType;
 import com.dremio.service.job.proto.ResourceSchedulingInfo;
+import com.dremio.service.jobs.ProfileArchive.ProfileArchiveIndexCreator;
 import com.dremio.service.jobs.metadata.QueryMetadata;
 import com.dremio.service.namespace.NamespaceKey;
 import com.dremio.service.namespace.NamespaceService;
@@ -201,6 +208,9 @@ public class LocalJobsService implements JobsService {
 
   private static final long ONE_DAY_IN_MILLIS = TimeUnit.DAYS.toMillis(1);
 
+  // job stats ranges are widened to whole minutes so that repeated requests share cached counts
+  private static final long JOB_STATS_GRANULARITY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
   public static final String JOBS_NAME = "jobs";
 
   public static final String PROFILES_NAME = "profiles";
@@ -227,10 +237,14 @@ public class LocalJobsService implements JobsService {
   private NodeEndpoint identity;
   private IndexedStore<JobId, JobResult> store;
   private KVStore<AttemptId, QueryProfile> profileStore;
+  private KVStore<String, ProfileRows> profileRowStore;
   private NamespaceService namespaceService;
   private String storageName;
   private JobResultsStore jobResultsStore;
+  private JobResultsCache jobResultsCache;
+  private ProfileArchive profileArchive;
   private Cancellable cleanupTask;
+  private Cancellable archiveTask;
 
   public LocalJobsService(
       final BindingCreator bindingCreator,
@@ -266,11 +280,17 @@ public class LocalJobsService implements JobsService {
     this.identity = JobsServiceUtil.toStuff(contextProvider.get().getEndpoint());
     this.store = kvStoreProvider.get().getStore(JobsStoreCreator.class);
     this.profileStore = kvStoreProvider.get().getStore(JobsProfileCreator.class);
+    this.profileRowStore = kvStoreProvider.get().getStore(ProfileRowStoreCreator.class);
     this.namespaceService = contextProvider.get().getNamespaceService(SystemUser.SYSTEM_USERNAME);
 
+    final OptionManager optionManager = contextProvider.get().getOptionManager();
     final FileSystemPlugin fileSystemPlugin = fileSystemPluginProvider.get();
     this.storageName = fileSystemPlugin.getName();
-    this.jobResultsStore = new JobResultsStore(fileSystemPlugin, store, allocator);
+    this.jobResultsStore = new JobResultsStore(fileSystemPlugin, store, allocator,
+        optionManager.getOption(JobsServiceOptions.RESULTS_BATCH_CACHE_SIZE_BYTES));
+    this.profileArchive = new ProfileArchive(fileSystemPlugin.getFS(ImpersonationUtil.getProcessUserName()),
+        fileSystemPlugin.getConfig().getPath(), profileStore,
+        kvStoreProvider.get().getStore(ProfileArchiveIndexCreator.class));
 
     if (isMaster) { // if Dremio process died, clean up
       setAbandonedJobsToFailedState(store);
@@ -279,7 +299,10 @@ public class LocalJobsService implements JobsService {
     // register to listen to query lifecycle
     bindingCreator.replace(QueryObserverFactory.class, new JobsObserverFactory());
 
-    final OptionManager optionManager = contextProvider.get().getOptionManager();
+    this.jobResultsCache = new JobResultsCache(
+        TimeUnit.SECONDS.toMillis(optionManager.getOption(JobsServiceOptions.RESULTS_CACHE_TTL_SECONDS)),
+        optionManager.getOption(JobsServiceOptions.RESULTS_CACHE_MAX_RECORDS));
+
     final long maxAgeInMillis = optionManager.getOption(ExecConstants.DEBUG_RESULTS_MAX_AGE_IN_MILLISECONDS);
     final long maxAgeInDays = optionManager.getOption(ExecConstants.RESULTS_MAX_AGE_IN_DAYS);
     final long jobResultsMaxAgeInMillis = (maxAgeInDays * ONE_DAY_IN_MILLIS) + maxAgeInMillis;
@@ -302,6 +325,14 @@ public class LocalJobsService implements JobsService {
         cleanupTask = schedulerService.get()
             .schedule(schedule, new CleanupTask());
       }
+
+      if (optionManager.getOption(JobsServiceOptions.PROFILES_ARCHIVE_ENABLED)) {
+        archiveTask = schedulerService.get()
+            .schedule(Schedule.Builder.everyDays(1)
+                .startingAt(Instant.now()
+                    .plus(DELAY_BEFORE_STARTING_CLEANUP_IN_MINUTES, ChronoUnit.MINUTES))
+                .build(), new ArchiveTask());
+      }
     }
 
     logger.info("JobsService is up");
@@ -340,6 +371,10 @@ public class LocalJobsService implements JobsService {
       cleanupTask.cancel(false);
       cleanupTask = null;
     }
+    if (archiveTask != null) {
+      archiveTask.cancel(false);
+      archiveTask = null;
+    }
     AutoCloseables.close(jobResultsStore, allocator);
     logger.info("Stopped JobsService");
   }
@@ -363,7 +398,7 @@ public class LocalJobsService implements JobsService {
     }
   }
 
-  private Job startJob(JobRequest jobRequest, JobStatusListener statusListener) {
+  private Job startJob(JobRequest jobRequest, JobStatusListener statusListener, String resultsFingerprint) {
     // (1) create job details
     final ExternalId externalId = ExternalIdHelper.generateExternalId();
     final JobId jobId = JobsServiceUtil.getExternalIdAsJobId(externalId);
@@ -400,7 +435,7 @@ public class LocalJobsService implements JobsService {
             .build();
 
     // (3) register listener
-    final QueryListener jobObserver = new QueryListener(job, statusListener);
+    final QueryListener jobObserver = new QueryListener(job, statusListener, resultsFingerprint);
     Preconditions.checkArgument(store.checkAndPut(job.getJobId(), null, toJobResult(job)),
         "Job had a duplicate jobId. " + job);
     runningJobs.put(jobId, jobObserver);
@@ -435,12 +470,54 @@ public class LocalJobsService implements JobsService {
   @Override
   public Job submitJob(JobRequest jobRequest, JobStatusListener statusListener) {
     checkNotNull(statusListener, "a status listener must be provided");
-    final Job job = startJob(jobRequest, statusListener);
+    // results of jobs are only cached and reused when the cache is enabled
+    final String resultsFingerprint =
+        contextProvider.get().getOptionManager().getOption(JobsServiceOptions.RESULTS_CACHE_ENABLED)
+            ? JobResultsCache.fingerprint(jobRequest) : null;
+    final Job cachedJob = getCachedJob(resultsFingerprint, statusListener);
+    if (cachedJob != null) {
+      logger.debug("Serving job from the results of job {}. Type: {} Sql: {}", cachedJob.getJobId().getId(),
+          jobRequest.getQueryType(), jobRequest.getSqlQuery());
+      return cachedJob;
+    }
+
+    final Job job = startJob(jobRequest, statusListener, resultsFingerprint);
     logger.debug("Submitted new job. Id: {} Type: {} Sql: {}", job.getJobId().getId(), jobRequest.getQueryType(),
         jobRequest.getSqlQuery());
     return job;
   }
 
+  /**
+   * Get a previously completed job whose results can be served for a new request with the given fingerprint.
+   *
+   * @param resultsFingerprint the request fingerprint, null if the cache is disabled or the request cannot be served
+   *                           from cache
+   * @param statusListener the status listener of the new request
+   * @return the completed job, or null if no results are available
+   */
+  private Job getCachedJob(String resultsFingerprint, JobStatusListener statusListener) {
+    if (resultsFingerprint == null) {
+      return null;
+    }
+
+    final Optional<JobId> cachedJobId = jobResultsCache.get(resultsFingerprint, namespaceService);
+    if (!cachedJobId.isPresent()) {
+      return null;
+    }
+
+    final JobId jobId = cachedJobId.get();
+    final JobResult jobResult = store.get(jobId);
+    if (jobResult == null || !jobResultsStore.jobOutputDirectoryExists(jobId)) {
+      // results were cleaned up since the job was cached
+      jobResultsCache.invalidate(resultsFingerprint);
+      return null;
+    }
+
+    statusListener.jobSubmitted(jobId);
+    statusListener.jobCompleted();
+    return new Job(jobId, jobResult, jobResultsStore);
+  }
+
   @Override
   public Job getJob(final JobId jobId) throws JobNotFoundException {
     QueryListener listener = runningJobs.get(jobId);
@@ -496,30 +573,32 @@ public class LocalJobsService implements JobsService {
   @Override
   public List<JobTypeStats> getJobStats(long startDate, long endDate) {
     final Map<JobTypeStats.Types, SearchQuery> conditions = Maps.newHashMap();
+    final SearchQuery startTimeRange = SearchQueryUtils.newRangeLong(JobIndexKeys.START_TIME.getIndexFieldName(),
+      floorToGranularity(startDate), ceilToGranularity(endDate), true, true);
 
     // UI
     conditions.put(JobTypeStats.Types.UI, SearchQueryUtils.and(
-      SearchQueryUtils.newRangeLong(JobIndexKeys.START_TIME.getIndexFieldName(), startDate, endDate, true, true),
+      startTimeRange,
       JobIndexKeys.UI_JOBS_FILTER));
 
     // External
     conditions.put(JobTypeStats.Types.EXTERNAL, SearchQueryUtils.and(
-      SearchQueryUtils.newRangeLong(JobIndexKeys.START_TIME.getIndexFieldName(), startDate, endDate, true, true),
+      startTimeRange,
       JobIndexKeys.EXTERNAL_JOBS_FILTER));
 
     // Acceleration
     conditions.put(JobTypeStats.Types.ACCELERATION, SearchQueryUtils.and(
-      SearchQueryUtils.newRangeLong(JobIndexKeys.START_TIME.getIndexFieldName(), startDate, endDate, true, true),
+      startTimeRange,
       JobIndexKeys.ACCELERATION_JOBS_FILTER));
 
     // Download
     conditions.put(JobTypeStats.Types.DOWNLOAD, SearchQueryUtils.and(
-      SearchQueryUtils.newRangeLong(JobIndexKeys.START_TIME.getIndexFieldName(), startDate, endDate, true, true),
+      startTimeRange,
       JobIndexKeys.DOWNLOAD_JOBS_FILTER));
 
     // Internal
     conditions.put(JobTypeStats.Types.INTERNAL, SearchQueryUtils.and(
-      SearchQueryUtils.newRangeLong(JobIndexKeys.START_TIME.getIndexFieldName(), startDate, endDate, true, true),
+      startTimeRange,
       JobIndexKeys.INTERNAL_JOBS_FILTER));
 
     List<Integer> counts = store.getCounts(conditions.values().toArray(new SearchQuery[conditions.size()]));
@@ -534,6 +613,18 @@ public class LocalJobsService implements JobsService {
     return stats;
   }
 
+  private static long floorToGranularity(long time) {
+    return time - Math.floorMod(time, JOB_STATS_GRANULARITY_MILLIS);
+  }
+
+  private static long ceilToGranularity(long time) {
+    final long floor = floorToGranularity(time);
+    if (floor > Long.MAX_VALUE - JOB_STATS_GRANULARITY_MILLIS) {
+      return Long.MAX_VALUE;
+    }
+    return floor + JOB_STATS_GRANULARITY_MILLIS - 1;
+  }
+
   @Override
   public Iterable<Job> getJobsForDataset(final NamespaceKey datasetPath, int limit){
     return getJobsForDataset(datasetPath, null, limit);
@@ -846,6 +937,7 @@ public class LocalJobsService implements JobsService {
     private final ExternalId externalId;
     private final UserResponseHandler responseHandler;
     private final JobStatusListener statusListener;
+    private final String resultsFingerprint;
     private final boolean isInternal;
     private final ExternalListenerManager listeners = new ExternalListenerManager();
     private final CountDownLatch completionLatch = new CountDownLatch(1);
@@ -858,16 +950,18 @@ public class LocalJobsService implements JobsService {
       externalId = JobsServiceUtil.getJobIdAsExternalId(job.getJobId());
       this.responseHandler = Preconditions.checkNotNull(connection, "handler cannot be null");
       this.statusListener = null;
+      this.resultsFingerprint = null;
       isInternal = false;
 
       setupJobData();
     }
 
-    private QueryListener(Job job, JobStatusListener statusListener) {
+    private QueryListener(Job job, JobStatusListener statusListener, String resultsFingerprint) {
       this.job = job;
       externalId = JobsServiceUtil.getJobIdAsExternalId(job.getJobId());
       this.responseHandler = null;
       this.statusListener = Preconditions.checkNotNull(statusListener, "statusListener cannot be null");
+      this.resultsFingerprint = resultsFingerprint;
       isInternal = true;
 
       setupJobData();
@@ -961,6 +1055,7 @@ public class LocalJobsService implements JobsService {
           switch (state) {
             case COMPLETED:
               this.statusListener.jobCompleted();
+              cacheResults();
               break;
 
             case CANCELED:
@@ -987,6 +1082,26 @@ public class LocalJobsService implements JobsService {
 
       logQuerySummary(job);
     }
+
+    private void cacheResults() {
+      if (resultsFingerprint == null) {
+        return;
+      }
+
+      // the cache is optional, failing to populate it must not affect the job
+      try {
+        final JobInfo jobInfo = job.getJobAttempt().getInfo();
+        if (!JobResultsCache.isReusable(jobInfo, attemptObserver.detailsPopulator.getFinalPrel())) {
+          return;
+        }
+
+        final JobStats stats = job.getJobAttempt().getStats();
+        final long recordCount = stats != null && stats.getOutputRecords() != null ? stats.getOutputRecords() : 0;
+        jobResultsCache.put(resultsFingerprint, job.getJobId(), jobInfo, recordCount, namespaceService);
+      } catch (Exception e) {
+        logger.warn("Unable to cache results of job {}", job.getJobId().getId(), e);
+      }
+    }
   }
 
   private void logQuerySummary(Job job) {
@@ -1447,6 +1562,7 @@ public class LocalJobsService implements JobsService {
       storeJob(job);
 
       profileStore.put(AttemptIdUtils.fromString(job.getJobAttempt().getAttemptId()), profile);
+      profileRowStore.put(job.getJobAttempt().getAttemptId(), ProfileRowStore.flatten(profile));
   }
 
   private boolean jobIsDone(JobAttempt config){
@@ -1466,12 +1582,12 @@ public class LocalJobsService implements JobsService {
     Job job = getJob(jobId);
     final AttemptId attemptId = new AttemptId(JobsServiceUtil.getJobIdAsExternalId(jobId), attempt);
     if(jobIsDone(job.getJobAttempt())){
-      return profileStore.get(attemptId);
+      return getStoredProfile(attemptId);
     }
 
     // Check if the profile for given attempt already exists. Even if the job is not done, it is possible that
     // profile exists for previous attempts
-    final QueryProfile queryProfile = profileStore.get(attemptId);
+    final QueryProfile queryProfile = getStoredProfile(attemptId);
     if (queryProfile != null) {
       return queryProfile;
     }
@@ -1492,6 +1608,17 @@ public class LocalJobsService implements JobsService {
     }
   }
 
+  /**
+   * Get the profile of a completed attempt from the profiles store, or from the profile archive if it was archived.
+   */
+  private QueryProfile getStoredProfile(AttemptId attemptId) {
+    final QueryProfile profile = profileStore.get(attemptId);
+    if (profile != null) {
+      return profile;
+    }
+    return profileArchive.get(attemptId);
+  }
+
   @Override
   public void cancel(String username, JobId jobId, String reason) throws JobException {
     final ForemenTool tool = this.foremenTool.get();
@@ -1578,7 +1705,8 @@ public class LocalJobsService implements JobsService {
     int profilesDeleted = 0;
     IndexedStore<JobId, JobResult> jobStore = provider.getStore(JobsStoreCreator.class);
     KVStore<AttemptId, QueryProfile> profileStore = provider.getStore(JobsProfileCreator.class);
-
+    KVStore<String, ProfileRows> profileRowStore = provider.getStore(ProfileRowStoreCreator.class);
+    KVStore<AttemptId, ArchivedProfile> profileArchiveIndex = provider.getStore(ProfileArchiveIndexCreator.class);
 
     final FindByCondition oldJobs = getOldJobsCondition(System.currentTimeMillis() - maxDays * 86_400_000);
     for(Entry<JobId, JobResult> entry : jobStore.find(oldJobs)) {
@@ -1588,7 +1716,11 @@ public class LocalJobsService implements JobsService {
       if(result.getAttemptsList() != null) {
         for(JobAttempt a : result.getAttemptsList()) {
           try {
-            profileStore.delete(AttemptIdUtils.fromString(a.getAttemptId()));
+            final AttemptId attemptId = AttemptIdUtils.fromString(a.getAttemptId());
+            profileStore.delete(attemptId);
+            // the archive segment is deleted once all its profiles are deleted, the next time profiles are archived
+            profileArchiveIndex.delete(attemptId);
+            profileRowStore.delete(a.getAttemptId());
             profilesDeleted++;
           } catch(Exception e) {
             // don't fail on miss.
@@ -1632,6 +1764,38 @@ public class LocalJobsService implements JobsService {
     }
   }
 
+  /**
+   * Moves the profiles of old jobs to the profile archive.
+   */
+  class ArchiveTask implements Runnable {
+
+    @Override
+    public void run() {
+      final long maxAgeInDays = contextProvider.get().getOptionManager()
+          .getOption(JobsServiceOptions.PROFILES_ARCHIVE_AGE_IN_DAYS);
+      final FindByCondition condition = getOldJobsCondition(System.currentTimeMillis() - maxAgeInDays * ONE_DAY_IN_MILLIS);
+      final Iterable<AttemptId> attemptIds = FluentIterable.from(store.find(condition))
+          .transformAndConcat(new Function<Entry<JobId, JobResult>, Iterable<AttemptId>>() {
+            @Override
+            public Iterable<AttemptId> apply(Entry<JobId, JobResult> entry) {
+              final List<AttemptId> ids = new ArrayList<>();
+              for (JobAttempt attempt : listNotNull(entry.getValue().getAttemptsList())) {
+                ids.add(AttemptIdUtils.fromString(attempt.getAttemptId()));
+              }
+              return ids;
+            }
+          });
+
+      try {
+        final int archived = profileArchive.archive(attemptIds);
+        final int deleted = profileArchive.deleteUnreferencedSegments();
+        logger.info("Archived {} job profiles, deleted {} unreferenced archive segments", archived, deleted);
+      } catch (IOException | RuntimeException e) {
+        logger.warn("Failure while archiving job profiles", e);
+      }
+    }
+  }
+
   /**
    * Get a condition that returns jobs that have either been completed before the cutoff time or that were started before the cutoff time and never ended.
    * @param cutOffTime The epoch millis cutoff time.
@@ -0,0 +1,234 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.jobs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import com.dremio.datastore.KVStore;
+import com.dremio.datastore.ProtostuffSerializer;
+import com.dremio.datastore.StoreBuildingFactory;
+import com.dremio.datastore.StoreCreationFunction;
+import com.dremio.exec.proto.UserBitShared.QueryProfile;
+import com.dremio.exec.work.AttemptId;
+import com.dremio.service.job.proto.ArchivedProfile;
+import com.dremio.service.jobs.LocalJobsService.AttemptIdSerializer;
+import com.google.common.base.Throwables;
+
+/**
+ * Archive of the profiles of old jobs.
+ *
+ * Profiles are moved out of the profiles store into append-only segment files on the distributed store, each profile
+ * compressed on its own so it can be read back without reading the rest of the segment. Only the location of each
+ * profile (segment, offset and length) is kept in the KV store, which keeps the KV store (and its compactions and
+ * backups) small when the job history is long.
+ *
+ * Segments are written once and never modified. They are deleted once none of their profiles are referenced anymore.
+ */
+public class ProfileArchive {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ProfileArchive.class);
+
+  public static final String INDEX_NAME = "profiles_archive";
+
+  private static final String ARCHIVE_DIRECTORY = ".profiles_archive";
+  private static final String SEGMENT_EXTENSION = ".segment";
+  // maximum number of profiles written to a segment
+  private static final int MAX_PROFILES_PER_SEGMENT = 10_000;
+  // unreferenced segments younger than this may still be written to, and are not deleted
+  private static final long SEGMENT_GRACE_PERIOD_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+  private final FileSystem fs;
+  private final Path location;
+  private final KVStore<AttemptId, QueryProfile> profileStore;
+  private final KVStore<AttemptId, ArchivedProfile> index;
+
+  public ProfileArchive(FileSystem fs, Path jobStoreLocation, KVStore<AttemptId, QueryProfile> profileStore,
+      KVStore<AttemptId, ArchivedProfile> index) {
+    this.fs = fs;
+    this.location = new Path(jobStoreLocation, ARCHIVE_DIRECTORY);
+    this.profileStore = profileStore;
+    this.index = index;
+  }
+
+  /**
+   * Moves the profiles of the given attempts to the archive. Attempts without a profile in the profiles store (not
+   * completed, or already archived) are ignored.
+   *
+   * @return number of profiles archived
+   */
+  public int archive(Iterable<AttemptId> attemptIds) throws IOException {
+    int archived = 0;
+    final List<AttemptId> batch = new ArrayList<>();
+    for (AttemptId attemptId : attemptIds) {
+      if (!profileStore.contains(attemptId)) {
+        continue;
+      }
+      batch.add(attemptId);
+      if (batch.size() == MAX_PROFILES_PER_SEGMENT) {
+        archived += writeSegment(batch);
+        batch.clear();
+      }
+    }
+    if (!batch.isEmpty()) {
+      archived += writeSegment(batch);
+    }
+    return archived;
+  }
+
+  private int writeSegment(List<AttemptId> attemptIds) throws IOException {
+    final String segment = System.currentTimeMillis() + "-" + UUID.randomUUID() + SEGMENT_EXTENSION;
+    final List<AttemptId> archivedIds = new ArrayList<>(attemptIds.size());
+    final List<ArchivedProfile> locations = new ArrayList<>(attemptIds.size());
+
+    fs.mkdirs(location);
+    try (FSDataOutputStream output = fs.create(new Path(location, segment), false)) {
+      for (AttemptId attemptId : attemptIds) {
+        final QueryProfile profile = profileStore.get(attemptId);
+        if (profile == null) {
+          continue;
+        }
+        final byte[] compressed = compress(profile.toByteArray());
+        locations.add(new ArchivedProfile(segment, output.getPos(), compressed.length));
+        archivedIds.add(attemptId);
+        output.write(compressed);
+      }
+      output.hsync();
+    }
+
+    // only drop the profiles from the profiles store once the segment is durable and indexed
+    for (int i = 0; i < archivedIds.size(); i++) {
+      index.put(archivedIds.get(i), locations.get(i));
+      profileStore.delete(archivedIds.get(i));
+    }
+
+    logger.debug("Archived {} profiles to segment {}", archivedIds.size(), segment);
+    return archivedIds.size();
+  }
+
+  /**
+   * @return the archived profile of the given attempt, or null if the profile is not in the archive
+   */
+  public QueryProfile get(AttemptId attemptId) {
+    final ArchivedProfile archived = index.get(attemptId);
+    if (archived == null) {
+      return null;
+    }
+
+    final byte[] compressed = new byte[archived.getLength()];
+    try (FSDataInputStream input = fs.open(new Path(location, archived.getSegment()))) {
+      input.readFully(archived.getOffset(), compressed);
+      return QueryProfile.PARSER.parseFrom(decompress(compressed));
+    } catch (IOException | DataFormatException e) {
+      throw Throwables.propagate(e);
+    }
+  }
+
+  /**
+   * Deletes the segments which don't contain any referenced profile anymore (all their jobs were deleted).
+   *
+   * @return number of segments deleted
+   */
+  public int deleteUnreferencedSegments() throws IOException {
+    if (!fs.exists(location)) {
+      return 0;
+    }
+
+    final Set<String> referenced = new HashSet<>();
+    for (Entry<AttemptId, ArchivedProfile> entry : index.find()) {
+      referenced.add(entry.getValue().getSegment());
+    }
+
+    int deleted = 0;
+    final long cutOff = System.currentTimeMillis() - SEGMENT_GRACE_PERIOD_MILLIS;
+    for (FileStatus status : fs.listStatus(location)) {
+      final String name = status.getPath().getName();
+      if (name.endsWith(SEGMENT_EXTENSION) && !referenced.contains(name) && status.getModificationTime() < cutOff) {
+        fs.delete(status.getPath(), false);
+        deleted++;
+      }
+    }
+    return deleted;
+  }
+
+  private static byte[] compress(byte[] bytes) throws IOException {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length / 4);
+    try (DeflaterOutputStream deflater = new DeflaterOutputStream(output, new Deflater(Deflater.BEST_SPEED))) {
+      deflater.write(bytes);
+    }
+    return output.toByteArray();
+  }
+
+  private static byte[] decompress(byte[] compressed) throws DataFormatException {
+    final Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(compressed);
+      final ByteArrayOutputStream output = new ByteArrayOutputStream(compressed.length * 4);
+      final byte[] buffer = new byte[64 * 1024];
+      while (!inflater.finished()) {
+        final int length = inflater.inflate(buffer);
+        if (length == 0 && inflater.needsInput()) {
+          throw new DataFormatException("Truncated archived profile");
+        }
+        output.write(buffer, 0, length);
+      }
+      return output.toByteArray();
+    } finally {
+      inflater.end();
+    }
+  }
+
+  /**
+   * Creator for the archived profiles index.
+   */
+  public static class ProfileArchiveIndexCreator
+      implements StoreCreationFunction<KVStore<AttemptId, ArchivedProfile>> {
+
+    @Override
+    public KVStore<AttemptId, ArchivedProfile> build(StoreBuildingFactory factory) {
+      return factory.<AttemptId, ArchivedProfile>newStore()
+          .name(INDEX_NAME)
+          .keySerializer(AttemptIdSerializer.class)
+          .valueSerializer(ArchivedProfileSerializer.class)
+          .build();
+    }
+  }
+
+  /**
+   * Serializer for {@link ArchivedProfile archived profile locations}.
+   */
+  public static final class ArchivedProfileSerializer extends ProtostuffSerializer<ArchivedProfile> {
+    public ArchivedProfileSerializer() {
+      super(ArchivedProfile.getSchema());
+    }
+  }
+}
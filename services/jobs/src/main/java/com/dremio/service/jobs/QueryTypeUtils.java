@@ -61,6 +61,18 @@ final class QueryTypeUtils {
     }
   }
 
+  /**
+   * If the results of this query can be served from the job results cache. Only query types whose callers consume
+   * the job data (and not the planning metadata) are eligible.
+   *
+   * @param queryType query type
+   * @return iff the query results can be cached
+   */
+  static boolean isResultsCacheable(final QueryType queryType) {
+    return queryType == QueryType.REST ||
+        queryType == QueryType.UI_INTERNAL_RUN;
+  }
+
   /**
    * If leaf limits should be enabled for this query.
    *
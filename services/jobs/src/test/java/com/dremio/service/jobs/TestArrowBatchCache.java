@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.jobs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.hadoop.fs.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Unit tests for {@link ArrowBatchCache}
+ */
+public class TestArrowBatchCache {
+  private static final int BATCH_SIZE = 32;
+  private static final Path DIR = new Path("/results/job1");
+  private static final Path FILE = new Path(DIR, "0_0_0.dremarrow1");
+
+  private BufferAllocator allocator;
+  private ArrowBatchCache cache;
+
+  @Before
+  public void setup() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    cache = new ArrowBatchCache(allocator, 3 * BATCH_SIZE);
+  }
+
+  @After
+  public void cleanup() throws Exception {
+    cache.close();
+    allocator.close();
+  }
+
+  private static byte[] batch(int value) {
+    final byte[] bytes = new byte[BATCH_SIZE];
+    Arrays.fill(bytes, (byte) value);
+    return bytes;
+  }
+
+  private static void assertBatch(int value, ArrowBuf buf) {
+    assertEquals(BATCH_SIZE, buf.writerIndex());
+    final byte[] bytes = new byte[BATCH_SIZE];
+    buf.getBytes(0, bytes);
+    assertTrue(Arrays.equals(batch(value), bytes));
+  }
+
+  @Test
+  public void testGetRetains() {
+    cache.put(FILE, 0, batch(1));
+    assertNull(cache.get(FILE, BATCH_SIZE));
+
+    final ArrowBuf buf = cache.get(FILE, 0);
+    assertNotNull(buf);
+    assertEquals(2, buf.refCnt());
+    assertBatch(1, buf);
+
+    buf.release();
+    assertEquals(1, buf.refCnt());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void testLeastRecentlyUsedEviction() {
+    cache.put(FILE, 0, batch(1));
+    cache.put(FILE, 1, batch(2));
+    cache.put(FILE, 2, batch(3));
+    assertEquals(3, cache.size());
+
+    // batch at offset 1 becomes the least recently used one
+    cache.get(FILE, 0).release();
+    cache.put(FILE, 3, batch(4));
+
+    assertEquals(3, cache.size());
+    assertFalse(cache.contains(FILE, 1));
+    assertTrue(cache.contains(FILE, 0));
+    assertTrue(cache.contains(FILE, 2));
+    assertTrue(cache.contains(FILE, 3));
+    assertEquals(3 * BATCH_SIZE, allocator.getAllocatedMemory());
+  }
+
+  @Test
+  public void testEvictionWhileReferenced() {
+    final ArrowBatchCache smallCache = new ArrowBatchCache(allocator, BATCH_SIZE);
+    try {
+      smallCache.put(FILE, 0, batch(1));
+      final ArrowBuf buf = smallCache.get(FILE, 0);
+
+      // evicts the first batch, whose memory is still used by the reader so the new one doesn't fit
+      smallCache.put(FILE, 1, batch(2));
+      assertEquals(0, smallCache.size());
+      assertBatch(1, buf);
+
+      buf.release();
+      smallCache.put(FILE, 1, batch(2));
+      assertTrue(smallCache.contains(FILE, 1));
+    } finally {
+      smallCache.close();
+    }
+  }
+
+  @Test
+  public void testIgnoreLargeBatches() {
+    cache.put(FILE, 0, new byte[3 * BATCH_SIZE + 1]);
+    cache.put(FILE, 1, new byte[0]);
+    assertEquals(0, cache.size());
+    assertEquals(0, allocator.getAllocatedMemory());
+  }
+
+  @Test
+  public void testInvalidate() {
+    final Path otherFile = new Path("/results/job2/0_0_0.dremarrow1");
+    cache.put(FILE, 0, batch(1));
+    cache.put(otherFile, 0, batch(2));
+
+    cache.invalidate(DIR);
+    assertFalse(cache.contains(FILE, 0));
+    assertTrue(cache.contains(otherFile, 0));
+    assertEquals(BATCH_SIZE, allocator.getAllocatedMemory());
+  }
+
+  @Test
+  public void testCloseWithOutstandingReferences() throws Exception {
+    cache.put(FILE, 0, batch(1));
+    cache.put(FILE, 1, batch(2));
+    final ArrowBuf buf = cache.get(FILE, 0);
+
+    // the cache allocator is left open while the batch is read
+    cache.close();
+    assertEquals(0, cache.size());
+    assertEquals(BATCH_SIZE, allocator.getAllocatedMemory());
+    assertBatch(1, buf);
+
+    buf.release();
+    assertEquals(0, allocator.getAllocatedMemory());
+  }
+}
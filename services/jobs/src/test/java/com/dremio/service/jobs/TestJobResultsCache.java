@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.jobs;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.calcite.rel.RelNode;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.service.job.proto.JobId;
+import com.dremio.service.job.proto.JobInfo;
+import com.dremio.service.job.proto.ParentDatasetInfo;
+import com.dremio.service.job.proto.QueryType;
+import com.dremio.service.namespace.NamespaceKey;
+import com.dremio.service.namespace.NamespaceNotFoundException;
+import com.dremio.service.namespace.NamespaceService;
+import com.dremio.service.namespace.dataset.proto.DatasetConfig;
+
+/**
+ * Unit tests for {@link JobResultsCache}
+ */
+public class TestJobResultsCache {
+  private static final NamespaceKey DATASET = new NamespaceKey(asList("src", "tbl"));
+
+  private NamespaceService namespaceService;
+  private JobResultsCache cache;
+
+  @Before
+  public void setup() throws Exception {
+    namespaceService = mock(NamespaceService.class);
+    when(namespaceService.getDataset(DATASET)).thenReturn(new DatasetConfig().setVersion(1L));
+    cache = new JobResultsCache(TimeUnit.HOURS.toMillis(1), 100);
+  }
+
+  private static JobRequest newRequest(String sql, String user, QueryType queryType) {
+    return JobRequest.newBuilder()
+        .setSqlQuery(new SqlQuery(sql, Collections.<String>emptyList(), user))
+        .setQueryType(queryType)
+        .build();
+  }
+
+  private static JobInfo newJobInfo(JobId jobId, NamespaceKey parent) {
+    return new JobInfo(jobId, "select * from src.tbl", "1", QueryType.REST)
+        .setParentsList(asList(new ParentDatasetInfo().setDatasetPathList(parent.getPathComponents())));
+  }
+
+  @Test
+  public void testFingerprint() {
+    final String fingerprint = JobResultsCache.fingerprint(newRequest("select * from src.tbl", "user1", QueryType.REST));
+    assertEquals(fingerprint, JobResultsCache.fingerprint(newRequest("select * from src.tbl", "user1", QueryType.REST)));
+    assertNotEquals(fingerprint, JobResultsCache.fingerprint(newRequest("select * from src.tbl", "user2", QueryType.REST)));
+    assertNotEquals(fingerprint, JobResultsCache.fingerprint(newRequest("select 1 from src.tbl", "user1", QueryType.REST)));
+
+    // only query types whose callers do not need the planning metadata are cacheable
+    assertNull(JobResultsCache.fingerprint(newRequest("select * from src.tbl", "user1", QueryType.UI_RUN)));
+    assertNull(JobResultsCache.fingerprint(newRequest("select * from src.tbl", "user1", QueryType.JDBC)));
+  }
+
+  @Test
+  public void testHitAndVersionInvalidation() throws Exception {
+    final JobId jobId = new JobId("job1");
+    cache.put("fp", jobId, newJobInfo(jobId, DATASET), 10, namespaceService);
+
+    assertEquals(jobId, cache.get("fp", namespaceService).get());
+    assertFalse(cache.get("other", namespaceService).isPresent());
+
+    // metadata refresh bumps the dataset version
+    when(namespaceService.getDataset(DATASET)).thenReturn(new DatasetConfig().setVersion(2L));
+    assertFalse(cache.get("fp", namespaceService).isPresent());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testDroppedDataset() throws Exception {
+    final JobId jobId = new JobId("job1");
+    cache.put("fp", jobId, newJobInfo(jobId, DATASET), 10, namespaceService);
+
+    when(namespaceService.getDataset(DATASET)).thenThrow(new NamespaceNotFoundException(DATASET, "dropped"));
+    assertFalse(cache.get("fp", namespaceService).isPresent());
+  }
+
+  @Test
+  public void testSizeEviction() throws Exception {
+    final JobId job1 = new JobId("job1");
+    final JobId job2 = new JobId("job2");
+    cache.put("fp1", job1, newJobInfo(job1, DATASET), 60, namespaceService);
+    cache.put("fp2", job2, newJobInfo(job2, DATASET), 60, namespaceService);
+
+    assertEquals(1, cache.size());
+    assertTrue(cache.get("fp2", namespaceService).isPresent());
+  }
+
+  @Test
+  public void testNotReusable() {
+    final JobId jobId = new JobId("job1");
+    assertFalse(JobResultsCache.isReusable(newJobInfo(jobId, DATASET), null));
+    assertFalse(JobResultsCache.isReusable(newJobInfo(jobId, new NamespaceKey(asList("sys", "jobs"))),
+        mock(RelNode.class)));
+    // parents without a path can't be checked for changes
+    assertFalse(JobResultsCache.isReusable(new JobInfo(jobId, "select * from src.tbl", "1", QueryType.REST)
+        .setParentsList(asList(new ParentDatasetInfo())), mock(RelNode.class)));
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.jobs;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.dremio.exec.store.easy.arrow.ArrowFileFooter;
+import com.dremio.exec.store.easy.arrow.ArrowFileMetadata;
+import com.dremio.exec.store.easy.arrow.ArrowRecordBatchSummary;
+
+/**
+ * Unit tests for {@link JobResultsIndex}
+ */
+public class TestJobResultsIndex {
+
+  private static ArrowFileMetadata newFile(String path, int... batchRecordCounts) {
+    final List<ArrowRecordBatchSummary> batches = new ArrayList<>();
+    long offset = 6;
+    long recordCount = 0;
+    for (int count : batchRecordCounts) {
+      batches.add(new ArrowRecordBatchSummary().setOffset(offset).setRecordCount(count));
+      offset += 100 * count + 10;
+      recordCount += count;
+    }
+
+    return new ArrowFileMetadata()
+        .setPath(path)
+        .setRecordCount(recordCount)
+        .setFooter(new ArrowFileFooter().setBatchList(batches));
+  }
+
+  @Test
+  public void testFindFile() {
+    final JobResultsIndex index = new JobResultsIndex(asList(
+        newFile("f0", 10, 20),
+        newFile("f1"),
+        newFile("f2", 0, 5),
+        newFile("f3", 7)));
+
+    assertEquals(4, index.getFileCount());
+    assertEquals(0, index.findFile(0));
+    assertEquals(0, index.findFile(29));
+    // empty file f1 is skipped
+    assertEquals(2, index.findFile(30));
+    assertEquals(2, index.findFile(34));
+    assertEquals(3, index.findFile(35));
+    assertEquals(3, index.findFile(41));
+    assertEquals(-1, index.findFile(42));
+    assertEquals(-1, index.findFile(-1));
+    assertEquals(35, index.getFileRecordOffset(3));
+  }
+
+  @Test
+  public void testFindBatch() {
+    final JobResultsIndex.FileIndex index = new JobResultsIndex.FileIndex(newFile("f0", 10, 0, 20, 5).getFooter());
+
+    // empty batches are not indexed
+    assertEquals(3, index.getBatchCount());
+    assertEquals(0, index.findBatch(0));
+    assertEquals(0, index.findBatch(9));
+    assertEquals(1, index.findBatch(10));
+    assertEquals(1, index.findBatch(29));
+    assertEquals(2, index.findBatch(30));
+    assertEquals(-1, index.findBatch(35));
+    assertEquals(30, index.getRecordOffset(2));
+    assertEquals(20, (int) index.getBatch(1).getRecordCount());
+  }
+
+  @Test
+  public void testEmpty() {
+    final JobResultsIndex index = new JobResultsIndex(asList(newFile("f0")));
+    assertEquals(-1, index.findFile(0));
+    assertEquals(-1, index.getFileIndex(0).findBatch(0));
+  }
+}
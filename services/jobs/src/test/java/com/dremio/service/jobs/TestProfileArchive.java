@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.jobs;
+
+import static com.dremio.test.DremioTest.CLASSPATH_SCAN_RESULT;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.dremio.datastore.KVStore;
+import com.dremio.datastore.LocalKVStoreProvider;
+import com.dremio.exec.proto.UserBitShared.ExternalId;
+import com.dremio.exec.proto.UserBitShared.QueryProfile;
+import com.dremio.exec.work.AttemptId;
+import com.dremio.service.jobs.LocalJobsService.JobsProfileCreator;
+import com.dremio.service.jobs.ProfileArchive.ProfileArchiveIndexCreator;
+
+/**
+ * Tests for {@link ProfileArchive}
+ */
+public class TestProfileArchive {
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private LocalKVStoreProvider storeProvider;
+  private KVStore<AttemptId, QueryProfile> profileStore;
+  private ProfileArchive archive;
+
+  @Before
+  public void setup() throws Exception {
+    storeProvider = new LocalKVStoreProvider(CLASSPATH_SCAN_RESULT, null, true, false);
+    storeProvider.start();
+    profileStore = storeProvider.getStore(JobsProfileCreator.class);
+    archive = new ProfileArchive(FileSystem.getLocal(new Configuration()), new Path(folder.getRoot().toURI()),
+        profileStore, storeProvider.getStore(ProfileArchiveIndexCreator.class));
+  }
+
+  @After
+  public void cleanup() throws Exception {
+    storeProvider.close();
+  }
+
+  private static AttemptId newAttemptId(long id) {
+    return new AttemptId(ExternalId.newBuilder().setPart1(id).setPart2(id).build(), 0);
+  }
+
+  private static QueryProfile newProfile(String query) {
+    return QueryProfile.newBuilder().setQuery(query).setUser("user").setStart(1L).setEnd(2L).build();
+  }
+
+  @Test
+  public void archiveAndGet() throws Exception {
+    final AttemptId archived1 = newAttemptId(1);
+    final AttemptId archived2 = newAttemptId(2);
+    final AttemptId notArchived = newAttemptId(3);
+    profileStore.put(archived1, newProfile("select 1"));
+    profileStore.put(archived2, newProfile("select 2"));
+    profileStore.put(notArchived, newProfile("select 3"));
+
+    // attempt 4 has no profile
+    assertEquals(2, archive.archive(asList(archived1, archived2, newAttemptId(4))));
+
+    assertFalse(profileStore.contains(archived1));
+    assertFalse(profileStore.contains(archived2));
+    assertEquals(newProfile("select 1"), archive.get(archived1));
+    assertEquals(newProfile("select 2"), archive.get(archived2));
+    assertNull(archive.get(notArchived));
+
+    // already archived
+    assertEquals(0, archive.archive(asList(archived1, archived2)));
+
+    // segments are still referenced
+    assertEquals(0, archive.deleteUnreferencedSegments());
+  }
+}
@@ -42,6 +42,9 @@ public final class Metrics {
   public static final String METRICS_JMX_OUTPUT_ENABLED = "dremio.metrics.jmx.enabled";
   public static final String METRICS_LOG_OUTPUT_ENABLED = "dremio.metrics.log.enabled";
   public static final String METRICS_LOG_OUTPUT_INTERVAL = "dremio.metrics.log.interval";
+  public static final String METRICS_HISTORY_ENABLED = "dremio.metrics.history.enabled";
+  public static final String METRICS_HISTORY_INTERVAL = "dremio.metrics.history.interval";
+  public static final String METRICS_HISTORY_CAPACITY = "dremio.metrics.history.capacity";
 
   private static final SabotConfig config = SabotConfig.create();
 
@@ -52,12 +55,14 @@ public final class Metrics {
     public static final MetricRegistry REGISTRY;
     private static final JmxReporter JMX_REPORTER;
     private static final Slf4jReporter LOG_REPORTER;
+    private static final MetricsHistory HISTORY;
 
     static {
       REGISTRY = new MetricRegistry();
       registerSysStats();
       JMX_REPORTER = getJmxReporter();
       LOG_REPORTER = getLogReporter();
+      HISTORY = getHistory();
     }
 
     private static void registerSysStats(){
@@ -89,6 +94,17 @@ public final class Metrics {
         return null;
       }
     }
+
+    private static MetricsHistory getHistory() {
+      if (config.getBoolean(METRICS_HISTORY_ENABLED)) {
+        MetricsHistory history = new MetricsHistory(getInstance(), config.getInt(METRICS_HISTORY_CAPACITY));
+        history.start(config.getInt(METRICS_HISTORY_INTERVAL), TimeUnit.SECONDS);
+
+        return history;
+      } else {
+        return null;
+      }
+    }
   }
 
   public static synchronized void registerGauge(String name, Gauge<?> metric) {
@@ -103,6 +119,13 @@ public final class Metrics {
     return RegistryHolder.REGISTRY;
   }
 
+  /**
+   * @return the sampled history of the metrics, or null if disabled
+   */
+  public static MetricsHistory getHistory() {
+    return RegistryHolder.HISTORY;
+  }
+
   private static MetricSet scoped(final String name, final MetricSet metricSet) {
     return new MetricSet() {
       @Override
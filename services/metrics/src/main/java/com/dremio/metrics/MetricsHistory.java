@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricFilter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.ScheduledReporter;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import com.google.common.base.Preconditions;
+
+/**
+ * Keeps a bounded in memory history of the metrics of the registry. Every interval, the reporter samples each metric
+ * and appends the value to a ring buffer per metric, overwriting the oldest sample once the buffer is full.
+ *
+ * Gauges are sampled as is (if numeric), counters by their count. Meters are sampled as "name.count" and
+ * "name.m1_rate", histograms and timers as "name.count" and "name.mean".
+ */
+public final class MetricsHistory extends ScheduledReporter {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(MetricsHistory.class);
+
+  private final int capacity;
+  private final ConcurrentMap<String, Series> series = new ConcurrentSkipListMap<>();
+
+  MetricsHistory(MetricRegistry registry, int capacity) {
+    super(registry, "metrics-history", MetricFilter.ALL, TimeUnit.SECONDS, TimeUnit.MILLISECONDS);
+    Preconditions.checkArgument(capacity > 0, "metrics history capacity must be positive");
+    this.capacity = capacity;
+  }
+
+  @Override
+  @SuppressWarnings("rawtypes")
+  public void report(SortedMap<String, Gauge> gauges, SortedMap<String, Counter> counters,
+      SortedMap<String, Histogram> histograms, SortedMap<String, Meter> meters, SortedMap<String, Timer> timers) {
+    final long timestamp = System.currentTimeMillis();
+
+    for (Map.Entry<String, Gauge> entry : gauges.entrySet()) {
+      final Object value;
+      try {
+        value = entry.getValue().getValue();
+      } catch (RuntimeException e) {
+        logger.debug("Failure while sampling gauge {}", entry.getKey(), e);
+        continue;
+      }
+      if (value instanceof Number) {
+        record(entry.getKey(), timestamp, ((Number) value).doubleValue());
+      }
+    }
+
+    for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+      record(entry.getKey(), timestamp, entry.getValue().getCount());
+    }
+
+    for (Map.Entry<String, Meter> entry : meters.entrySet()) {
+      final Meter meter = entry.getValue();
+      record(entry.getKey() + ".count", timestamp, meter.getCount());
+      record(entry.getKey() + ".m1_rate", timestamp, convertRate(meter.getOneMinuteRate()));
+    }
+
+    for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+      final Histogram histogram = entry.getValue();
+      record(entry.getKey() + ".count", timestamp, histogram.getCount());
+      record(entry.getKey() + ".mean", timestamp, histogram.getSnapshot().getMean());
+    }
+
+    for (Map.Entry<String, Timer> entry : timers.entrySet()) {
+      final Timer timer = entry.getValue();
+      final Snapshot snapshot = timer.getSnapshot();
+      record(entry.getKey() + ".count", timestamp, timer.getCount());
+      record(entry.getKey() + ".mean", timestamp, convertDuration(snapshot.getMean()));
+    }
+  }
+
+  private void record(String name, long timestamp, double value) {
+    Series s = series.get(name);
+    if (s == null) {
+      final Series newSeries = new Series(capacity);
+      s = series.putIfAbsent(name, newSeries);
+      if (s == null) {
+        s = newSeries;
+      }
+    }
+    s.add(timestamp, value);
+  }
+
+  /**
+   * @return all the samples in the history, ordered by metric name then timestamp
+   */
+  public List<Sample> getSamples() {
+    final List<Sample> samples = new ArrayList<>();
+    for (Map.Entry<String, Series> entry : series.entrySet()) {
+      entry.getValue().copyTo(entry.getKey(), samples);
+    }
+    return samples;
+  }
+
+  /**
+   * A metric value at a point in time.
+   */
+  public static final class Sample {
+    private final String name;
+    private final long timestamp;
+    private final double value;
+
+    Sample(String name, long timestamp, double value) {
+      this.name = name;
+      this.timestamp = timestamp;
+      this.value = value;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public long getTimestamp() {
+      return timestamp;
+    }
+
+    public double getValue() {
+      return value;
+    }
+  }
+
+  /**
+   * Fixed size ring buffer of the samples of a single metric.
+   */
+  private static final class Series {
+    private final long[] timestamps;
+    private final double[] values;
+    private int next;
+    private int size;
+
+    Series(int capacity) {
+      this.timestamps = new long[capacity];
+      this.values = new double[capacity];
+    }
+
+    synchronized void add(long timestamp, double value) {
+      timestamps[next] = timestamp;
+      values[next] = value;
+      next = (next + 1) % timestamps.length;
+      size = Math.min(size + 1, timestamps.length);
+    }
+
+    synchronized void copyTo(String name, List<Sample> samples) {
+      int index = (next - size + timestamps.length) % timestamps.length;
+      for (int i = 0; i < size; i++) {
+        samples.add(new Sample(name, timestamps[index], values[index]));
+        index = (index + 1) % timestamps.length;
+      }
+    }
+  }
+}
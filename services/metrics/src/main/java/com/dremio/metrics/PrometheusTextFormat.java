@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+
+/**
+ * Writes the current values of a metric registry in the Prometheus text exposition format.
+ *
+ * Gauges (numeric only) are exported as gauges, counters and meters as counters, histograms and timers as summaries
+ * with their median, 75th, 95th and 99th percentiles. Timer values are in seconds.
+ *
+ * Prometheus rejects a scrape that declares the same metric twice, so a metric whose sanitized name (or one of its
+ * series) was already written is skipped.
+ */
+public final class PrometheusTextFormat {
+
+  public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private static final Pattern INVALID_CHARACTERS = Pattern.compile("[^a-zA-Z0-9_:]");
+  private static final double[] QUANTILES = {0.5, 0.75, 0.95, 0.99};
+  private static final double NANOS_PER_SECOND = 1_000_000_000D;
+
+  private PrometheusTextFormat() {
+  }
+
+  @SuppressWarnings("rawtypes")
+  public static void write(MetricRegistry registry, Writer writer) throws IOException {
+    final Set<String> written = new HashSet<>();
+
+    for (Map.Entry<String, Gauge> entry : registry.getGauges().entrySet()) {
+      final Object value;
+      try {
+        value = entry.getValue().getValue();
+      } catch (RuntimeException e) {
+        continue;
+      }
+      final String name = sanitize(entry.getKey());
+      if (value instanceof Number && reserve(written, name)) {
+        writeType(writer, name, "gauge");
+        writeSample(writer, name, "", ((Number) value).doubleValue());
+      }
+    }
+
+    for (Map.Entry<String, Counter> entry : registry.getCounters().entrySet()) {
+      final String name = sanitize(entry.getKey());
+      if (!reserve(written, name)) {
+        continue;
+      }
+      writeType(writer, name, "counter");
+      writeSample(writer, name, "", entry.getValue().getCount());
+    }
+
+    for (Map.Entry<String, Meter> entry : registry.getMeters().entrySet()) {
+      final String name = sanitize(entry.getKey()) + "_total";
+      if (!reserve(written, name)) {
+        continue;
+      }
+      writeType(writer, name, "counter");
+      writeSample(writer, name, "", entry.getValue().getCount());
+    }
+
+    for (Map.Entry<String, Histogram> entry : registry.getHistograms().entrySet()) {
+      final String name = sanitize(entry.getKey());
+      if (!reserve(written, name, name + "_sum", name + "_count")) {
+        continue;
+      }
+      final Histogram histogram = entry.getValue();
+      writeSummary(writer, name, histogram.getSnapshot(), histogram.getCount(), 1D);
+    }
+
+    for (Map.Entry<String, Timer> entry : registry.getTimers().entrySet()) {
+      final String name = sanitize(entry.getKey());
+      if (!reserve(written, name, name + "_sum", name + "_count")) {
+        continue;
+      }
+      final Timer timer = entry.getValue();
+      writeSummary(writer, name, timer.getSnapshot(), timer.getCount(), NANOS_PER_SECOND);
+    }
+  }
+
+  private static void writeSummary(Writer writer, String name, Snapshot snapshot, long count, double divisor)
+      throws IOException {
+    writeType(writer, name, "summary");
+    for (double quantile : QUANTILES) {
+      writeSample(writer, name, "{quantile=\"" + quantile + "\"}", snapshot.getValue(quantile) / divisor);
+    }
+    writeSample(writer, name + "_sum", "", snapshot.getMean() * count / divisor);
+    writeSample(writer, name + "_count", "", count);
+  }
+
+  /**
+   * Records the series names of a metric, unless one of them was already written.
+   *
+   * @return true if the metric can be written
+   */
+  private static boolean reserve(Set<String> written, String... names) {
+    for (String name : names) {
+      if (written.contains(name)) {
+        return false;
+      }
+    }
+    for (String name : names) {
+      written.add(name);
+    }
+    return true;
+  }
+
+  private static void writeType(Writer writer, String name, String type) throws IOException {
+    writer.write("# TYPE ");
+    writer.write(name);
+    writer.write(' ');
+    writer.write(type);
+    writer.write('\n');
+  }
+
+  private static void writeSample(Writer writer, String name, String labels, double value) throws IOException {
+    writer.write(name);
+    writer.write(labels);
+    writer.write(' ');
+    writer.write(format(value));
+    writer.write('\n');
+  }
+
+  private static String format(double value) {
+    if (Double.isNaN(value)) {
+      return "NaN";
+    }
+    if (Double.isInfinite(value)) {
+      return value > 0 ? "+Inf" : "-Inf";
+    }
+    if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+      return Long.toString((long) value);
+    }
+    return Double.toString(value);
+  }
+
+  static String sanitize(String name) {
+    final String sanitized = INVALID_CHARACTERS.matcher(name).replaceAll("_");
+    return sanitized.isEmpty() || Character.isDigit(sanitized.charAt(0)) ? "_" + sanitized : sanitized;
+  }
+}
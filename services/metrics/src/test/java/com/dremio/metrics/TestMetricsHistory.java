@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.codahale.metrics.UniformReservoir;
+
+/**
+ * Unit tests for {@link MetricsHistory}
+ */
+@SuppressWarnings("rawtypes")
+public class TestMetricsHistory {
+  private final SortedMap<String, Gauge> gauges = new TreeMap<>();
+  private final SortedMap<String, Counter> counters = new TreeMap<>();
+  private final SortedMap<String, Histogram> histograms = new TreeMap<>();
+  private final SortedMap<String, Meter> meters = new TreeMap<>();
+  private final SortedMap<String, Timer> timers = new TreeMap<>();
+
+  private MetricsHistory history;
+
+  @Before
+  public void setup() {
+    history = new MetricsHistory(new MetricRegistry(), 3);
+  }
+
+  @After
+  public void cleanup() {
+    history.close();
+  }
+
+  private void report() {
+    history.report(gauges, counters, histograms, meters, timers);
+  }
+
+  @Test
+  public void testRetention() {
+    final Counter counter = new Counter();
+    counters.put("c", counter);
+
+    counter.inc();
+    report();
+    counter.inc();
+    report();
+
+    final List<MetricsHistory.Sample> samples = history.getSamples();
+    assertEquals(2, samples.size());
+    assertEquals("c", samples.get(0).getName());
+    assertEquals(1D, samples.get(0).getValue(), 0D);
+    assertEquals(2D, samples.get(1).getValue(), 0D);
+    assertTrue(samples.get(0).getTimestamp() <= samples.get(1).getTimestamp());
+  }
+
+  @Test
+  public void testEviction() {
+    final Counter counter = new Counter();
+    counters.put("c", counter);
+
+    for (int i = 0; i < 5; i++) {
+      counter.inc();
+      report();
+    }
+
+    // only the last 3 samples are kept, oldest first
+    final List<MetricsHistory.Sample> samples = history.getSamples();
+    assertEquals(3, samples.size());
+    assertEquals(3D, samples.get(0).getValue(), 0D);
+    assertEquals(4D, samples.get(1).getValue(), 0D);
+    assertEquals(5D, samples.get(2).getValue(), 0D);
+  }
+
+  @Test
+  public void testMetricTypes() {
+    gauges.put("g.numeric", new Gauge<Integer>() {
+      @Override
+      public Integer getValue() {
+        return 42;
+      }
+    });
+    gauges.put("g.string", new Gauge<String>() {
+      @Override
+      public String getValue() {
+        return "not a number";
+      }
+    });
+    gauges.put("g.failing", new Gauge<Integer>() {
+      @Override
+      public Integer getValue() {
+        throw new IllegalStateException();
+      }
+    });
+    final Meter meter = new Meter();
+    meter.mark(7);
+    meters.put("m", meter);
+    final Histogram histogram = new Histogram(new UniformReservoir());
+    histogram.update(10);
+    histogram.update(20);
+    histograms.put("h", histogram);
+    timers.put("t", new Timer());
+
+    report();
+
+    // ordered by name, non numeric and failing gauges are skipped
+    final List<MetricsHistory.Sample> samples = history.getSamples();
+    assertEquals(7, samples.size());
+    assertSample(samples.get(0), "g.numeric", 42D);
+    assertSample(samples.get(1), "h.count", 2D);
+    assertSample(samples.get(2), "h.mean", 15D);
+    assertSample(samples.get(3), "m.count", 7D);
+    assertEquals("m.m1_rate", samples.get(4).getName());
+    assertSample(samples.get(5), "t.count", 0D);
+    assertSample(samples.get(6), "t.mean", 0D);
+  }
+
+  private static void assertSample(MetricsHistory.Sample sample, String name, double value) {
+    assertEquals(name, sample.getName());
+    assertEquals(value, sample.getValue(), 0D);
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * Unit tests for {@link PrometheusTextFormat}
+ */
+public class TestPrometheusTextFormat {
+
+  private static String write(MetricRegistry registry) throws Exception {
+    final StringWriter writer = new StringWriter();
+    PrometheusTextFormat.write(registry, writer);
+    return writer.toString();
+  }
+
+  @Test
+  public void testSanitize() {
+    assertEquals("dremio_spill_bytes_written", PrometheusTextFormat.sanitize("dremio.spill.bytes_written"));
+    assertEquals("jobs_active_per_node_", PrometheusTextFormat.sanitize("jobs-active per node?"));
+    assertEquals("rpc:bytes_sent", PrometheusTextFormat.sanitize("rpc:bytes_sent"));
+    assertEquals("_1m_load", PrometheusTextFormat.sanitize("1m.load"));
+    assertEquals("_", PrometheusTextFormat.sanitize(""));
+  }
+
+  @Test
+  public void testGaugesAndCounters() throws Exception {
+    final MetricRegistry registry = new MetricRegistry();
+    registry.register("heap.used", new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return 1024L;
+      }
+    });
+    registry.register("ratio", new Gauge<Double>() {
+      @Override
+      public Double getValue() {
+        return 0.25;
+      }
+    });
+    registry.register("name", new Gauge<String>() {
+      @Override
+      public String getValue() {
+        return "not exported";
+      }
+    });
+    registry.counter("jobs.completed").inc(3);
+    registry.meter("rpc.messages").mark(5);
+
+    assertEquals(
+        "# TYPE heap_used gauge\n" +
+        "heap_used 1024\n" +
+        "# TYPE ratio gauge\n" +
+        "ratio 0.25\n" +
+        "# TYPE jobs_completed counter\n" +
+        "jobs_completed 3\n" +
+        "# TYPE rpc_messages_total counter\n" +
+        "rpc_messages_total 5\n",
+        write(registry));
+  }
+
+  @Test
+  public void testSpecialValues() throws Exception {
+    final MetricRegistry registry = new MetricRegistry();
+    registry.register("nan", new Gauge<Double>() {
+      @Override
+      public Double getValue() {
+        return Double.NaN;
+      }
+    });
+    registry.register("pos", new Gauge<Double>() {
+      @Override
+      public Double getValue() {
+        return Double.POSITIVE_INFINITY;
+      }
+    });
+    registry.register("neg", new Gauge<Double>() {
+      @Override
+      public Double getValue() {
+        return Double.NEGATIVE_INFINITY;
+      }
+    });
+
+    assertEquals(
+        "# TYPE nan gauge\n" +
+        "nan NaN\n" +
+        "# TYPE neg gauge\n" +
+        "neg -Inf\n" +
+        "# TYPE pos gauge\n" +
+        "pos +Inf\n",
+        write(registry));
+  }
+
+  @Test
+  public void testSummaries() throws Exception {
+    final MetricRegistry registry = new MetricRegistry();
+    registry.histogram("batch.size").update(8);
+    registry.timer("query.time").update(2, TimeUnit.SECONDS);
+
+    assertEquals(
+        "# TYPE batch_size summary\n" +
+        "batch_size{quantile=\"0.5\"} 8\n" +
+        "batch_size{quantile=\"0.75\"} 8\n" +
+        "batch_size{quantile=\"0.95\"} 8\n" +
+        "batch_size{quantile=\"0.99\"} 8\n" +
+        "batch_size_sum 8\n" +
+        "batch_size_count 1\n" +
+        "# TYPE query_time summary\n" +
+        "query_time{quantile=\"0.5\"} 2\n" +
+        "query_time{quantile=\"0.75\"} 2\n" +
+        "query_time{quantile=\"0.95\"} 2\n" +
+        "query_time{quantile=\"0.99\"} 2\n" +
+        "query_time_sum 2\n" +
+        "query_time_count 1\n",
+        write(registry));
+  }
+
+  @Test
+  public void testDuplicateNames() throws Exception {
+    final MetricRegistry registry = new MetricRegistry();
+    registry.counter("jobs.completed").inc(3);
+    registry.counter("jobs-completed").inc(4);
+    registry.counter("batch.size_count").inc(2);
+    registry.histogram("batch.size").update(8);
+    registry.meter("rpc.messages").mark(5);
+    registry.counter("rpc.messages_total").inc(6);
+
+    assertEquals(
+        "# TYPE batch_size_count counter\n" +
+        "batch_size_count 2\n" +
+        "# TYPE jobs_completed counter\n" +
+        "jobs_completed 4\n" +
+        "# TYPE rpc_messages_total counter\n" +
+        "rpc_messages_total 6\n",
+        write(registry));
+  }
+}